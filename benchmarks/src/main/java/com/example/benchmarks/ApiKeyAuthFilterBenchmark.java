@@ -0,0 +1,95 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.security.ApiKeyAuthFilter;
+import com.example.productos_service.security.ApiKeyProperties;
+import com.example.productos_service.security.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contención en ApiKeyAuthFilter con muchos hilos compartiendo una misma API Key (una sola cubeta de tokens).
+ * Por defecto con un hilo; la contención se ve con -t (-Djmh.args="ApiKeyAuthFilter -t 16", también con 4 y 64):
+ * <ul>
+ *   <li>cubetaConCuota: casi todas las peticiones se aceptan; cada una es un compareAndSet sobre el mismo long.</li>
+ *   <li>cubetaAgotada: la cuota ya está agotada; rechazar solo lee el estado.</li>
+ *   <li>filtroSinCuota / filtroConCuota: el filtro completo (comparación de la clave, cubeta y contadores).</li>
+ * </ul>
+ * Con GCProfiler, gc.alloc.rate.norm muestra que aceptar una petición no crea objetos (salvo los de la
+ * petición simulada, que se reutiliza).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyAuthFilterBenchmark {
+
+    private static final String CLAVE = "SuperSecretaAPIKeyParaMicroservicios2025!";
+    private static final FilterChain NADA = (request, response) -> { };
+
+    private TokenBucket cubetaConCuota;
+    private TokenBucket cubetaAgotada;
+    private ApiKeyAuthFilter filtroSinCuota;
+    private ApiKeyAuthFilter filtroConCuota;
+
+    @Setup
+    public void setUp() {
+        cubetaConCuota = new TokenBucket(1e9, 1_000_000); // Más de lo que da un solo long con CAS
+        cubetaAgotada = new TokenBucket(0.001, 1);
+        cubetaAgotada.intentar();
+        filtroSinCuota = new ApiKeyAuthFilter(properties(0), new SimpleMeterRegistry());
+        filtroConCuota = new ApiKeyAuthFilter(properties(1e9), new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Peticion {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/api/productos/1");
+            request.addHeader("X-API-Key", CLAVE);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public long cubetaConCuota() {
+        return cubetaConCuota.intentar();
+    }
+
+    @Benchmark
+    public long cubetaAgotada() {
+        return cubetaAgotada.intentar();
+    }
+
+    @Benchmark
+    public int filtroSinCuota(Peticion peticion) throws Exception {
+        // doFilter de OncePerRequestFilter marca la petición como filtrada; se limpia para poder reutilizarla
+        peticion.request.clearAttributes();
+        filtroSinCuota.doFilter(peticion.request, peticion.response, NADA);
+        return peticion.response.getStatus();
+    }
+
+    @Benchmark
+    public int filtroConCuota(Peticion peticion) throws Exception {
+        peticion.request.clearAttributes();
+        filtroConCuota.doFilter(peticion.request, peticion.response, NADA);
+        return peticion.response.getStatus();
+    }
+
+    private static ApiKeyProperties properties(double peticionesPorSegundo) {
+        ApiKeyProperties properties = new ApiKeyProperties();
+        properties.setApiKey(CLAVE);
+        properties.getRateLimit().setRatePerSecond(peticionesPorSegundo);
+        properties.getRateLimit().setBurst(1_000_000);
+        return properties;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks: acepta los mismos argumentos que JMH y, si no se indican otros, añade
+ * el perfil de asignaciones (-prof gc: bytes asignados por operación y recolecciones) y guarda los resultados
+ * en JSON en jmh-result.json (dentro de target/ al lanzarlo con el perfil benchmarks de Maven).
+ */
+public class BenchmarkRunner {
+
+    public static final String RESULTADOS = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats()) {
+            Main.main(args); // Ayuda y listados tal cual los muestra JMH
+            return;
+        }
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(cli);
+        if (cli.getProfilers().isEmpty()) {
+            opciones.addProfiler(GCProfiler.class);
+        }
+        if (!cli.getResultFormat().hasValue()) {
+            opciones.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            opciones.result(RESULTADOS);
+        }
+        new Runner(opciones.build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.client.ProductoServiceClient;
+import com.example.inventario_service.client.ProductoServiceClientProperties;
+import com.example.inventario_service.jsonapi.InventarioJsonApi;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.model.ProductoResponse;
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioHedging;
+import com.example.productos_service.client.InventarioResilience;
+import com.example.productos_service.client.InventarioServiceClient;
+import com.example.productos_service.client.model.InventarioResponse;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida y vuelta de los clientes entre servicios contra un servidor HTTP local (com.sun.net.httpserver) que
+ * responde con los bytes que devolverían los controladores reales, en Smile o JSON según Accept:
+ * InventarioServiceClient (productos-service → GET /api/inventario/{productoId}, con circuit breaker y
+ * bulkhead) y ProductoServiceClient (inventario-service → GET /api/productos/{id}, sin caché ni lotes).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientRoundTripBenchmark {
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private ConnectionProvider conexiones;
+    private InventarioServiceClient inventarioClient;
+    private ProductoServiceClient productoClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+        JsonApiHttpMessageConverter productosConverter = new JsonApiHttpMessageConverter(json, smile);
+        com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter inventarioConverter =
+                new com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter(json, smile);
+        JsonApiDocument producto = JsonApiDocument.of(ProductoJsonApi.INSTANCE, Datos.productos(42).get(41));
+        com.example.inventario_service.jsonapi.JsonApiDocument inventario =
+                com.example.inventario_service.jsonapi.JsonApiDocument.of(InventarioJsonApi.INSTANCE, new Inventario(7L, 42L, 150));
+
+        // Sin Nagle: cabeceras y cuerpo salen en escrituras separadas y el ACK retardado añadiría decenas de ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        servidor.createContext("/api/productos/", new Respuesta(
+                bytes(productosConverter, producto, MediaType.APPLICATION_JSON), bytes(productosConverter, producto, JsonApiHttpMessageConverter.APPLICATION_SMILE))::enviar);
+        servidor.createContext("/api/inventario/", new Respuesta(
+                bytes(inventarioConverter, inventario, MediaType.APPLICATION_JSON), bytes(inventarioConverter, inventario, JsonApiHttpMessageConverter.APPLICATION_SMILE))::enviar);
+        hilosServidor = Executors.newFixedThreadPool(4);
+        servidor.setExecutor(hilosServidor);
+        servidor.start();
+        String base = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InventarioClientProperties inventarioProperties = new InventarioClientProperties();
+        inventarioProperties.setUrl(base + "/api/inventario");
+        conexiones = ConnectionProvider.builder("benchmark-inventario")
+                .maxConnections(inventarioProperties.getPool().getMaxConnections())
+                .build();
+        inventarioClient = new InventarioServiceClient(WebClient.builder(), inventarioProperties, conexiones,
+                new InventarioResilience(inventarioProperties, meterRegistry), new InventarioHedging(inventarioProperties, meterRegistry));
+
+        ProductoServiceClientProperties productoProperties = new ProductoServiceClientProperties();
+        productoProperties.setUrl(base);
+        productoProperties.getCache().setEnabled(false); // Cada invocación hace la petición
+        productoClient = new ProductoServiceClient(WebClient.builder(), productoProperties);
+        Datos.inyectar(productoClient, "apiKey", "benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        conexiones.dispose();
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    @Benchmark
+    public InventarioResponse inventarioDesdeProductos() {
+        return inventarioClient.obtenerInventarioPorProductoId(42L).block();
+    }
+
+    @Benchmark
+    public ProductoResponse productoDesdeInventario() {
+        return productoClient.getProductoById(42L).block();
+    }
+
+    private static <T> byte[] bytes(HttpMessageConverter<T> convertidor, T documento, MediaType tipo) throws IOException {
+        SalidaHttp salida = new SalidaHttp();
+        salida.escribir(convertidor, documento, tipo);
+        return salida.contenido();
+    }
+
+    // Responde siempre el mismo documento, en Smile si el cliente lo acepta
+    private record Respuesta(byte[] json, byte[] smile) {
+
+        void enviar(HttpExchange intercambio) throws IOException {
+            String accept = intercambio.getRequestHeaders().getFirst(HttpHeaders.ACCEPT);
+            boolean enSmile = accept != null && accept.contains(JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE);
+            byte[] cuerpo = enSmile ? smile : json;
+            intercambio.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE,
+                    enSmile ? JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            intercambio.getRequestBody().readAllBytes();
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream cuerpoRespuesta = intercambio.getResponseBody()) {
+                cuerpoRespuesta.write(cuerpo);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.model.Inventario;
+import com.example.productos_service.model.Producto;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Datos comunes a los benchmarks (sin base de datos ni contexto de Spring)
+final class Datos {
+
+    private Datos() {
+    }
+
+    static List<Producto> productos(int cantidad) {
+        List<Producto> productos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Producto producto = new Producto("Producto " + i, "Descripción del producto número " + i + " del catálogo",
+                    BigDecimal.valueOf(1_000 + i * 37L, 2));
+            producto.setId((long) i);
+            productos.add(producto);
+        }
+        return productos;
+    }
+
+    static List<Inventario> inventarios(int cantidad) {
+        List<Inventario> inventarios = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++) {
+            inventarios.add(new Inventario(i, i, 100 + (int) i));
+        }
+        return inventarios;
+    }
+
+    // Los beans usan inyección por campo: se rellenan igual que lo haría Spring
+    static void inyectar(Object destino, String campo, Object valor) {
+        Field field = ReflectionUtils.findField(destino.getClass(), campo);
+        if (field == null) {
+            throw new IllegalArgumentException(destino.getClass().getSimpleName() + " no tiene el campo " + campo);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, destino, valor);
+    }
+}
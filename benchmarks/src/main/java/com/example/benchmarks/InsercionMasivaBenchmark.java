@@ -0,0 +1,172 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.model.Producto;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Filas por segundo al insertar lotes grandes (INSERCIONES filas por transacción, con flush y clear cada
+ * LOTE, como un proceso por lotes) en PostgreSQL con Hibernate, según cómo se generan los IDs:
+ * <ul>
+ *     <li>identity: como antes, GenerationType.IDENTITY; Hibernate ejecuta cada INSERT en el acto para leer
+ *     el ID, así que no hay lotes JDBC aunque se configuren.</li>
+ *     <li>pooled: secuencia por bloques (como Producto e Inventario ahora), sin lotes JDBC.</li>
+ *     <li>pooled-batch: lo anterior con hibernate.jdbc.batch_size, order_inserts y reWriteBatchedInserts,
+ *     la configuración de application.yml.</li>
+ * </ul>
+ * Necesita la base de datos de docker-compose (docker-compose up -d productos-db) o la indicada con
+ * -Dbenchmark.jdbc-url, -Dbenchmark.jdbc-user y -Dbenchmark.jdbc-password. Las tablas se crean y se
+ * borran en el esquema ESQUEMA, aparte de las del servicio.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsercionMasivaBenchmark {
+
+    private static final int INSERCIONES = 5_000;
+    private static final int LOTE = Producto.ID_ALLOCATION_SIZE;
+    private static final String ESQUEMA = "jmh_insercion";
+
+    @Param({"identity", "pooled", "pooled-batch"})
+    public String ids;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private IntFunction<Object> fila;
+    private String tabla;
+
+    @Setup
+    public void setUp() throws SQLException {
+        boolean lotes = ids.equals("pooled-batch");
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/productos_db");
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(lotes ? url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true" : url);
+        dataSource.setUsername(System.getProperty("benchmark.jdbc-user", "postgres"));
+        dataSource.setPassword(System.getProperty("benchmark.jdbc-password", "sasa"));
+        dataSource.setMaximumPoolSize(2);
+        ejecutar("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA);
+
+        Class<?> entidad = ids.equals("identity") ? ProductoIdentity.class : ProductoPooled.class;
+        tabla = ESQUEMA + "." + entidad.getAnnotation(Table.class).name();
+        fila = ids.equals("identity") ? ProductoIdentity::new : ProductoPooled::new;
+        Configuration configuracion = new Configuration()
+                .addAnnotatedClass(entidad)
+                .setProperty(AvailableSettings.DEFAULT_SCHEMA, ESQUEMA)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, lotes ? String.valueOf(LOTE) : "1")
+                .setProperty(AvailableSettings.ORDER_INSERTS, String.valueOf(lotes))
+                .setProperty(AvailableSettings.ORDER_UPDATES, String.valueOf(lotes));
+        configuracion.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        sessionFactory = configuracion.buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void vaciar() throws SQLException {
+        ejecutar("TRUNCATE TABLE " + tabla);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        ejecutar("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERCIONES)
+    public void insertar() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaccion = session.beginTransaction();
+            for (int i = 0; i < INSERCIONES; i++) {
+                session.persist(fila.apply(i));
+                if ((i + 1) % LOTE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaccion.commit();
+        }
+    }
+
+    private void ejecutar(String sql) throws SQLException {
+        try (Connection conexion = dataSource.getConnection(); Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(sql);
+        }
+    }
+
+    // Mismas columnas que productos; solo cambia cómo se genera el ID
+    @Entity
+    @Table(name = "productos_identity")
+    public static class ProductoIdentity {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String nombre;
+        String descripcion;
+        BigDecimal precio;
+
+        public ProductoIdentity() {
+        }
+
+        ProductoIdentity(int i) {
+            nombre = "Producto " + i;
+            descripcion = "Alta masiva " + i;
+            precio = BigDecimal.valueOf(10 + i % 90, 0);
+        }
+    }
+
+    @Entity
+    @Table(name = "productos_pooled")
+    public static class ProductoPooled {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_pooled_id_seq")
+        @SequenceGenerator(name = "productos_pooled_id_seq", sequenceName = "productos_pooled_id_seq", allocationSize = Producto.ID_ALLOCATION_SIZE)
+        Long id;
+        String nombre;
+        String descripcion;
+        BigDecimal precio;
+
+        public ProductoPooled() {
+        }
+
+        ProductoPooled(int i) {
+            nombre = "Producto " + i;
+            descripcion = "Alta masiva " + i;
+            precio = BigDecimal.valueOf(10 + i % 90, 0);
+        }
+    }
+}
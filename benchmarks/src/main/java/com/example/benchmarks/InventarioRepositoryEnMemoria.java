@@ -0,0 +1,257 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * InventarioRepository sobre un ConcurrentHashMap por productoId, sin base de datos ni proxies: el benchmark
+ * mide solo el código del servicio. Como las entidades gestionadas por JPA, las que devuelve son las mismas
+ * que guarda, y modificarlas las modifica en el almacén. Las proyecciones devuelven la entidad completa.
+ */
+class InventarioRepositoryEnMemoria implements InventarioRepository {
+
+    private final Map<Long, Inventario> porProducto = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Inventario> findByProductoId(Long id) {
+        return Optional.ofNullable(porProducto.get(id));
+    }
+
+    @Override
+    public List<Long> findProductoIdsGreaterThan(Long desde, Pageable pageable) {
+        Stream<Long> ids = porProducto.keySet().stream().filter(productoId -> productoId > desde).sorted();
+        return (pageable.isPaged() ? ids.limit(pageable.getPageSize()) : ids).toList();
+    }
+
+    @Override
+    public List<Inventario> findByProductoIdIn(Collection<Long> productoIds) {
+        return productoIds.stream().map(porProducto::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Optional<Inventario> findProjectedByProductoId(Long productoId, Collection<String> atributos) {
+        return findByProductoId(productoId);
+    }
+
+    @Override
+    public List<Inventario> findAllProjected(Collection<String> atributos) {
+        return findAll();
+    }
+
+    @Override
+    public <S extends Inventario> S save(S inventario) {
+        porProducto.put(inventario.getProductoId(), inventario);
+        return inventario;
+    }
+
+    @Override
+    public <S extends Inventario> List<S> saveAll(Iterable<S> inventarios) {
+        List<S> guardados = new ArrayList<>();
+        inventarios.forEach(inventario -> guardados.add(save(inventario)));
+        return guardados;
+    }
+
+    @Override
+    public <S extends Inventario> S saveAndFlush(S inventario) {
+        return save(inventario);
+    }
+
+    @Override
+    public <S extends Inventario> List<S> saveAllAndFlush(Iterable<S> inventarios) {
+        return saveAll(inventarios);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<Inventario> findById(Long id) {
+        return porProducto.values().stream().filter(inventario -> id.equals(inventario.getId())).findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<Inventario> findAll() {
+        return List.copyOf(porProducto.values());
+    }
+
+    @Override
+    public List<Inventario> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).map(this::findById).flatMap(Optional::stream).toList();
+    }
+
+    @Override
+    public List<Inventario> findAll(Sort sort) {
+        return porProducto.values().stream().sorted(orden(sort)).toList();
+    }
+
+    @Override
+    public Page<Inventario> findAll(Pageable pageable) {
+        return pagina(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public long count() {
+        return porProducto.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        findById(id).ifPresent(this::delete);
+    }
+
+    @Override
+    public void delete(Inventario inventario) {
+        porProducto.remove(inventario.getProductoId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Inventario> inventarios) {
+        inventarios.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        porProducto.clear();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Inventario> inventarios) {
+        deleteAll(inventarios);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Inventario getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Inventario getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Inventario getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new NoSuchElementException("Inventario con ID " + id + " no encontrado"));
+    }
+
+    // Consultas por ejemplo con el ExampleMatcher por defecto: coinciden los atributos no nulos de la sonda
+
+    @Override
+    public <S extends Inventario> Optional<S> findOne(Example<S> example) {
+        return this.<S>filtrar(example).findFirst();
+    }
+
+    @Override
+    public <S extends Inventario> List<S> findAll(Example<S> example) {
+        return this.<S>filtrar(example).toList();
+    }
+
+    @Override
+    public <S extends Inventario> List<S> findAll(Example<S> example, Sort sort) {
+        return this.<S>filtrar(example).sorted(orden(sort)).toList();
+    }
+
+    @Override
+    public <S extends Inventario> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return pagina(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends Inventario> long count(Example<S> example) {
+        return filtrar(example).count();
+    }
+
+    @Override
+    public <S extends Inventario> boolean exists(Example<S> example) {
+        return filtrar(example).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends Inventario, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> consulta) {
+        throw new UnsupportedOperationException("FluentQuery no está disponible en memoria");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends Inventario> Stream<S> filtrar(Example<S> example) {
+        Inventario sonda = example.getProbe();
+        Predicate<Inventario> coincide = inventario -> igualSiNoNulo(sonda.getId(), inventario.getId())
+                && igualSiNoNulo(sonda.getProductoId(), inventario.getProductoId())
+                && igualSiNoNulo(sonda.getCantidad(), inventario.getCantidad());
+        return porProducto.values().stream().filter(coincide).map(inventario -> (S) inventario);
+    }
+
+    private static boolean igualSiNoNulo(Object esperado, Object valor) {
+        return esperado == null || esperado.equals(valor);
+    }
+
+    private static Comparator<Inventario> orden(Sort sort) {
+        Comparator<Inventario> orden = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Inventario> porAtributo = Comparator.comparing(atributo(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            orden = orden.thenComparing(order.isAscending() ? porAtributo : porAtributo.reversed());
+        }
+        return orden;
+    }
+
+    private static Function<Inventario, Long> atributo(String nombre) {
+        return switch (nombre) {
+            case "id" -> Inventario::getId;
+            case "productoId" -> Inventario::getProductoId;
+            case "cantidad" -> inventario -> inventario.getCantidad() != null ? inventario.getCantidad().longValue() : null;
+            default -> throw new IllegalArgumentException("Inventario no tiene el atributo " + nombre);
+        };
+    }
+
+    private static <T> Page<T> pagina(List<T> todos, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(todos);
+        }
+        int desde = (int) Math.min(pageable.getOffset(), todos.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), todos.size());
+        return new PageImpl<>(todos.subList(desde, hasta), pageable, todos.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.service.InventarioService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * InventarioService sobre una lista en memoria, para medir los controladores sin base de datos ni proxies.
+ * Los listados devuelven siempre la misma lista y las entidades completas aunque se pidan solo algunos
+ * atributos. No es seguro entre hilos: los benchmarks que lo usan escriben solo al prepararse.
+ */
+class InventarioServiceEnMemoria implements InventarioService {
+
+    private final List<Inventario> inventarios = new ArrayList<>();
+    private final Map<Long, Inventario> porProducto = new HashMap<>();
+
+    InventarioServiceEnMemoria(List<Inventario> inventarios) {
+        inventarios.forEach(this::saveInventario);
+    }
+
+    @Override
+    public Inventario saveInventario(Inventario inventario) {
+        Inventario existente = porProducto.get(inventario.getProductoId());
+        if (existente != null) {
+            existente.setCantidad(inventario.getCantidad());
+            return existente;
+        }
+        inventarios.add(inventario);
+        porProducto.put(inventario.getProductoId(), inventario);
+        return inventario;
+    }
+
+    @Override
+    public Iterable<Inventario> getAllInventario() {
+        return inventarios;
+    }
+
+    @Override
+    public Iterable<Inventario> getAllInventario(Set<String> atributos) {
+        return inventarios;
+    }
+
+    @Override
+    public Optional<Inventario> getInventarioByProductoId(Long productoId) {
+        return Optional.ofNullable(porProducto.get(productoId));
+    }
+
+    @Override
+    public Optional<Inventario> getInventarioByProductoId(Long productoId, Set<String> atributos) {
+        return getInventarioByProductoId(productoId);
+    }
+
+    @Override
+    public Inventario reduceStock(Long productoId, Integer cantidad) {
+        Inventario inventario = porProducto.get(productoId);
+        if (inventario == null) {
+            throw new IllegalArgumentException("Producto con ID " + productoId + " no encontrado en el inventario.");
+        }
+        if (inventario.getCantidad() < cantidad) {
+            throw new IllegalArgumentException("No hay suficiente stock para el producto " + productoId + ". Stock actual: "
+                    + inventario.getCantidad() + ", Solicitado: " + cantidad);
+        }
+        inventario.setCantidad(inventario.getCantidad() - cantidad);
+        return inventario;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.benchmarks;
+
+import com.example.common.jfr.EventoMedido;
+import com.example.inventario_service.jfr.ReduceStockEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de un evento JFR propio sin grabación activa (el caso normal en producción), frente a crear y
+ * rellenar un objeto equivalente. Sin una grabación que lo habilite el JIT elimina begin/commit y el
+ * evento cuesta lo mismo que el objeto.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JfrEventoBenchmark {
+
+    private long productoId;
+
+    @Benchmark
+    public long objetoEquivalente() {
+        Campos campos = new Campos();
+        campos.productoId = ++productoId;
+        campos.resultado = EventoMedido.OK;
+        return campos.productoId;
+    }
+
+    @Benchmark
+    public long eventoDeshabilitado() {
+        ReduceStockEvent evento = new ReduceStockEvent();
+        evento.begin();
+        evento.productoId = ++productoId;
+        evento.resultado = EventoMedido.OK;
+        evento.commit();
+        return evento.productoId;
+    }
+
+    private static final class Campos {
+        long productoId;
+        String resultado;
+    }
+}
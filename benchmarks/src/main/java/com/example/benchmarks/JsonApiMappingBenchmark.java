@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.controller.InventarioController;
+import com.example.inventario_service.service.InventarioService;
+import com.example.inventario_service.workload.WorkloadExecutor;
+import com.example.inventario_service.workload.WorkloadProperties;
+import com.example.productos_service.controller.ProductoController;
+import com.example.productos_service.service.ProductoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo JSON:API de los controladores: ProductoController e InventarioController sobre servicios en memoria
+ * (ProductoServiceEnMemoria, InventarioServiceEnMemoria), desde la llamada al método del controlador hasta
+ * los bytes que escribe JsonApiHttpMessageConverter (JSON para clientes externos, Smile entre servicios).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonApiMappingBenchmark {
+
+    private static final MediaType SMILE = com.example.productos_service.jsonapi.JsonApiHttpMessageConverter.APPLICATION_SMILE;
+
+    private ProductoController productoController;
+    private InventarioController inventarioController;
+    private com.example.productos_service.jsonapi.JsonApiHttpMessageConverter productosConverter;
+    private com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter inventarioConverter;
+    private final Pageable pagina = PageRequest.of(0, 10, Sort.by("nombre")); // Valores por defecto de GET /api/productos
+
+    @Setup
+    public void setUp() {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+        productosConverter = new com.example.productos_service.jsonapi.JsonApiHttpMessageConverter(json, smile);
+        inventarioConverter = new com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter(json, smile);
+
+        ProductoService productoService = new ProductoServiceEnMemoria(Datos.productos(1_000));
+        productoController = new ProductoController();
+        Datos.inyectar(productoController, "productoService", productoService);
+
+        InventarioService inventarioService = new InventarioServiceEnMemoria(Datos.inventarios(100));
+        // Sin clases de carga: el controlador ejecuta en el hilo que llama, sin cola ni cambio de hilo
+        WorkloadProperties workload = new WorkloadProperties();
+        workload.setEnabled(false);
+        inventarioController = new InventarioController();
+        Datos.inyectar(inventarioController, "inventarioService", inventarioService);
+        Datos.inyectar(inventarioController, "workloadExecutor", new WorkloadExecutor(workload, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public int productosPagina(SalidaHttp salida) throws IOException {
+        return salida.escribir(productosConverter, productoController.getAllProductos(pagina, null).getBody(), MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int productosPaginaConFields(SalidaHttp salida) throws IOException {
+        return salida.escribir(productosConverter, productoController.getAllProductos(pagina, "nombre,precio").getBody(), MediaType.APPLICATION_JSON);
+    }
+
+    // Con fields no pasa por la caché de respuestas ya serializadas
+    @Benchmark
+    public int productoPorIdConFields(SalidaHttp salida) throws IOException {
+        return salida.escribir(productosConverter, productoController.getProductoById(42L, "nombre,precio", null).getBody(), MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int inventarioListado(SalidaHttp salida) throws IOException {
+        return salida.escribir(inventarioConverter, inventarioController.getAllInventario(null).join().getBody(), MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int inventarioPorProducto(SalidaHttp salida) throws IOException {
+        return salida.escribir(inventarioConverter, inventarioController.getInventarioByProductoId(42L, null).join().getBody(), MediaType.APPLICATION_JSON);
+    }
+
+    // Formato de las llamadas desde productos-service
+    @Benchmark
+    public int inventarioPorProductoSmile(SalidaHttp salida) throws IOException {
+        return salida.escribir(inventarioConverter, inventarioController.getInventarioByProductoId(42L, null).join().getBody(), SMILE);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.jsonapi.JsonApiData;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiResponse;
+import com.example.productos_service.jsonapi.ProductoAttributes;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara la serialización de una página de productos con los wrappers JsonApiResponse/JsonApiData
+ * frente al escritor en streaming. Con el profiler de GC, gc.alloc.rate.norm / rows da los bytes por fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonApiSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Producto> productos;
+
+    @Setup
+    public void setUp() {
+        productos = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            Producto producto = new Producto();
+            producto.setId(i);
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción del producto " + i);
+            producto.setPrecio(new BigDecimal("19.99"));
+            productos.add(producto);
+        }
+    }
+
+    @Benchmark
+    public void wrappers(Blackhole blackhole) throws Exception {
+        // Lo que hacían los controladores antes: Attributes + JsonApiData por fila y reflexión de Jackson
+        List<JsonApiData<ProductoAttributes>> data = productos.stream()
+                .map(p -> new JsonApiData<>(p.getId().toString(), "productos",
+                        new ProductoAttributes(p.getNombre(), p.getDescripcion(), p.getPrecio())))
+                .collect(Collectors.toList());
+        JsonApiResponse<Object> response = new JsonApiResponse<>();
+        response.setData(data);
+        objectMapper.writeValue(new BlackholeOutputStream(blackhole), response);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws Exception {
+        JsonApiDocument document = JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all());
+        try (JsonGenerator generator = objectMapper.createGenerator(new BlackholeOutputStream(blackhole), JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+    }
+
+    // Consume los bytes sin acumularlos, para medir solo la serialización
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
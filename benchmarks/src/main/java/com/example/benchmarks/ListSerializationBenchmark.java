@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.inventario_service.model.Inventario;
+import com.example.productos_service.jsonapi.JsonApiData;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.jsonapi.JsonApiResponse;
+import com.example.productos_service.jsonapi.ProductoAttributes;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de las respuestas de listado según su tamaño: el documento JSON:API escrito en
+ * streaming (JSON y Smile), el mismo documento construido con JsonApiResponse/JsonApiData/ProductoAttributes
+ * y serializado por reflexión, y la lista de entidades tal cual.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private ObjectMapper objectMapper;
+    private JsonApiHttpMessageConverter productosConverter;
+    private com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter inventarioConverter;
+    private List<Producto> productos;
+    private List<Inventario> inventarios;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+        productosConverter = new JsonApiHttpMessageConverter(objectMapper, smile);
+        inventarioConverter = new com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter(objectMapper, smile);
+        productos = Datos.productos(tamano);
+        inventarios = Datos.inventarios(tamano);
+    }
+
+    @Benchmark
+    public int productosStreamingJson(SalidaHttp salida) throws IOException {
+        return salida.escribir(productosConverter, JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all()),
+                MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int productosStreamingSmile(SalidaHttp salida) throws IOException {
+        return salida.escribir(productosConverter, JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all()),
+                JsonApiHttpMessageConverter.APPLICATION_SMILE);
+    }
+
+    // Un JsonApiData y un ProductoAttributes por fila, serializados por reflexión
+    @Benchmark
+    public int productosObjetosIntermedios(SalidaHttp salida) throws IOException {
+        List<JsonApiData<ProductoAttributes>> datos = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            datos.add(new JsonApiData<>(String.valueOf(producto.getId()), ProductoJsonApi.TYPE,
+                    new ProductoAttributes(producto.getNombre(), producto.getDescripcion(), producto.getPrecio())));
+        }
+        JsonApiResponse<Object> respuesta = new JsonApiResponse<>();
+        respuesta.setData(datos);
+        objectMapper.writeValue(salida.flujo(), respuesta);
+        return salida.tamano();
+    }
+
+    @Benchmark
+    public int productosEntidades(SalidaHttp salida) throws IOException {
+        objectMapper.writeValue(salida.flujo(), productos);
+        return salida.tamano();
+    }
+
+    @Benchmark
+    public int inventariosStreamingJson(SalidaHttp salida) throws IOException {
+        return salida.escribir(inventarioConverter, com.example.inventario_service.jsonapi.JsonApiDocument.ofList(
+                com.example.inventario_service.jsonapi.InventarioJsonApi.INSTANCE, inventarios,
+                com.example.inventario_service.jsonapi.SparseFieldset.all()), MediaType.APPLICATION_JSON);
+    }
+}
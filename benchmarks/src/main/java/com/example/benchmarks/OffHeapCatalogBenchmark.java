@@ -0,0 +1,87 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.catalog.OffHeapCatalog;
+import com.example.productos_service.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catálogo off-heap frente a una caché en el heap (ConcurrentHashMap de Producto) con 5M productos.
+ * Mide la latencia de lectura (benchmark) y, al preparar cada variante, imprime el heap ocupado tras un GC
+ * completo y la duración de ese GC, que es lo que domina las pausas con catálogos grandes.
+ * El fork arranca con 4 GB de heap y 2 GB de memoria directa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=2g"})
+public class OffHeapCatalogBenchmark {
+
+    @Param({"5000000"})
+    public int size;
+
+    @Param({"heap", "off-heap"})
+    public String store;
+
+    private Map<Long, Producto> heap;
+    private OffHeapCatalog offHeap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeapAfterGc();
+        if ("heap".equals(store)) {
+            heap = new ConcurrentHashMap<>(size * 2);
+            for (long id = 1; id <= size; id++) {
+                heap.put(id, producto(id));
+            }
+        } else {
+            offHeap = new OffHeapCatalog(64 * 1024 * 1024, 2L * 1024 * 1024 * 1024, size);
+            for (long id = 1; id <= size; id++) {
+                offHeap.put(producto(id));
+            }
+        }
+        long gcTimeBefore = totalGcMillis();
+        long start = System.nanoTime();
+        long after = usedHeapAfterGc();
+        System.out.printf("%n[%s] heap ocupado: %d MB, GC completo: %d ms (tiempo de GC acumulado %d ms)%n",
+                store, (after - before) / (1024 * 1024), (System.nanoTime() - start) / 1_000_000, totalGcMillis() - gcTimeBefore);
+        if (offHeap != null) {
+            System.out.printf("[off-heap] fuera del heap: %d MB, índice en el heap: %d MB%n",
+                    offHeap.getOffHeapBytes() / (1024 * 1024), offHeap.getIndexHeapBytes() / (1024 * 1024));
+        }
+    }
+
+    @Benchmark
+    public Producto read() {
+        long id = ThreadLocalRandom.current().nextLong(1, size + 1);
+        return heap != null ? heap.get(id) : offHeap.get(id).orElse(null);
+    }
+
+    private static Producto producto(long id) {
+        Producto producto = new Producto("Producto " + id, "Descripción del producto número " + id, BigDecimal.valueOf(id % 100_000, 2));
+        producto.setId(id);
+        return producto;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
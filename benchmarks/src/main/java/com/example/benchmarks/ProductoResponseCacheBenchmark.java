@@ -0,0 +1,64 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/productos/{id}: respuesta servida desde ProductoResponseCache frente al camino normal
+ * (lectura del producto + serialización en streaming). El repositorio se simula con un producto en memoria,
+ * así que la diferencia real en producción es mayor (se ahorra además la consulta a la base de datos).
+ * Throughput da peticiones/s por hilo; AverageTime, el tiempo de CPU por petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductoResponseCacheBenchmark {
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JsonApiHttpMessageConverter converter;
+    private ProductoResponseCache cache;
+    private Producto producto;
+
+    @Setup
+    public void setUp() {
+        converter = new JsonApiHttpMessageConverter(objectMapper, Jackson2ObjectMapperBuilder.smile().build());
+        cache = new ProductoResponseCache(objectMapper, true, 16 * 1024 * 1024, gzip);
+        producto = new Producto("Laptop Gamer XYZ", "Potente laptop para juegos de última generación", new BigDecimal("1500.00"));
+        producto.setId(42L);
+        cache.getOrLoad(42L, this::findById); // Calienta la entrada
+    }
+
+    @Benchmark
+    public int cacheHit(SalidaHttp salida) throws Exception {
+        ProductoResponseCache.Entry entry = cache.getOrLoad(42L, this::findById).orElseThrow();
+        JsonApiDocument document = JsonApiDocument.preSerialized(ProductoJsonApi.INSTANCE, entry.getProducto(), entry.getJson(), entry.getGzip());
+        return salida.escribir(converter, document, MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public int normal(SalidaHttp salida) throws Exception {
+        Producto encontrado = findById(42L).orElseThrow();
+        return salida.escribir(converter, JsonApiDocument.of(ProductoJsonApi.INSTANCE, encontrado), MediaType.APPLICATION_JSON);
+    }
+
+    private Optional<Producto> findById(Long id) {
+        return Optional.of(producto);
+    }
+}
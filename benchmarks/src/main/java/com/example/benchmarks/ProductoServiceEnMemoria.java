@@ -0,0 +1,85 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.model.ProductoConStockDTO;
+import com.example.productos_service.service.ProductoService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * ProductoService sobre un catálogo en memoria, para medir los controladores sin base de datos, sin
+ * inventario-service y sin proxies. Las páginas salen en orden de ID (la ordenación no es lo que se mide) y
+ * con las entidades completas aunque se pidan solo algunos atributos. Sin inventario, el stock es 0 como
+ * cuando inventario-service no conoce el producto. No es seguro entre hilos: los benchmarks que lo usan
+ * escriben solo al prepararse.
+ */
+class ProductoServiceEnMemoria implements ProductoService {
+
+    private final TreeMap<Long, Producto> productos = new TreeMap<>();
+
+    ProductoServiceEnMemoria(List<Producto> productos) {
+        productos.forEach(this::saveProducto);
+    }
+
+    @Override
+    public Producto saveProducto(Producto producto) {
+        if (producto.getId() == null) {
+            producto.setId(productos.isEmpty() ? 1 : productos.lastKey() + 1);
+        }
+        productos.put(producto.getId(), producto);
+        return producto;
+    }
+
+    @Override
+    public Mono<ProductoConStockDTO> getProductoByIdWithStock(Long id) {
+        return Mono.justOrEmpty(getProductoById(id)).map(ProductoConStockDTO::new);
+    }
+
+    @Override
+    public Optional<Producto> getProductoById(Long id) {
+        return Optional.ofNullable(productos.get(id));
+    }
+
+    @Override
+    public Optional<Producto> getProductoById(Long id, Set<String> atributos) {
+        return getProductoById(id);
+    }
+
+    @Override
+    public List<Producto> getProductosByIds(List<Long> ids) {
+        return ids.stream().map(productos::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Page<Producto> getAllProductos(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(List.copyOf(productos.values()));
+        }
+        List<Producto> pagina = productos.values().stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList();
+        return new PageImpl<>(pagina, pageable, productos.size());
+    }
+
+    @Override
+    public Page<Producto> getAllProductos(Pageable pageable, Set<String> atributos) {
+        return getAllProductos(pageable);
+    }
+
+    @Override
+    public void deleteProducto(Long id) {
+        productos.remove(id);
+    }
+
+    @Override
+    public Mono<ProductoConStockDTO> reducirStockProducto(Long productoId, Integer cantidad) {
+        return Mono.error(new IllegalArgumentException("No hay suficiente stock para el producto " + productoId
+                + ". Stock actual: 0, Solicitado: " + cantidad));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.benchmarks;
+
+import com.example.common.eventlog.EventLog;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventarioServiceImp.reduceStock con 4 hilos comprando sobre 64 productos de un almacén en memoria
+ * (InventarioRepositoryEnMemoria, sobre un ConcurrentHashMap), con el registro de eventos asíncrono o síncrono.
+ * Los eventos van al fichero de logback.xml (jmh-eventos.log), no a la consola de JMH.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ReduceStockBenchmark {
+
+    private static final int PRODUCTOS = 64;
+
+    @Param({"asincrono", "sincrono"})
+    public String registro;
+
+    private InventarioServiceImp inventarioService;
+    private EventLog eventLog;
+
+    @Setup
+    public void setUp() {
+        InventarioRepository repositorio = new InventarioRepositoryEnMemoria();
+        for (long productoId = 1; productoId <= PRODUCTOS; productoId++) {
+            repositorio.save(new Inventario(productoId, productoId, Integer.MAX_VALUE));
+        }
+        eventLog = "asincrono".equals(registro) ? new EventLog(8192, 1, null) : EventLog.sincrono();
+        inventarioService = new InventarioServiceImp();
+        Datos.inyectar(inventarioService, "inventarioRepository", repositorio);
+        Datos.inyectar(inventarioService, "eventLog", eventLog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLog.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Comprador {
+        private long siguiente;
+
+        long productoId() {
+            return 1 + (siguiente++ % PRODUCTOS);
+        }
+    }
+
+    @Benchmark
+    public Inventario reduceStock(Comprador comprador) {
+        return inventarioService.reduceStock(comprador.productoId(), 1);
+    }
+}
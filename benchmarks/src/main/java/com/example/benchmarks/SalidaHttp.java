@@ -0,0 +1,57 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Cuerpo de la respuesta HTTP en memoria, reutilizado entre invocaciones de cada hilo para que las
+ * asignaciones medidas sean las de la serialización y no las del buffer.
+ */
+@State(Scope.Thread)
+public class SalidaHttp implements HttpOutputMessage {
+
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(64 * 1024);
+    private final HttpHeaders cabeceras = new HttpHeaders();
+
+    /**
+     * Escribe el cuerpo con el convertidor, como Spring MVC al final de la petición.
+     * @return Bytes escritos.
+     */
+    public <T> int escribir(HttpMessageConverter<T> convertidor, T cuerpoRespuesta, MediaType tipo) throws IOException {
+        cuerpo.reset();
+        cabeceras.clear();
+        convertidor.write(cuerpoRespuesta, tipo, this);
+        return cuerpo.size();
+    }
+
+    public OutputStream flujo() {
+        cuerpo.reset();
+        return cuerpo;
+    }
+
+    public int tamano() {
+        return cuerpo.size();
+    }
+
+    public byte[] contenido() {
+        return cuerpo.toByteArray();
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return cuerpo;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return cabeceras;
+    }
+}
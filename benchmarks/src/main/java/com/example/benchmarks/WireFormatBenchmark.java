@@ -0,0 +1,75 @@
+package com.example.benchmarks;
+
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de codificar/decodificar una respuesta JSON:API en JSON frente a Smile,
+ * para un solo recurso (rows=1) y para una página (rows=100).
+ * Los bytes en el cable de cada combinación se imprimen al preparar el benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private JsonApiDocument document;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = "smile".equals(format) ? Jackson2ObjectMapperBuilder.smile().build() : Jackson2ObjectMapperBuilder.json().build();
+        List<Producto> productos = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            Producto producto = new Producto();
+            producto.setId(i);
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción del producto " + i);
+            producto.setPrecio(new BigDecimal("19.99"));
+            productos.add(producto);
+        }
+        document = rows == 1
+                ? JsonApiDocument.of(ProductoJsonApi.INSTANCE, productos.get(0))
+                : JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all());
+        encoded = encode();
+        System.out.printf("%n[%s, rows=%d] bytes en el cable: %d%n", format, rows, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = mapper.createGenerator(out, JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode decode() throws Exception {
+        return mapper.readTree(encoded);
+    }
+}
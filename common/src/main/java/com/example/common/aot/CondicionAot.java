@@ -0,0 +1,94 @@
+package com.example.common.aot;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Una condición @ConditionalOnProperty tal como quedó fijada al compilar con Spring AOT.
+ * <p>
+ * Se evalúa igual que OnPropertyCondition de Spring Boot: con la propiedad presente, se cumple si vale
+ * havingValue (o, sin havingValue, cualquier cosa menos "false"); sin ella, si matchIfMissing.
+ * @param propiedades Claves completas (prefix + name); deben cumplirse todas.
+ * @param valor havingValue; vacío si no se indicó.
+ * @param siFalta matchIfMissing.
+ * @param cumplida Resultado al compilar.
+ * @param origenes Clases y métodos @Bean que dependen de la condición.
+ */
+record CondicionAot(List<String> propiedades, String valor, boolean siFalta, boolean cumplida, List<String> origenes) {
+
+    private static final String SEPARADOR = "\t";
+
+    static CondicionAot de(MergedAnnotation<ConditionalOnProperty> anotacion, PropertyResolver entorno,
+                           List<String> origenes) {
+        String prefijo = anotacion.getString("prefix").trim();
+        if (StringUtils.hasText(prefijo) && !prefijo.endsWith(".")) {
+            prefijo += ".";
+        }
+        String[] nombres = anotacion.getStringArray("value");
+        if (nombres.length == 0) {
+            nombres = anotacion.getStringArray("name");
+        }
+        List<String> propiedades = new ArrayList<>(nombres.length);
+        for (String nombre : nombres) {
+            propiedades.add(prefijo + nombre);
+        }
+        CondicionAot condicion = new CondicionAot(propiedades, anotacion.getString("havingValue"),
+                anotacion.getBoolean("matchIfMissing"), false, origenes);
+        return condicion.conResultado(condicion.evaluar(entorno));
+    }
+
+    boolean evaluar(PropertyResolver entorno) {
+        for (String propiedad : propiedades) {
+            if (entorno.containsProperty(propiedad)) {
+                String actual = entorno.getProperty(propiedad);
+                boolean coincide = valor.isEmpty() ? !"false".equalsIgnoreCase(actual) : valor.equalsIgnoreCase(actual);
+                if (!coincide) {
+                    return false;
+                }
+            } else if (!siFalta) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    CondicionAot conResultado(boolean resultado) {
+        return new CondicionAot(propiedades, valor, siFalta, resultado, origenes);
+    }
+
+    // Misma condición en otro sitio: se comparan propiedades, havingValue y matchIfMissing
+    boolean mismaQue(CondicionAot otra) {
+        return propiedades.equals(otra.propiedades) && valor.equals(otra.valor) && siFalta == otra.siFalta;
+    }
+
+    // cumplida, propiedades, havingValue, matchIfMissing y orígenes, separados por tabuladores
+    String linea() {
+        return String.join(SEPARADOR, String.valueOf(cumplida), String.join(",", propiedades), valor,
+                String.valueOf(siFalta), String.join(",", origenes));
+    }
+
+    static CondicionAot leer(String linea) {
+        String[] campos = linea.split(SEPARADOR, -1);
+        if (campos.length != 5) {
+            throw new IllegalArgumentException("Línea de condición AOT no válida: " + linea);
+        }
+        return new CondicionAot(Arrays.asList(campos[1].split(",")), campos[2], Boolean.parseBoolean(campos[3]),
+                Boolean.parseBoolean(campos[0]), Arrays.asList(campos[4].split(",")));
+    }
+
+    // "app.jfr.enabled: al compilar se cumplía y ahora no (JfrConfig)"
+    String describirCambio() {
+        List<String> nombres = origenes.stream()
+                .map(origen -> ClassUtils.getShortName(origen.replace('$', '.')))
+                .toList();
+        String cambio = cumplida ? "se cumplía y ahora no" : "no se cumplía y ahora sí";
+        return String.join(", ", propiedades) + ": al compilar " + cambio + " (" + String.join(", ", nombres) + ")";
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.common.aot;
+
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport.ConditionAndOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport.ConditionAndOutcomes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Al compilar con Spring AOT (perfil fast-startup), guarda en {@link #RECURSO} las condiciones de
+ * {@code @ConditionalOnProperty} que decidieron qué beans existen, con el resultado que tuvieron. El código
+ * generado ya no las vuelve a evaluar; CondicionesAotVerificador las compara al arrancar con el entorno real.
+ * <p>
+ * Salen del informe de condiciones de Spring Boot, así que incluyen las de las autoconfiguraciones
+ * (spring.flyway.enabled, management.*...). Solo cuentan los orígenes en los que cambiar la propiedad cambia el
+ * resultado: los que se cumplieron del todo y los que se descartaron precisamente por la propiedad.
+ */
+public class CondicionesAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    public static final String RECURSO = "META-INF/condiciones-aot.txt";
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        ConditionEvaluationReport informe = ConditionEvaluationReport.find(beanFactory);
+        if (informe == null) {
+            return null;
+        }
+        Environment entorno = beanFactory.getBean(Environment.class);
+        MetadataReaderFactory lector = new SimpleMetadataReaderFactory(beanFactory.getBeanClassLoader());
+
+        List<CondicionAot> condiciones = new ArrayList<>();
+        for (Map.Entry<String, ConditionAndOutcomes> origen : informe.getConditionAndOutcomesBySource().entrySet()) {
+            if (!decidePorPropiedad(origen.getValue())) {
+                continue;
+            }
+            for (MergedAnnotation<ConditionalOnProperty> anotacion : anotaciones(lector, origen.getKey())) {
+                agregar(condiciones, CondicionAot.de(anotacion, entorno, List.of(origen.getKey())));
+            }
+        }
+
+        StringBuilder contenido = new StringBuilder("# Condiciones fijadas por Spring AOT (CondicionesAotProcessor)\n");
+        condiciones.forEach(condicion -> contenido.append(condicion.linea()).append('\n'));
+        return (generationContext, beanFactoryInitializationCode) ->
+                generationContext.getGeneratedFiles().addResourceFile(RECURSO, contenido);
+    }
+
+    private static boolean decidePorPropiedad(ConditionAndOutcomes resultados) {
+        if (resultados.isFullMatch()) {
+            return true;
+        }
+        // Spring Boot deja de evaluar en la primera condición que falla
+        for (ConditionAndOutcome resultado : resultados) {
+            if (!resultado.getOutcome().isMatch()) {
+                // OnPropertyCondition no es pública
+                return resultado.getCondition().getClass().getSimpleName().equals("OnPropertyCondition");
+            }
+        }
+        return false;
+    }
+
+    // El origen es una clase ("com.example.Config") o un método @Bean ("com.example.Config#bean")
+    private static List<MergedAnnotation<ConditionalOnProperty>> anotaciones(MetadataReaderFactory lector,
+                                                                             String origen) {
+        int almohadilla = origen.indexOf('#');
+        String clase = almohadilla < 0 ? origen : origen.substring(0, almohadilla);
+        AnnotationMetadata metadatos;
+        try {
+            metadatos = lector.getMetadataReader(clase).getAnnotationMetadata();
+        } catch (IOException e) {
+            return List.of(); // Clase generada o de otro cargador: no hay nada que comprobar
+        }
+        Stream<MethodMetadata> metodos = metadatos.getDeclaredMethods().stream()
+                .filter(metodo -> metodo.getMethodName().equals(origen.substring(almohadilla + 1)));
+        return (almohadilla < 0 ? Stream.of(metadatos.getAnnotations()) : metodos.map(MethodMetadata::getAnnotations))
+                .flatMap(anotaciones -> anotaciones.stream(ConditionalOnProperty.class))
+                .toList();
+    }
+
+    // Una línea por condición distinta, con todos los sitios en los que aparece
+    private static void agregar(List<CondicionAot> condiciones, CondicionAot nueva) {
+        for (int i = 0; i < condiciones.size(); i++) {
+            CondicionAot existente = condiciones.get(i);
+            if (existente.mismaQue(nueva)) {
+                List<String> origenes = new ArrayList<>(existente.origenes());
+                origenes.addAll(nueva.origenes());
+                condiciones.set(i, new CondicionAot(existente.propiedades(), existente.valor(), existente.siFalta(),
+                        existente.cumplida(), origenes));
+                return;
+            }
+        }
+        condiciones.add(nueva);
+    }
+}
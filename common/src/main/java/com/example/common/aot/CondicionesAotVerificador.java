@@ -0,0 +1,72 @@
+package com.example.common.aot;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertyResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Con -Dspring.aot.enabled=true, impide arrancar si el entorno cambia alguna de las condiciones
+ * {@code @ConditionalOnProperty} que Spring AOT fijó al compilar (CondicionesAotProcessor). Sin esta comprobación
+ * el cambio se ignoraría sin avisar: p. ej. APP_JFR_ENABLED=true en un jar compilado con app.jfr.enabled=false
+ * arrancaría sin los eventos JFR.
+ * <p>
+ * Se ejecuta después de cargar application.yml, los perfiles y las variables de entorno. Sin AOT, o con un jar
+ * compilado sin el perfil fast-startup (no hay fichero de condiciones), no hace nada.
+ */
+public class CondicionesAotVerificador implements EnvironmentPostProcessor, Ordered {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            verificar(environment, leer(application.getClassLoader()));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE; // Tras ConfigDataEnvironmentPostProcessor
+    }
+
+    static void verificar(PropertyResolver entorno, List<CondicionAot> condiciones) {
+        List<String> cambiadas = condiciones.stream()
+                .filter(condicion -> condicion.evaluar(entorno) != condicion.cumplida())
+                .map(CondicionAot::describirCambio)
+                .toList();
+        if (!cambiadas.isEmpty()) {
+            throw new IllegalStateException("El jar se compiló con Spring AOT y la configuración actual cambia "
+                    + "condiciones que quedaron fijadas al compilar:\n  " + String.join("\n  ", cambiadas)
+                    + "\nRecompila con esos valores (mvn -Pfast-startup) o arranca sin -Dspring.aot.enabled=true.");
+        }
+    }
+
+    static List<CondicionAot> leer(ClassLoader classLoader) {
+        List<CondicionAot> condiciones = new ArrayList<>();
+        try (InputStream entrada = classLoader.getResourceAsStream(CondicionesAotProcessor.RECURSO)) {
+            if (entrada == null) {
+                return condiciones;
+            }
+            BufferedReader lineas = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            String linea;
+            while ((linea = lineas.readLine()) != null) {
+                if (!linea.isBlank() && !linea.startsWith("#")) {
+                    condiciones.add(CondicionAot.leer(linea));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + CondicionesAotProcessor.RECURSO, e);
+        }
+        return condiciones;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.common.config;
+
+import com.example.common.eventlog.EventLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registro asíncrono de los eventos de las rutas calientes (EventLog). Sin este bean los servicios escriben
+ * cada evento en el hilo de la petición.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.event-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventLogConfig {
+
+    @Value("${app.event-log.capacity:8192}")
+    private int capacidad;
+
+    @Value("${app.event-log.sample-one-in:1}")
+    private int muestreo;
+
+    // close escribe lo pendiente al parar la aplicación
+    @Bean(destroyMethod = "close")
+    public EventLog eventLog(MeterRegistry meterRegistry) {
+        return new EventLog(capacidad, muestreo, meterRegistry);
+    }
+}
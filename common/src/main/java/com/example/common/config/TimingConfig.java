@@ -0,0 +1,40 @@
+package com.example.common.config;
+
+import com.example.common.timing.RepositoryTimingListener;
+import com.example.common.timing.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Fuentes de la partida db de Server-Timing y del registro de peticiones lentas (ServerTimingFilter): la
+ * duración de cada método de repositorio y el texto de cada sentencia SQL que ejecuta Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TimingConfig {
+
+    // static: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        RepositoryTimingListener listener = new RepositoryTimingListener();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+}
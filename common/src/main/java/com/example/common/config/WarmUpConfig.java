@@ -0,0 +1,10 @@
+package com.example.common.config;
+
+import com.example.common.warmup.WarmUpProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUpConfig {
+}
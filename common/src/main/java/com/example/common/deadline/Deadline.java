@@ -0,0 +1,105 @@
+package com.example.common.deadline;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * Instante a partir del cual el que hizo la petición ya no espera la respuesta.
+ * <p>
+ * Entre servicios viaja en la cabecera X-Deadline-Ms como milisegundos restantes (no como hora absoluta,
+ * para no depender de que los relojes estén sincronizados). DeadlineFilter lo fija al recibir la petición
+ * y lo deja en el hilo de la petición; los controladores reactivos y los clientes que crean la llamada en ese
+ * hilo lo pasan al contexto de Reactor con {@link #propagar(Mono)} y los WebClient lo leen de ahí para acotar
+ * timeouts y reintentos y reenviar la cabecera.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Ms";
+
+    private static final ThreadLocal<Deadline> ACTUAL = new ThreadLocal<>();
+
+    // Referencia de System.nanoTime(), inmune a cambios del reloj del sistema
+    private final long expiraNanos;
+
+    private Deadline(long expiraNanos) {
+        this.expiraNanos = expiraNanos;
+    }
+
+    public static Deadline dentroDe(Duration duracion) {
+        return new Deadline(System.nanoTime() + duracion.toNanos());
+    }
+
+    /**
+     * Interpreta la cabecera X-Deadline-Ms.
+     * @return El deadline, o null si la cabecera falta o no es un número.
+     */
+    public static Deadline desdeCabecera(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return dentroDe(Duration.ofMillis(Long.parseLong(valor.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tiempo restante (cero si ya ha vencido).
+     */
+    public Duration restante() {
+        return Duration.ofNanos(Math.max(0, expiraNanos - System.nanoTime()));
+    }
+
+    public boolean vencido() {
+        return expiraNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Valor para la cabecera X-Deadline-Ms de una llamada saliente.
+     */
+    public String aCabecera() {
+        return Long.toString(restante().toMillis());
+    }
+
+    /**
+     * El menor entre un timeout propio de la operación (puede ser null) y el tiempo restante.
+     */
+    public Duration acotar(Duration timeout) {
+        Duration restante = restante();
+        return timeout == null || restante.compareTo(timeout) < 0 ? restante : timeout;
+    }
+
+    /**
+     * Deadline de la petición que atiende el hilo actual, o null fuera de una petición.
+     */
+    public static Deadline actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Deadline del contexto de Reactor; si no hay, el indicado (normalmente el capturado al crear la llamada).
+     */
+    public static Deadline desdeContexto(ContextView contexto, Deadline porDefecto) {
+        return contexto.getOrDefault(Deadline.class, porDefecto);
+    }
+
+    /**
+     * Lleva el deadline de la petición en curso al contexto de Reactor, para que las llamadas que se
+     * suscriben en otros hilos (boundedElastic, reintentos) lo sigan viendo.
+     */
+    public static <T> Mono<T> propagar(Mono<T> mono) {
+        Deadline deadline = actual();
+        return deadline == null ? mono : mono.contextWrite(contexto -> contexto.put(Deadline.class, deadline));
+    }
+
+    static void establecer(Deadline deadline) {
+        ACTUAL.set(deadline);
+    }
+
+    static void limpiar() {
+        ACTUAL.remove();
+    }
+}
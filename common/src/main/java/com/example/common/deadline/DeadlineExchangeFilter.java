@@ -0,0 +1,32 @@
+package com.example.common.deadline;
+
+import com.example.common.exception.DeadlineExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro de WebClient que reenvía el deadline del contexto de Reactor en la cabecera X-Deadline-Ms.
+ * Se evalúa en cada suscripción, así que cada reintento envía el tiempo que queda en ese momento; si ya
+ * no queda tiempo, la petición no se envía.
+ */
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(contexto -> {
+            Deadline deadline = Deadline.desdeContexto(contexto, null);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            if (deadline.vencido()) {
+                return Mono.error(new DeadlineExceededException("Deadline vencido antes de llamar a " + request.url()));
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .header(Deadline.HEADER, deadline.aCabecera())
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.common.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Fija el deadline de cada petición a partir de la cabecera X-Deadline-Ms. Si la petición llega sin ella
+ * (este servicio es el borde) se usa app.deadline.default; nunca se acepta más de app.deadline.max.
+ * Una petición que llega con el deadline ya vencido se responde con 504 sin hacer ningún trabajo.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Antes que cualquier otro filtro: el tiempo corre desde que llega la petición
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    @Value("${app.deadline.default:10s}")
+    private Duration deadlinePorDefecto;
+
+    @Value("${app.deadline.max:30s}")
+    private Duration deadlineMaximo;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (request.getRequestURI().startsWith("/actuator")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Deadline maximo = Deadline.dentroDe(deadlineMaximo);
+        Deadline recibido = Deadline.desdeCabecera(request.getHeader(Deadline.HEADER));
+        Deadline deadline = recibido == null ? Deadline.dentroDe(deadlinePorDefecto)
+                : recibido.restante().compareTo(deadlineMaximo) > 0 ? maximo : recibido;
+
+        if (deadline.vencido()) {
+            logger.debug("Petición a {} descartada: el llamante ya no espera la respuesta", request.getRequestURI());
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Gateway Timeout\", \"message\": \"El deadline de la petición ya ha vencido.\"}");
+            return;
+        }
+
+        Deadline.establecer(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.limpiar();
+        }
+    }
+}
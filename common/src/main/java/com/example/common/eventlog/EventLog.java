@@ -0,0 +1,247 @@
+package com.example.common.eventlog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.io.Closeable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de eventos de las rutas calientes (compras, altas de inventario) sin bloquear ni asignar memoria
+ * en el hilo de la petición.
+ * <p>
+ * Cada evento es un nombre con hasta tres campos numéricos y uno de texto. El hilo que lo registra comprueba
+ * el nivel del logger, aplica el muestreo (solo a DEBUG e INFO: uno de cada app.event-log.sample-one-in) y
+ * copia los campos en una ranura preasignada de un anillo. Un único hilo (event-log) los formatea como
+ * "evento clave=valor ..." y los pasa al logger de destino (Logback). Con el anillo lleno el evento se
+ * descarta y se cuenta; el hilo de escritura avisa de cuántos se perdieron.
+ * <p>
+ * Métricas: eventlog.dropped, eventlog.sampled.out y eventlog.pending.
+ */
+public class EventLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLog.class);
+
+    // Espera del hilo de escritura con el anillo vacío: acota el retraso de un evento sin ocupar CPU
+    private static final long ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int muestreo;
+    private final Ranura[] anillo; // null: escritura síncrona
+    private final int mascara;
+
+    // Siguiente secuencia a reservar; las menores que consumida ya se han escrito y su ranura está libre
+    private final AtomicLong siguiente = new AtomicLong();
+    private volatile long consumida;
+    private volatile boolean cerrado;
+
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder omitidos = new LongAdder();
+    private final Thread escritor;
+
+    /**
+     * @param capacidad Eventos pendientes como máximo (se redondea a potencia de 2).
+     * @param muestreo Se registra uno de cada N eventos DEBUG/INFO (1 = todos); WARN y ERROR, siempre.
+     */
+    public EventLog(int capacidad, int muestreo, MeterRegistry meterRegistry) {
+        this.muestreo = Math.max(1, muestreo);
+        int tamano = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.anillo = new Ranura[tamano];
+        for (int i = 0; i < tamano; i++) {
+            anillo[i] = new Ranura(i - tamano); // Ninguna publicada todavía
+        }
+        this.mascara = tamano - 1;
+        if (meterRegistry != null) {
+            FunctionCounter.builder("eventlog.dropped", descartados, LongAdder::sum)
+                    .description("Eventos descartados con el anillo lleno").register(meterRegistry);
+            FunctionCounter.builder("eventlog.sampled.out", omitidos, LongAdder::sum)
+                    .description("Eventos DEBUG/INFO no registrados por el muestreo").register(meterRegistry);
+            Gauge.builder("eventlog.pending", this, EventLog::getPendientes).register(meterRegistry);
+        }
+        this.escritor = new Thread(this::escribirPendientes, "event-log");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    private EventLog() {
+        this.muestreo = 1;
+        this.anillo = null;
+        this.mascara = 0;
+        this.escritor = null;
+    }
+
+    /**
+     * Variante sin anillo ni hilo: cada evento se escribe en el hilo que lo registra. Para pruebas unitarias
+     * y para cuando app.event-log.enabled=false.
+     */
+    public static EventLog sincrono() {
+        return new EventLog();
+    }
+
+    public void info(Logger destino, String evento, String k1, long v1, String k2, long v2) {
+        registrar(Level.INFO, destino, evento, k1, v1, k2, v2, null, 0, null, null);
+    }
+
+    public void info(Logger destino, String evento, String k1, long v1, String k2, long v2, String k3, long v3) {
+        registrar(Level.INFO, destino, evento, k1, v1, k2, v2, k3, v3, null, null);
+    }
+
+    public void warn(Logger destino, String evento, String k1, long v1, String kTexto, String texto) {
+        registrar(Level.WARN, destino, evento, k1, v1, null, 0, null, 0, kTexto, texto);
+    }
+
+    public void warn(Logger destino, String evento, String k1, long v1, String k2, long v2, String kTexto, String texto) {
+        registrar(Level.WARN, destino, evento, k1, v1, k2, v2, null, 0, kTexto, texto);
+    }
+
+    /**
+     * Registra un evento. Los campos con clave null se omiten.
+     */
+    public void registrar(Level nivel, Logger destino, String evento, String k1, long v1, String k2, long v2,
+                          String k3, long v3, String kTexto, String texto) {
+        if (!destino.isEnabledForLevel(nivel)) {
+            return;
+        }
+        if (muestreo > 1 && nivel.toInt() < Level.WARN.toInt() && ThreadLocalRandom.current().nextInt(muestreo) != 0) {
+            omitidos.increment();
+            return;
+        }
+        if (anillo == null || cerrado) {
+            destino.atLevel(nivel).log(formatear(new StringBuilder(96), evento, Thread.currentThread().getName(),
+                    k1, v1, k2, v2, k3, v3, kTexto, texto));
+            return;
+        }
+
+        long secuencia;
+        do {
+            secuencia = siguiente.get();
+            if (secuencia - consumida >= anillo.length) {
+                descartados.increment(); // Lleno: antes perder el evento que frenar la petición
+                return;
+            }
+        } while (!siguiente.compareAndSet(secuencia, secuencia + 1));
+
+        Ranura ranura = anillo[(int) secuencia & mascara];
+        ranura.nivel = nivel;
+        ranura.destino = destino;
+        ranura.evento = evento;
+        ranura.hilo = Thread.currentThread().getName();
+        ranura.k1 = k1;
+        ranura.v1 = v1;
+        ranura.k2 = k2;
+        ranura.v2 = v2;
+        ranura.k3 = k3;
+        ranura.v3 = v3;
+        ranura.kTexto = kTexto;
+        ranura.texto = texto;
+        ranura.publicada = secuencia; // Escritura volátil: publica los campos anteriores al hilo de escritura
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getOmitidos() {
+        return omitidos.sum();
+    }
+
+    public long getPendientes() {
+        return anillo == null ? 0 : siguiente.get() - consumida;
+    }
+
+    /**
+     * Escribe los eventos pendientes y detiene el hilo de escritura; los que lleguen después se escriben en
+     * el hilo que los registra.
+     */
+    @Override
+    public void close() {
+        if (escritor == null || cerrado) {
+            return;
+        }
+        cerrado = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Hilo event-log: recorre el anillo en orden de secuencia
+    private void escribirPendientes() {
+        StringBuilder linea = new StringBuilder(128);
+        long secuencia = 0;
+        long avisados = 0;
+        while (true) {
+            Ranura ranura = anillo[(int) secuencia & mascara];
+            if (ranura.publicada != secuencia) {
+                long perdidos = descartados.sum();
+                if (perdidos > avisados) {
+                    logger.warn("{} eventos descartados con el registro de eventos lleno (capacidad {})", perdidos - avisados, anillo.length);
+                    avisados = perdidos;
+                }
+                if (cerrado && siguiente.get() == secuencia) {
+                    return; // Todo lo reservado está escrito
+                }
+                LockSupport.parkNanos(ESPERA_NANOS);
+                continue;
+            }
+            linea.setLength(0);
+            try {
+                ranura.destino.atLevel(ranura.nivel).log(formatear(linea, ranura.evento, ranura.hilo, ranura.k1, ranura.v1,
+                        ranura.k2, ranura.v2, ranura.k3, ranura.v3, ranura.kTexto, ranura.texto));
+            } catch (RuntimeException e) {
+                logger.error("No se pudo escribir el evento {}: {}", ranura.evento, e.getMessage());
+            }
+            ranura.texto = null; // No retener mensajes de error hasta que se reutilice la ranura
+            consumida = ++secuencia;
+        }
+    }
+
+    private static String formatear(StringBuilder linea, String evento, String hilo, String k1, long v1, String k2, long v2,
+                                    String k3, long v3, String kTexto, String texto) {
+        linea.append(evento);
+        if (k1 != null) {
+            linea.append(' ').append(k1).append('=').append(v1);
+        }
+        if (k2 != null) {
+            linea.append(' ').append(k2).append('=').append(v2);
+        }
+        if (k3 != null) {
+            linea.append(' ').append(k3).append('=').append(v3);
+        }
+        if (kTexto != null) {
+            linea.append(' ').append(kTexto).append("=\"").append(texto).append('"');
+        }
+        linea.append(" thread=").append(hilo);
+        return linea.toString();
+    }
+
+    // Ranura del anillo; los campos se escriben antes que publicada y se leen después
+    private static final class Ranura {
+        volatile long publicada;
+        Level nivel;
+        Logger destino;
+        String evento;
+        String hilo;
+        String k1;
+        long v1;
+        String k2;
+        long v2;
+        String k3;
+        long v3;
+        String kTexto;
+        String texto;
+
+        Ranura(long publicada) {
+            this.publicada = publicada;
+        }
+    }
+}
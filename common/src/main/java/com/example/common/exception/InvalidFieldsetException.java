@@ -0,0 +1,13 @@
+package com.example.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Se lanza cuando un parámetro fields[tipo] pide atributos que el recurso no tiene (JSON:API exige 400)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldsetException extends IllegalArgumentException {
+
+    public InvalidFieldsetException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Operación sobre la grabación JFR que no corresponde a su estado (iniciar con otra en curso, descargar sin ninguna)
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RecordingStateException extends RuntimeException {
+
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
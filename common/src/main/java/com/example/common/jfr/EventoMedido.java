@@ -0,0 +1,18 @@
+package com.example.common.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base de los eventos JFR propios de los servicios: la duración la pone JFR (begin/commit) y el resultado
+ * la operación. Sin una grabación que los habilite, crear el evento y llamar a begin/commit no registra nada.
+ */
+public abstract class EventoMedido extends Event {
+
+    public static final String OK = "OK";
+    public static final String VACIO = "VACIO";
+    public static final String CANCELADO = "CANCELADO";
+
+    @Label("Resultado")
+    public String resultado;
+}
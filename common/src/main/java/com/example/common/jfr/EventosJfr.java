@@ -0,0 +1,15 @@
+package com.example.common.jfr;
+
+import jdk.jfr.Event;
+
+import java.util.List;
+
+/**
+ * Eventos JFR propios de un servicio. JfrRecorder habilita los de todos los beans de este tipo en sus
+ * grabaciones, además de los de la configuración app.jfr.settings.
+ */
+@FunctionalInterface
+public interface EventosJfr {
+
+    List<Class<? extends Event>> tipos();
+}
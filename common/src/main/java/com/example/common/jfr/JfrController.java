@@ -0,0 +1,88 @@
+package com.example.common.jfr;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Grabaciones JFR bajo demanda (solo con app.jfr.enabled=true). Cada petición debe llevar la cabecera
+ * X-Admin-Token con el valor de app.jfr.admin-token, además de la autenticación propia del servicio (la API
+ * Key de ApiKeyAuthFilter en productos-service); sin token configurado se rechazan todas.
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+public class JfrController {
+
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    @Autowired
+    private JfrRecorder jfrRecorder;
+
+    @Value("${app.jfr.admin-token:}")
+    private String adminToken;
+
+    /**
+     * Inicia una grabación.
+     * POST /admin/jfr/start?duration=60s
+     * @param duration Duración (acotada por app.jfr.max-duration).
+     * @return 202 ACCEPTED con el estado, 401 sin token válido o 409 si ya hay una en curso.
+     */
+    @PostMapping("/start")
+    public ResponseEntity<JfrRecorder.Estado> iniciar(@RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                      @RequestParam(required = false) Duration duration) {
+        if (!autorizado(token)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(jfrRecorder.iniciar(duration), HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Detiene la grabación en curso.
+     * POST /admin/jfr/stop
+     * @return 200 OK con el estado, 401 sin token válido o 409 si no hay ninguna en curso.
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<JfrRecorder.Estado> detener(@RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!autorizado(token)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(jfrRecorder.detener(), HttpStatus.OK);
+    }
+
+    /**
+     * Descarga la última grabación (lo grabado hasta ahora si sigue en curso), para abrirla con JDK Mission
+     * Control o `jfr print`.
+     * GET /admin/jfr/recording
+     * @return 200 OK con el fichero .jfr, 401 sin token válido o 409 si no se ha iniciado ninguna.
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<Resource> descargar(@RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (!autorizado(token)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        Path fichero = jfrRecorder.descargar();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jfrRecorder.getServicio() + ".jfr\"")
+                .body(new FileSystemResource(fichero));
+    }
+
+    // Comparación en tiempo constante, como las API Keys
+    private boolean autorizado(String token) {
+        return adminToken != null && !adminToken.isEmpty() && token != null
+                && MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.common.jfr;
+
+import com.example.common.exception.RecordingStateException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Grabaciones JFR bajo demanda, de una en una y acotadas en duración (app.jfr.max-duration) y tamaño
+ * (app.jfr.max-size). Además de la configuración de JFR indicada (app.jfr.settings: default, con un
+ * coste de ~1 %, o profile) habilita los eventos propios del servicio (beans EventosJfr). La grabación
+ * se escribe en un fichero temporal que se sustituye al iniciar la siguiente.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+public class JfrRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecorder.class);
+
+    private final String servicio;
+    private final List<Class<? extends Event>> tipos;
+    private final Duration duracionMaxima;
+    private final long tamanoMaximo;
+    private final String configuracion;
+
+    // Protegidos por this
+    private Recording grabacion;
+    private Path fichero;
+
+    /**
+     * @param servicio Nombre de la grabación y del fichero descargado (spring.application.name).
+     * @param eventos Eventos propios del servicio que se habilitan en cada grabación.
+     */
+    public JfrRecorder(@Value("${spring.application.name}") String servicio,
+                       List<EventosJfr> eventos,
+                       @Value("${app.jfr.max-duration:5m}") Duration duracionMaxima,
+                       @Value("${app.jfr.max-size:104857600}") long tamanoMaximo,
+                       @Value("${app.jfr.settings:default}") String configuracion) {
+        this.servicio = servicio;
+        this.tipos = eventos.stream().flatMap(propios -> propios.tipos().stream()).toList();
+        this.duracionMaxima = duracionMaxima;
+        this.tamanoMaximo = tamanoMaximo;
+        this.configuracion = configuracion;
+    }
+
+    /**
+     * Inicia una grabación; se detiene sola al cumplirse la duración.
+     * @param duracion Duración pedida, o null para la máxima; nunca supera app.jfr.max-duration.
+     * @throws RecordingStateException Si ya hay una grabación en curso.
+     */
+    public synchronized Estado iniciar(Duration duracion) {
+        if (grabacion != null && grabacion.getState() == RecordingState.RUNNING) {
+            throw new RecordingStateException("Ya hay una grabación JFR en curso (id " + grabacion.getId() + ")");
+        }
+        cerrar();
+        Duration acotada = duracion == null || duracion.isNegative() || duracion.isZero() || duracion.compareTo(duracionMaxima) > 0
+                ? duracionMaxima : duracion;
+        try {
+            Path destino = Files.createTempFile(servicio + "-", ".jfr");
+            Recording nueva = new Recording(Configuration.getConfiguration(configuracion));
+            for (Class<? extends Event> tipo : tipos) {
+                nueva.enable(tipo);
+            }
+            nueva.setName(servicio);
+            nueva.setDuration(acotada);
+            nueva.setMaxSize(tamanoMaximo);
+            nueva.setToDisk(true);
+            nueva.setDestination(destino); // Al detenerse (a mano o por duración) se vuelca aquí
+            nueva.start();
+            grabacion = nueva;
+            fichero = destino;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Configuración JFR inválida: " + configuracion, e);
+        }
+        logger.info("Grabación JFR {} iniciada durante {} (máximo {} bytes)", grabacion.getId(), acotada, tamanoMaximo);
+        return estado();
+    }
+
+    /**
+     * Detiene la grabación en curso y la deja lista para descargar.
+     * @throws RecordingStateException Si no hay ninguna en curso.
+     */
+    public synchronized Estado detener() {
+        if (grabacion == null || grabacion.getState() != RecordingState.RUNNING) {
+            throw new RecordingStateException("No hay ninguna grabación JFR en curso");
+        }
+        grabacion.stop();
+        logger.info("Grabación JFR {} detenida", grabacion.getId());
+        return estado();
+    }
+
+    /**
+     * Fichero .jfr de la última grabación. Si sigue en curso se vuelca lo grabado hasta ahora.
+     * @throws RecordingStateException Si no se ha iniciado ninguna.
+     */
+    public synchronized Path descargar() {
+        if (grabacion == null) {
+            throw new RecordingStateException("No se ha iniciado ninguna grabación JFR");
+        }
+        try {
+            if (grabacion.getState() == RecordingState.RUNNING) {
+                Path parcial = fichero.resolveSibling(fichero.getFileName() + ".parcial");
+                grabacion.dump(parcial);
+                return parcial;
+            }
+            return fichero;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getServicio() {
+        return servicio;
+    }
+
+    public synchronized Estado estado() {
+        if (grabacion == null) {
+            return new Estado(0, RecordingState.NEW.name(), duracionMaxima.toString(), tamanoMaximo);
+        }
+        return new Estado(grabacion.getId(), grabacion.getState().name(), grabacion.getDuration().toString(), grabacion.getMaxSize());
+    }
+
+    @PreDestroy
+    public synchronized void cerrar() {
+        if (grabacion != null) {
+            grabacion.close();
+            grabacion = null;
+        }
+        if (fichero != null) {
+            try {
+                Files.deleteIfExists(fichero);
+                Files.deleteIfExists(fichero.resolveSibling(fichero.getFileName() + ".parcial"));
+            } catch (IOException e) {
+                logger.warn("No se pudo borrar la grabación JFR {}: {}", fichero, e.getMessage());
+            }
+            fichero = null;
+        }
+    }
+
+    /**
+     * Estado de la grabación para el endpoint de administración.
+     */
+    public record Estado(long id, String estado, String duracion, long maxBytes) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.common.jfr;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Medición de operaciones reactivas con los eventos JFR propios de los servicios.
+ */
+public final class MedicionJfr {
+
+    private MedicionJfr() {
+    }
+
+    /**
+     * Mide un Mono con un evento: empieza al suscribirse y se confirma al terminar con el resultado
+     * (OK, VACIO, CANCELADO o el nombre de la excepción). La operación recibe el evento para rellenar
+     * sus campos. Sin grabación activa el Mono se devuelve sin operadores añadidos.
+     */
+    public static <T, E extends EventoMedido> Mono<T> medir(Supplier<E> nuevo, Function<E, Mono<T>> operacion) {
+        return Mono.defer(() -> {
+            E evento = nuevo.get();
+            if (!evento.isEnabled()) {
+                return operacion.apply(evento);
+            }
+            evento.begin();
+            return operacion.apply(evento)
+                    .doOnSuccess(valor -> confirmar(evento, valor != null ? EventoMedido.OK : EventoMedido.VACIO))
+                    .doOnError(error -> confirmar(evento, error.getClass().getSimpleName()))
+                    .doOnCancel(() -> confirmar(evento, EventoMedido.CANCELADO));
+        });
+    }
+
+    private static void confirmar(EventoMedido evento, String resultado) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.resultado = resultado;
+            evento.commit();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.common.jsonapi;
+
+import com.example.common.exception.InvalidFieldsetException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Representa un "sparse fieldset" de JSON:API (parámetro fields[tipo]=a,b,c).
+ * Si el cliente no envía el parámetro se devuelven todos los atributos del recurso.
+ */
+public final class SparseFieldset {
+
+    private static final SparseFieldset ALL = new SparseFieldset(null);
+
+    private final Set<String> fields; // null = todos los atributos
+
+    private SparseFieldset(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static SparseFieldset all() {
+        return ALL;
+    }
+
+    /**
+     * Interpreta el valor de fields[tipo].
+     * @param raw Valor crudo del parámetro (puede ser null).
+     * @param allowed Atributos que expone el recurso.
+     * @return El fieldset solicitado.
+     * @throws InvalidFieldsetException Si se pide un atributo que no existe.
+     */
+    public static SparseFieldset parse(String raw, Set<String> allowed) {
+        if (raw == null) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : raw.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(trimmed)) {
+                throw new InvalidFieldsetException("Atributo desconocido en fields: " + trimmed);
+            }
+            fields.add(trimmed);
+        }
+        return new SparseFieldset(Collections.unmodifiableSet(fields));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // Atributos solicitados, o null si se piden todos
+    public Set<String> getFields() {
+        return fields;
+    }
+}
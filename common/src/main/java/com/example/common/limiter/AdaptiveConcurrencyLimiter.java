@@ -0,0 +1,147 @@
+package com.example.common.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite adaptativo de peticiones concurrentes basado en el gradiente de latencia (al estilo de Gradient2).
+ * <p>
+ * Compara la latencia reciente (media móvil corta) con la habitual (media móvil larga): mientras coinciden el
+ * límite crece poco a poco; cuando la reciente se dispara (la base de datos se ralentiza y las peticiones se
+ * encolan) el límite baja en proporción, hasta la mitad por ajuste. Las peticiones que no caben se rechazan en
+ * el acto en lugar de esperar en un hilo de Tomcat hasta agotar el timeout.
+ * <p>
+ * Las peticiones de prioridad BAJA (listados completos) solo pueden ocupar una fracción del límite, de modo
+ * que bajo presión se descartan antes que las compras.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Prioridad { ALTA, BAJA }
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double ALFA_CORTA = 0.1; // ~10 muestras
+    private static final double ALFA_LARGA = 1.0 / 200; // ~200 muestras
+    private static final double GRADIENTE_MINIMO = 0.5;
+    private static final double REDUCCION_POR_ERROR = 0.9;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double fraccionBaja;
+    private final double tolerancia;
+    private final double suavizado;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile int limite;
+
+    // Protegidos por this
+    private double limiteExacto;
+    private double rttCorto;
+    private double rttLargo;
+
+    private final LongAdder cambios = new LongAdder();
+    private final LongAdder rechazadasAlta = new LongAdder();
+    private final LongAdder rechazadasBaja = new LongAdder();
+
+    /**
+     * @param fraccionBaja Parte del límite que pueden ocupar las peticiones de prioridad BAJA (0-1).
+     * @param tolerancia Cuánto puede crecer la latencia reciente sobre la habitual sin reducir el límite (1.5 = 50 %).
+     * @param suavizado Peso de cada nuevo cálculo en el límite (0-1).
+     */
+    public AdaptiveConcurrencyLimiter(int limiteInicial, int limiteMinimo, int limiteMaximo,
+                                      double fraccionBaja, double tolerancia, double suavizado) {
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.fraccionBaja = fraccionBaja;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+        this.limiteExacto = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+        this.limite = (int) limiteExacto;
+    }
+
+    /**
+     * Publica el límite, las peticiones en curso y los contadores de cambios y rechazos.
+     */
+    public void registrarMetricas(MeterRegistry meterRegistry) {
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimite).register(meterRegistry);
+        Gauge.builder("concurrency.inflight", this, AdaptiveConcurrencyLimiter::getEnCurso).register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.changes", cambios, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("concurrency.rejected", rechazadasAlta, LongAdder::sum)
+                .tag("priority", "alta").register(meterRegistry);
+        FunctionCounter.builder("concurrency.rejected", rechazadasBaja, LongAdder::sum)
+                .tag("priority", "baja").register(meterRegistry);
+    }
+
+    /**
+     * Reserva un hueco para una petición.
+     * @return false si no cabe: la petición debe rechazarse sin hacer trabajo.
+     */
+    public boolean adquirir(Prioridad prioridad) {
+        int maximo = prioridad == Prioridad.ALTA ? limite : Math.max(1, (int) (limite * fraccionBaja));
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= maximo) {
+                (prioridad == Prioridad.ALTA ? rechazadasAlta : rechazadasBaja).increment();
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco de una petición aceptada y ajusta el límite con su latencia.
+     * @param rttNanos Duración de la petición.
+     * @param descartada true si terminó en timeout o error del servidor: reduce el límite directamente.
+     */
+    public void liberar(long rttNanos, boolean descartada) {
+        int enCursoAlTerminar = enCurso.getAndDecrement();
+        actualizar(rttNanos, enCursoAlTerminar, descartada);
+    }
+
+    private synchronized void actualizar(long rttNanos, int enCursoAlTerminar, boolean descartada) {
+        double nuevo;
+        if (descartada) {
+            nuevo = limiteExacto * REDUCCION_POR_ERROR;
+        } else {
+            rttCorto = rttCorto == 0 ? rttNanos : rttCorto + ALFA_CORTA * (rttNanos - rttCorto);
+            rttLargo = rttLargo == 0 ? rttNanos : rttLargo + ALFA_LARGA * (rttNanos - rttLargo);
+            if (rttLargo > 2 * rttCorto) {
+                rttLargo *= 0.95; // La latencia ha bajado: la referencia la sigue más deprisa
+            }
+            if (enCursoAlTerminar < limiteExacto / 2) {
+                return; // Con el límite lejos no se sabe si aguantaría más: no se sube
+            }
+            double gradiente = Math.max(GRADIENTE_MINIMO, Math.min(1.0, tolerancia * rttLargo / rttCorto));
+            double colchon = Math.sqrt(limiteExacto); // Margen para seguir explorando hacia arriba
+            nuevo = limiteExacto * (1 - suavizado) + (limiteExacto * gradiente + colchon) * suavizado;
+        }
+        limiteExacto = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevo));
+        int redondeado = (int) limiteExacto;
+        if (redondeado != limite) {
+            logger.debug("Límite de concurrencia {} -> {} (rtt reciente {} µs, habitual {} µs)",
+                    limite, redondeado, (long) rttCorto / 1_000, (long) rttLargo / 1_000);
+            limite = redondeado;
+            cambios.increment();
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    public long getRechazadas(Prioridad prioridad) {
+        return (prioridad == Prioridad.ALTA ? rechazadasAlta : rechazadasBaja).sum();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.common.limiter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter.Prioridad;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita la concurrencia de los endpoints que cada servicio clasifica en {@link #prioridad(HttpServletRequest)}
+ * con un AdaptiveConcurrencyLimiter: compras con prioridad alta, listados completos con prioridad baja. Lo que no
+ * cabe se responde con 503 y Retry-After sin ocupar un hilo. El resto de endpoints no pasa por el límite.
+ * Las peticiones asíncronas (Mono, CompletableFuture) liberan su hueco al completarse, no al salir del filtro.
+ */
+public abstract class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    protected ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.limiter.registrarMetricas(meterRegistry);
+    }
+
+    // Prioridad con la que la petición entra en el límite; null si no pasa por él
+    protected abstract Prioridad prioridad(HttpServletRequest request);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return prioridad(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!limiter.adquirir(prioridad(request))) {
+            logger.debug("Petición a {} rechazada: límite de concurrencia {} alcanzado", request.getRequestURI(), limiter.getLimite());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Service Unavailable\", \"message\": \"Servicio saturado, inténtelo de nuevo en unos instantes.\"}");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean completada = false;
+        boolean asincrona = false;
+        try {
+            filterChain.doFilter(request, response);
+            completada = true;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Liberacion(inicio));
+                asincrona = true;
+            }
+        } finally {
+            if (!asincrona) {
+                limiter.liberar(System.nanoTime() - inicio, !completada || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    // Libera el hueco de una petición asíncrona una sola vez (tras onError/onTimeout llega también onComplete)
+    private final class Liberacion implements AsyncListener {
+
+        private final long inicio;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Liberacion(long inicio) {
+            this.inicio = inicio;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            liberar(response != null && response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this); // Un nuevo ciclo asíncrono conserva el listener
+        }
+
+        private void liberar(boolean descartada) {
+            if (liberada.compareAndSet(false, true)) {
+                limiter.liberar(System.nanoTime() - inicio, descartada);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.common.replica;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Lectura de lo recién escrito con réplica: durante app.datasource.replica.read-your-writes-window tras escribir
+ * un recurso (un producto en productos-service, su inventario en inventario-service), sus lecturas van al primario.
+ * Quien acaba de crearlo, modificarlo o comprarlo no recibe de la réplica la versión anterior, y la caché de
+ * respuestas no se rellena con ella. El resto de lecturas, incluidos los listados, siguen en la réplica.
+ * <p>
+ * La ventana se abre antes de escribir y vuelve a empezar al confirmar la transacción, para cubrir también las
+ * lecturas concurrentes con la escritura.
+ */
+public class ReadYourWrites {
+
+    private final Map<Long, Long> escrituras = new ConcurrentHashMap<>(); // ID -> fin de la ventana (nanoTime)
+    private final long ventanaNanos;
+    private final int limpiarDesde;
+    private final LongSupplier reloj;
+    private final AtomicLong proximaLimpieza;
+
+    public ReadYourWrites(Duration ventana, int limpiarDesde) {
+        this(ventana, limpiarDesde, System::nanoTime);
+    }
+
+    ReadYourWrites(Duration ventana, int limpiarDesde, LongSupplier reloj) {
+        this.ventanaNanos = ventana.toNanos();
+        this.limpiarDesde = limpiarDesde;
+        this.reloj = reloj;
+        this.proximaLimpieza = new AtomicLong(reloj.getAsLong());
+    }
+
+    /**
+     * Abre la ventana del ID; dentro de una transacción, vuelve a abrirla al confirmarse.
+     */
+    public void registrar(Long id) {
+        if (id == null) {
+            return;
+        }
+        marcar(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    marcar(id);
+                }
+            });
+        }
+    }
+
+    public boolean reciente(Long id) {
+        Long fin = id != null ? escrituras.get(id) : null;
+        if (fin == null) {
+            return false;
+        }
+        if (fin - reloj.getAsLong() > 0) {
+            return true;
+        }
+        escrituras.remove(id, fin);
+        return false;
+    }
+
+    /**
+     * Ejecuta la lectura en el primario si el ID se escribió hace menos de la ventana; si no, donde corresponda.
+     */
+    public <T> T leer(Long id, Supplier<T> lectura) {
+        return reciente(id) ? ReplicaRoutingDataSource.enPrimario(lectura) : lectura.get();
+    }
+
+    /**
+     * Como leer(Long, Supplier), para una lectura de varios IDs: va al primario si alguno es reciente.
+     */
+    public <T> T leer(Collection<Long> ids, Supplier<T> lectura) {
+        for (Long id : ids) {
+            if (reciente(id)) {
+                return ReplicaRoutingDataSource.enPrimario(lectura);
+            }
+        }
+        return lectura.get();
+    }
+
+    // IDs recordados, incluidos los que ya salieron de la ventana y aún no se han limpiado
+    public int getRecordados() {
+        return escrituras.size();
+    }
+
+    private void marcar(Long id) {
+        long ahora = reloj.getAsLong();
+        escrituras.put(id, ahora + ventanaNanos);
+        // Como mucho una limpieza por media ventana, aunque todos los IDs sigan dentro de la suya
+        long limpieza = proximaLimpieza.get();
+        if (escrituras.size() > limpiarDesde && ahora - limpieza >= 0
+                && proximaLimpieza.compareAndSet(limpieza, ahora + ventanaNanos / 2)) {
+            escrituras.values().removeIf(fin -> fin - ahora <= 0);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.common.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reparte las conexiones entre el primario y la réplica de lectura: las transacciones de solo lectura
+ * (@Transactional(readOnly = true), que es como Spring Data ejecuta findById, findAll y las consultas derivadas)
+ * van a la réplica; las escrituras, las migraciones de Flyway y lo que corre sin transacción, al primario.
+ * <p>
+ * La conexión no se pide al pool al empezar la transacción, cuando aún no se sabe si es de solo lectura, sino en
+ * la primera sentencia (LazyConnectionDataSourceProxy). Lo que se ejecuta dentro de enPrimario() va siempre al
+ * primario: lecturas de lo recién escrito (ReadYourWrites) y cargas que no pueden tolerar el retraso de la réplica.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final LongAdder lecturasReplica = new LongAdder();
+    private final LongAdder lecturasPrimario = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primario, DataSource replica) {
+        super(primario);
+        this.primario = primario;
+        this.replica = replica;
+        setReadOnlyDataSource(new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return lectura().getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return lectura().getConnection(username, password);
+            }
+        });
+    }
+
+    /**
+     * Ejecuta la lectura con conexiones del primario aunque sea de solo lectura.
+     */
+    public static <T> T enPrimario(Supplier<T> lectura) {
+        if (PRIMARIO.get() != null) {
+            return lectura.get();
+        }
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            PRIMARIO.remove();
+        }
+    }
+
+    public static void enPrimario(Runnable lectura) {
+        enPrimario(() -> {
+            lectura.run();
+            return null;
+        });
+    }
+
+    private DataSource lectura() {
+        if (PRIMARIO.get() != null) {
+            lecturasPrimario.increment();
+            return primario;
+        }
+        lecturasReplica.increment();
+        return replica;
+    }
+
+    // Conexiones de solo lectura servidas por la réplica
+    public long getLecturasReplica() {
+        return lecturasReplica.sum();
+    }
+
+    // Conexiones de solo lectura que se enviaron al primario (enPrimario)
+    public long getLecturasPrimario() {
+        return lecturasPrimario.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : new DataSource[]{primario, replica}) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.common.timing;
+
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suma al RequestTiming del hilo (partida db) la duración de cada llamada a un método de repositorio.
+ */
+public class RepositoryTimingListener implements RepositoryMethodInvocationListener {
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        RequestTiming timing = RequestTiming.actual();
+        if (timing != null) {
+            timing.registrarRepositorio(invocation.getDuration(TimeUnit.NANOSECONDS));
+        }
+    }
+}
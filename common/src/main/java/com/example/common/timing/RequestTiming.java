@@ -0,0 +1,177 @@
+package com.example.common.timing;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Desglose del tiempo de una petición: base de datos (métodos de repositorio y sentencias SQL), llamadas a
+ * otros servicios y serialización de la respuesta. Se publica en la cabecera Server-Timing y, si la petición
+ * es lenta, en el registro de SlowRequestLog.
+ * <p>
+ * Igual que Deadline, ServerTimingFilter lo deja en el hilo de la petición; los controladores reactivos y los
+ * clientes WebClient lo pasan al contexto de Reactor con {@link #propagar(Mono)}, las tareas bloqueantes que se
+ * ejecutan en otros hilos lo recuperan con {@link #bloqueante(Supplier)} y los ejecutores propios (WorkloadExecutor)
+ * lo fijan con {@link #envolver(RequestTiming, Supplier)}. Se puede actualizar desde varios hilos a la vez.
+ */
+public final class RequestTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTiming> ACTUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private final int maxSentencias;
+
+    private final LongAdder dbNanos = new LongAdder();
+    private final LongAdder dbLlamadas = new LongAdder();
+    private final LongAdder downstreamNanos = new LongAdder();
+    private final LongAdder downstreamLlamadas = new LongAdder();
+    private final LongAdder serializeNanos = new LongAdder();
+
+    // Solo las primeras maxSentencias; del resto solo se cuentan
+    private final ConcurrentLinkedQueue<String> sentencias = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numSentencias = new AtomicInteger();
+
+    private final AtomicBoolean cabeceraEscrita = new AtomicBoolean();
+
+    public RequestTiming(int maxSentencias) {
+        this.maxSentencias = maxSentencias;
+    }
+
+    /**
+     * Desglose de la petición que atiende el hilo actual, o null fuera de una petición.
+     */
+    public static RequestTiming actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Desglose del contexto de Reactor; si no hay, el indicado (normalmente el capturado al crear la llamada).
+     */
+    public static RequestTiming desdeContexto(ContextView contexto, RequestTiming porDefecto) {
+        return contexto.getOrDefault(RequestTiming.class, porDefecto);
+    }
+
+    /**
+     * Lleva el desglose de la petición en curso al contexto de Reactor, para que las llamadas salientes que
+     * se suscriben en otros hilos lo sigan viendo.
+     */
+    public static <T> Mono<T> propagar(Mono<T> mono) {
+        RequestTiming timing = actual();
+        return timing == null ? mono : mono.contextWrite(contexto -> contexto.put(RequestTiming.class, timing));
+    }
+
+    /**
+     * Mono que ejecuta una tarea bloqueante (p. ej. una consulta al repositorio en boundedElastic) con el
+     * desglose del contexto de Reactor o, si no hay, con el del hilo que crea el Mono.
+     */
+    public static <T> Mono<T> bloqueante(Supplier<T> tarea) {
+        RequestTiming llamante = actual();
+        return Mono.deferContextual(contexto -> Mono.fromSupplier(envolver(desdeContexto(contexto, llamante), tarea)));
+    }
+
+    /**
+     * La tarea con el desglose indicado fijado en el hilo mientras se ejecuta (para ejecutores propios como
+     * WorkloadExecutor).
+     */
+    public static <T> Supplier<T> envolver(RequestTiming timing, Supplier<T> tarea) {
+        if (timing == null) {
+            return tarea;
+        }
+        return () -> {
+            RequestTiming anterior = ACTUAL.get();
+            ACTUAL.set(timing);
+            try {
+                return tarea.get();
+            } finally {
+                if (anterior == null) {
+                    ACTUAL.remove();
+                } else {
+                    ACTUAL.set(anterior);
+                }
+            }
+        };
+    }
+
+    public void registrarRepositorio(long nanos) {
+        dbNanos.add(nanos);
+        dbLlamadas.increment();
+    }
+
+    public void registrarSentencia(String sql) {
+        if (numSentencias.incrementAndGet() <= maxSentencias) {
+            sentencias.add(sql);
+        }
+    }
+
+    public void registrarLlamada(long nanos) {
+        downstreamNanos.add(nanos);
+        downstreamLlamadas.increment();
+    }
+
+    public void registrarSerializacion(long nanos) {
+        serializeNanos.add(nanos);
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing con lo medido hasta ahora (duraciones en milisegundos).
+     * Las llamadas a otros servicios se suman aunque se hagan en paralelo (hedging, lotes).
+     */
+    public String cabecera() {
+        return String.format(Locale.ROOT,
+                "db;dur=%.1f;desc=\"%s\", downstream;dur=%.1f;desc=\"%s\", serialize;dur=%.1f, total;dur=%.1f",
+                ms(dbNanos.sum()), llamadas(dbLlamadas.sum()), ms(downstreamNanos.sum()), llamadas(downstreamLlamadas.sum()),
+                ms(serializeNanos.sum()), ms(transcurrido()));
+    }
+
+    /**
+     * Desglose para el registro de peticiones lentas.
+     */
+    public String resumen() {
+        return String.format(Locale.ROOT, "db %.1f ms en %s, downstream %.1f ms en %s, serialize %.1f ms",
+                ms(dbNanos.sum()), llamadas(dbLlamadas.sum()), ms(downstreamNanos.sum()), llamadas(downstreamLlamadas.sum()),
+                ms(serializeNanos.sum()));
+    }
+
+    public long transcurrido() {
+        return System.nanoTime() - inicio;
+    }
+
+    public List<String> getSentencias() {
+        return new ArrayList<>(sentencias);
+    }
+
+    public int getNumSentencias() {
+        return numSentencias.get();
+    }
+
+    // La cabecera se escribe una sola vez, justo antes de enviar la respuesta
+    boolean marcarCabecera() {
+        return cabeceraEscrita.compareAndSet(false, true);
+    }
+
+    private static String llamadas(long n) {
+        return n == 1 ? "1 llamada" : n + " llamadas";
+    }
+
+    static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static void establecer(RequestTiming timing) {
+        ACTUAL.set(timing);
+    }
+
+    static void limpiar() {
+        ACTUAL.remove();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.common.timing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mide cada petición (RequestTiming), añade a la respuesta la cabecera Server-Timing con el desglose
+ * (db, downstream, serialize y total) y, al terminar, pasa las lentas a SlowRequestLog.
+ * <p>
+ * La cabecera se escribe justo antes del primer byte del cuerpo, cuando ya se conoce el tiempo de
+ * serialización (JsonApiHttpMessageConverter serializa antes de escribir). Las respuestas asíncronas (Mono,
+ * CompletableFuture) se serializan en un segundo despacho, en el que el filtro vuelve a fijar el mismo RequestTiming.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2) // Tras DeadlineFilter y ConcurrencyLimitFilter: mide las peticiones admitidas
+@ConditionalOnProperty(prefix = "app.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String ATRIBUTO = RequestTiming.class.getName();
+
+    private final SlowRequestLog slowRequestLog;
+    private final int maxSentencias;
+
+    public ServerTimingFilter(SlowRequestLog slowRequestLog,
+                              @Value("${app.timing.max-statements:20}") int maxSentencias) {
+        this.slowRequestLog = slowRequestLog;
+        this.maxSentencias = maxSentencias;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false; // La respuesta de un Mono o CompletableFuture se escribe en el despacho asíncrono
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTiming timing = (RequestTiming) request.getAttribute(ATRIBUTO);
+        if (timing == null) {
+            timing = new RequestTiming(maxSentencias);
+            request.setAttribute(ATRIBUTO, timing);
+        }
+        ServerTimingResponse envuelta = new ServerTimingResponse(response, timing);
+
+        RequestTiming.establecer(timing);
+        try {
+            filterChain.doFilter(request, envuelta);
+        } finally {
+            RequestTiming.limpiar();
+        }
+
+        if (request.isAsyncStarted()) {
+            if (!isAsyncDispatch(request)) {
+                request.getAsyncContext().addListener(new Fin(peticion(request), response, timing));
+            }
+            return;
+        }
+        envuelta.escribirCabecera(); // Respuestas sin cuerpo
+        if (!isAsyncDispatch(request)) {
+            slowRequestLog.registrar(peticion(request), response.getStatus(), timing);
+        }
+    }
+
+    private static String peticion(HttpServletRequest request) {
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+
+    // Escribe Server-Timing antes de que se envíen las cabeceras
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+
+        private ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        private void escribirCabecera() {
+            if (!isCommitted() && timing.marcarCabecera()) {
+                setHeader(RequestTiming.HEADER, timing.cabecera());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escribirCabecera();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escribirCabecera();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escribirCabecera();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escribirCabecera();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escribirCabecera();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            escribirCabecera();
+            super.sendRedirect(location);
+        }
+    }
+
+    // Termina una petición asíncrona una sola vez (tras onError/onTimeout llega también onComplete)
+    private final class Fin implements AsyncListener {
+
+        private final String peticion;
+        private final HttpServletResponse response;
+        private final RequestTiming timing;
+        private final AtomicBoolean terminada = new AtomicBoolean();
+
+        private Fin(String peticion, HttpServletResponse response, RequestTiming timing) {
+            this.peticion = peticion;
+            this.response = response;
+            this.timing = timing;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            terminar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            terminar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            terminar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this); // Un nuevo ciclo asíncrono conserva el listener
+        }
+
+        private void terminar() {
+            if (terminada.compareAndSet(false, true)) {
+                slowRequestLog.registrar(peticion, response.getStatus(), timing);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.common.timing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra las peticiones que superan app.timing.slow-threshold con su desglose de tiempos y las sentencias
+ * SQL que ejecutaron. Como mucho se escriben app.timing.slow-log-per-second por segundo: en plena degradación
+ * todas las peticiones son lentas y el propio registro no debe convertirse en el cuello de botella. Las que
+ * no se escriben se cuentan y se indican en el siguiente registro.
+ * <p>
+ * Métrica: http.server.slow.requests{logged=true|false}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowRequestLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowRequestLog.class);
+
+    private final long umbralNanos;
+    private final int maxPorSegundo;
+
+    // Ventana de un segundo: segundo actual y registros escritos en él
+    private final AtomicLong ventana = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger enVentana = new AtomicInteger();
+
+    private final LongAdder registradas = new LongAdder();
+    private final LongAdder omitidas = new LongAdder();
+    private final AtomicLong omitidasSinAvisar = new AtomicLong();
+
+    public SlowRequestLog(@Value("${app.timing.slow-threshold:500ms}") Duration umbral,
+                          @Value("${app.timing.slow-log-per-second:5}") int maxPorSegundo,
+                          MeterRegistry meterRegistry) {
+        this.umbralNanos = umbral.toNanos();
+        this.maxPorSegundo = maxPorSegundo;
+        FunctionCounter.builder("http.server.slow.requests", registradas, LongAdder::sum)
+                .tag("logged", "true").register(meterRegistry);
+        FunctionCounter.builder("http.server.slow.requests", omitidas, LongAdder::sum)
+                .tag("logged", "false").register(meterRegistry);
+    }
+
+    /**
+     * Se llama al terminar cada petición.
+     * @return true si la petición era lenta y se ha escrito en el registro.
+     */
+    public boolean registrar(String peticion, int status, RequestTiming timing) {
+        long duracion = timing.transcurrido();
+        if (duracion < umbralNanos) {
+            return false;
+        }
+        if (!muestrear()) {
+            omitidas.increment();
+            omitidasSinAvisar.incrementAndGet();
+            return false;
+        }
+        registradas.increment();
+        long sinAvisar = omitidasSinAvisar.getAndSet(0);
+        int numSentencias = timing.getNumSentencias();
+        logger.warn("Petición lenta {} -> {} en {} ms ({}); SQL ({}{}): {}{}",
+                peticion, status, String.format(Locale.ROOT, "%.1f", RequestTiming.ms(duracion)), timing.resumen(),
+                numSentencias, numSentencias > timing.getSentencias().size() ? ", solo las primeras" : "",
+                timing.getSentencias(),
+                sinAvisar > 0 ? " [" + sinAvisar + " peticiones lentas sin registrar desde el último aviso]" : "");
+        return true;
+    }
+
+    // Cupo de maxPorSegundo registros en cada segundo. En el cambio de segundo varios hilos pueden reiniciar
+    // la cuenta a la vez y dejar pasar alguno de más; basta con que el ritmo quede acotado.
+    private boolean muestrear() {
+        long segundo = System.nanoTime() / 1_000_000_000L;
+        long actual = ventana.get();
+        if (actual != segundo && ventana.compareAndSet(actual, segundo)) {
+            enVentana.set(0);
+        }
+        return enVentana.incrementAndGet() <= maxPorSegundo;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.common.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Anota en el RequestTiming del hilo cada sentencia SQL que prepara Hibernate, sin modificarla.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTiming timing = RequestTiming.actual();
+        if (timing != null) {
+            timing.registrarSentencia(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.common.timing;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro de WebClient que suma al RequestTiming del contexto de Reactor (partida downstream) el tiempo de
+ * cada intento, desde que se envía la petición hasta que llega la respuesta, falla o se cancela.
+ */
+public class TimingExchangeFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(contexto -> {
+            RequestTiming timing = RequestTiming.desdeContexto(contexto, null);
+            if (timing == null) {
+                return next.exchange(request);
+            }
+            long inicio = System.nanoTime();
+            return next.exchange(request).doFinally(senal -> timing.registrarLlamada(System.nanoTime() - inicio));
+        });
+    }
+}
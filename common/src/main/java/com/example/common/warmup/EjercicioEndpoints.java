@@ -0,0 +1,160 @@
+package com.example.common.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+
+/**
+ * Peticiones HTTP del servicio a sí mismo (filtros, controlador, servicio, repositorio, serialización) para que
+ * el JIT compile el camino completo de las peticiones antes de recibir tráfico. Se reparten por turnos entre
+ * los endpoints y recorren los IDs más usados. Solo lecturas: nada de lo que hace cambia datos.
+ * <p>
+ * Un endpoint que falla FALLOS_SEGUIDOS veces seguidas deja de ejercitarse. Los que dependen de otro servicio
+ * llevan además una condición (Endpoint.disponible) que se consulta antes de cada petición: un endpoint que
+ * degrada la respuesta en lugar de fallar no llega nunca a FALLOS_SEGUIDOS.
+ */
+public final class EjercicioEndpoints {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjercicioEndpoints.class);
+
+    private static final int FALLOS_SEGUIDOS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * @param nombre Para el registro.
+     * @param ruta Ruta y query de la petición para un ID.
+     * @param accept Valor de la cabecera Accept.
+     * @param disponible Si puede ejercitarse ahora; si no, la petición se omite.
+     */
+    public record Endpoint(String nombre, LongFunction<String> ruta, String accept, BooleanSupplier disponible) {
+
+        public Endpoint(String nombre, LongFunction<String> ruta, String accept) {
+            this(nombre, ruta, accept, () -> true);
+        }
+    }
+
+    public record Resultado(int correctas, int errores, List<String> descartados) {
+    }
+
+    private final String base;
+    private final Map<String, String> cabeceras;
+    private final List<Endpoint> endpoints;
+    private final List<Long> ids;
+    private final int peticiones;
+    private final int concurrencia;
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    public EjercicioEndpoints(String base, Map<String, String> cabeceras, List<Endpoint> endpoints, List<Long> ids,
+                              int peticiones, int concurrencia) {
+        this.base = base;
+        this.cabeceras = cabeceras;
+        this.endpoints = endpoints;
+        this.ids = ids.isEmpty() ? List.of(1L) : ids; // Sin IDs se ejercita igualmente la respuesta 404
+        this.peticiones = peticiones;
+        this.concurrencia = Math.max(1, concurrencia);
+    }
+
+    /**
+     * Envía las peticiones configuradas o las que quepan hasta el límite.
+     * @param limiteNanos Valor de System.nanoTime() a partir del cual no se envían más.
+     */
+    public Resultado ejecutar(long limiteNanos) {
+        AtomicInteger siguiente = new AtomicInteger();
+        AtomicInteger correctas = new AtomicInteger();
+        AtomicInteger errores = new AtomicInteger();
+        AtomicIntegerArray fallosSeguidos = new AtomicIntegerArray(endpoints.size());
+        AtomicIntegerArray omitidas = new AtomicIntegerArray(endpoints.size());
+
+        ExecutorService hilos = Executors.newFixedThreadPool(concurrencia, r -> {
+            Thread hilo = new Thread(r, "warm-up");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int h = 0; h < concurrencia; h++) {
+            hilos.execute(() -> {
+                int i;
+                while ((i = siguiente.getAndIncrement()) < peticiones && System.nanoTime() < limiteNanos) {
+                    int e = i % endpoints.size();
+                    if (fallosSeguidos.get(e) >= FALLOS_SEGUIDOS) {
+                        continue;
+                    }
+                    if (!endpoints.get(e).disponible().getAsBoolean()) {
+                        omitidas.incrementAndGet(e);
+                        continue;
+                    }
+                    long id = ids.get((i / endpoints.size()) % ids.size());
+                    if (enviar(endpoints.get(e), id, limiteNanos)) {
+                        correctas.incrementAndGet();
+                        fallosSeguidos.set(e, 0);
+                    } else if (System.nanoTime() >= limiteNanos) {
+                        break; // Cortada por el presupuesto, no es un error del endpoint
+                    } else {
+                        errores.incrementAndGet();
+                        if (fallosSeguidos.incrementAndGet(e) == FALLOS_SEGUIDOS) {
+                            logger.warn("Calentamiento: {} falla; se deja de ejercitar", endpoints.get(e).nombre());
+                        }
+                    }
+                }
+            });
+        }
+        hilos.shutdown();
+        try {
+            long espera = limiteNanos - System.nanoTime() + TIMEOUT.toNanos();
+            if (!hilos.awaitTermination(Math.max(0, espera), TimeUnit.NANOSECONDS)) {
+                hilos.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            hilos.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> descartados = new ArrayList<>();
+        for (int e = 0; e < endpoints.size(); e++) {
+            if (fallosSeguidos.get(e) >= FALLOS_SEGUIDOS || omitidas.get(e) > 0) {
+                descartados.add(endpoints.get(e).nombre());
+            }
+        }
+        return new Resultado(correctas.get(), errores.get(), descartados);
+    }
+
+    // Correcta = respondida por la aplicación (un 404 también recorre el camino de la petición)
+    private boolean enviar(Endpoint endpoint, long id, long limiteNanos) {
+        long restante = limiteNanos - System.nanoTime();
+        if (restante <= 0) {
+            return false;
+        }
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(base + endpoint.ruta().apply(id)))
+                .timeout(Duration.ofNanos(Math.min(restante, TIMEOUT.toNanos())))
+                .header("Accept", endpoint.accept())
+                .GET();
+        cabeceras.forEach(peticion::header);
+        try {
+            int status = cliente.send(peticion.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 500 && status != 429;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.debug("Calentamiento: {} {} falló: {}", endpoint.nombre(), id, e.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.common.warmup;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IDs de producto más usados recientemente (leídos en productos-service, consultados o comprados en
+ * inventario-service), guardados en un fichero para que el siguiente arranque (WarmUpRunner) precargue justo
+ * esas filas.
+ * <p>
+ * Se cuenta uno de cada app.warm-up.hot-keys.sample-one-in accesos y como mucho diez veces
+ * app.warm-up.hot-keys.max-keys IDs distintos. Cada save-interval se guardan los más contados y se empieza
+ * a contar de nuevo; si en ese intervalo hubo pocos IDs distintos, la lista se completa con la anterior.
+ * El fichero se escribe aparte y se renombra, así que un arranque nunca lee una lista a medias.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final Path fichero; // null = no se guarda
+    private final int maxClaves;
+    private final int muestreo;
+    private final Duration intervalo;
+
+    private final Map<Long, LongAdder> accesos = new ConcurrentHashMap<>();
+    private volatile List<Long> anteriores = List.of(); // Última lista leída o guardada
+    private volatile boolean pausado;
+
+    private final ScheduledExecutorService guardado = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "hot-key-tracker");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public HotKeyTracker(WarmUpProperties properties) {
+        this(properties.getHotKeys().getFile().isBlank() ? null : Path.of(properties.getHotKeys().getFile()),
+                properties.getHotKeys().getMaxKeys(), properties.getHotKeys().getSampleOneIn(),
+                properties.getHotKeys().getSaveInterval());
+    }
+
+    HotKeyTracker(Path fichero, int maxClaves, int muestreo, Duration intervalo) {
+        if (maxClaves <= 0 || muestreo <= 0) {
+            throw new IllegalArgumentException("app.warm-up.hot-keys.max-keys y sample-one-in deben ser positivos");
+        }
+        this.fichero = fichero;
+        this.maxClaves = maxClaves;
+        this.muestreo = muestreo;
+        this.intervalo = intervalo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (fichero != null) {
+            guardado.scheduleWithFixedDelay(this::guardar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        guardado.shutdownNow();
+        guardar();
+    }
+
+    /**
+     * Cuenta un acceso al producto (muestreado). No crea objetos salvo la primera vez que se ve un ID.
+     */
+    public void registrar(Long id) {
+        if (pausado || id == null || (muestreo > 1 && ThreadLocalRandom.current().nextInt(muestreo) != 0)) {
+            return;
+        }
+        LongAdder contador = accesos.get(id);
+        if (contador == null) {
+            if (accesos.size() >= 10 * maxClaves) {
+                return; // Los IDs nuevos se cuentan en el siguiente intervalo
+            }
+            contador = accesos.computeIfAbsent(id, k -> new LongAdder());
+        }
+        contador.increment();
+    }
+
+    // Mientras se calienta: las peticiones del propio calentamiento no cuentan como accesos
+    public void pausar() {
+        pausado = true;
+    }
+
+    public void reanudar() {
+        pausado = false;
+    }
+
+    /**
+     * Lee la lista guardada por la instancia anterior.
+     * @return IDs de más a menos usado; vacía si no hay fichero o no se puede leer.
+     */
+    public List<Long> leer() {
+        if (fichero == null || !Files.isReadable(fichero)) {
+            return List.of();
+        }
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (String linea : Files.readAllLines(fichero, StandardCharsets.UTF_8)) {
+                String valor = linea.trim();
+                if (valor.isEmpty() || valor.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    ids.add(Long.parseLong(valor));
+                } catch (NumberFormatException e) {
+                    logger.warn("Línea no válida en {}: {}", fichero, valor);
+                }
+                if (ids.size() == maxClaves) {
+                    break;
+                }
+            }
+            anteriores = List.copyOf(ids);
+            return anteriores;
+        } catch (IOException e) {
+            logger.warn("No se pudo leer la lista de productos más usados {}: {}", fichero, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * @return Los IDs más contados en el intervalo actual, completados con la lista anterior hasta max-keys.
+     */
+    public List<Long> masUsadas() {
+        List<Map.Entry<Long, Long>> contados = new ArrayList<>(accesos.size());
+        accesos.forEach((id, contador) -> contados.add(Map.entry(id, contador.sum())));
+        contados.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()));
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Map.Entry<Long, Long> entrada : contados) {
+            if (ids.size() == maxClaves) {
+                break;
+            }
+            ids.add(entrada.getKey());
+        }
+        for (Long id : anteriores) {
+            if (ids.size() == maxClaves) {
+                break;
+            }
+            ids.add(id);
+        }
+        return List.copyOf(ids);
+    }
+
+    /**
+     * Guarda la lista actual en el fichero y empieza un intervalo nuevo.
+     */
+    public synchronized void guardar() {
+        if (fichero == null) {
+            return;
+        }
+        List<Long> ids = masUsadas();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            Path directorio = fichero.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            Path temporal = directorio.resolve(fichero.getFileName() + ".tmp");
+            List<String> lineas = new ArrayList<>(ids.size() + 1);
+            lineas.add("# IDs de producto de más a menos usado; los precarga el siguiente arranque");
+            ids.forEach(id -> lineas.add(id.toString()));
+            Files.write(temporal, lineas, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING);
+            }
+            anteriores = ids;
+            accesos.clear();
+            logger.debug("Lista de productos más usados guardada en {}: {} IDs", fichero, ids.size());
+        } catch (IOException e) {
+            logger.warn("No se pudo guardar la lista de productos más usados en {}: {}", fichero, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.common.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Calentamiento al arrancar (prefijo app.warm-up en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+
+    // Tiempo máximo de calentamiento; al agotarse el servicio pasa a aceptar tráfico aunque no haya terminado
+    private Duration budget = Duration.ofSeconds(60);
+
+    // Peticiones a los endpoints propios para que el JIT compile el camino de las peticiones
+    private int requests = 2000;
+
+    // Peticiones en paralelo (también abren las conexiones de los pools)
+    private int concurrency = 4;
+
+    private HotKeys hotKeys = new HotKeys();
+
+    @Data
+    public static class HotKeys {
+        // Vacío = no se guarda la lista; al arrancar se calientan los primeros IDs de la tabla
+        private String file = "data/hot-keys.txt";
+        // IDs que se guardan y se precargan
+        private int maxKeys = 1000;
+        // Se cuenta uno de cada N accesos
+        private int sampleOneIn = 8;
+        // Cada cuánto se guarda la lista (y se empieza a contar de nuevo)
+        private Duration saveInterval = Duration.ofMinutes(5);
+    }
+}
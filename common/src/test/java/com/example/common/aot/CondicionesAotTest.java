@@ -0,0 +1,130 @@
+package com.example.common.aot;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles.Kind;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.javapoet.ClassName;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CondicionesAotTest {
+
+    private static StandardEnvironment entorno(Map<String, Object> propiedades) {
+        StandardEnvironment entorno = new StandardEnvironment();
+        entorno.getPropertySources().addFirst(new MapPropertySource("test", propiedades));
+        return entorno;
+    }
+
+    private static CondicionAot condicion(String valor, boolean siFalta) {
+        return new CondicionAot(List.of("app.jfr.enabled"), valor, siFalta, true, List.of("com.example.JfrConfig"));
+    }
+
+    @Test
+    void seEvaluaComoOnPropertyCondition() {
+        StandardEnvironment activado = entorno(Map.of("app.jfr.enabled", "TRUE"));
+        StandardEnvironment desactivado = entorno(Map.of("app.jfr.enabled", "false"));
+        StandardEnvironment sinPropiedad = entorno(Map.of());
+
+        assertTrue(condicion("true", false).evaluar(activado));
+        assertFalse(condicion("true", false).evaluar(desactivado));
+        assertFalse(condicion("true", false).evaluar(sinPropiedad));
+        assertTrue(condicion("true", true).evaluar(sinPropiedad));
+        // Sin havingValue vale cualquier cosa menos "false"
+        assertTrue(condicion("", false).evaluar(activado));
+        assertFalse(condicion("", false).evaluar(desactivado));
+    }
+
+    @Test
+    void laLineaSeLeeIgualQueSeEscribio() {
+        CondicionAot original = new CondicionAot(List.of("a.enabled", "b.enabled"), "", true, false,
+                List.of("com.example.Config", "com.example.Otra#bean"));
+
+        assertEquals(original, CondicionAot.leer(original.linea()));
+    }
+
+    @Test
+    void arrancaSiElEntornoNoCambiaNingunaCondicion() {
+        List<CondicionAot> condiciones = List.of(condicion("true", false));
+
+        assertDoesNotThrow(() -> CondicionesAotVerificador.verificar(
+                entorno(Map.of("app.jfr.enabled", "true")), condiciones));
+    }
+
+    @Test
+    void noArrancaSiElEntornoCambiaUnaCondicionFijada() {
+        List<CondicionAot> condiciones = List.of(condicion("true", false));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                CondicionesAotVerificador.verificar(entorno(Map.of("app.jfr.enabled", "false")), condiciones));
+        assertTrue(error.getMessage().contains("app.jfr.enabled: al compilar se cumplía y ahora no (JfrConfig)"),
+                error.getMessage());
+    }
+
+    @Test
+    void sinFicheroDeCondicionesNoHayNadaQueVerificar() {
+        assertTrue(CondicionesAotVerificador.leer(getClass().getClassLoader()).isEmpty());
+    }
+
+    @Test
+    void elProcesadorGuardaLasCondicionesQueDecidieronLosBeans() throws IOException {
+        String contenido;
+        try (AnnotationConfigApplicationContext contexto = new AnnotationConfigApplicationContext()) {
+            contexto.setEnvironment(entorno(Map.of("test.activado.enabled", "true",
+                    "test.desactivado.enabled", "false")));
+            contexto.register(Activada.class, Desactivada.class, ConBean.class);
+            contexto.refresh();
+
+            BeanFactoryInitializationAotContribution contribucion =
+                    new CondicionesAotProcessor().processAheadOfTime(contexto.getBeanFactory());
+            DefaultGenerationContext generacion = new DefaultGenerationContext(
+                    new ClassNameGenerator(ClassName.get(CondicionesAotTest.class)), new InMemoryGeneratedFiles());
+            contribucion.applyTo(generacion, null);
+            contenido = ((InMemoryGeneratedFiles) generacion.getGeneratedFiles())
+                    .getGeneratedFileContent(Kind.RESOURCE, CondicionesAotProcessor.RECURSO);
+        }
+
+        List<CondicionAot> condiciones = contenido.lines()
+                .filter(linea -> !linea.startsWith("#"))
+                .map(CondicionAot::leer)
+                .toList();
+        assertTrue(condiciones.contains(new CondicionAot(List.of("test.activado.enabled"), "true", false, true,
+                List.of(Activada.class.getName()))), contenido);
+        assertTrue(condiciones.contains(new CondicionAot(List.of("test.desactivado.enabled"), "true", false, false,
+                List.of(Desactivada.class.getName()))), contenido);
+        assertTrue(condiciones.contains(new CondicionAot(List.of("test.bean.enabled"), "", true, true,
+                List.of(ConBean.class.getName() + "#bean"))), contenido);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "test.activado", name = "enabled", havingValue = "true")
+    static class Activada {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "test.desactivado", name = "enabled", havingValue = "true")
+    static class Desactivada {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ConBean {
+
+        @Bean
+        @ConditionalOnProperty(name = "test.bean.enabled", matchIfMissing = true)
+        String bean() {
+            return "bean";
+        }
+    }
+}
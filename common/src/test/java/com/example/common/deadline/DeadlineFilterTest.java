@@ -0,0 +1,78 @@
+package com.example.common.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineFilterTest {
+
+    private DeadlineFilter filter;
+    private final AtomicReference<Deadline> visto = new AtomicReference<>();
+    private boolean atendida;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DeadlineFilter();
+        ReflectionTestUtils.setField(filter, "deadlinePorDefecto", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(filter, "deadlineMaximo", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testSinCabeceraSeFijaElDeadlinePorDefecto() throws Exception {
+        MockHttpServletResponse response = filtrar(new MockHttpServletRequest("GET", "/api/productos/1"));
+
+        assertEquals(200, response.getStatus());
+        assertTrue(atendida);
+        long restante = visto.get().restante().toMillis();
+        assertTrue(restante > 9_000 && restante <= 10_000, "restante " + restante + " ms");
+        // Fuera de la petición no queda deadline en el hilo
+        assertNull(Deadline.actual());
+    }
+
+    @Test
+    void testSeRespetaElDeadlineRecibido() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos/1/with-stock");
+        request.addHeader(Deadline.HEADER, "250");
+
+        filtrar(request);
+
+        assertTrue(visto.get().restante().toMillis() <= 250);
+    }
+
+    @Test
+    void testSeLimitaAlDeadlineMaximo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos/1");
+        request.addHeader(Deadline.HEADER, "3600000");
+
+        filtrar(request);
+
+        assertTrue(visto.get().restante().toMillis() <= 30_000);
+    }
+
+    @Test
+    void testDeadlineVencidoResponde504SinAtenderLaPeticion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/productos/1/reducir-stock/2");
+        request.addHeader(Deadline.HEADER, "0");
+
+        MockHttpServletResponse response = filtrar(request);
+
+        assertEquals(504, response.getStatus());
+        assertFalse(atendida);
+    }
+
+    private MockHttpServletResponse filtrar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            atendida = true;
+            visto.set(Deadline.actual());
+        });
+        return response;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.common.eventlog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+
+    private Logger destino;
+    private ListAppender<ILoggingEvent> escritos;
+    private EventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        destino = (Logger) LoggerFactory.getLogger("eventlog.test." + System.nanoTime());
+        destino.setAdditive(false);
+        destino.setLevel(Level.DEBUG);
+        escritos = new ListAppender<>();
+        escritos.setContext(destino.getLoggerContext());
+        escritos.start();
+        destino.addAppender(escritos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    @Test
+    void testFormateaElEventoComoClaveValor() {
+        eventLog = EventLog.sincrono();
+
+        eventLog.info(destino, "stock.reducido", "productoId", 7, "cantidad", 2, "stock", 40);
+        eventLog.warn(destino, "stock.reduccion.error", "productoId", 7, "error", "Sin stock");
+
+        assertEquals(2, escritos.list.size());
+        String hilo = Thread.currentThread().getName();
+        assertEquals("stock.reducido productoId=7 cantidad=2 stock=40 thread=" + hilo, escritos.list.get(0).getFormattedMessage());
+        assertEquals(Level.INFO, escritos.list.get(0).getLevel());
+        assertEquals("stock.reduccion.error productoId=7 error=\"Sin stock\" thread=" + hilo, escritos.list.get(1).getFormattedMessage());
+        assertEquals(Level.WARN, escritos.list.get(1).getLevel());
+    }
+
+    @Test
+    void testElHiloDeEscrituraLosEscribeEnOrdenYCloseVaciaElAnillo() throws Exception {
+        eventLog = new EventLog(1024, 1, new SimpleMeterRegistry());
+        Thread productor = new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                eventLog.info(destino, "inventario.creado", "productoId", i, "cantidad", 1);
+            }
+        }, "productor");
+        productor.start();
+        productor.join();
+        eventLog.close();
+
+        assertEquals(500, escritos.list.size());
+        for (int i = 0; i < 500; i++) {
+            ILoggingEvent evento = escritos.list.get(i);
+            assertEquals("inventario.creado productoId=" + i + " cantidad=1 thread=productor", evento.getFormattedMessage());
+        }
+        assertEquals(0, eventLog.getDescartados());
+        assertEquals(0, eventLog.getPendientes());
+    }
+
+    @Test
+    void testConElAnilloLlenoDescartaYCuentaSinBloquear() throws Exception {
+        // El primer evento deja el hilo de escritura parado en el appender hasta que se libera
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        destino.detachAndStopAllAppenders();
+        destino.addAppender(new AppenderBase<>() {
+            {
+                start();
+            }
+
+            @Override
+            protected void append(ILoggingEvent evento) {
+                dentro.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        escritos.start();
+        destino.addAppender(escritos);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        eventLog = new EventLog(4, 1, registry);
+
+        eventLog.info(destino, "stock.reducido", "productoId", 0, "cantidad", 1);
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+        long inicio = System.nanoTime();
+        for (int i = 1; i < 10; i++) {
+            eventLog.info(destino, "stock.reducido", "productoId", i, "cantidad", 1);
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1), "Registrar no debe esperar al hilo de escritura");
+
+        // Caben 4: el que se está escribiendo y tres más
+        assertEquals(6, eventLog.getDescartados());
+        assertEquals(4, eventLog.getPendientes());
+        assertEquals(6.0, registry.get("eventlog.dropped").functionCounter().count());
+
+        liberar.countDown();
+        eventLog.close();
+        assertEquals(4, escritos.list.size());
+        assertEquals("stock.reducido productoId=3 cantidad=1 thread=" + Thread.currentThread().getName(),
+                escritos.list.get(3).getFormattedMessage());
+    }
+
+    @Test
+    void testElMuestreoSoloAfectaAInfoYDebug() {
+        eventLog = new EventLog(4096, 1_000_000, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 1_000; i++) {
+            eventLog.info(destino, "stock.reducido", "productoId", i, "cantidad", 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            eventLog.warn(destino, "stock.reduccion.error", "productoId", i, "error", "Sin stock");
+        }
+        eventLog.close();
+
+        long avisos = escritos.list.stream().filter(evento -> evento.getLevel() == Level.WARN).count();
+        assertEquals(10, avisos);
+        assertTrue(eventLog.getOmitidos() >= 990, "Omitidos: " + eventLog.getOmitidos());
+        assertEquals(1_000, eventLog.getOmitidos() + escritos.list.size() - avisos);
+    }
+
+    @Test
+    void testNoEncolaLosEventosDeNivelesDesactivados() {
+        destino.setLevel(Level.WARN);
+        eventLog = new EventLog(4, 1, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            eventLog.info(destino, "stock.reducido", "productoId", i, "cantidad", 1);
+        }
+        eventLog.close();
+
+        assertTrue(escritos.list.isEmpty());
+        assertEquals(0, eventLog.getDescartados());
+        assertEquals(0, eventLog.getOmitidos());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.common.latency;
+
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Respuestas de Mockito que tardan lo que tardaría el sistema real (base de datos, red) antes de responder.
+ * AdditionalAnswers.answersWithDelay solo admite milisegundos; las consultas simuladas de los benchmarks
+ * tardan microsegundos.
+ */
+public final class Latencia {
+
+    private Latencia() {
+    }
+
+    /**
+     * @return Una respuesta que espera la latencia indicada y después delega en la respuesta dada.
+     */
+    public static <T> Answer<T> tras(Duration latencia, Answer<T> respuesta) {
+        long nanos = latencia.toNanos();
+        return invocacion -> {
+            LockSupport.parkNanos(nanos);
+            return respuesta.answer(invocacion);
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.common.limiter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter.Prioridad;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testRechazaAlAlcanzarElLimite() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 0.5, 1.5, 0.2);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.adquirir(Prioridad.ALTA));
+        }
+        assertFalse(limiter.adquirir(Prioridad.ALTA));
+        assertEquals(1, limiter.getRechazadas(Prioridad.ALTA));
+
+        limiter.liberar(5 * MS, false);
+        assertTrue(limiter.adquirir(Prioridad.ALTA));
+    }
+
+    @Test
+    void testLaPrioridadBajaSoloOcupaSuParteDelLimite() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.5, 1.5, 0.2);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.adquirir(Prioridad.BAJA));
+        }
+        assertFalse(limiter.adquirir(Prioridad.BAJA));
+        // Las compras siguen teniendo sitio
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.adquirir(Prioridad.ALTA));
+        }
+        assertFalse(limiter.adquirir(Prioridad.ALTA));
+    }
+
+    @Test
+    void testElLimiteBajaCuandoLaLatenciaSeDispara() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 0.5, 1.5, 0.2);
+        cargar(limiter, 200, 5 * MS);
+        int limiteNormal = limiter.getLimite();
+
+        cargar(limiter, 50, 100 * MS);
+
+        assertTrue(limiter.getLimite() < limiteNormal / 2, "Límite " + limiteNormal + " -> " + limiter.getLimite());
+    }
+
+    @Test
+    void testElLimiteCreceConLatenciaEstableYSeRecuperaTrasElPico() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.5, 1.5, 0.2);
+        cargar(limiter, 100, 5 * MS);
+        assertTrue(limiter.getLimite() > 10, "Límite " + limiter.getLimite());
+
+        cargar(limiter, 50, 100 * MS);
+        int limiteEnElPico = limiter.getLimite();
+        cargar(limiter, 300, 5 * MS);
+
+        assertTrue(limiter.getLimite() > limiteEnElPico, "Límite " + limiteEnElPico + " -> " + limiter.getLimite());
+    }
+
+    @Test
+    void testLosErroresReducenElLimite() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 0.5, 1.5, 0.2);
+
+        limiter.adquirir(Prioridad.ALTA);
+        limiter.liberar(5 * MS, true);
+
+        assertEquals(18, limiter.getLimite());
+    }
+
+    @Test
+    void testMetricas() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 100, 0.5, 1.5, 0.2);
+        limiter.registrarMetricas(meterRegistry);
+
+        limiter.adquirir(Prioridad.BAJA);
+        limiter.adquirir(Prioridad.BAJA);
+        limiter.adquirir(Prioridad.ALTA);
+        limiter.liberar(5 * MS, true);
+
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected").tag("priority", "baja").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("concurrency.rejected").tag("priority", "alta").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("concurrency.inflight").gauge().value());
+        assertEquals(1.0, meterRegistry.get("concurrency.limit").gauge().value());
+        assertEquals(1.0, meterRegistry.get("concurrency.limit.changes").functionCounter().count());
+    }
+
+    // Mantiene el límite ocupado: cada petición que termina con la latencia dada deja sitio a otra
+    private static void cargar(AdaptiveConcurrencyLimiter limiter, int peticiones, long latenciaNanos) {
+        while (limiter.adquirir(Prioridad.ALTA)) {
+            // Se llena hasta el límite actual
+        }
+        for (int i = 0; i < peticiones; i++) {
+            limiter.liberar(latenciaNanos, false);
+            while (limiter.adquirir(Prioridad.ALTA)) {
+                // Si el límite ha subido se ocupa el hueco nuevo
+            }
+        }
+        while (limiter.getEnCurso() > 0) {
+            limiter.liberar(latenciaNanos, false);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.common.performance;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puerta de rendimiento: mide operaciones en varias rondas y compara throughput, p99 y bytes asignados por
+ * operación con la baseline de src/test/resources/performance/baseline.json. Una métrica es una regresión si
+ * empeora más que su tolerancia relativa y además más que el ruido medido (3 errores estándar de la
+ * diferencia de medias entre rondas). Con -Dperformance.update-baseline=true se reescribe la baseline en
+ * lugar de comparar.
+ * <p>
+ * El informe (tabla con baseline, valor actual y límite de cada métrica) se guarda en
+ * target/performance/&lt;servicio&gt;.txt y es el mensaje del fallo.
+ */
+public class PerformanceGate {
+
+    static final String RECURSO_BASELINE = "performance/baseline.json";
+    static final Path FICHERO_BASELINE = Path.of("src", "test", "resources", RECURSO_BASELINE);
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final int MAX_MUESTRAS = 1 << 20; // Latencias guardadas por ronda para el percentil
+    private static final double ERRORES_ESTANDAR = 3;
+    private static final double MARGEN_BYTES = 32; // Redondeos de la medición de asignaciones (TLAB)
+
+    private final String servicio;
+    private final int rondasCalentamiento = Integer.getInteger("performance.warmup-rounds", 5);
+    private final int rondas = Integer.getInteger("performance.rounds", 10);
+    private final long nanosRonda = TimeUnit.MILLISECONDS.toNanos(Long.getLong("performance.round-ms", 300));
+    private final double toleranciaThroughput = Double.parseDouble(System.getProperty("performance.tolerance.throughput", "0.15"));
+    private final double toleranciaLatencia = Double.parseDouble(System.getProperty("performance.tolerance.latency", "0.25"));
+    private final double toleranciaBytes = Double.parseDouble(System.getProperty("performance.tolerance.allocation", "0.10"));
+    private final Map<String, Medicion> mediciones = new LinkedHashMap<>();
+    private final long[] muestras = new long[MAX_MUESTRAS];
+    private long sumidero; // Evita que el JIT elimine el resultado de las operaciones
+
+    @FunctionalInterface
+    public interface Operacion {
+        /**
+         * @return Un valor derivado del resultado (p. ej. bytes escritos), para que la operación no se optimice.
+         */
+        int ejecutar() throws Exception;
+    }
+
+    public record Estadistico(double media, double desviacion, int rondas) {
+
+        static Estadistico de(double[] valores) {
+            double media = Arrays.stream(valores).average().orElse(0);
+            double suma = 0;
+            for (double valor : valores) {
+                suma += (valor - media) * (valor - media);
+            }
+            return new Estadistico(media, valores.length > 1 ? Math.sqrt(suma / (valores.length - 1)) : 0, valores.length);
+        }
+
+        double varianzaMedia() {
+            return rondas > 0 ? desviacion * desviacion / rondas : 0;
+        }
+    }
+
+    /**
+     * @param throughput Operaciones por segundo, en un hilo.
+     * @param p99Micros Percentil 99 de la latencia de cada operación.
+     * @param bytesPorOperacion Bytes asignados por operación en todos los hilos (incluye los cambios de hilo).
+     */
+    public record Medicion(Estadistico throughput, Estadistico p99Micros, Estadistico bytesPorOperacion) {
+    }
+
+    public record Baseline(String entorno, Map<String, Medicion> operaciones) {
+    }
+
+    public PerformanceGate(String servicio) {
+        this.servicio = servicio;
+    }
+
+    /**
+     * Calienta y mide la operación en un solo hilo, por rondas de duración fija.
+     */
+    public void medir(String nombre, Operacion operacion) throws Exception {
+        for (int i = 0; i < rondasCalentamiento; i++) {
+            ronda(operacion);
+        }
+        double[] throughput = new double[rondas];
+        double[] p99 = new double[rondas];
+        double[] bytes = new double[rondas];
+        for (int i = 0; i < rondas; i++) {
+            long asignadosAntes = bytesAsignados();
+            long inicio = System.nanoTime();
+            int operaciones = ronda(operacion);
+            long duracion = System.nanoTime() - inicio;
+            long asignados = bytesAsignados() - asignadosAntes;
+            throughput[i] = operaciones * 1e9 / duracion;
+            p99[i] = percentil99(Math.min(operaciones, MAX_MUESTRAS)) / 1_000.0;
+            bytes[i] = Math.max(0, (double) asignados / operaciones);
+        }
+        mediciones.put(nombre, new Medicion(Estadistico.de(throughput), Estadistico.de(p99), Estadistico.de(bytes)));
+    }
+
+    private int ronda(Operacion operacion) throws Exception {
+        long fin = System.nanoTime() + nanosRonda;
+        int operaciones = 0;
+        long ahora;
+        do {
+            long inicio = System.nanoTime();
+            sumidero += operacion.ejecutar();
+            ahora = System.nanoTime();
+            if (operaciones < MAX_MUESTRAS) {
+                muestras[operaciones] = ahora - inicio;
+            }
+            operaciones++;
+        } while (ahora < fin);
+        return operaciones;
+    }
+
+    private long percentil99(int cantidad) {
+        Arrays.sort(muestras, 0, cantidad);
+        return muestras[Math.min(cantidad - 1, (int) Math.ceil(cantidad * 0.99) - 1)];
+    }
+
+    // Suma de los bytes asignados por todos los hilos vivos; los que terminan durante la ronda se pierden
+    private static long bytesAsignados() {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long asignados : hilos.getThreadAllocatedBytes(hilos.getAllThreadIds())) {
+            total += Math.max(0, asignados);
+        }
+        return total;
+    }
+
+    /**
+     * Compara lo medido con la baseline (o la reescribe) y guarda el informe.
+     * @throws AssertionError Con el informe si alguna métrica empeora más de lo tolerado o falta su baseline.
+     */
+    public void verificar() throws IOException {
+        if (Boolean.getBoolean("performance.update-baseline")) {
+            Files.createDirectories(FICHERO_BASELINE.getParent());
+            JSON.writeValue(FICHERO_BASELINE.toFile(), new Baseline(entorno(), mediciones));
+            guardarInforme("Baseline de " + servicio + " actualizada en " + FICHERO_BASELINE + " (" + entorno() + ")\n");
+            return;
+        }
+        Baseline baseline = leerBaseline();
+        List<String> filas = new ArrayList<>();
+        int regresiones = 0;
+        for (Map.Entry<String, Medicion> entrada : mediciones.entrySet()) {
+            String operacion = entrada.getKey();
+            Medicion actual = entrada.getValue();
+            Medicion base = baseline != null ? baseline.operaciones().get(operacion) : null;
+            if (base == null) {
+                filas.add(String.format(Locale.ROOT, "%-26s sin baseline", operacion));
+                regresiones++;
+                continue;
+            }
+            regresiones += comparar(filas, operacion, "ops/s", base.throughput(), actual.throughput(), -1, toleranciaThroughput, 0);
+            regresiones += comparar(filas, operacion, "p99 µs", base.p99Micros(), actual.p99Micros(), 1, toleranciaLatencia, 0);
+            regresiones += comparar(filas, operacion, "bytes/op", base.bytesPorOperacion(), actual.bytesPorOperacion(), 1, toleranciaBytes, MARGEN_BYTES);
+        }
+
+        StringBuilder informe = new StringBuilder();
+        informe.append(String.format(Locale.ROOT, "Rendimiento de %s frente a %s%n", servicio, FICHERO_BASELINE));
+        if (baseline != null && !entorno().equals(baseline.entorno())) {
+            informe.append("Aviso: la baseline se midió en otro entorno (").append(baseline.entorno())
+                    .append("); este es ").append(entorno()).append('\n');
+        }
+        informe.append(String.format(Locale.ROOT, "%-26s %-9s %12s %12s %8s %8s  %s%n",
+                "operación", "métrica", "baseline", "actual", "cambio", "límite", "resultado"));
+        filas.forEach(fila -> informe.append(fila).append('\n'));
+        informe.append(regresiones == 0 ? "Sin regresiones\n"
+                : regresiones + " regresiones (si el cambio es esperado: -Dperformance.update-baseline=true y subir la nueva baseline)\n");
+        guardarInforme(informe.toString());
+        if (regresiones > 0) {
+            throw new AssertionError(informe.toString());
+        }
+    }
+
+    /**
+     * @param peor 1 si un valor mayor es peor (latencia, bytes), -1 si es mejor (throughput).
+     * @param margen Diferencia absoluta que nunca se considera regresión.
+     * @return 1 si es una regresión.
+     */
+    static int comparar(List<String> filas, String operacion, String metrica, Estadistico base, Estadistico actual,
+                        int peor, double tolerancia, double margen) {
+        double empeora = peor * (actual.media() - base.media());
+        double ruido = ERRORES_ESTANDAR * Math.sqrt(base.varianzaMedia() + actual.varianzaMedia());
+        double limite = Math.max(Math.max(tolerancia * base.media(), ruido), margen);
+        boolean regresion = empeora > limite;
+        double cambio = base.media() != 0 ? 100 * (actual.media() - base.media()) / base.media() : 0;
+        double limitePorcentaje = base.media() != 0 ? 100 * peor * limite / base.media() : 0;
+        filas.add(String.format(Locale.ROOT, "%-26s %-9s %12.1f %12.1f %+7.1f%% %+7.1f%%  %s",
+                operacion, metrica, base.media(), actual.media(), cambio, limitePorcentaje, regresion ? "REGRESIÓN" : "ok"));
+        return regresion ? 1 : 0;
+    }
+
+    private static Baseline leerBaseline() throws IOException {
+        try (InputStream entrada = PerformanceGate.class.getClassLoader().getResourceAsStream(RECURSO_BASELINE)) {
+            return entrada != null ? JSON.readValue(entrada, Baseline.class) : null;
+        }
+    }
+
+    private void guardarInforme(String informe) throws IOException {
+        Path fichero = Path.of("target", "performance", servicio + ".txt");
+        Files.createDirectories(fichero.getParent());
+        Files.writeString(fichero, informe);
+    }
+
+    // Las cifras solo son comparables con la misma versión de Java y el mismo número de CPU
+    static String entorno() {
+        return "Java " + Runtime.version().feature() + ", " + System.getProperty("os.name") + " " + System.getProperty("os.arch")
+                + ", " + Runtime.getRuntime().availableProcessors() + " CPU";
+    }
+
+    public long getSumidero() {
+        return sumidero;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.common.performance;
+
+import com.example.common.performance.PerformanceGate.Estadistico;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerformanceGateTest {
+
+    private final List<String> filas = new ArrayList<>();
+
+    @Test
+    void testEstadisticoCalculaMediaYDesviacion() {
+        Estadistico estadistico = Estadistico.de(new double[]{2, 4, 4, 4, 5, 5, 7, 9});
+
+        assertEquals(5.0, estadistico.media(), 1e-9);
+        assertEquals(2.138, estadistico.desviacion(), 1e-3);
+        assertEquals(8, estadistico.rondas());
+    }
+
+    @Test
+    void testCaidaDeThroughputMayorQueLaToleranciaEsRegresion() {
+        int regresion = PerformanceGate.comparar(filas, "op", "ops/s", estable(1000), estable(800), -1, 0.15, 0);
+
+        assertEquals(1, regresion);
+        assertTrue(filas.get(0).contains("REGRESIÓN"), filas.get(0));
+        assertTrue(filas.get(0).contains("-20.0%"), filas.get(0));
+    }
+
+    @Test
+    void testMejorasYCambiosDentroDeLaToleranciaNoSonRegresion() {
+        assertEquals(0, PerformanceGate.comparar(filas, "op", "ops/s", estable(1000), estable(900), -1, 0.15, 0));
+        assertEquals(0, PerformanceGate.comparar(filas, "op", "ops/s", estable(1000), estable(2000), -1, 0.15, 0));
+        assertEquals(0, PerformanceGate.comparar(filas, "op", "p99 µs", estable(10), estable(5), 1, 0.25, 0));
+    }
+
+    @Test
+    void testRuidoEntreRondasAmpliaElLimite() {
+        // Un 30 % peor, pero con rondas tan dispersas que la diferencia no es significativa
+        Estadistico ruidosa = new Estadistico(100, 60, 10);
+        Estadistico actual = new Estadistico(130, 60, 10);
+
+        assertEquals(0, PerformanceGate.comparar(filas, "op", "p99 µs", ruidosa, actual, 1, 0.25, 0));
+        assertEquals(1, PerformanceGate.comparar(filas, "op", "p99 µs", estable(100), estable(130), 1, 0.25, 0));
+    }
+
+    @Test
+    void testMargenAbsolutoDeBytes() {
+        assertEquals(0, PerformanceGate.comparar(filas, "op", "bytes/op", estable(100), estable(130), 1, 0.10, 32));
+        assertEquals(1, PerformanceGate.comparar(filas, "op", "bytes/op", estable(100), estable(140), 1, 0.10, 32));
+    }
+
+    private static Estadistico estable(double media) {
+        return new Estadistico(media, 0, 10);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.common.replica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingTest {
+
+    private final List<String> usados = new CopyOnWriteArrayList<>();
+    private ReplicaRoutingDataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new ReplicaRoutingDataSource(pool("primario"), pool("replica"));
+        // Sin ellos el proxy pide una conexión al primario para averiguarlos
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    void testLasTransaccionesDeSoloLecturaVanALaReplica() {
+        consultar(true);
+        consultar(false);
+
+        assertEquals(List.of("replica", "primario"), usados);
+        assertEquals(1, dataSource.getLecturasReplica());
+        assertEquals(0, dataSource.getLecturasPrimario());
+    }
+
+    @Test
+    void testEnPrimarioLasLecturasNoVanALaReplica() {
+        ReplicaRoutingDataSource.enPrimario(() -> {
+            consultar(true);
+            ReplicaRoutingDataSource.enPrimario(() -> consultar(true)); // Anidado
+            consultar(true);
+        });
+        consultar(true); // Al salir vuelve a la réplica
+
+        assertEquals(List.of("primario", "primario", "primario", "replica"), usados);
+        assertEquals(3, dataSource.getLecturasPrimario());
+        assertEquals(1, dataSource.getLecturasReplica());
+    }
+
+    @Test
+    void testTrasComprarSeLeeDelPrimarioDuranteLaVentana() {
+        AtomicLong reloj = new AtomicLong(-1_000); // nanoTime puede ser negativo
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofNanos(100), 1000, reloj::get);
+        readYourWrites.registrar(7L);
+        readYourWrites.leer(7L, () -> consultar(true));
+        readYourWrites.leer(8L, () -> consultar(true)); // Otro producto, sin escrituras recientes
+        reloj.addAndGet(100);
+        readYourWrites.leer(7L, () -> consultar(true)); // Ventana cumplida
+
+        assertEquals(List.of("primario", "replica", "replica"), usados);
+        assertFalse(readYourWrites.reciente(7L));
+        assertEquals(0, readYourWrites.getRecordados());
+    }
+
+    @Test
+    void testLaVentanaEmpiezaDeNuevoAlConfirmar() {
+        AtomicLong reloj = new AtomicLong();
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofNanos(100), 1000, reloj::get);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            readYourWrites.registrar(7L);
+            reloj.addAndGet(150); // Una transacción más larga que la ventana
+            assertFalse(readYourWrites.reciente(7L));
+        });
+
+        assertTrue(readYourWrites.reciente(7L));
+        reloj.addAndGet(100);
+        assertFalse(readYourWrites.reciente(7L));
+    }
+
+    @Test
+    void testUnaLecturaDeVariosIdsVaAlPrimarioSiAlgunoEsReciente() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), 1000);
+        readYourWrites.registrar(1L);
+
+        readYourWrites.leer(List.of(2L, 1L), () -> consultar(true));
+        readYourWrites.leer(List.of(2L, 3L), () -> consultar(true));
+
+        assertEquals(List.of("primario", "replica"), usados);
+    }
+
+    @Test
+    void testSoloSeLimpiaAPartirDelLimite() {
+        AtomicLong reloj = new AtomicLong();
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofNanos(100), 2, reloj::get);
+
+        readYourWrites.registrar(1L);
+        readYourWrites.registrar(2L);
+        reloj.addAndGet(100);
+        readYourWrites.registrar(3L); // Supera el límite: se olvidan 1 y 2, ya fuera de la ventana
+
+        assertEquals(1, readYourWrites.getRecordados());
+        assertTrue(readYourWrites.reciente(3L));
+    }
+
+    // Una "consulta" en una transacción, como la de los repositorios: la conexión se pide en la primera sentencia.
+    // Devuelve el pool que la sirvió.
+    private String consultar(boolean soloLectura) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(soloLectura);
+        return template.execute(estado -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return usados.get(usados.size() - 1);
+        });
+    }
+
+    // Pool que anota a quién se pidió cada conexión; las conexiones no hacen nada
+    private DataSource pool(String nombre) throws SQLException {
+        Connection conexion = mock(Connection.class);
+        when(conexion.getAutoCommit()).thenReturn(true);
+        when(conexion.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocacion -> {
+            usados.add(nombre);
+            return conexion;
+        });
+        return pool;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.common.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotKeyTrackerTest {
+
+    private static HotKeyTracker tracker(Path fichero, int maxClaves) {
+        return new HotKeyTracker(fichero, maxClaves, 1, Duration.ofMinutes(5));
+    }
+
+    private static void registrar(HotKeyTracker tracker, long id, int veces) {
+        for (int i = 0; i < veces; i++) {
+            tracker.registrar(id);
+        }
+    }
+
+    @Test
+    void testGuardaDeMasAMenosUsadoYLoLeeElSiguienteArranque() throws IOException {
+        Path fichero = Files.createTempDirectory("hot-keys").resolve("datos").resolve("hot-keys.txt");
+        HotKeyTracker tracker = tracker(fichero, 10);
+        registrar(tracker, 7, 2);
+        registrar(tracker, 5, 3);
+        registrar(tracker, 9, 1);
+
+        tracker.guardar();
+
+        assertEquals(List.of(5L, 7L, 9L), tracker(fichero, 10).leer());
+        assertFalse(Files.exists(fichero.resolveSibling("hot-keys.txt.tmp")));
+    }
+
+    @Test
+    void testSeLimitaAMaxKeysYSeCompletaConLaListaAnterior() throws IOException {
+        Path fichero = Files.createTempFile("hot-keys", ".txt");
+        Files.writeString(fichero, "# comentario\n1\n2\n\nno-es-un-id\n3\n4\n");
+        HotKeyTracker tracker = tracker(fichero, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), tracker.leer());
+
+        registrar(tracker, 9, 2);
+        registrar(tracker, 2, 1);
+        assertEquals(List.of(9L, 2L, 1L), tracker.masUsadas());
+
+        tracker.guardar();
+        assertEquals(List.of(9L, 2L, 1L), tracker(fichero, 3).leer());
+        // Tras guardar se empieza a contar de nuevo: sin accesos queda la lista guardada
+        assertEquals(List.of(9L, 2L, 1L), tracker.masUsadas());
+    }
+
+    @Test
+    void testPausadoNoCuenta() {
+        HotKeyTracker tracker = tracker(null, 10);
+        tracker.pausar();
+        registrar(tracker, 1, 5);
+        tracker.reanudar();
+        registrar(tracker, 2, 1);
+
+        assertEquals(List.of(2L), tracker.masUsadas());
+    }
+
+    @Test
+    void testSinFicheroNoSeGuardaNada() {
+        HotKeyTracker tracker = tracker(null, 10);
+        registrar(tracker, 1, 1);
+
+        tracker.guardar();
+
+        assertTrue(tracker.leer().isEmpty());
+        assertEquals(List.of(1L), tracker.masUsadas());
+    }
+
+    @Test
+    void testFicheroInexistente() throws IOException {
+        Path fichero = Files.createTempDirectory("hot-keys").resolve("no-existe.txt");
+        assertTrue(tracker(fichero, 10).leer().isEmpty());
+    }
+}
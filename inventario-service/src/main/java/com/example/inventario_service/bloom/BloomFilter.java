@@ -0,0 +1,80 @@
+package com.example.inventario_service.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de longs, seguro para hilos y sin bloqueos.
+ * Nunca da falsos negativos: si puedeContener devuelve false el valor no se ha agregado. Con la capacidad para
+ * la que se dimensionó, los falsos positivos rondan la tasa indicada; con más valores la tasa crece.
+ * No admite borrados: para olvidar valores hay que construir uno nuevo.
+ */
+public final class BloomFilter {
+
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE; // Límite de AtomicLongArray
+
+    private final AtomicLongArray palabras;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.palabras = new AtomicLongArray((int) (numBits >>> 6));
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Crea un filtro con los bits y las funciones hash óptimos para la capacidad y la tasa de falsos positivos.
+     */
+    public static BloomFilter paraCapacidad(long capacidad, double tasaFalsosPositivos) {
+        if (capacidad <= 0 || tasaFalsosPositivos <= 0 || tasaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidad o tasa de falsos positivos no válidas");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (ln2 * ln2));
+        bits = Math.min(Math.max(Long.SIZE, (bits + 63) & ~63L), MAX_BITS); // Múltiplo de 64
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacidad * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void agregar(long valor) {
+        long h1 = mezclar(valor);
+        long h2 = mezclar(h1) | 1; // Doble hashing: las k posiciones son h1 + i·h2
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long palabra;
+            while (((palabra = palabras.get(indice)) & mascara) == 0
+                    && !palabras.compareAndSet(indice, palabra, palabra | mascara)) {
+                // Otro hilo modificó la palabra: se reintenta
+            }
+        }
+    }
+
+    public boolean puedeContener(long valor) {
+        long h1 = mezclar(valor);
+        long h2 = mezclar(h1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    // Finalizador de SplitMix64: IDs consecutivos acaban en posiciones bien repartidas
+    private static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.inventario_service.bloom;
+
+import com.example.common.replica.ReplicaRoutingDataSource;
+import com.example.inventario_service.repository.InventarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filtro de pertenencia (Bloom) sobre los producto_id que tienen inventario. Si dice que un producto no está,
+ * seguro que no está, y la consulta se responde sin ir a la base de datos; si dice que puede estar, se consulta.
+ * <p>
+ * Se construye al arrancar recorriendo la tabla por rangos de producto_id (keyset), en un hilo aparte; hasta
+ * entonces todo "puede existir". ProductoIdFilterListener agrega cada alta o modificación hecha con
+ * InventarioRepository, y el filtro se reconstruye cada inventario.producto-id-filter.rebuild-interval para
+ * olvidar los borrados y volver a dimensionarlo. Las altas que no pasan por JPA (SQL directo, otras réplicas)
+ * no se ven hasta la siguiente reconstrucción. Con réplica de lectura (app.datasource.replica) se reconstruye
+ * leyendo del primario: un alta que la réplica aún no tuviera quedaría fuera del filtro y su producto
+ * respondería 404 hasta la siguiente reconstrucción.
+ * <p>
+ * Por eso solo se usa en las consultas (GET); reduceStock y saveInventario leen siempre de la base de datos, y
+ * viene deshabilitado salvo que esta instancia sea la única que escribe en la tabla.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventario.producto-id-filter", name = "enabled", havingValue = "true")
+public class ProductoIdFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductoIdFilter.class);
+
+    private final InventarioRepository inventarioRepository;
+    private final double tasaFalsosPositivos;
+    private final long capacidadMinima;
+    private final Duration intervaloReconstruccion;
+    private final int batchSize;
+
+    private volatile BloomFilter actual; // null hasta la primera carga
+    private volatile BloomFilter enConstruccion; // Recibe también las altas mientras se reconstruye
+    // Un alta no puede caer entre publicar el filtro nuevo y dejar de agregar al que estaba en construcción
+    private final Object cambios = new Object();
+
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    private final ScheduledExecutorService reconstruccion = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "producto-id-filter");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ProductoIdFilter(InventarioRepository inventarioRepository,
+                            @Value("${inventario.producto-id-filter.false-positive-rate:0.01}") double tasaFalsosPositivos,
+                            @Value("${inventario.producto-id-filter.min-capacity:100000}") long capacidadMinima,
+                            @Value("${inventario.producto-id-filter.rebuild-interval:10m}") Duration intervaloReconstruccion,
+                            @Value("${inventario.producto-id-filter.load-batch-size:5000}") int batchSize) {
+        this.inventarioRepository = inventarioRepository;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.capacidadMinima = capacidadMinima;
+        this.intervaloReconstruccion = intervaloReconstruccion;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruccion.scheduleWithFixedDelay(() -> ReplicaRoutingDataSource.enPrimario(this::reconstruir), 0, intervaloReconstruccion.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        reconstruccion.shutdownNow();
+    }
+
+    /**
+     * @return false si el producto seguro que no tiene inventario; true si puede tenerlo (o el filtro aún no está cargado).
+     */
+    public boolean puedeExistir(Long productoId) {
+        consultas.incrementAndGet();
+        BloomFilter filtro = actual;
+        if (filtro == null || productoId == null || filtro.puedeContener(productoId)) {
+            return true;
+        }
+        descartadas.incrementAndGet();
+        return false;
+    }
+
+    public void agregar(Long productoId) {
+        if (productoId == null) {
+            return;
+        }
+        synchronized (cambios) {
+            BloomFilter filtro = actual;
+            if (filtro != null) {
+                filtro.agregar(productoId);
+            }
+            BloomFilter nuevo = enConstruccion;
+            if (nuevo != null) {
+                nuevo.agregar(productoId);
+            }
+        }
+    }
+
+    /**
+     * Construye un filtro nuevo a partir de la tabla y lo publica al terminar. Se dimensiona para el doble de
+     * las filas actuales, de modo que las altas hasta la siguiente reconstrucción no disparen los falsos positivos.
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            long capacidad = Math.max(capacidadMinima, inventarioRepository.count() * 2);
+            BloomFilter nuevo = BloomFilter.paraCapacidad(capacidad, tasaFalsosPositivos);
+            synchronized (cambios) {
+                enConstruccion = nuevo;
+            }
+            long cargados = 0;
+            long ultimo = Long.MIN_VALUE;
+            List<Long> lote;
+            do {
+                lote = inventarioRepository.findProductoIdsGreaterThan(ultimo, PageRequest.ofSize(batchSize));
+                for (Long productoId : lote) {
+                    nuevo.agregar(productoId);
+                    ultimo = productoId;
+                }
+                cargados += lote.size();
+            } while (lote.size() == batchSize);
+            synchronized (cambios) {
+                actual = nuevo;
+                enConstruccion = null;
+            }
+            logger.info("Filtro de producto_id construido: {} productos, {} bits, {} hashes, {} ms",
+                    cargados, nuevo.getNumBits(), nuevo.getNumHashes(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Se mantiene el filtro anterior (o ninguno: todo se consulta en la base de datos)
+            logger.error("Error al construir el filtro de producto_id: {}", e.getMessage(), e);
+        } finally {
+            synchronized (cambios) {
+                enConstruccion = null;
+            }
+        }
+    }
+
+    public long getConsultas() {
+        return consultas.get();
+    }
+
+    // Consultas respondidas sin ir a la base de datos
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.inventario_service.bloom;
+
+import com.example.inventario_service.model.Inventario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Inventario que agrega al filtro de producto_id (si está activado) cada alta o modificación
+ * hecha con InventarioRepository. Se agrega al guardar, para que la fila nunca sea visible sin estar en el
+ * filtro, y otra vez tras el commit por si entretanto empezó una reconstrucción que ya no la leyó.
+ * Si la transacción se deshace queda un falso positivo, que la siguiente reconstrucción elimina.
+ */
+@Component
+public class ProductoIdFilterListener {
+
+    private final ObjectProvider<ProductoIdFilter> productoIdFilter;
+
+    public ProductoIdFilterListener(ObjectProvider<ProductoIdFilter> productoIdFilter) {
+        this.productoIdFilter = productoIdFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Inventario inventario) {
+        ProductoIdFilter filter = productoIdFilter.getIfAvailable();
+        if (filter == null) {
+            return;
+        }
+        Long productoId = inventario.getProductoId();
+        filter.agregar(productoId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    filter.agregar(productoId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.inventario_service.client;
+
+import com.example.inventario_service.model.ProductoResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de productos obtenidos de productos-service, acotada en número de entradas (LRU) y con caducidad.
+ * También recuerda los IDs que no existen (caché negativa, con un TTL más corto) para no volver a
+ * preguntar por ellos en cada fila de inventario.
+ * <p>
+ * buscar() no toma ningún lock: lee del ConcurrentHashMap y anota en la entrada el instante lógico del último
+ * acceso. Al pasar de maxEntradas se expulsan de una vez las de acceso más antiguo hasta quedar un 10 % por
+ * debajo (LRU aproximado), con un lock que solo toman las altas.
+ */
+public class ProductoCache {
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final long ttlNegativoNanos;
+
+    private final ConcurrentHashMap<Long, Entrada> entradas = new ConcurrentHashMap<>(256);
+    private final AtomicLong reloj = new AtomicLong(); // Instante lógico de los accesos
+    private final Object expulsion = new Object();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    public ProductoCache(int maxEntradas, Duration ttl, Duration ttlNegativo) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.ttlNegativoNanos = ttlNegativo.toNanos();
+    }
+
+    /**
+     * @return La entrada vigente del producto, o null si no está en la caché o ha caducado.
+     */
+    public Entrada buscar(Long id) {
+        Entrada entrada = entradas.get(id);
+        if (entrada != null && entrada.caducaNanos - System.nanoTime() > 0) {
+            aciertos.increment();
+            // Solo escribe si otra entrada se ha usado después
+            if (entrada.acceso != reloj.get()) {
+                entrada.acceso = reloj.incrementAndGet();
+            }
+            return entrada;
+        }
+        if (entrada != null) {
+            entradas.remove(id, entrada);
+        }
+        fallos.increment();
+        return null;
+    }
+
+    /**
+     * Guarda un producto; con producto null se registra que el ID no existe.
+     */
+    public void guardar(Long id, ProductoResponse producto) {
+        long ttl = producto != null ? ttlNanos : ttlNegativoNanos;
+        Entrada entrada = new Entrada(producto, System.nanoTime() + ttl);
+        entrada.acceso = reloj.incrementAndGet();
+        entradas.put(id, entrada);
+        if (entradas.size() > maxEntradas) {
+            expulsar();
+        }
+    }
+
+    public void invalidar(Long id) {
+        entradas.remove(id);
+    }
+
+    public int size() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    private void expulsar() {
+        synchronized (expulsion) {
+            int sobran = entradas.size() - (maxEntradas - maxEntradas / 10);
+            if (entradas.size() <= maxEntradas || sobran <= 0) {
+                return; // Otra alta ya expulsó
+            }
+            List<Map.Entry<Long, Long>> porAcceso = new ArrayList<>(entradas.size());
+            entradas.forEach((id, entrada) -> porAcceso.add(Map.entry(id, entrada.acceso))); // Copia: buscar() sigue cambiándolo
+            porAcceso.sort(Map.Entry.comparingByValue());
+            for (int i = 0; i < sobran && i < porAcceso.size(); i++) {
+                entradas.remove(porAcceso.get(i).getKey());
+            }
+        }
+    }
+
+    public static final class Entrada {
+        private final ProductoResponse producto;
+        private final long caducaNanos;
+        private volatile long acceso; // Instante lógico del último uso, para la expulsión
+
+        private Entrada(ProductoResponse producto, long caducaNanos) {
+            this.producto = producto;
+            this.caducaNanos = caducaNanos;
+        }
+
+        // El producto, o null si se sabe que no existe
+        public ProductoResponse getProducto() {
+            return producto;
+        }
+    }
+}
@@ -1,14 +1,45 @@
 package com.example.inventario_service.client;
 
 
+import com.example.common.deadline.Deadline;
+import com.example.common.deadline.DeadlineExchangeFilter;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.jfr.MedicionJfr;
+import com.example.common.timing.RequestTiming;
+import com.example.common.timing.TimingExchangeFilter;
+import com.example.inventario_service.jfr.JfrEventos;
+import com.example.inventario_service.jfr.ProductoServiceCallEvent;
+import com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter;
 import com.example.inventario_service.model.ProductoResponse;
+import com.example.inventario_service.model.ProductosResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,37 +48,274 @@ public class ProductoServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductoServiceClient.class);
     private final WebClient webClient;
+    private final ProductoServiceClientProperties properties;
+    private final RetryBudget retryBudget;
+    private final ProductoCache cache; // null si productos.service.cache.enabled=false
+    private Lote loteAbierto; // Protegido por this
     private static final String API_KEY_HEADER = "X-API-Key";
 
     @Value("${app.security.api-key}")
     private String apiKey; // La API Key que enviaremos a productos-service
 
-    public ProductoServiceClient(WebClient.Builder webClientBuilder, @Value("${productos.service.url}") String productosServiceUrl) {
+    public ProductoServiceClient(WebClient.Builder webClientBuilder, ProductoServiceClientProperties properties) {
+        this.properties = properties;
+        this.retryBudget = new RetryBudget(properties.getRetry().getBudgetPercent(), properties.getRetry().getMaxBurst());
+        ProductoServiceClientProperties.Cache cacheConfig = properties.getCache();
+        this.cache = cacheConfig.isEnabled()
+                ? new ProductoCache(cacheConfig.getMaxEntries(), cacheConfig.getTtl(), cacheConfig.getNegativeTtl()) : null;
         // Configuramos el WebClient para incluir la cabecera de la API Key por defecto
         this.webClient = webClientBuilder
-                .baseUrl(productosServiceUrl)
+                .baseUrl(properties.getUrl())
                 // Usar defaultHeader para que se añada a todas las peticiones de este WebClient
                 // Nota: Si solo quieres añadirla a llamadas específicas, hazlo en cada método (como en getProductoById)
                 //.defaultHeader(API_KEY_HEADER, apiKey) // Esta línea se puede añadir si la API Key es la misma para todas las llamadas
+                // Reenvía en cada intento el tiempo que le queda a la petición en curso (X-Deadline-Ms)
+                .filter(new DeadlineExchangeFilter())
+                // Suma cada intento a la partida downstream de Server-Timing de la petición en curso
+                .filter(new TimingExchangeFilter())
                 .build();
     }
 
+    /**
+     * Obtiene un producto de productos-service.
+     * Cada intento dura como máximo productos.service.timeout y nunca más allá del deadline de la petición en
+     * curso; los reintentos salen del presupuesto compartido y no se hacen si el deadline vence antes.
+     * Con productos.service.cache se reutilizan los productos (y los IDs inexistentes) ya consultados, y con
+     * productos.service.batch las llamadas concurrentes se agrupan en una sola consulta por lotes.
+     * @param productoId El ID del producto.
+     * @return Mono<ProductoResponse> con el producto, o Mono.empty() si no existe o no se pudo obtener.
+     * Falla con DeadlineExceededException si el llamante ya no espera la respuesta.
+     */
     public Mono<ProductoResponse> getProductoById(Long productoId) {
-        return webClient.get()
-                .uri("/productos/{id}", productoId)
-                .header(API_KEY_HEADER, apiKey) // Añade la cabecera de la API Key aquí
-                .retrieve()
-                .bodyToMono(ProductoResponse.class)
-                .timeout(Duration.ofSeconds(3)) // Timeout de 3 segundos
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)) // Reintentos: 3 veces, con 2s de delay inicial exponencial
-                        .jitter(0.5)
-                        .filter(e -> e instanceof java.util.concurrent.TimeoutException || e instanceof org.springframework.web.reactive.function.client.WebClientRequestException)
-                        .doBeforeRetry(retrySignal -> logger.warn("Reintentando llamada a productos-service para productoId {}. Intento: {}", productoId, (retrySignal.totalRetriesInARow() + 1)))
-                )
+        Deadline llamante = Deadline.actual(); // Se captura en el hilo de la petición
+        return Mono.deferContextual(contexto -> {
+                    ProductoCache.Entrada enCache = cache != null ? cache.buscar(productoId) : null;
+                    if (enCache != null) {
+                        return Mono.justOrEmpty(enCache.getProducto());
+                    }
+                    // Si se suscribe desde otro hilo manda el deadline del contexto de Reactor
+                    Deadline deadline = Deadline.desdeContexto(contexto, llamante);
+                    return properties.getBatch().isEnabled() ? enLote(productoId, deadline) : consultar(productoId, deadline);
+                })
                 .doOnError(e -> logger.error("Error final al obtener producto {} desde el servicio de productos después de reintentos: {}", productoId, e.getMessage()))
                 .onErrorResume(e -> {
+                    if (e instanceof DeadlineExceededException) {
+                        return Mono.error(e); // El llamante ya se ha rendido: no se disfraza de "producto no encontrado"
+                    }
                     // Si el error es de autenticación, o cualquier otro que no se manejó con retry, podemos manejarlo aquí
                     return Mono.empty(); // O lanzar una excepción específica
+                })
+                .transform(RequestTiming::propagar);
+    }
+
+    /**
+     * Obtiene varios productos con GET /api/productos?filter[id]=..., en lotes de productos.service.batch.max-size.
+     * Solo se piden los IDs que no están en la caché.
+     * @param productoIds Los IDs de los productos.
+     * @return Mono con los productos encontrados por ID; los que no existen o no se pudieron obtener no aparecen.
+     * Falla con DeadlineExceededException si el llamante ya no espera la respuesta.
+     */
+    public Mono<Map<Long, ProductoResponse>> getProductosByIds(Collection<Long> productoIds) {
+        Deadline llamante = Deadline.actual();
+        return Mono.deferContextual(contexto -> {
+            Deadline deadline = Deadline.desdeContexto(contexto, llamante);
+            Map<Long, ProductoResponse> encontrados = new ConcurrentHashMap<>();
+            List<Long> pendientes = new ArrayList<>();
+            for (Long id : new LinkedHashSet<>(productoIds)) {
+                ProductoCache.Entrada enCache = cache != null ? cache.buscar(id) : null;
+                if (enCache == null) {
+                    pendientes.add(id);
+                } else if (enCache.getProducto() != null) {
+                    encontrados.put(id, enCache.getProducto());
+                }
+            }
+            int maxSize = properties.getBatch().getMaxSize();
+            List<List<Long>> lotes = new ArrayList<>();
+            for (int i = 0; i < pendientes.size(); i += maxSize) {
+                lotes.add(pendientes.subList(i, Math.min(i + maxSize, pendientes.size())));
+            }
+            return Flux.fromIterable(lotes)
+                    .flatMap(lote -> consultarLote(lote, deadline), properties.getBatch().getConcurrency())
+                    .doOnNext(encontrados::putAll)
+                    .then(Mono.fromSupplier(() -> encontrados));
+        }).transform(RequestTiming::propagar);
+    }
+
+    // Consulta individual: GET /api/productos/{id}. Un 404 es un producto inexistente, no un error.
+    private Mono<ProductoResponse> consultar(Long productoId, Deadline deadline) {
+        Mono<ProductoResponse> llamada = webClient.get()
+                .uri("/api/productos/{id}", productoId)
+                .header(API_KEY_HEADER, apiKey) // Añade la cabecera de la API Key aquí
+                .accept(JsonApiHttpMessageConverter.APPLICATION_SMILE, MediaType.APPLICATION_JSON) // Smile entre servicios, JSON como alternativa
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(), respuesta -> Mono.empty())
+                .bodyToMono(ProductoResponse.class);
+
+        return MedicionJfr.medir(() -> new ProductoServiceCallEvent("GET /api/productos/{id}", productoId, 1),
+                        evento -> conReintentos(llamada, deadline, "productoId " + productoId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(producto -> guardarEnCache(productoId, producto.orElse(null)))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    // Consulta por lotes: GET /api/productos?filter[id]=1,2,3. Si el lote falla sus IDs quedan sin resolver.
+    private Mono<Map<Long, ProductoResponse>> consultarLote(List<Long> ids, Deadline deadline) {
+        String filtro = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        Mono<ProductosResponse> llamada = webClient.get()
+                .uri(uri -> uri.path("/api/productos").queryParam("filter[id]", filtro).build())
+                .header(API_KEY_HEADER, apiKey)
+                .accept(JsonApiHttpMessageConverter.APPLICATION_SMILE, MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(ProductosResponse.class);
+
+        return MedicionJfr.medir(() -> new ProductoServiceCallEvent("GET /api/productos?filter[id]", 0, ids.size()),
+                        evento -> conReintentos(llamada, deadline, "lote de " + ids.size() + " productos"))
+                .map(respuesta -> {
+                    Map<Long, ProductoResponse> productos = new HashMap<>();
+                    if (respuesta.getData() != null) {
+                        for (ProductoResponse.DataBlock data : respuesta.getData()) {
+                            productos.put(Long.valueOf(data.getId()), new ProductoResponse(data));
+                        }
+                    }
+                    // Solo una respuesta correcta permite recordar qué IDs no existen
+                    for (Long id : ids) {
+                        guardarEnCache(id, productos.get(id));
+                    }
+                    return productos;
+                })
+                .onErrorResume(e -> !(e instanceof DeadlineExceededException), e -> {
+                    logger.error("Error final al obtener un lote de {} productos desde el servicio de productos: {}", ids.size(), e.getMessage());
+                    return Mono.just(Map.of());
                 });
     }
+
+    // Añade a un lote abierto la consulta de un producto; el lote se envía al llenarse o al cerrar la ventana
+    private Mono<ProductoResponse> enLote(Long productoId, Deadline deadline) {
+        Mono<ProductoResponse> enEspera = Mono.create(sink -> {
+            Lote completo = null;
+            synchronized (this) {
+                if (loteAbierto == null) {
+                    Lote nuevo = new Lote();
+                    loteAbierto = nuevo;
+                    Schedulers.parallel().schedule(() -> enviar(nuevo),
+                            properties.getBatch().getWindow().toNanos(), TimeUnit.NANOSECONDS);
+                }
+                loteAbierto.agregar(productoId, sink, deadline);
+                if (loteAbierto.esperando.size() >= properties.getBatch().getMaxSize()) {
+                    completo = loteAbierto;
+                    loteAbierto = null;
+                }
+            }
+            if (completo != null) {
+                enviar(completo);
+            }
+        });
+        // El lote puede esperar más que este llamante (usa el deadline más holgado de sus miembros)
+        return deadline == null ? enEspera : enEspera.timeout(deadline.restante())
+                .onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("Deadline vencido esperando a productos-service", e));
+    }
+
+    private void enviar(Lote lote) {
+        synchronized (this) {
+            if (loteAbierto == lote) {
+                loteAbierto = null;
+            }
+        }
+        if (!lote.enviado.compareAndSet(false, true)) {
+            return; // Ya se envió al llenarse
+        }
+        consultarLote(new ArrayList<>(lote.esperando.keySet()), lote.deadline).subscribe(
+                productos -> lote.esperando.forEach((id, sinks) -> {
+                    ProductoResponse producto = productos.get(id);
+                    sinks.forEach(sink -> {
+                        if (producto != null) {
+                            sink.success(producto);
+                        } else {
+                            sink.success();
+                        }
+                    });
+                }),
+                error -> lote.esperando.values().forEach(sinks -> sinks.forEach(sink -> sink.error(error))));
+    }
+
+    // Llamada con timeout por intento, reintentos y deadline propagado a productos-service
+    private <T> Mono<T> conReintentos(Mono<T> llamada, Deadline deadline, String descripcion) {
+        // El defer exterior no se vuelve a suscribir al reintentar: deposita en el presupuesto una vez por llamada
+        return Mono.defer(() -> {
+                    if (deadline == null || !deadline.vencido()) {
+                        retryBudget.registrarLlamada();
+                    }
+                    return Mono.defer(() -> {
+                                if (deadline != null && deadline.vencido()) {
+                                    // Sin tiempo no se arma un timeout de 0 ms que compita con el error
+                                    return Mono.error(new DeadlineExceededException("Deadline vencido antes de llamar a productos-service"));
+                                }
+                                // El timeout se recalcula en cada intento con el tiempo que queda
+                                return llamada.timeout(deadline != null ? deadline.acotar(properties.getTimeout()) : properties.getTimeout());
+                            })
+                            .retryWhen(reintentos(descripcion, deadline));
+                })
+                .onErrorMap(TimeoutException.class, e -> deadline != null && deadline.vencido()
+                        ? new DeadlineExceededException("Deadline vencido esperando a productos-service", e) : e)
+                .contextWrite(c -> deadline != null ? c.put(Deadline.class, deadline) : c);
+    }
+
+    private void guardarEnCache(Long productoId, ProductoResponse producto) {
+        if (cache != null) {
+            cache.guardar(productoId, producto);
+        }
+    }
+
+    // Consultas individuales agrupadas en una misma petición por lotes
+    private static final class Lote {
+        private final Map<Long, List<MonoSink<ProductoResponse>>> esperando = new LinkedHashMap<>();
+        private final AtomicBoolean enviado = new AtomicBoolean();
+        private Deadline deadline;
+        private boolean sinDeadline;
+
+        // Se llama con el cliente bloqueado, antes de enviar el lote
+        private void agregar(Long productoId, MonoSink<ProductoResponse> sink, Deadline deadlineLlamante) {
+            esperando.computeIfAbsent(productoId, id -> new ArrayList<>()).add(sink);
+            if (deadlineLlamante == null) {
+                sinDeadline = true;
+                deadline = null;
+            } else if (!sinDeadline && (deadline == null
+                    || deadlineLlamante.restante().compareTo(deadline.restante()) > 0)) {
+                deadline = deadlineLlamante;
+            }
+        }
+    }
+
+    // Backoff exponencial con jitter, limitado por el número de intentos, el presupuesto y el deadline
+    private Retry reintentos(String descripcion, Deadline deadline) {
+        ProductoServiceClientProperties.Retry config = properties.getRetry();
+        return Retry.from(senales -> senales.concatMap(senal -> {
+            Throwable error = senal.failure();
+            long intento = senal.totalRetries();
+            if (!(error instanceof TimeoutException || error instanceof WebClientRequestException)
+                    || intento >= config.getMaxAttempts()) {
+                return Mono.error(error);
+            }
+            Duration espera = espera(intento, config);
+            if (deadline != null && deadline.restante().compareTo(espera) <= 0) {
+                // El reintento llegaría cuando el llamante ya no espera: sería trabajo perdido en productos-service
+                logger.debug("Sin reintento para {}: el deadline vence antes de {} ms", descripcion, espera.toMillis());
+                return Mono.error(error);
+            }
+            if (!retryBudget.intentarReintento()) {
+                logger.warn("Sin reintento para {}: presupuesto de reintentos agotado", descripcion);
+                return Mono.error(error);
+            }
+            logger.warn("Reintentando llamada a productos-service para {}. Intento: {}", descripcion, intento + 1);
+            return Mono.delay(espera);
+        }));
+    }
+
+    private static Duration espera(long intento, ProductoServiceClientProperties.Retry config) {
+        long base = Math.min(config.getMaxBackoff().toMillis(), config.getBackoff().toMillis() << Math.min(intento, 20));
+        // Jitter del 50 %: entre la mitad y vez y media del valor base
+        long conJitter = (long) (base * (0.5 + ThreadLocalRandom.current().nextDouble()));
+        return Duration.ofMillis(Math.min(config.getMaxBackoff().toMillis(), conJitter));
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.inventario_service.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente HTTP hacia productos-service (prefijo productos.service en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "productos.service")
+public class ProductoServiceClientProperties {
+
+    // URL base de productos-service
+    private String url;
+
+    // Tiempo máximo de cada intento (acotado además por el deadline de la petición)
+    private Duration timeout = Duration.ofSeconds(3);
+
+    private Retry retry = new Retry();
+
+    private Cache cache = new Cache();
+
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Retry {
+        // Reintentos máximos por llamada, si el presupuesto y el deadline lo permiten
+        private int maxAttempts = 3;
+        // Espera antes del primer reintento; se duplica en cada uno (con jitter del 50 %)
+        private Duration backoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        // Reintentos máximos, en % de las llamadas: evita multiplicar la carga si productos-service cae
+        private double budgetPercent = 10;
+        // Reintentos que se pueden acumular para absorber fallos sueltos
+        private int maxBurst = 10;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        // Productos en memoria como máximo; se expulsan primero los menos usados
+        private int maxEntries = 10_000;
+        // Tiempo durante el que se reutiliza un producto sin volver a consultarlo
+        private Duration ttl = Duration.ofSeconds(60);
+        // Tiempo durante el que se recuerda que un ID no existe
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Batch {
+        // Agrupa las consultas individuales concurrentes en GET /api/productos?filter[id]=...
+        private boolean enabled = false;
+        // Espera máxima para completar un lote
+        private Duration window = Duration.ofMillis(2);
+        // IDs por petición (productos-service admite como máximo 100)
+        private int maxSize = 100;
+        // Peticiones de lote simultáneas en getProductosByIds
+        private int concurrency = 4;
+    }
+}
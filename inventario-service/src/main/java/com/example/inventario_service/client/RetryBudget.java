@@ -0,0 +1,56 @@
+package com.example.inventario_service.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de reintentos tipo token bucket: cada llamada deposita budget-percent / 100 tokens (hasta
+ * max-burst) y cada reintento consume uno. Con el servicio remoto sano apenas se gasta; si cae, los
+ * reintentos se limitan a ese porcentaje de las llamadas en lugar de multiplicar la carga por max-attempts.
+ */
+public class RetryBudget {
+
+    // Un token equivale a un reintento; se cuenta en milésimas para admitir porcentajes
+    private static final long TOKEN = 1_000;
+
+    private final long depositoPorLlamada;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    public RetryBudget(double budgetPercent, int maxBurst) {
+        this.depositoPorLlamada = Math.round(budgetPercent * TOKEN / 100);
+        this.maxTokens = maxBurst * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    /**
+     * Registra una llamada (no un reintento).
+     */
+    public void registrarLlamada() {
+        long actual;
+        do {
+            actual = tokens.get();
+            if (actual >= maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(actual, Math.min(maxTokens, actual + depositoPorLlamada)));
+    }
+
+    /**
+     * @return true si queda presupuesto para un reintento (y lo consume).
+     */
+    public boolean intentarReintento() {
+        long actual;
+        do {
+            actual = tokens.get();
+            if (actual < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(actual, actual - TOKEN));
+        return true;
+    }
+
+    // Reintentos que quedan, con la fracción acumulada de las llamadas
+    public double getReintentosDisponibles() {
+        return (double) tokens.get() / TOKEN;
+    }
+}
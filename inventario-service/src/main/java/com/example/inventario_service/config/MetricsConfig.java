@@ -0,0 +1,21 @@
+package com.example.inventario_service.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Mide los métodos de las clases anotadas con @Timed (capa de servicio: inventario.service{class, method}).
+     * Controladores (http.server.requests), repositorios (spring.data.repository.invocations) y llamadas
+     * con WebClient (http.client.requests) los mide ya Spring Boot; los histogramas se activan en
+     * management.metrics.distribution y se publican en /actuator/prometheus.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.inventario_service.config;
+
+import com.example.inventario_service.client.ProductoServiceClientProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProductoServiceClientProperties.class)
+public class ProductoClientConfig {
+}
@@ -0,0 +1,85 @@
+package com.example.inventario_service.config;
+
+import com.example.common.replica.ReadYourWrites;
+import com.example.common.replica.ReplicaRoutingDataSource;
+import com.example.inventario_service.replica.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * Sin clases de carga: un pool de Hikari para el primario (inventario-primary) y otro para la réplica
+     * (inventario-replica), con sus métricas por separado en hikaricp.connections{pool}. Con clases de carga
+     * los pools los crea WorkloadConfig.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "inventario.workload", name = "enabled", havingValue = "false")
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                               MeterRegistry meterRegistry) {
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurar(primario, "inventario-primary", replicaProperties.getPrimary().getConnections(),
+                replicaProperties.getPrimary().getConnectionTimeout().toMillis(), meterRegistry);
+        HikariDataSource replica = replica(dataSourceProperties, replicaProperties).build();
+        configurar(replica, "inventario-replica", replicaProperties.getReplica().getConnections(),
+                replicaProperties.getReplica().getConnectionTimeout().toMillis(), meterRegistry);
+        return enrutar(primario, replica, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        ReadYourWrites readYourWrites = new ReadYourWrites(replicaProperties.getReadYourWritesWindow(), replicaProperties.getTrackedKeys());
+        Gauge.builder("datasource.read-your-writes.keys", readYourWrites, ReadYourWrites::getRecordados)
+                .description("Productos recordados para leer del primario su inventario recién escrito")
+                .register(meterRegistry);
+        return readYourWrites;
+    }
+
+    // Conexión a la réplica; usuario y contraseña, si no se indican, los de spring.datasource
+    static DataSourceBuilder<HikariDataSource> replica(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+        if (!StringUtils.hasText(replicaProperties.getUrl())) {
+            throw new IllegalStateException("app.datasource.replica.url es obligatoria con app.datasource.replica.enabled=true");
+        }
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.getUrl())
+                .username(StringUtils.hasText(replicaProperties.getUsername()) ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(StringUtils.hasText(replicaProperties.getPassword()) ? replicaProperties.getPassword() : dataSourceProperties.determinePassword());
+    }
+
+    private static void configurar(HikariDataSource pool, String nombre, int conexiones, long connectionTimeoutMs, MeterRegistry meterRegistry) {
+        pool.setPoolName(nombre);
+        pool.setMaximumPoolSize(conexiones);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+
+    static ReplicaRoutingDataSource enrutar(DataSource primario, DataSource replica, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primario, replica);
+        FunctionCounter.builder("datasource.read.connections", dataSource, ReplicaRoutingDataSource::getLecturasReplica)
+                .description("Conexiones de solo lectura por destino")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        FunctionCounter.builder("datasource.read.connections", dataSource, ReplicaRoutingDataSource::getLecturasPrimario)
+                .description("Conexiones de solo lectura por destino")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        return dataSource;
+    }
+}
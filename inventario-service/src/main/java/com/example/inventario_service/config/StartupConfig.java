@@ -0,0 +1,24 @@
+package com.example.inventario_service.config;
+
+import com.example.inventario_service.InventarioServiceApplication;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Arranque rápido (perfil fast-startup, spring.main.lazy-initialization=true). Los beans propios del servicio
+ * (controladores, servicios, clientes, filtros) se siguen creando al arrancar: un error de configuración se
+ * ve antes de recibir tráfico y la primera petición no paga su creación. El resto de la infraestructura
+ * autoconfigurada que no necesitan (springdoc, endpoints de actuator, codecs sin usar...) se crea en su
+ * primer uso.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final String PAQUETE = InventarioServiceApplication.class.getPackageName() + ".";
+
+    @Bean
+    static LazyInitializationExcludeFilter beansDelServicio() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && beanType.getName().startsWith(PAQUETE);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inventario_service.config;
+
+import com.example.inventario_service.replica.ReplicaProperties;
+import com.example.inventario_service.workload.ClaseCarga;
+import com.example.inventario_service.workload.WorkloadProperties;
+import com.example.inventario_service.workload.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Configuration
+@EnableConfigurationProperties({WorkloadProperties.class, ReplicaProperties.class})
+public class WorkloadConfig {
+
+    /**
+     * Un pool de Hikari por clase de carga (inventario-writes, inventario-reads, ...) con la URL y
+     * credenciales de spring.datasource; sus métricas se publican como hikaricp.connections{pool}.
+     * Con réplica (app.datasource.replica.enabled=true), cada clase tiene además su pool en la réplica
+     * (inventario-replica-reads, ...) y ReplicaRoutingDataSource elige entre primario y réplica.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "inventario.workload", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, WorkloadProperties workloadProperties,
+                                 ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        WorkloadRoutingDataSource primario = pools(dataSourceProperties::initializeDataSourceBuilder, "inventario-",
+                workloadProperties, meterRegistry);
+        if (!replicaProperties.isEnabled()) {
+            return primario;
+        }
+        WorkloadRoutingDataSource replica = pools(() -> ReplicaConfig.replica(dataSourceProperties, replicaProperties),
+                "inventario-replica-", workloadProperties, meterRegistry);
+        return ReplicaConfig.enrutar(primario, replica, meterRegistry);
+    }
+
+    private static WorkloadRoutingDataSource pools(Supplier<DataSourceBuilder<?>> conexion, String prefijo,
+                                                   WorkloadProperties workloadProperties, MeterRegistry meterRegistry) {
+        Map<ClaseCarga, HikariDataSource> pools = new EnumMap<>(ClaseCarga.class);
+        for (ClaseCarga clase : ClaseCarga.values()) {
+            WorkloadProperties.Clase config = workloadProperties.get(clase);
+            HikariDataSource pool = conexion.get().type(HikariDataSource.class).build();
+            pool.setPoolName(prefijo + clase.getClave());
+            pool.setMaximumPoolSize(config.getConnections());
+            pool.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(clase, pool);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+}
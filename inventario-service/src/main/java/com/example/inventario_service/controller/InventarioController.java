@@ -1,7 +1,10 @@
 package com.example.inventario_service.controller;
 
+import com.example.common.warmup.HotKeyTracker;
 import com.example.inventario_service.model.Inventario;
 import com.example.inventario_service.service.InventarioService;
+import com.example.inventario_service.workload.ClaseCarga;
+import com.example.inventario_service.workload.WorkloadExecutor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,12 +13,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import com.example.inventario_service.jsonapi.JsonApiData;
-import com.example.inventario_service.jsonapi.JsonApiResponse;
-import com.example.inventario_service.jsonapi.InventarioAttributes;
+import com.example.inventario_service.jsonapi.InventarioJsonApi;
+import com.example.inventario_service.jsonapi.JsonApiDocument;
+import com.example.common.jsonapi.SparseFieldset;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/inventario")
@@ -26,6 +29,13 @@ public class InventarioController {
     @Autowired
     private InventarioService inventarioService;
 
+    // Cada endpoint corre en los hilos de su clase de carga; el hilo de Tomcat queda libre mientras tanto
+    @Autowired
+    private WorkloadExecutor workloadExecutor;
+
+    @Autowired(required = false)
+    private HotKeyTracker hotKeys; // Productos más usados, para el calentamiento del siguiente arranque (null si app.warm-up.enabled=false)
+
     /**
      * Crea o actualiza una entrada de inventario.
      * POST /api/inventario
@@ -36,75 +46,67 @@ public class InventarioController {
     @Operation(summary = "Crea o actualiza una entrada de inventario", description = "Añade una nueva entrada de inventario o actualiza la cantidad de un producto existente.")
     @ApiResponse(responseCode = "201", description = "Entrada de inventario creada/actualizada exitosamente")
     @ApiResponse(responseCode = "400", description = "Solicitud inválida")
-    public ResponseEntity<JsonApiResponse<InventarioAttributes>> createOrUpdateInventario(@RequestBody Inventario inventario) {
-        Inventario savedInventario = inventarioService.saveInventario(inventario);
-
-        // Convertir la entidad Inventario a JsonApiData<InventarioAttributes>
-        InventarioAttributes attributes = new InventarioAttributes(
-                savedInventario.getProductoId(),
-                savedInventario.getCantidad()
-        );
-        JsonApiData<InventarioAttributes> data = new JsonApiData<>(
-                savedInventario.getId().toString(), // El ID debe ser String en JSON API
-                "inventarios", // Tipo de recurso
-                attributes
-        );
-
-        JsonApiResponse<InventarioAttributes> response = new JsonApiResponse<>(data);
-
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @ApiResponse(responseCode = "503", description = "Demasiadas escrituras en curso")
+    public CompletableFuture<ResponseEntity<JsonApiDocument>> createOrUpdateInventario(@RequestBody Inventario inventario) {
+        return workloadExecutor.ejecutar(ClaseCarga.ESCRITURA, () -> {
+            Inventario savedInventario = inventarioService.saveInventario(inventario);
+
+            // El documento JSON:API se escribe en streaming directamente desde la entidad
+            return new ResponseEntity<>(JsonApiDocument.of(InventarioJsonApi.INSTANCE, savedInventario), HttpStatus.CREATED);
+        });
     }
 
     /**
      * Obtiene todas las entradas de inventario.
-     * GET /api/inventario
+     * GET /api/inventario?fields[inventarios]=cantidad
+     * @param fields Sparse fieldset de JSON:API: atributos a devolver (opcional, por defecto todos).
      * @return ResponseEntity con la lista de Inventarios y 200 OK.
      */
     @GetMapping
-    @Operation(summary = "Lista todas las entradas de inventario", description = "Recupera una lista de todas las entradas de inventario.")
+    @Operation(summary = "Lista todas las entradas de inventario", description = "Recupera una lista de todas las entradas de inventario. Admite fields[inventarios] para limitar los atributos.")
     @ApiResponse(responseCode = "200", description = "Lista de inventario recuperada")
-    public ResponseEntity<JsonApiResponse<InventarioAttributes>> getAllInventario() {
-        Iterable<Inventario> inventarios = inventarioService.getAllInventario();
-
-        // Convertir la lista de entidades Inventario a una lista de JsonApiData<InventarioAttributes>
-        List<JsonApiData<InventarioAttributes>> dataList = ((List<Inventario>) inventarios).stream() // Cast a List para usar stream
-                .map(inventario -> new JsonApiData<>(
-                        inventario.getId().toString(),
-                        "inventarios",
-                        new InventarioAttributes(inventario.getProductoId(), inventario.getCantidad())
-                ))
-                .collect(Collectors.toList());
-
-        JsonApiResponse<InventarioAttributes> response = new JsonApiResponse<>(dataList);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    @ApiResponse(responseCode = "400", description = "fields[inventarios] contiene atributos desconocidos")
+    @ApiResponse(responseCode = "503", description = "Demasiados listados en curso")
+    public CompletableFuture<ResponseEntity<JsonApiDocument>> getAllInventario(
+            @RequestParam(name = "fields[inventarios]", required = false) String fields) {
+        // Las columnas no solicitadas no se leen de la base de datos
+        SparseFieldset fieldset = SparseFieldset.parse(fields, InventarioJsonApi.FIELDS);
+        return workloadExecutor.ejecutar(ClaseCarga.LISTADO, () -> {
+            Iterable<Inventario> inventarios = inventarioService.getAllInventario(fieldset.getFields());
+
+            // Las filas se escriben en streaming, sin crear un JsonApiData por entrada
+            JsonApiDocument response = JsonApiDocument.ofList(InventarioJsonApi.INSTANCE, (List<Inventario>) inventarios, fieldset); // Cast a List
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
     }
 
     /**
      * Obtiene una entrada de inventario por el ID del producto.
-     * GET /api/inventario/{productoId}
+     * GET /api/inventario/{productoId}?fields[inventarios]=cantidad
      * @param productoId El ID del producto.
-     * @return ResponseEntity con la entrada de inventario, o 404 NOT_FOUND.
+     * @param fields Sparse fieldset de JSON:API: atributos a devolver (opcional, por defecto todos).
+     * @return ResponseEntity con la entrada de inventario, 404 NOT_FOUND o 400 BAD_REQUEST si fields es inválido.
      */
     @GetMapping("/{productoId}")
-    @Operation(summary = "Obtiene una entrada de inventario por ID de producto", description = "Recupera la información de inventario para un producto específico.")
+    @Operation(summary = "Obtiene una entrada de inventario por ID de producto", description = "Recupera la información de inventario para un producto específico. Admite fields[inventarios] para limitar los atributos.")
     @ApiResponse(responseCode = "200", description = "Entrada de inventario encontrada")
+    @ApiResponse(responseCode = "400", description = "fields[inventarios] contiene atributos desconocidos")
     @ApiResponse(responseCode = "404", description = "Producto no encontrado en inventario")
-    public ResponseEntity<JsonApiResponse<InventarioAttributes>> getInventarioByProductoId(@PathVariable Long productoId) {
-        Optional<Inventario> inventarioOptional = inventarioService.getInventarioByProductoId(productoId);
-
-        return inventarioOptional.map(inventario -> {
-            // Convertir la entidad Inventario a JsonApiData<InventarioAttributes>
-            InventarioAttributes attributes = new InventarioAttributes(
-                    inventario.getProductoId(),
-                    inventario.getCantidad()
-            );
-            JsonApiData<InventarioAttributes> data = new JsonApiData<>(
-                    inventario.getId().toString(), // El ID del registro de inventario (no el productoId)
-                    "inventarios", // Tipo de recurso
-                    attributes
-            );
-            return new ResponseEntity<>(new JsonApiResponse<>(data), HttpStatus.OK);
-        }).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    @ApiResponse(responseCode = "503", description = "Demasiadas lecturas en curso")
+    public CompletableFuture<ResponseEntity<JsonApiDocument>> getInventarioByProductoId(
+            @PathVariable Long productoId,
+            @RequestParam(name = "fields[inventarios]", required = false) String fields) {
+        if (hotKeys != null) {
+            hotKeys.registrar(productoId);
+        }
+        SparseFieldset fieldset = SparseFieldset.parse(fields, InventarioJsonApi.FIELDS);
+        return workloadExecutor.ejecutar(ClaseCarga.LECTURA, () -> {
+            Optional<Inventario> inventarioOptional = inventarioService.getInventarioByProductoId(productoId, fieldset.getFields());
+
+            return inventarioOptional
+                    .map(inventario -> new ResponseEntity<>(JsonApiDocument.of(InventarioJsonApi.INSTANCE, inventario, fieldset), HttpStatus.OK))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        });
     }
 
     /**
@@ -118,27 +120,23 @@ public class InventarioController {
     @Operation(summary = "Reduce el stock de un producto en inventario", description = "Decrementa la cantidad disponible de un producto en el inventario.")
     @ApiResponse(responseCode = "200", description = "Stock reducido exitosamente")
     @ApiResponse(responseCode = "400", description = "Stock insuficiente o producto no encontrado")
-    public ResponseEntity<JsonApiResponse<InventarioAttributes>> reducirStockProducto(
+    @ApiResponse(responseCode = "503", description = "Demasiadas escrituras en curso")
+    public CompletableFuture<ResponseEntity<JsonApiDocument>> reducirStockProducto(
             @PathVariable Long productoId,
             @PathVariable Integer cantidad) {
-        try {
-            Inventario updatedInventario = inventarioService.reduceStock(productoId, cantidad);
-
-            // Convertir la entidad Inventario a JsonApiData<InventarioAttributes>
-            InventarioAttributes attributes = new InventarioAttributes(
-                    updatedInventario.getProductoId(),
-                    updatedInventario.getCantidad()
-            );
-            JsonApiData<InventarioAttributes> data = new JsonApiData<>(
-                    updatedInventario.getId().toString(),
-                    "inventarios",
-                    attributes
-            );
-            return new ResponseEntity<>(new JsonApiResponse<>(data), HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            // Si el servicio de inventario lanza una IllegalArgumentException (ej. stock insuficiente)
-            // Puedes devolver un 400 Bad Request
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        if (hotKeys != null) {
+            hotKeys.registrar(productoId);
         }
+        return workloadExecutor.ejecutar(ClaseCarga.ESCRITURA, () -> {
+            try {
+                Inventario updatedInventario = inventarioService.reduceStock(productoId, cantidad);
+
+                return new ResponseEntity<>(JsonApiDocument.of(InventarioJsonApi.INSTANCE, updatedInventario), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                // Si el servicio de inventario lanza una IllegalArgumentException (ej. stock insuficiente)
+                // Puedes devolver un 400 Bad Request
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 }
@@ -0,0 +1,13 @@
+package com.example.inventario_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// La cola de la clase de carga está llena: se rechaza en el acto en lugar de ocupar un hilo esperando
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WorkloadRejectedException extends RuntimeException {
+
+    public WorkloadRejectedException(String message) {
+        super(message);
+    }
+}
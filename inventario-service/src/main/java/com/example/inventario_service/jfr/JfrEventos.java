@@ -0,0 +1,22 @@
+package com.example.inventario_service.jfr;
+
+import com.example.common.jfr.EventosJfr;
+import jdk.jfr.Event;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Eventos JFR propios de inventario-service, que JfrRecorder (módulo common) habilita en sus grabaciones.
+ */
+@Component
+public class JfrEventos implements EventosJfr {
+
+    public static final List<Class<? extends Event>> TIPOS =
+            List.of(ReduceStockEvent.class, SaveInventarioEvent.class, ProductoServiceCallEvent.class);
+
+    @Override
+    public List<Class<? extends Event>> tipos() {
+        return TIPOS;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.inventario_service.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.inventario.ProductoServiceCall")
+@Label("Llamada a productos-service")
+@Category({"Inventario", "Cliente HTTP"})
+@Description("Consulta a productos-service que no se resolvió con la caché, reintentos incluidos")
+@StackTrace(false)
+public class ProductoServiceCallEvent extends EventoMedido {
+
+    @Label("Operación")
+    public String operacion;
+
+    @Label("Producto")
+    @Description("0 en las consultas por lotes")
+    public long productoId;
+
+    @Label("Productos pedidos")
+    public int productos;
+
+    public ProductoServiceCallEvent(String operacion, long productoId, int productos) {
+        this.operacion = operacion;
+        this.productoId = productoId;
+        this.productos = productos;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.inventario_service.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.inventario.ReduceStock")
+@Label("Reducción de stock")
+@Category({"Inventario", "Stock"})
+@Description("InventarioServiceImp.reduceStock: lectura del inventario y guardado del nuevo stock")
+@StackTrace(false)
+public class ReduceStockEvent extends EventoMedido {
+
+    public static final String SIN_STOCK = "SIN_STOCK";
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+
+    @Label("Producto")
+    public long productoId;
+
+    @Label("Cantidad")
+    public int cantidad;
+
+    @Label("Stock restante")
+    public int stockRestante;
+}
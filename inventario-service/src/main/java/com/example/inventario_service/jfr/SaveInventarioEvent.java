@@ -0,0 +1,26 @@
+package com.example.inventario_service.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.inventario.SaveInventario")
+@Label("Guardado de inventario")
+@Category({"Inventario", "Stock"})
+@Description("InventarioServiceImp.saveInventario: alta o actualización de la cantidad de un producto")
+@StackTrace(false)
+public class SaveInventarioEvent extends EventoMedido {
+
+    @Label("Producto")
+    public long productoId;
+
+    @Label("Cantidad")
+    public int cantidad;
+
+    @Label("Alta")
+    @Description("true si el producto no tenía inventario")
+    public boolean alta;
+}
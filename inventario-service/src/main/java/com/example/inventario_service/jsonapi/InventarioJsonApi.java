@@ -0,0 +1,44 @@
+package com.example.inventario_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.inventario_service.model.Inventario;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Recurso "inventarios": mismos atributos y orden que InventarioAttributes
+public final class InventarioJsonApi extends JsonApiResourceWriter<Inventario> {
+
+    public static final String TYPE = "inventarios";
+
+    // Atributos que se pueden pedir con fields[inventarios]
+    public static final Set<String> FIELDS = Set.of("productoId", "cantidad");
+
+    public static final InventarioJsonApi INSTANCE = new InventarioJsonApi();
+
+    private static final SerializableString PRODUCTO_ID = new SerializedString("productoId");
+    private static final SerializableString CANTIDAD = new SerializedString("cantidad");
+
+    private InventarioJsonApi() {
+        super(TYPE);
+    }
+
+    // El ID del registro de inventario (no el productoId)
+    @Override
+    protected Long id(Inventario inventario) {
+        return inventario.getId();
+    }
+
+    @Override
+    protected void writeAttributes(JsonGenerator generator, Inventario inventario, SparseFieldset fieldset) throws IOException {
+        if (fieldset.includes("productoId")) {
+            writeNumber(generator, PRODUCTO_ID, inventario.getProductoId());
+        }
+        if (fieldset.includes("cantidad")) {
+            writeNumber(generator, CANTIDAD, inventario.getCantidad());
+        }
+    }
+}
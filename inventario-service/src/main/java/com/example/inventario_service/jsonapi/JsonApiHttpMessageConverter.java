@@ -0,0 +1,73 @@
+package com.example.inventario_service.jsonapi;
+
+import com.example.common.timing.RequestTiming;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Escribe JsonApiDocument con el generador en streaming de Jackson, sin reflexión ni objetos intermedios.
+ * Usa el ObjectMapper de la aplicación para que la salida sea idéntica a la del convertidor Jackson estándar.
+ * Si el cliente pide Smile (Accept: application/x-jackson-smile) el mismo documento se escribe en binario.
+ */
+public class JsonApiHttpMessageConverter extends AbstractHttpMessageConverter<JsonApiDocument> {
+
+    // Formato binario de Jackson usado en las llamadas entre servicios
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+
+    public JsonApiHttpMessageConverter(ObjectMapper objectMapper, ObjectMapper smileMapper) {
+        super(MediaType.APPLICATION_JSON, APPLICATION_SMILE);
+        this.objectMapper = objectMapper;
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonApiDocument.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false; // Solo se usa para escribir respuestas
+    }
+
+    @Override
+    protected JsonApiDocument readInternal(Class<? extends JsonApiDocument> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonApiDocument solo se puede escribir", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(JsonApiDocument document, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        ObjectMapper mapper = contentType != null && APPLICATION_SMILE.isCompatibleWith(contentType) ? smileMapper : objectMapper;
+        RequestTiming timing = RequestTiming.actual();
+        if (timing == null) {
+            try (JsonGenerator generator = mapper.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+                document.writeTo(generator);
+            }
+            return;
+        }
+        // Con desglose de tiempos se serializa antes en memoria, para que la cabecera Server-Timing (que sale
+        // con el primer byte del cuerpo) incluya la serialización
+        long inicio = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        try (JsonGenerator generator = mapper.createGenerator(buffer, JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+        timing.registrarSerializacion(System.nanoTime() - inicio);
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.inventario_service.model;
 
+import com.example.inventario_service.bloom.ProductoIdFilterListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -10,14 +11,20 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "inventario")
+@EntityListeners(ProductoIdFilterListener.class) // Mantiene al día el filtro de producto_id (opcional)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Inventario {
 
+    // Tamaño de los bloques de IDs; igual que el INCREMENT BY de la secuencia (V2__pooled_id_sequence.sql)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // IDs por bloques de la secuencia (optimizador pooled): un nextval cada 50 altas, y los INSERT se pueden agrupar en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_id_seq")
+    @SequenceGenerator(name = "inventario_id_seq", sequenceName = "inventario_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "El ID del producto no puede ser nulo")
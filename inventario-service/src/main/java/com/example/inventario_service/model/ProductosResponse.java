@@ -0,0 +1,16 @@
+package com.example.inventario_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Respuesta JSON:API con varios productos (GET /api/productos?filter[id]=...)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductosResponse {
+
+    private List<ProductoResponse.DataBlock> data; // Un bloque 'data' por producto encontrado
+}
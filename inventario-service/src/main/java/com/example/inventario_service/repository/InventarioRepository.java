@@ -2,14 +2,26 @@ package com.example.inventario_service.repository;
 
 
 import com.example.inventario_service.model.Inventario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventarioRepository extends JpaRepository<Inventario, Long> {
+public interface InventarioRepository extends JpaRepository<Inventario, Long>, InventarioRepositoryCustom {
 
     //Método personalizado para buscar un inventario por el ID del producto.
     Optional<Inventario> findByProductoId(Long id);
+
+    // IDs de producto ordenados, por rangos (keyset) en lugar de con OFFSET, para construir el filtro de producto_id
+    @Query("select i.productoId from Inventario i where i.productoId > :desde order by i.productoId")
+    List<Long> findProductoIdsGreaterThan(@Param("desde") Long desde, Pageable pageable);
+
+    // Varias filas en una sola consulta (calentamiento al arrancar)
+    List<Inventario> findByProductoIdIn(Collection<Long> productoIds);
 }
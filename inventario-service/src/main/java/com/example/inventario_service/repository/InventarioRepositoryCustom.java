@@ -0,0 +1,15 @@
+package com.example.inventario_service.repository;
+
+import com.example.inventario_service.model.Inventario;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Consultas con proyección dinámica: solo se leen de la base de datos las columnas solicitadas
+public interface InventarioRepositoryCustom {
+
+    Optional<Inventario> findProjectedByProductoId(Long productoId, Collection<String> atributos);
+
+    List<Inventario> findAllProjected(Collection<String> atributos);
+}
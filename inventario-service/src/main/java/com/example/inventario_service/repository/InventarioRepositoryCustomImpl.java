@@ -0,0 +1,77 @@
+package com.example.inventario_service.repository;
+
+import com.example.inventario_service.model.Inventario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// De solo lectura, como las consultas de Spring Data: con réplica (app.datasource.replica) se ejecutan en ella
+@Transactional(readOnly = true)
+public class InventarioRepositoryCustomImpl implements InventarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Busca el inventario de un producto leyendo únicamente el id y los atributos indicados.
+     * El Inventario devuelto no está gestionado por JPA y los atributos no pedidos quedan en null.
+     */
+    @Override
+    public Optional<Inventario> findProjectedByProductoId(Long productoId, Collection<String> atributos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Inventario> root = query.from(Inventario.class);
+        query.multiselect(selecciones(root, atributos)).where(cb.equal(root.get("productoId"), productoId));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(tuple -> aInventario(tuple, atributos));
+    }
+
+    /**
+     * Lista todas las entradas de inventario leyendo únicamente el id y los atributos indicados.
+     */
+    @Override
+    public List<Inventario> findAllProjected(Collection<String> atributos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Inventario> root = query.from(Inventario.class);
+        query.multiselect(selecciones(root, atributos));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> aInventario(tuple, atributos))
+                .toList();
+    }
+
+    private List<Selection<?>> selecciones(Root<Inventario> root, Collection<String> atributos) {
+        List<Selection<?>> selecciones = new ArrayList<>(atributos.size() + 1);
+        selecciones.add(root.get("id").alias("id"));
+        for (String atributo : atributos) {
+            selecciones.add(root.get(atributo).alias(atributo));
+        }
+        return selecciones;
+    }
+
+    private Inventario aInventario(Tuple tuple, Collection<String> atributos) {
+        Inventario inventario = new Inventario();
+        inventario.setId(tuple.get("id", Long.class));
+        for (String atributo : atributos) {
+            switch (atributo) {
+                case "productoId" -> inventario.setProductoId(tuple.get(atributo, Long.class));
+                case "cantidad" -> inventario.setCantidad(tuple.get(atributo, Integer.class));
+                default -> throw new IllegalArgumentException("Atributo no proyectable: " + atributo);
+            }
+        }
+        return inventario;
+    }
+}
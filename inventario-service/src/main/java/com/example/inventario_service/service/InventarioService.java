@@ -5,6 +5,7 @@ import com.example.inventario_service.dto.InventarioResponse;
 import com.example.inventario_service.model.Inventario;
 
 import java.util.Optional;
+import java.util.Set;
 
 //Definición de la interfaz de servicio de inventario
 public interface InventarioService {
@@ -13,7 +14,13 @@ public interface InventarioService {
 
     Iterable<Inventario> getAllInventario();
 
+    // Lee solo los atributos indicados (null = todos)
+    Iterable<Inventario> getAllInventario(Set<String> atributos);
+
     Optional<Inventario> getInventarioByProductoId(Long productoId);
 
+    // Lee solo los atributos indicados (null = todos)
+    Optional<Inventario> getInventarioByProductoId(Long productoId, Set<String> atributos);
+
     Inventario reduceStock(Long productoId, Integer cantidad);
 }
@@ -1,11 +1,18 @@
 package com.example.inventario_service.service.impl;
 
 
+import com.example.common.eventlog.EventLog;
+import com.example.common.jfr.EventoMedido;
+import com.example.common.replica.ReadYourWrites;
+import com.example.inventario_service.bloom.ProductoIdFilter;
 import com.example.inventario_service.dto.InventarioRequest;
 import com.example.inventario_service.dto.InventarioResponse;
+import com.example.inventario_service.jfr.ReduceStockEvent;
+import com.example.inventario_service.jfr.SaveInventarioEvent;
 import com.example.inventario_service.model.Inventario;
 import com.example.inventario_service.repository.InventarioRepository;
 import com.example.inventario_service.service.InventarioService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,34 +20,64 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "inventario.service", histogram = true) // Tiempo de cada método por clase y método (MetricsConfig)
 public class InventarioServiceImp implements InventarioService {
 
     @Autowired
     private InventarioRepository inventarioRepository;
 
+    @Autowired(required = false)
+    private ProductoIdFilter productoIdFilter; // Solo con inventario.producto-id-filter.enabled=true
+
+    @Autowired(required = false)
+    private EventLog eventLog = EventLog.sincrono(); // Asíncrono con app.event-log.enabled=true (EventLogConfig)
+
+    @Autowired(required = false)
+    private ReadYourWrites readYourWrites; // Solo con réplica (app.datasource.replica.enabled=true)
+
     /**
      * Guarda o actualiza una entrada de inventario. Si ya existe un inventario para el productoId, lo actualiza.
      * @param inventario Objeto Inventario con productoId y cantidad.
      * @return El objeto Inventario guardado o actualizado.
      */
     @Override
+    @Transactional // La búsqueda y el guardado, en el primario y en la misma transacción
     public Inventario saveInventario(Inventario inventario) {
-        // Busca si ya existe una entrada de inventario para este productoId
-        Optional<Inventario> existingInventario = inventarioRepository.findByProductoId(inventario.getProductoId());
-        if (existingInventario.isPresent()) {
-            // Si existe, actualiza su cantidad
-            Inventario updatedInventario = existingInventario.get();
-            updatedInventario.setCantidad(inventario.getCantidad());
-            System.out.println("Actualizando inventario para producto " + inventario.getProductoId() + " a cantidad: " + inventario.getCantidad());
-            return inventarioRepository.save(updatedInventario);
-        } else {
-            // Si no existe, crea una nueva entrada
-            System.out.println("Creando inventario para producto " + inventario.getProductoId() + " con cantidad: " + inventario.getCantidad());
-            return inventarioRepository.save(inventario);
+        registrarEscritura(inventario.getProductoId());
+        // Evento JFR: solo se registra si hay una grabación que lo habilite
+        SaveInventarioEvent evento = new SaveInventarioEvent();
+        evento.begin();
+        evento.productoId = inventario.getProductoId() != null ? inventario.getProductoId() : 0;
+        evento.cantidad = inventario.getCantidad() != null ? inventario.getCantidad() : 0;
+        try {
+            // Busca si ya existe una entrada de inventario para este productoId
+            Optional<Inventario> existingInventario = inventarioRepository.findByProductoId(inventario.getProductoId());
+            Inventario guardado;
+            if (existingInventario.isPresent()) {
+                // Si existe, actualiza su cantidad
+                Inventario updatedInventario = existingInventario.get();
+                updatedInventario.setCantidad(inventario.getCantidad());
+                eventLog.info(log, "inventario.actualizado", "productoId", evento.productoId, "cantidad", evento.cantidad);
+                guardado = inventarioRepository.save(updatedInventario);
+            } else {
+                // Si no existe, crea una nueva entrada
+                eventLog.info(log, "inventario.creado", "productoId", evento.productoId, "cantidad", evento.cantidad);
+                evento.alta = true;
+                guardado = inventarioRepository.save(inventario);
+            }
+            evento.resultado = EventoMedido.OK;
+            return guardado;
+        } catch (RuntimeException e) {
+            evento.resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            evento.commit();
         }
     }
 
@@ -53,6 +90,19 @@ public class InventarioServiceImp implements InventarioService {
         return inventarioRepository.findAll();
     }
 
+    /**
+     * Obtiene todas las entradas de inventario leyendo de la base de datos solo los atributos indicados.
+     * @param atributos Atributos a leer, o null para leer las entradas completas.
+     * @return Iterable de objetos Inventario.
+     */
+    @Override
+    public Iterable<Inventario> getAllInventario(Set<String> atributos) {
+        if (atributos == null) {
+            return getAllInventario();
+        }
+        return inventarioRepository.findAllProjected(atributos);
+    }
+
     /**
      * Obtiene una entrada de inventario por el ID del producto.
      * @param productoId El ID del producto.
@@ -60,7 +110,27 @@ public class InventarioServiceImp implements InventarioService {
      */
     @Override
     public Optional<Inventario> getInventarioByProductoId(Long productoId) {
-        return inventarioRepository.findByProductoId(productoId);
+        if (!puedeExistir(productoId)) {
+            return Optional.empty();
+        }
+        return leer(productoId, () -> inventarioRepository.findByProductoId(productoId));
+    }
+
+    /**
+     * Obtiene una entrada de inventario por el ID del producto leyendo solo los atributos indicados.
+     * @param productoId El ID del producto.
+     * @param atributos Atributos a leer, o null para leer la entrada completa.
+     * @return Optional<Inventario> que puede contener la entrada de inventario si se encuentra.
+     */
+    @Override
+    public Optional<Inventario> getInventarioByProductoId(Long productoId, Set<String> atributos) {
+        if (atributos == null) {
+            return getInventarioByProductoId(productoId);
+        }
+        if (!puedeExistir(productoId)) {
+            return Optional.empty();
+        }
+        return leer(productoId, () -> inventarioRepository.findProjectedByProductoId(productoId, atributos));
     }
 
     /**
@@ -71,19 +141,59 @@ public class InventarioServiceImp implements InventarioService {
      * @throws IllegalArgumentException Si no hay suficiente stock o el producto no se encuentra.
      */
     @Override
+    @Transactional // El stock se lee del primario, nunca de la réplica, y se guarda en la misma transacción
     public Inventario reduceStock(Long productoId, Integer cantidad) {
-        Optional<Inventario> inventarioOptional = inventarioRepository.findByProductoId(productoId);
-        if (inventarioOptional.isPresent()) {
-            Inventario inventario = inventarioOptional.get();
-            if (inventario.getCantidad() >= cantidad) {
-                inventario.setCantidad(inventario.getCantidad() - cantidad);
-                System.out.println("Reduciendo stock para producto " + productoId + " en " + cantidad + ". Nuevo stock: " + inventario.getCantidad());
-                return inventarioRepository.save(inventario);
+        registrarEscritura(productoId); // Quien compra lee a continuación el stock que queda
+        // Evento JFR: solo se registra si hay una grabación que lo habilite
+        ReduceStockEvent evento = new ReduceStockEvent();
+        evento.begin();
+        evento.productoId = productoId;
+        evento.cantidad = cantidad;
+        try {
+            // Sin el filtro de producto_id: un alta que esta instancia aún no conoce no puede rechazar una compra
+            Optional<Inventario> inventarioOptional = inventarioRepository.findByProductoId(productoId);
+            if (inventarioOptional.isPresent()) {
+                Inventario inventario = inventarioOptional.get();
+                evento.stockRestante = inventario.getCantidad();
+                if (inventario.getCantidad() >= cantidad) {
+                    inventario.setCantidad(inventario.getCantidad() - cantidad);
+                    eventLog.info(log, "stock.reducido", "productoId", productoId, "cantidad", cantidad, "stock", inventario.getCantidad());
+                    Inventario guardado = inventarioRepository.save(inventario);
+                    evento.stockRestante = guardado.getCantidad();
+                    evento.resultado = EventoMedido.OK;
+                    return guardado;
+                } else {
+                    evento.resultado = ReduceStockEvent.SIN_STOCK;
+                    throw new IllegalArgumentException("No hay suficiente stock para el producto " + productoId + ". Stock actual: " + inventario.getCantidad() + ", Solicitado: " + cantidad);
+                }
             } else {
-                throw new IllegalArgumentException("No hay suficiente stock para el producto " + productoId + ". Stock actual: " + inventario.getCantidad() + ", Solicitado: " + cantidad);
+                evento.resultado = ReduceStockEvent.NO_ENCONTRADO;
+                throw new IllegalArgumentException("Producto con ID " + productoId + " no encontrado en el inventario.");
+            }
+        } catch (RuntimeException e) {
+            if (evento.resultado == null) {
+                evento.resultado = e.getClass().getSimpleName();
             }
-        } else {
-            throw new IllegalArgumentException("Producto con ID " + productoId + " no encontrado en el inventario.");
+            throw e;
+        } finally {
+            evento.commit();
         }
     }
+
+    // Con réplica, las lecturas del inventario recién escrito de un producto van al primario (ReadYourWrites)
+    private <T> T leer(Long productoId, Supplier<T> lectura) {
+        return readYourWrites != null ? readYourWrites.leer(productoId, lectura) : lectura.get();
+    }
+
+    private void registrarEscritura(Long productoId) {
+        if (readYourWrites != null) {
+            readYourWrites.registrar(productoId);
+        }
+    }
+
+    // Solo en las consultas (GET): los productos que seguro que no tienen inventario se descartan sin consultar
+    // la base de datos. Las escrituras leen siempre de la base de datos
+    private boolean puedeExistir(Long productoId) {
+        return productoIdFilter == null || productoIdFilter.puedeExistir(productoId);
+    }
 }
@@ -0,0 +1,128 @@
+package com.example.inventario_service.warmup;
+
+import com.example.common.warmup.EjercicioEndpoints;
+import com.example.common.warmup.HotKeyTracker;
+import com.example.common.warmup.WarmUpProperties;
+import com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.inventario_service.repository.InventarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calentamiento al arrancar, antes de aceptar tráfico: lee por lotes las filas de inventario de los productos
+ * más usados (HotKeyTracker; si no hay lista, los primeros producto_id de la tabla), para que estén en la caché
+ * de PostgreSQL y los pools de conexiones abiertos, y ejercita los endpoints de lectura con peticiones al propio
+ * servicio para que el JIT compile su camino. Las compras no se ejercitan: cambiarían el stock.
+ * <p>
+ * Se ejecuta como ApplicationRunner: Spring Boot no publica ReadinessState.ACCEPTING_TRAFFIC (y
+ * /actuator/health/readiness no responde UP) hasta que termina, o hasta que se agota app.warm-up.budget.
+ * Un error en el calentamiento se registra y no impide arrancar.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final int LOTE = 500;
+
+    private final WarmUpProperties properties;
+    private final HotKeyTracker hotKeys;
+    private final InventarioRepository inventarioRepository;
+    private final ApplicationEventPublisher publisher;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public WarmUpRunner(WarmUpProperties properties, HotKeyTracker hotKeys, InventarioRepository inventarioRepository,
+                        ApplicationEventPublisher publisher, Environment environment, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hotKeys = hotKeys;
+        this.inventarioRepository = inventarioRepository;
+        this.publisher = publisher;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        calentar();
+    }
+
+    void calentar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + properties.getBudget().toNanos();
+        hotKeys.pausar();
+        try {
+            List<Long> ids = hotKeys.leer();
+            String origen = "lista guardada";
+            if (ids.isEmpty()) {
+                ids = inventarioRepository.findProductoIdsGreaterThan(Long.MIN_VALUE,
+                        PageRequest.ofSize(properties.getHotKeys().getMaxKeys()));
+                origen = "tabla";
+            }
+            int precargadas = precargar(ids, limite);
+            // Sin servidor web (tests con MockMvc) solo se precarga
+            Integer puerto = environment.getProperty("local.server.port", Integer.class);
+            EjercicioEndpoints.Resultado peticiones = puerto != null
+                    ? ejercicio(puerto, ids).ejecutar(limite)
+                    : new EjercicioEndpoints.Resultado(0, 0, List.of());
+
+            long duracion = System.nanoTime() - inicio;
+            boolean completo = System.nanoTime() < limite;
+            Timer.builder("warmup.duration")
+                    .description("Duración del calentamiento al arrancar")
+                    .tag("outcome", completo ? "completed" : "budget-exceeded")
+                    .register(meterRegistry)
+                    .record(duracion, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("warmup.requests", "outcome", "ok").increment(peticiones.correctas());
+            meterRegistry.counter("warmup.requests", "outcome", "error").increment(peticiones.errores());
+            logger.info("Calentamiento {} en {} ms: {} filas de inventario leídas ({}), {} peticiones, {} errores{}",
+                    completo ? "terminado" : "interrumpido por app.warm-up.budget", duracion / 1_000_000,
+                    precargadas, origen, peticiones.correctas(), peticiones.errores(),
+                    peticiones.descartados().isEmpty() ? "" : ", sin ejercitar " + peticiones.descartados());
+        } catch (RuntimeException e) {
+            logger.error("Error en el calentamiento: {}", e.getMessage(), e);
+        } finally {
+            hotKeys.reanudar();
+        }
+    }
+
+    // Una consulta IN por lote en lugar de una por producto
+    private int precargar(List<Long> ids, long limite) {
+        int precargadas = 0;
+        for (int desde = 0; desde < ids.size() && System.nanoTime() < limite; desde += LOTE) {
+            precargadas += inventarioRepository.findByProductoIdIn(ids.subList(desde, Math.min(ids.size(), desde + LOTE))).size();
+        }
+        return precargadas;
+    }
+
+    private EjercicioEndpoints ejercicio(int puerto, List<Long> ids) {
+        String base = "http://localhost:" + puerto;
+        List<EjercicioEndpoints.Endpoint> endpoints = List.of(
+                // Como lo llama productos-service: en Smile
+                new EjercicioEndpoints.Endpoint("GET /api/inventario/{productoId}", id -> "/api/inventario/" + id,
+                        JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE),
+                new EjercicioEndpoints.Endpoint("GET /api/inventario/{productoId} (JSON)", id -> "/api/inventario/" + id,
+                        MediaType.APPLICATION_JSON_VALUE),
+                new EjercicioEndpoints.Endpoint("GET /api/inventario/{productoId}?fields[inventarios]",
+                        id -> "/api/inventario/" + id + "?fields%5Binventarios%5D=cantidad", MediaType.APPLICATION_JSON_VALUE));
+        return new EjercicioEndpoints(base, Map.of(), endpoints, ids, properties.getRequests(), properties.getConcurrency());
+    }
+}
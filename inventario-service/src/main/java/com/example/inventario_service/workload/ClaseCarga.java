@@ -0,0 +1,49 @@
+package com.example.inventario_service.workload;
+
+/**
+ * Clases de carga de inventario-service. Cada una tiene sus propios hilos (WorkloadExecutor) y su propia
+ * parte del pool de conexiones (WorkloadRoutingDataSource), de modo que una no puede agotar los recursos
+ * de las demás: los listados completos no dejan sin hilos ni conexiones a las compras.
+ */
+public enum ClaseCarga {
+
+    // Compras y altas/modificaciones de inventario
+    ESCRITURA("writes"),
+    // Consultas por producto
+    LECTURA("reads"),
+    // Listado completo del inventario
+    LISTADO("scans"),
+    // Todo lo que no llega por un endpoint: arranque, tareas programadas, health checks
+    ADMIN("admin");
+
+    private static final ThreadLocal<ClaseCarga> ACTUAL = new ThreadLocal<>();
+
+    private final String clave;
+
+    ClaseCarga(String clave) {
+        this.clave = clave;
+    }
+
+    /**
+     * Nombre en la configuración (inventario.workload.&lt;clave&gt;) y en las etiquetas de las métricas.
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * Clase de la tarea que ejecuta el hilo actual; ADMIN fuera de los ejecutores de WorkloadExecutor.
+     */
+    public static ClaseCarga actual() {
+        ClaseCarga clase = ACTUAL.get();
+        return clase != null ? clase : ADMIN;
+    }
+
+    static void establecer(ClaseCarga clase) {
+        ACTUAL.set(clase);
+    }
+
+    static void limpiar() {
+        ACTUAL.remove();
+    }
+}
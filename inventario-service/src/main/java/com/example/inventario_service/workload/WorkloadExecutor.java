@@ -0,0 +1,123 @@
+package com.example.inventario_service.workload;
+
+import com.example.common.deadline.Deadline;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.timing.RequestTiming;
+import com.example.inventario_service.exception.WorkloadRejectedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta cada petición en los hilos de su clase de carga (escrituras, lecturas, listados), cada una con su
+ * cola acotada. El hilo de Tomcat queda libre en cuanto la tarea se encola; si la cola está llena la petición
+ * se rechaza con 503 (WorkloadRejectedException), y si espera en la cola hasta vencer su deadline se
+ * responde 504 sin hacer el trabajo.
+ * <p>
+ * Métricas por clase (etiqueta class): executor.* de Micrometer (name=inventario.workload.&lt;clase&gt;),
+ * inventario.workload.queue.wait (tiempo en cola) e inventario.workload.rejected.
+ */
+@Component
+public class WorkloadExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadExecutor.class);
+
+    private final boolean habilitado;
+    private final Map<ClaseCarga, Ejecutor> ejecutores = new EnumMap<>(ClaseCarga.class);
+
+    public WorkloadExecutor(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        this.habilitado = properties.isEnabled();
+        if (!habilitado) {
+            return;
+        }
+        for (ClaseCarga clase : ClaseCarga.values()) {
+            if (clase != ClaseCarga.ADMIN) {
+                ejecutores.put(clase, new Ejecutor(clase, properties.get(clase), meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la tarea en los hilos de la clase indicada, que queda fijada en el hilo durante la tarea
+     * (ClaseCarga.actual()) para elegir la parte del pool de conexiones.
+     * @throws WorkloadRejectedException Si la cola de la clase está llena.
+     */
+    public <T> CompletableFuture<T> ejecutar(ClaseCarga clase, Supplier<T> tarea) {
+        if (!habilitado) {
+            return CompletableFuture.completedFuture(tarea.get());
+        }
+        Ejecutor ejecutor = ejecutores.get(clase);
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("La clase " + clase + " no tiene ejecutor");
+        }
+        return ejecutor.ejecutar(tarea);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutores.values().forEach(ejecutor -> ejecutor.pool.shutdown());
+    }
+
+    private static final class Ejecutor {
+
+        private final ClaseCarga clase;
+        private final ThreadPoolExecutor pool;
+        private final Timer espera;
+        private final LongAdder rechazadas = new LongAdder();
+
+        private Ejecutor(ClaseCarga clase, WorkloadProperties.Clase config, MeterRegistry meterRegistry) {
+            this.clase = clase;
+            AtomicInteger numero = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(config.getThreads(), config.getThreads(), 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                    r -> new Thread(r, "carga-" + clase.getClave() + "-" + numero.incrementAndGet()),
+                    new ThreadPoolExecutor.AbortPolicy());
+
+            Tags tags = Tags.of("class", clase.getClave());
+            new ExecutorServiceMetrics(pool, "inventario.workload." + clase.getClave(), tags).bindTo(meterRegistry);
+            this.espera = Timer.builder("inventario.workload.queue.wait").tags(tags).register(meterRegistry);
+            FunctionCounter.builder("inventario.workload.rejected", rechazadas, LongAdder::sum).tags(tags).register(meterRegistry);
+        }
+
+        private <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+            Deadline deadline = Deadline.actual();
+            Supplier<T> conTiming = RequestTiming.envolver(RequestTiming.actual(), tarea); // Server-Timing de la petición
+            long encolada = System.nanoTime();
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    espera.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                    if (deadline != null && deadline.vencido()) {
+                        throw new DeadlineExceededException("El deadline venció en la cola de " + clase.getClave());
+                    }
+                    ClaseCarga.establecer(clase);
+                    try {
+                        return conTiming.get();
+                    } finally {
+                        ClaseCarga.limpiar();
+                    }
+                }, pool);
+            } catch (RejectedExecutionException e) {
+                rechazadas.increment();
+                logger.debug("Cola de {} llena ({} tareas): petición rechazada", clase.getClave(), pool.getQueue().size());
+                throw new WorkloadRejectedException("Demasiadas peticiones de tipo " + clase.getClave() + " en curso, inténtelo de nuevo en unos instantes.");
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.inventario_service.workload;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hilos, cola y conexiones de cada clase de carga (prefijo inventario.workload en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "inventario.workload")
+public class WorkloadProperties {
+
+    // Con false todo se ejecuta en el hilo de la petición con un único pool de conexiones (spring.datasource.hikari)
+    private boolean enabled = true;
+
+    private Clase writes = new Clase(16, 200, 6, Duration.ofSeconds(2));
+
+    private Clase reads = new Clase(16, 200, 4, Duration.ofSeconds(2));
+
+    private Clase scans = new Clase(2, 4, 2, Duration.ofSeconds(10));
+
+    // Solo conexiones: el tráfico de administración no pasa por WorkloadExecutor
+    private Clase admin = new Clase(0, 0, 2, Duration.ofSeconds(10));
+
+    public Clase get(ClaseCarga clase) {
+        return switch (clase) {
+            case ESCRITURA -> writes;
+            case LECTURA -> reads;
+            case LISTADO -> scans;
+            case ADMIN -> admin;
+        };
+    }
+
+    @Data
+    public static class Clase {
+        // Hilos que atienden la clase
+        private int threads;
+        // Tareas que pueden esperar hilo; con la cola llena la petición se rechaza con 503
+        private int queueCapacity;
+        // Conexiones a la base de datos reservadas para la clase
+        private int connections;
+        // Espera máxima por una conexión de la clase
+        private Duration connectionTimeout;
+
+        public Clase() {
+        }
+
+        public Clase(int threads, int queueCapacity, int connections, Duration connectionTimeout) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.connections = connections;
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
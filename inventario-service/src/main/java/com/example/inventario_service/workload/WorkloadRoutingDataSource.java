@@ -0,0 +1,49 @@
+package com.example.inventario_service.workload;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reparte las conexiones entre pools independientes, uno por clase de carga: cada conexión sale del pool
+ * de la clase del hilo que la pide (ClaseCarga.actual()). Un listado largo solo puede ocupar las conexiones
+ * de LISTADO; las compras siguen teniendo las suyas. Lo que no corre en WorkloadExecutor usa el pool ADMIN.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<ClaseCarga, DataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<ClaseCarga, ? extends DataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        setTargetDataSources(new HashMap<>(this.pools));
+        setDefaultTargetDataSource(this.pools.get(ClaseCarga.ADMIN));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ClaseCarga.actual();
+    }
+
+    /**
+     * Pool de una clase de carga.
+     */
+    public DataSource getPool(ClaseCarga clase) {
+        return pools.get(clase);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.inventario_service.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void testNoHayFalsosNegativos() {
+        BloomFilter filtro = BloomFilter.paraCapacidad(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filtro.agregar(id);
+        }
+
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(filtro.puedeContener(id), "Falso negativo para " + id);
+        }
+    }
+
+    @Test
+    void testLosFalsosPositivosRondanLaTasaConfigurada() {
+        BloomFilter filtro = BloomFilter.paraCapacidad(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filtro.agregar(id);
+        }
+
+        int falsosPositivos = 0;
+        for (long id = 1_000_001; id <= 1_100_000; id++) {
+            if (filtro.puedeContener(id)) {
+                falsosPositivos++;
+            }
+        }
+        double tasa = falsosPositivos / 100_000.0;
+        assertTrue(tasa < 0.02, "Tasa de falsos positivos: " + tasa);
+    }
+
+    @Test
+    void testDimensionado() {
+        BloomFilter filtro = BloomFilter.paraCapacidad(1_000, 0.01);
+
+        // ~9,6 bits y 7 hashes por elemento para un 1 %
+        assertEquals(9_600, filtro.getNumBits());
+        assertEquals(7, filtro.getNumHashes());
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.paraCapacidad(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.paraCapacidad(1_000, 1));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.inventario_service.bloom;
+
+import com.example.common.latency.Latencia;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Carga mixta de GET /api/inventario/{productoId} a nivel de servicio: 50.000 productos con inventario y
+ * 20.000 consultas, la mitad a IDs inexistentes (bots, clientes con datos viejos). La base de datos es un
+ * repositorio en memoria que tarda 200 µs por consulta. Deja en el log las consultas a la base de datos y
+ * la latencia media y p99 sin filtro y con él.
+ */
+public class ProductoIdFilterBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductoIdFilterBenchmarkIT.class);
+
+    private static final int PRODUCTOS = 50_000;
+    private static final int CONSULTAS = 20_000;
+    private static final Duration LATENCIA_BD = Duration.ofNanos(200_000);
+
+    private final AtomicInteger consultasBd = new AtomicInteger();
+    private InventarioRepository repositorio;
+    private long[] carga;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = repositorioSimulado();
+        Random random = new Random(7);
+        carga = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            // Los productos con inventario son 1..PRODUCTOS; la otra mitad de las consultas pide IDs que no existen
+            carga[i] = random.nextBoolean() ? 1 + random.nextInt(PRODUCTOS) : PRODUCTOS + 1 + random.nextInt(10 * PRODUCTOS);
+        }
+    }
+
+    @Test
+    void testElFiltroEvitaLasConsultasDeProductosInexistentes() {
+        Resultado sinFiltro = medir("Sin filtro", servicio(null));
+
+        ProductoIdFilter filtro = new ProductoIdFilter(repositorio, 0.01, 100_000, Duration.ofMinutes(10), 5_000);
+        filtro.reconstruir();
+        Resultado conFiltro = medir("Con filtro de Bloom", servicio(filtro));
+
+        for (Resultado resultado : List.of(sinFiltro, conFiltro)) {
+            logger.info(String.format("%-22s %6d consultas a BD %6d encontrados  media %7.1f µs  p99 %7.1f µs",
+                    resultado.nombre, resultado.consultasBd, resultado.encontrados, resultado.mediaMicros, resultado.p99Micros));
+        }
+
+        assertEquals(sinFiltro.encontrados, conFiltro.encontrados);
+        assertEquals(CONSULTAS, sinFiltro.consultasBd);
+        // Solo llegan a la base de datos los aciertos y los falsos positivos (~1 % de los fallos)
+        assertTrue(conFiltro.consultasBd < sinFiltro.encontrados * 1.05, "Consultas con filtro: " + conFiltro.consultasBd);
+        assertTrue(conFiltro.mediaMicros < sinFiltro.mediaMicros * 0.75);
+    }
+
+    private Resultado medir(String nombre, InventarioServiceImp servicio) {
+        consultasBd.set(0);
+        long[] latencias = new long[CONSULTAS];
+        int encontrados = 0;
+        for (int i = 0; i < CONSULTAS; i++) {
+            long inicio = System.nanoTime();
+            if (servicio.getInventarioByProductoId(carga[i]).isPresent()) {
+                encontrados++;
+            }
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(latencias);
+        double media = Arrays.stream(latencias).average().orElse(0) / 1_000;
+        double p99 = latencias[(int) (CONSULTAS * 0.99)] / 1_000.0;
+        return new Resultado(nombre, consultasBd.get(), encontrados, media, p99);
+    }
+
+    private InventarioServiceImp servicio(ProductoIdFilter filtro) {
+        InventarioServiceImp servicio = new InventarioServiceImp();
+        ReflectionTestUtils.setField(servicio, "inventarioRepository", repositorio);
+        ReflectionTestUtils.setField(servicio, "productoIdFilter", filtro);
+        return servicio;
+    }
+
+    // Repositorio con los productos 1..PRODUCTOS que tarda LATENCIA_BD en cada búsqueda por producto.
+    // stubOnly: Mockito no guarda las 40.000 invocaciones
+    private InventarioRepository repositorioSimulado() {
+        InventarioRepository simulado = mock(InventarioRepository.class, withSettings().stubOnly());
+        when(simulado.findByProductoId(anyLong())).thenAnswer(Latencia.tras(LATENCIA_BD, invocacion -> {
+            consultasBd.incrementAndGet();
+            long productoId = invocacion.getArgument(0);
+            return productoId <= PRODUCTOS ? Optional.of(new Inventario(productoId, productoId, 10)) : Optional.empty();
+        }));
+        when(simulado.count()).thenReturn((long) PRODUCTOS);
+        when(simulado.findProductoIdsGreaterThan(anyLong(), any(Pageable.class))).thenAnswer(invocacion -> {
+            long desde = Math.max(0, invocacion.<Long>getArgument(0));
+            int tamano = invocacion.<Pageable>getArgument(1).getPageSize();
+            return LongStream.rangeClosed(desde + 1, Math.min(PRODUCTOS, desde + tamano)).boxed().toList();
+        });
+        return simulado;
+    }
+
+    private record Resultado(String nombre, int consultasBd, int encontrados, double mediaMicros, double p99Micros) {
+    }
+}
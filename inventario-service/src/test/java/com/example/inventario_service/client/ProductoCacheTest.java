@@ -0,0 +1,109 @@
+package com.example.inventario_service.client;
+
+import com.example.inventario_service.model.ProductoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductoCacheTest {
+
+    @Test
+    void testDevuelveElProductoGuardado() {
+        ProductoCache cache = new ProductoCache(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.guardar(1L, producto(1L));
+
+        assertEquals("1", cache.buscar(1L).getProducto().getData().getId());
+        assertNull(cache.buscar(2L));
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void testRecuerdaLosProductosInexistentes() {
+        ProductoCache cache = new ProductoCache(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.guardar(1L, null);
+
+        ProductoCache.Entrada entrada = cache.buscar(1L);
+        assertNotNull(entrada);
+        assertNull(entrada.getProducto());
+    }
+
+    @Test
+    void testLasEntradasCaducan() throws InterruptedException {
+        ProductoCache cache = new ProductoCache(10, Duration.ofMinutes(1), Duration.ofMillis(20));
+        cache.guardar(1L, producto(1L));
+        cache.guardar(2L, null);
+
+        Thread.sleep(50);
+
+        // La caché negativa caduca antes que la de productos existentes
+        assertNotNull(cache.buscar(1L));
+        assertNull(cache.buscar(2L));
+    }
+
+    @Test
+    void testSeExpulsaElMenosUsadoAlLlenarse() {
+        ProductoCache cache = new ProductoCache(2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.guardar(1L, producto(1L));
+        cache.guardar(2L, producto(2L));
+        cache.buscar(1L); // El 2 pasa a ser el menos usado
+
+        cache.guardar(3L, producto(3L));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.buscar(1L));
+        assertNull(cache.buscar(2L));
+        assertNotNull(cache.buscar(3L));
+    }
+
+    @Test
+    void testInvalidarEliminaLaEntrada() {
+        ProductoCache cache = new ProductoCache(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.guardar(1L, producto(1L));
+
+        cache.invalidar(1L);
+
+        assertNull(cache.buscar(1L));
+    }
+
+    @Test
+    void testBusquedasYAltasConcurrentesRespetanElLimite() throws Exception {
+        ProductoCache cache = new ProductoCache(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.guardar(1L, producto(1L));
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                long desde = 1000L * (h + 1);
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        assertNotNull(cache.buscar(1L)); // El más pedido no sale de la caché
+                        cache.guardar(desde + i, producto(desde + i));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 100 + 8, "size=" + cache.size()); // Como mucho una alta por hilo entre expulsiones
+        assertEquals(8 * 5000, cache.getAciertos());
+    }
+
+    private static ProductoResponse producto(Long id) {
+        return new ProductoResponse(new ProductoResponse.DataBlock(String.valueOf(id), "productos",
+                new ProductoResponse.Attributes("Producto " + id, null, BigDecimal.TEN)));
+    }
+}
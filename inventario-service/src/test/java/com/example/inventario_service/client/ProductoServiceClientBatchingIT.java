@@ -0,0 +1,151 @@
+package com.example.inventario_service.client;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Enriquecimiento de 10.000 filas de inventario (unos 2.000 productos distintos, un 10 % inexistentes) contra
+ * un sustituto de productos-service que tarda 5 ms por petición. Compara una llamada por fila, la caché,
+ * la consulta por lotes, el agrupamiento automático de llamadas concurrentes y una segunda pasada con la
+ * caché caliente. Deja en el log el tiempo y las peticiones HTTP de cada variante.
+ */
+public class ProductoServiceClientBatchingIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductoServiceClientBatchingIT.class);
+
+    private static final int FILAS = 10_000;
+    private static final int PRODUCTOS = 2_000;
+    private static final Duration LATENCIA = Duration.ofMillis(5);
+    private static final int CONCURRENCIA = 64;
+
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private DisposableServer servidor;
+    private List<Long> filas;
+
+    @BeforeEach
+    void setUp() {
+        servidor = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/productos/{id}", (request, response) -> {
+                            peticiones.incrementAndGet();
+                            long id = Long.parseLong(request.param("id"));
+                            if (!existe(id)) {
+                                return response.status(HttpResponseStatus.NOT_FOUND).header("Content-Length", "0").send();
+                            }
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.delay(LATENCIA).thenReturn("{\"data\":" + recurso(id) + "}"));
+                        })
+                        .get("/api/productos", (request, response) -> {
+                            peticiones.incrementAndGet();
+                            String filtro = new QueryStringDecoder(request.uri()).parameters().get("filter[id]").get(0);
+                            String data = List.of(filtro.split(",")).stream()
+                                    .map(Long::valueOf)
+                                    .filter(ProductoServiceClientBatchingIT::existe)
+                                    .map(ProductoServiceClientBatchingIT::recurso)
+                                    .collect(Collectors.joining(",", "[", "]"));
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.delay(LATENCIA).thenReturn("{\"data\":" + data + "}"));
+                        }))
+                .bindNow();
+
+        Random random = new Random(42);
+        filas = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            filas.add(1L + random.nextInt(PRODUCTOS));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.disposeNow();
+    }
+
+    @Test
+    void testComparaLlamadasIndividualesLotesYCache() {
+        Resultado individual = porFila("getProductoById", cliente(false, false));
+        Resultado conCache = porFila("getProductoById + caché", cliente(true, false));
+
+        ProductoServiceClient clienteLotes = cliente(true, false);
+        Resultado lotes = medir("getProductosByIds", () -> clienteLotes.getProductosByIds(filas).block().size());
+        Resultado segundaPasada = medir("getProductosByIds (caché caliente)", () -> clienteLotes.getProductosByIds(filas).block().size());
+
+        Resultado agrupadas = porFila("getProductoById + caché + agrupamiento", cliente(true, true));
+
+        for (Resultado resultado : List.of(individual, conCache, lotes, segundaPasada, agrupadas)) {
+            logger.info(String.format("%-40s %6d ms %6d peticiones %6d productos",
+                    resultado.nombre, resultado.milisegundos, resultado.peticiones, resultado.encontrados));
+        }
+
+        // Con caché o lotes se resuelven todas las filas; una llamada por fila puede perder alguna por timeout
+        long filasConProducto = filas.stream().filter(ProductoServiceClientBatchingIT::existe).count();
+        assertEquals(filasConProducto, conCache.encontrados);
+        assertEquals(filasConProducto, agrupadas.encontrados);
+        assertEquals(filas.stream().distinct().filter(ProductoServiceClientBatchingIT::existe).count(), lotes.encontrados);
+        assertTrue(individual.peticiones >= FILAS, "Peticiones individuales: " + individual.peticiones);
+        assertTrue(conCache.peticiones < FILAS / 2, "Peticiones con caché: " + conCache.peticiones);
+        assertTrue(lotes.peticiones <= PRODUCTOS / 100, "Peticiones por lotes: " + lotes.peticiones);
+        assertTrue(agrupadas.peticiones < conCache.peticiones / 10, "Peticiones agrupadas: " + agrupadas.peticiones);
+        assertEquals(0, segundaPasada.peticiones);
+    }
+
+    // Una llamada a getProductoById por fila, como el enriquecimiento actual; cuenta las filas con producto
+    private Resultado porFila(String nombre, ProductoServiceClient client) {
+        return medir(nombre, () -> Flux.fromIterable(filas)
+                .flatMap(client::getProductoById, CONCURRENCIA)
+                .count()
+                .block()
+                .intValue());
+    }
+
+    private Resultado medir(String nombre, IntSupplier enriquecer) {
+        peticiones.set(0);
+        long inicio = System.nanoTime();
+        int encontrados = enriquecer.getAsInt();
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return new Resultado(nombre, milisegundos, peticiones.get(), encontrados);
+    }
+
+    private ProductoServiceClient cliente(boolean cache, boolean lotes) {
+        ProductoServiceClientProperties properties = new ProductoServiceClientProperties();
+        properties.setUrl("http://localhost:" + servidor.port());
+        properties.getCache().setEnabled(cache);
+        properties.getBatch().setEnabled(lotes);
+        ProductoServiceClient client = new ProductoServiceClient(WebClient.builder(), properties);
+        ReflectionTestUtils.setField(client, "apiKey", "clave-de-prueba");
+        return client;
+    }
+
+    // Uno de cada diez IDs no existe en productos-service
+    private static boolean existe(long id) {
+        return id % 10 != 0;
+    }
+
+    private static String recurso(long id) {
+        return "{\"id\":\"" + id + "\",\"type\":\"productos\",\"attributes\":{\"nombre\":\"Producto " + id + "\",\"precio\":10.00}}";
+    }
+
+    private record Resultado(String nombre, long milisegundos, int peticiones, int encontrados) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.inventario_service.client;
+
+import com.example.common.deadline.Deadline;
+import com.example.common.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mide el trabajo que llega a productos-service cuando el llamante abandona la petición: un sustituto local
+ * tarda 1 s en responder, cada intento del cliente expira a los 200 ms y el llamante solo espera 300 ms.
+ * Cuenta las peticiones que recibe el sustituto después de que el llamante se haya rendido.
+ */
+public class ProductoServiceClientDeadlineTest {
+
+    private static final Duration ESPERA_LLAMANTE = Duration.ofMillis(300);
+
+    // Instante de llegada (System.nanoTime) y valor de X-Deadline-Ms de cada petición recibida
+    private final List<Long> llegadas = new CopyOnWriteArrayList<>();
+    private final List<String> cabeceras = new CopyOnWriteArrayList<>();
+
+    private DisposableServer servidor;
+    private ProductoServiceClientProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        servidor = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/productos/{id}", (request, response) -> {
+                    llegadas.add(System.nanoTime());
+                    cabeceras.add(request.requestHeaders().get(Deadline.HEADER));
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(Duration.ofSeconds(1)).thenReturn("{\"id\":1,\"nombre\":\"Teclado\"}"));
+                }))
+                .bindNow();
+
+        properties = new ProductoServiceClientProperties();
+        properties.setUrl("http://localhost:" + servidor.port());
+        properties.setTimeout(Duration.ofMillis(200));
+        properties.getRetry().setBackoff(Duration.ofMillis(50));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.disposeNow();
+    }
+
+    @Test
+    void testSinDeadlineLosReintentosSiguenTrasRendirseElLlamante() throws InterruptedException {
+        long abandono = llamarYAbandonar(cliente(), null);
+
+        // 1 intento + 3 reintentos, la mayoría cuando el llamante ya se ha ido (el primero puede expirar
+        // antes de abrir la conexión y no llegar al servidor)
+        assertTrue(llegadas.size() >= 3, "Intentos recibidos: " + llegadas.size());
+        assertTrue(recibidasDespuesDe(abandono) >= 2, "Recibidas tras el abandono: " + recibidasDespuesDe(abandono));
+        assertNull(cabeceras.get(0));
+    }
+
+    @Test
+    void testConDeadlineNoSeReintentaMasAllaDelDeadline() throws InterruptedException {
+        long abandono = llamarYAbandonar(cliente(), Deadline.dentroDe(ESPERA_LLAMANTE));
+
+        assertTrue(llegadas.size() <= 2, "Intentos: " + llegadas.size());
+        assertEquals(0, recibidasDespuesDe(abandono));
+        // Cada intento informa a productos-service del tiempo que le queda
+        for (String cabecera : cabeceras) {
+            long restante = Long.parseLong(cabecera);
+            assertTrue(restante > 0 && restante <= ESPERA_LLAMANTE.toMillis(), "X-Deadline-Ms=" + cabecera);
+        }
+    }
+
+    @Test
+    void testElDeadlineVencidoFallaSinLlamar() {
+        Deadline vencido = Deadline.dentroDe(Duration.ZERO);
+
+        assertThrows(DeadlineExceededException.class, () -> cliente().getProductoById(1L)
+                .contextWrite(c -> c.put(Deadline.class, vencido))
+                .block(Duration.ofSeconds(2)));
+        assertEquals(0, llegadas.size());
+    }
+
+    @Test
+    void testSinPresupuestoNoSeReintenta() throws InterruptedException {
+        properties.getRetry().setBudgetPercent(0);
+        properties.getRetry().setMaxBurst(0);
+
+        llamarYAbandonar(cliente(), null);
+
+        assertTrue(llegadas.size() <= 1, "Intentos: " + llegadas.size());
+    }
+
+    @Test
+    void testLosReintentosNoRecarganElPresupuesto() throws InterruptedException {
+        properties.getRetry().setBudgetPercent(50);
+        properties.getRetry().setMaxBurst(10);
+        ProductoServiceClient client = cliente();
+        RetryBudget budget = (RetryBudget) ReflectionTestUtils.getField(client, "retryBudget");
+
+        llamarYAbandonar(client, null);
+
+        // Una llamada (con el presupuesto lleno su depósito se pierde) y 3 reintentos: 10 - 3. Si cada
+        // reintento depositara como una llamada quedarían 8,5
+        assertEquals(7.0, budget.getReintentosDisponibles(), 0.001);
+    }
+
+    private ProductoServiceClient cliente() {
+        ProductoServiceClient client = new ProductoServiceClient(WebClient.builder(), properties);
+        ReflectionTestUtils.setField(client, "apiKey", "clave-de-prueba");
+        return client;
+    }
+
+    // El llamante lanza la llamada y deja de esperar a los 300 ms, sin cancelarla (como un cliente HTTP que
+    // corta la conexión mientras el servidor sigue trabajando). Devuelve el instante del abandono.
+    private long llamarYAbandonar(ProductoServiceClient client, Deadline deadline) throws InterruptedException {
+        long inicio = System.nanoTime();
+        client.getProductoById(1L)
+                .contextWrite(c -> deadline != null ? c.put(Deadline.class, deadline) : c)
+                .subscribe(producto -> { }, error -> { });
+        Thread.sleep(2_000); // Margen para todos los reintentos posibles
+        return inicio + ESPERA_LLAMANTE.toNanos();
+    }
+
+    private long recibidasDespuesDe(long instante) {
+        return llegadas.stream().filter(llegada -> llegada > instante).count();
+    }
+}
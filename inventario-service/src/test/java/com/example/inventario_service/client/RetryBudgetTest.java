@@ -0,0 +1,53 @@
+package com.example.inventario_service.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryBudgetTest {
+
+    @Test
+    void testLaRafagaInicialSeAgota() {
+        RetryBudget budget = new RetryBudget(10, 2);
+
+        assertTrue(budget.intentarReintento());
+        assertTrue(budget.intentarReintento());
+        assertFalse(budget.intentarReintento());
+    }
+
+    @Test
+    void testCadaLlamadaRecargaElPorcentajeConfigurado() {
+        RetryBudget budget = new RetryBudget(10, 2);
+        budget.intentarReintento();
+        budget.intentarReintento();
+
+        // Con un 10 % hacen falta 10 llamadas para un reintento
+        for (int i = 0; i < 9; i++) {
+            budget.registrarLlamada();
+        }
+        assertFalse(budget.intentarReintento());
+        budget.registrarLlamada();
+        assertTrue(budget.intentarReintento());
+    }
+
+    @Test
+    void testLaRecargaNoSuperaLaRafagaMaxima() {
+        RetryBudget budget = new RetryBudget(50, 1);
+        for (int i = 0; i < 100; i++) {
+            budget.registrarLlamada();
+        }
+
+        assertTrue(budget.intentarReintento());
+        assertFalse(budget.intentarReintento());
+    }
+
+    @Test
+    void testLosReintentosDisponiblesIncluyenLaFraccion() {
+        RetryBudget budget = new RetryBudget(25, 2);
+        budget.intentarReintento();
+
+        budget.registrarLlamada();
+
+        assertEquals(1.25, budget.getReintentosDisponibles(), 0.001);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventario_service.config;
+
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.InventarioService;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MetricsConfigTest {
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @InjectMocks
+    private InventarioServiceImp implementacion;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, Boolean> histogramas = new ConcurrentHashMap<>();
+    private InventarioService servicio;
+
+    @BeforeEach
+    void setUp() {
+        // SimpleMeterRegistry no publica buckets (Prometheus sí): se comprueba la configuración de cada timer
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                histogramas.put(id.getName() + "." + id.getTag("method"), Boolean.TRUE.equals(config.isPercentileHistogram()));
+                return config;
+            }
+        });
+        // Mismo proxy que crea Spring Boot con spring-boot-starter-aop (CGLIB, spring.aop.proxy-target-class=true)
+        AspectJProxyFactory factory = new AspectJProxyFactory(implementacion);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        servicio = factory.getProxy();
+    }
+
+    @Test
+    void testCadaMetodoDelServicioTieneSuTimerConHistograma() {
+        when(inventarioRepository.findByProductoId(1L)).thenReturn(Optional.of(new Inventario(1L, 1L, 10)));
+        when(inventarioRepository.findByProductoId(2L)).thenReturn(Optional.empty());
+        when(inventarioRepository.save(any(Inventario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        servicio.getInventarioByProductoId(1L);
+        servicio.getInventarioByProductoId(2L);
+        servicio.reduceStock(1L, 3);
+
+        Timer lecturas = meterRegistry.get("inventario.service")
+                .tag("class", InventarioServiceImp.class.getName())
+                .tag("method", "getInventarioByProductoId")
+                .timer();
+        Timer compras = meterRegistry.get("inventario.service").tag("method", "reduceStock").timer();
+
+        assertEquals(2, lecturas.count());
+        assertEquals(1, compras.count());
+        assertEquals("none", compras.getId().getTag("exception"));
+        // Histograma de percentiles: buckets en /actuator/prometheus
+        assertTrue(histogramas.get("inventario.service.getInventarioByProductoId"));
+        assertTrue(histogramas.get("inventario.service.reduceStock"));
+    }
+
+    @Test
+    void testLasExcepcionesQuedanEtiquetadas() {
+        // Sin stub, el mock devuelve Optional.empty(): producto no encontrado
+        assertThrows(IllegalArgumentException.class, () -> servicio.reduceStock(2L, 1));
+
+        Timer fallidas = meterRegistry.get("inventario.service")
+                .tag("method", "reduceStock")
+                .tag("exception", "IllegalArgumentException")
+                .timer();
+        assertEquals(1, fallidas.count());
+    }
+}
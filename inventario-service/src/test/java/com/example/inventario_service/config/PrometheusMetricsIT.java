@@ -0,0 +1,112 @@
+package com.example.inventario_service.config;
+
+import com.example.inventario_service.InventarioServiceApplication;
+import com.example.inventario_service.client.ProductoServiceClient;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que /actuator/prometheus publica los histogramas de cada capa (endpoint, servicio, repositorio,
+ * cola de la clase de carga y llamada a productos-service) y que registran las peticiones hechas.
+ * Productos es un sustituto local.
+ */
+@SpringBootTest(classes = InventarioServiceApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability // En los tests Spring Boot no exporta métricas salvo que se pida
+@Testcontainers
+public class PrometheusMetricsIT {
+
+    @Container
+    public static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.21")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    private static final DisposableServer productos = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/api/productos/{id}", (request, response) -> response
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just("{\"id\":1,\"nombre\":\"Teclado\"}"))))
+            .bindNow();
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        dynamicPropertyRegistry.add("spring.datasource.username", postgresContainer::getUsername);
+        dynamicPropertyRegistry.add("spring.datasource.password", postgresContainer::getPassword);
+        dynamicPropertyRegistry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        dynamicPropertyRegistry.add("spring.flyway.enabled", () -> "false");
+        dynamicPropertyRegistry.add("productos.service.url", () -> "http://localhost:" + productos.port());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        productos.disposeNow();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoServiceClient productoServiceClient;
+
+    @Test
+    void testPrometheusPublicaLosHistogramasDeCadaCapa() throws Exception {
+        inventarioRepository.save(new Inventario(null, 7L, 3));
+
+        MvcResult consulta = mockMvc.perform(get("/api/inventario/{productoId}", 7L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(consulta)).andExpect(status().isOk());
+        assertNotNull(productoServiceClient.getProductoById(1L).block(Duration.ofSeconds(5)));
+
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertRegistrada(prometheus, "http_server_requests_seconds", "uri=\"/api/inventario/{productoId}\"", "application=\"inventario-service\"");
+        assertRegistrada(prometheus, "inventario_service_seconds", "method=\"getInventarioByProductoId\"");
+        assertRegistrada(prometheus, "spring_data_repository_invocations_seconds", "repository=\"InventarioRepository\"", "method=\"findByProductoId\"");
+        assertRegistrada(prometheus, "inventario_workload_queue_wait_seconds", "class=\"reads\"");
+        assertRegistrada(prometheus, "http_client_requests_seconds", "uri=\"/api/productos/{id}\"");
+        // Un pool de conexiones por clase de carga
+        assertTrue(prometheus.lines().anyMatch(linea -> linea.startsWith("hikaricp_connections_max{") && linea.contains("pool=\"inventario-reads\"")));
+    }
+
+    // Hay un histograma con esas etiquetas y su bucket +Inf (todas las medidas) tiene al menos una
+    private static void assertRegistrada(String prometheus, String metrica, String... etiquetas) {
+        boolean registrada = prometheus.lines()
+                .filter(linea -> linea.startsWith(metrica + "_bucket{") && linea.contains("le=\"+Inf\""))
+                .filter(linea -> Arrays.stream(etiquetas).allMatch(linea::contains))
+                .anyMatch(linea -> Double.parseDouble(linea.substring(linea.lastIndexOf(' ') + 1)) >= 1);
+        assertTrue(registrada, metrica + " " + Arrays.toString(etiquetas) + " no aparece en /actuator/prometheus");
+    }
+}
@@ -13,6 +13,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -63,7 +66,7 @@ public class InventarioControllerIT {
         newInventario.setProductoId(1001L);
         newInventario.setCantidad(50);
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventario")
+        performAsync(MockMvcRequestBuilders.post("/api/inventario")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newInventario)))
                 .andExpect(status().isCreated())
@@ -82,7 +85,7 @@ public class InventarioControllerIT {
         existingInventario.setCantidad(20);
         inventarioRepository.save(existingInventario);
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 1002L, 5)
+        performAsync(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 1002L, 5)
                         .contentType(MediaType.APPLICATION_JSON)) // Aunque es PUT, algunos métodos requieren content type
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.type", is("inventarios")))
@@ -100,7 +103,7 @@ public class InventarioControllerIT {
         existingInventario.setCantidad(5);
         inventarioRepository.save(existingInventario);
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 1003L, 10)
+        performAsync(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 1003L, 10)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
 
@@ -109,5 +112,47 @@ public class InventarioControllerIT {
         assertEquals(5, updated.getCantidad());
     }
 
+    @Test
+    void getInventarioByProductoId_withSparseFieldset_shouldOnlyReturnRequestedAttributes() throws Exception {
+        Inventario existingInventario = new Inventario();
+        existingInventario.setProductoId(1004L);
+        existingInventario.setCantidad(8);
+        inventarioRepository.save(existingInventario);
+
+        performAsync(MockMvcRequestBuilders.get("/api/inventario/{productoId}", 1004L)
+                        .param("fields[inventarios]", "cantidad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.type", is("inventarios")))
+                .andExpect(jsonPath("$.data.attributes.cantidad", is(8)))
+                .andExpect(jsonPath("$.data.attributes.productoId").doesNotExist());
+    }
 
+    @Test
+    void getAllInventario_withUnknownField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/inventario")
+                        .param("fields[inventarios]", "ubicacion"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reducirStockProducto_shouldReturnServerTimingBreakdown() throws Exception {
+        Inventario existingInventario = new Inventario();
+        existingInventario.setProductoId(1005L);
+        existingInventario.setCantidad(3);
+        inventarioRepository.save(existingInventario);
+
+        // Las consultas se hacen en los hilos de WorkloadExecutor y la respuesta se escribe en el despacho asíncrono
+        performAsync(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 1005L, 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(
+                        "db;dur=[0-9.]+;desc=\"[1-9][0-9]* llamadas?\", downstream;dur=0\\.0;desc=\"0 llamadas\", serialize;dur=[0-9.]+, total;dur=[0-9.]+")));
+    }
+
+    // Los endpoints responden con un CompletableFuture (WorkloadExecutor): se espera el resultado y se despacha
+    private ResultActions performAsync(RequestBuilder peticion) throws Exception {
+        MvcResult result = mockMvc.perform(peticion)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+    }
 }
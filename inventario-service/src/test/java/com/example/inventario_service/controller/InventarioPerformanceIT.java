@@ -0,0 +1,127 @@
+package com.example.inventario_service.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.common.eventlog.EventLog;
+import com.example.common.performance.PerformanceGate;
+import com.example.inventario_service.jsonapi.JsonApiDocument;
+import com.example.inventario_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import com.example.inventario_service.workload.WorkloadExecutor;
+import com.example.inventario_service.workload.WorkloadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Puerta de rendimiento de inventario-service (perfil performance): compra de una unidad y consulta por producto
+ * a través de InventarioController, con las clases de carga y el registro de eventos asíncrono como en
+ * producción, hasta los bytes JSON de la respuesta. El repositorio está en memoria para que la medición no
+ * dependa de la base de datos. Ver PerformanceGate.
+ */
+public class InventarioPerformanceIT {
+
+    private static final int PRODUCTOS = 1_000;
+
+    private final ConcurrentHashMap<Long, Inventario> tabla = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(16 * 1024);
+    private final HttpOutputMessage salida = new HttpOutputMessage() {
+        private final HttpHeaders cabeceras = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return cuerpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return cabeceras;
+        }
+    };
+    private InventarioController controller;
+    private JsonApiHttpMessageConverter converter;
+    private WorkloadExecutor workloadExecutor;
+    private EventLog eventLog;
+    private Logger logServicio;
+    private long siguiente;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= PRODUCTOS; id++) {
+            tabla.put(id, new Inventario(id, id, Integer.MAX_VALUE / 2));
+        }
+        // stubOnly: Mockito no guarda las invocaciones de las rondas de medición
+        InventarioRepository repositorio = mock(InventarioRepository.class, withSettings().stubOnly());
+        when(repositorio.findByProductoId(anyLong()))
+                .thenAnswer(invocacion -> Optional.ofNullable(tabla.get(invocacion.<Long>getArgument(0))));
+        when(repositorio.save(any(Inventario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        // Los eventos se formatean y se entregan a Logback como en producción, pero sin escribirlos en consola
+        logServicio = (Logger) LoggerFactory.getLogger(InventarioServiceImp.class);
+        logServicio.setAdditive(false);
+        logServicio.setLevel(Level.INFO);
+        eventLog = new EventLog(8192, 1, null);
+        InventarioServiceImp servicio = new InventarioServiceImp();
+        ReflectionTestUtils.setField(servicio, "inventarioRepository", repositorio);
+        ReflectionTestUtils.setField(servicio, "eventLog", eventLog);
+
+        workloadExecutor = new WorkloadExecutor(new WorkloadProperties(), new SimpleMeterRegistry());
+        controller = new InventarioController();
+        ReflectionTestUtils.setField(controller, "inventarioService", servicio);
+        ReflectionTestUtils.setField(controller, "workloadExecutor", workloadExecutor);
+        converter = new JsonApiHttpMessageConverter(Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.smile().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workloadExecutor.cerrar();
+        eventLog.close();
+        logServicio.setAdditive(true);
+        logServicio.setLevel(null);
+    }
+
+    @Test
+    void testSinRegresionesDeRendimiento() throws Exception {
+        PerformanceGate gate = new PerformanceGate("inventario-service");
+
+        gate.medir("inventario.reducir-stock", () -> escribir(controller.reducirStockProducto(siguienteProducto(), 1).join()));
+        gate.medir("inventario.get", () -> escribir(controller.getInventarioByProductoId(siguienteProducto(), null).join()));
+
+        assertEquals(PRODUCTOS, tabla.size());
+        gate.verificar();
+    }
+
+    // Recorre los productos en orden para no medir siempre la misma entrada
+    private long siguienteProducto() {
+        return siguiente++ % PRODUCTOS + 1;
+    }
+
+    private int escribir(ResponseEntity<JsonApiDocument> respuesta) throws Exception {
+        assertEquals(200, respuesta.getStatusCode().value());
+        cuerpo.reset();
+        converter.write(respuesta.getBody(), MediaType.APPLICATION_JSON, salida);
+        return cuerpo.size();
+    }
+}
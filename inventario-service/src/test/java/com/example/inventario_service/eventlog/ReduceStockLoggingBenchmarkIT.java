@@ -0,0 +1,156 @@
+package com.example.inventario_service.eventlog;
+
+import com.example.common.eventlog.EventLog;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Rendimiento de reduceStock con el registro activado: 8 hilos compran sobre 64 productos de un repositorio
+ * en memoria (sin latencia de base de datos, para que el coste del registro no quede oculto). La salida
+ * estándar va a un fichero temporal, como el volcado de un contenedor. Compara la versión anterior
+ * (System.out.println con concatenación en el hilo de la petición) con EventLog síncrono y asíncrono y
+ * deja en el log las operaciones por segundo.
+ */
+public class ReduceStockLoggingBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReduceStockLoggingBenchmarkIT.class);
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 50_000;
+    private static final int PRODUCTOS = 64;
+
+    private final ConcurrentHashMap<Long, Inventario> tabla = new ConcurrentHashMap<>();
+    private final List<String> resultados = new ArrayList<>();
+    private InventarioRepository repositorio;
+    private PrintStream salidaOriginal;
+    private Path fichero;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // stubOnly: Mockito no guarda las invocaciones de las 400.000 compras
+        repositorio = mock(InventarioRepository.class, withSettings().stubOnly());
+        when(repositorio.findByProductoId(anyLong()))
+                .thenAnswer(invocacion -> Optional.ofNullable(tabla.get(invocacion.<Long>getArgument(0))));
+        when(repositorio.save(any(Inventario.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+        salidaOriginal = System.out;
+        fichero = Files.createTempFile("reduce-stock-logging-", ".log");
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(fichero.toFile()), 8192), true));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.out.close();
+        System.setOut(salidaOriginal);
+        Files.deleteIfExists(fichero);
+        // Con la salida estándar ya restaurada, para que no acabe en el fichero temporal
+        resultados.forEach(logger::info);
+    }
+
+    @Test
+    void testElRegistroAsincronoNoFrenaLasCompras() throws Exception {
+        // Cuerpo anterior de reduceStock, con la escritura en System.out
+        double antes = medir((productoId, cantidad) -> {
+            Inventario inventario = repositorio.findByProductoId(productoId).orElseThrow();
+            if (inventario.getCantidad() >= cantidad) {
+                inventario.setCantidad(inventario.getCantidad() - cantidad);
+                System.out.println("Reduciendo stock para producto " + productoId + " en " + cantidad + ". Nuevo stock: " + inventario.getCantidad());
+                repositorio.save(inventario);
+            }
+        });
+        long lineasAntes = lineas("Reduciendo stock");
+        resultados.add(String.format("%-28s %10.0f ops/s", "System.out (antes)", antes));
+
+        EventLog sincrono = EventLog.sincrono();
+        double conSincrono = medir(servicio(sincrono)::reduceStock);
+        long lineasSincrono = lineas("stock.reducido");
+        resultados.add(String.format("%-28s %10.0f ops/s", "EventLog síncrono", conSincrono));
+
+        EventLog asincrono = new EventLog(8192, 1, new SimpleMeterRegistry());
+        double conAsincrono = medir(servicio(asincrono)::reduceStock);
+        asincrono.close();
+        long lineasAsincrono = lineas("stock.reducido") - lineasSincrono;
+        resultados.add(String.format("%-28s %10.0f ops/s  %d escritos  %d descartados", "EventLog asíncrono", conAsincrono,
+                lineasAsincrono, asincrono.getDescartados()));
+
+        long total = (long) HILOS * OPERACIONES_POR_HILO;
+        assertEquals(total, lineasAntes);
+        assertEquals(total, lineasSincrono);
+        // Cada compra queda escrita o contada como descartada
+        assertEquals(total, lineasAsincrono + asincrono.getDescartados());
+        assertTrue(conAsincrono > antes, "Asíncrono " + conAsincrono + " ops/s, antes " + antes + " ops/s");
+    }
+
+    private double medir(BiConsumer<Long, Integer> compra) throws InterruptedException {
+        tabla.clear();
+        for (long productoId = 1; productoId <= PRODUCTOS; productoId++) {
+            tabla.put(productoId, new Inventario(productoId, productoId, Integer.MAX_VALUE));
+        }
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            Thread thread = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    compra.accept(1L + (hilo * 31 + i) % PRODUCTOS, 1);
+                }
+            }, "compra-" + h);
+            thread.start();
+            hilos.add(thread);
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread thread : hilos) {
+            thread.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return HILOS * OPERACIONES_POR_HILO / segundos;
+    }
+
+    private InventarioServiceImp servicio(EventLog eventLog) {
+        InventarioServiceImp servicio = new InventarioServiceImp();
+        ReflectionTestUtils.setField(servicio, "inventarioRepository", repositorio);
+        ReflectionTestUtils.setField(servicio, "eventLog", eventLog);
+        return servicio;
+    }
+
+    private long lineas(String texto) throws IOException {
+        System.out.flush();
+        try (Stream<String> lineas = Files.lines(fichero)) {
+            return lineas.filter(linea -> linea.contains(texto)).count();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.inventario_service.jfr;
+
+import com.example.common.exception.RecordingStateException;
+import com.example.common.jfr.EventoMedido;
+import com.example.common.jfr.JfrRecorder;
+import com.example.common.jfr.MedicionJfr;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.inventario_service.service.impl.InventarioServiceImp;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JfrEventsTest {
+
+    private static final String REDUCE_STOCK = "com.example.inventario.ReduceStock";
+    private static final String SAVE_INVENTARIO = "com.example.inventario.SaveInventario";
+    private static final String PRODUCTO_SERVICE_CALL = "com.example.inventario.ProductoServiceCall";
+
+    private final Map<Long, Inventario> tabla = new HashMap<>();
+    private Path fichero;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @InjectMocks
+    private InventarioServiceImp inventarioService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fichero = Files.createTempFile("jfr-events-test-", ".jfr");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(fichero);
+    }
+
+    @Test
+    void testLasOperacionesDeStockQuedanEnLaGrabacion() throws Exception {
+        repositorioEnMemoria();
+        try (Recording grabacion = new Recording()) {
+            JfrEventos.TIPOS.forEach(grabacion::enable);
+            grabacion.start();
+
+            inventarioService.saveInventario(inventario(101L, 10));
+            inventarioService.saveInventario(inventario(101L, 8));
+            inventarioService.reduceStock(101L, 3);
+            assertThrows(IllegalArgumentException.class, () -> inventarioService.reduceStock(101L, 50));
+            assertThrows(IllegalArgumentException.class, () -> inventarioService.reduceStock(999L, 1));
+
+            grabacion.stop();
+            grabacion.dump(fichero);
+        }
+
+        List<RecordedEvent> guardados = eventos(SAVE_INVENTARIO);
+        assertEquals(2, guardados.size());
+        assertTrue(guardados.get(0).getBoolean("alta"));
+        assertFalse(guardados.get(1).getBoolean("alta"));
+        assertEquals(8, guardados.get(1).getInt("cantidad"));
+
+        List<RecordedEvent> reducciones = eventos(REDUCE_STOCK);
+        assertEquals(3, reducciones.size());
+        assertEquals(List.of(EventoMedido.OK, ReduceStockEvent.SIN_STOCK, ReduceStockEvent.NO_ENCONTRADO),
+                reducciones.stream().map(evento -> evento.getString("resultado")).toList());
+        assertEquals(101L, reducciones.get(0).getLong("productoId"));
+        assertEquals(3, reducciones.get(0).getInt("cantidad"));
+        assertEquals(5, reducciones.get(0).getInt("stockRestante"));
+        assertEquals(999L, reducciones.get(2).getLong("productoId"));
+        assertFalse(reducciones.get(0).getDuration().isNegative());
+    }
+
+    @Test
+    void testLasLlamadasReactivasSeMidenAlTerminar() throws Exception {
+        try (Recording grabacion = new Recording()) {
+            JfrEventos.TIPOS.forEach(grabacion::enable);
+            grabacion.start();
+
+            MedicionJfr.medir(() -> new ProductoServiceCallEvent("GET /api/productos/{id}", 1L, 1),
+                    evento -> Mono.just("producto")).block();
+            MedicionJfr.medir(() -> new ProductoServiceCallEvent("GET /api/productos/{id}", 2L, 1),
+                    evento -> Mono.empty()).block();
+            assertThrows(IllegalStateException.class, () -> MedicionJfr.medir(
+                    () -> new ProductoServiceCallEvent("GET /api/productos?filter[id]", 0, 3),
+                    evento -> Mono.error(new IllegalStateException("caído"))).block());
+
+            grabacion.stop();
+            grabacion.dump(fichero);
+        }
+
+        List<RecordedEvent> llamadas = eventos(PRODUCTO_SERVICE_CALL);
+        assertEquals(List.of(EventoMedido.OK, EventoMedido.VACIO, "IllegalStateException"),
+                llamadas.stream().map(evento -> evento.getString("resultado")).toList());
+        assertEquals(2L, llamadas.get(1).getLong("productoId"));
+        assertEquals(3, llamadas.get(2).getInt("productos"));
+        assertEquals("GET /api/productos?filter[id]", llamadas.get(2).getString("operacion"));
+    }
+
+    @Test
+    void testJfrRecorderIniciaDetieneYDescarga() throws Exception {
+        repositorioEnMemoria();
+        JfrRecorder recorder = new JfrRecorder("inventario-service", List.of(new JfrEventos()), Duration.ofMinutes(1), 10 * 1024 * 1024, "default");
+        try {
+            assertThrows(RecordingStateException.class, recorder::descargar);
+            assertEquals("RUNNING", recorder.iniciar(Duration.ofHours(1)).estado());
+            assertEquals("PT1M", recorder.estado().duracion()); // Acotada por max-duration
+            assertThrows(RecordingStateException.class, () -> recorder.iniciar(null));
+
+            inventarioService.saveInventario(inventario(7L, 4));
+            inventarioService.reduceStock(7L, 1);
+
+            // En curso: se descarga lo grabado hasta ahora
+            assertFalse(RecordingFile.readAllEvents(recorder.descargar()).isEmpty());
+            assertNotEquals("RUNNING", recorder.detener().estado()); // Volcada al destino y cerrada
+            assertThrows(RecordingStateException.class, recorder::detener);
+
+            List<RecordedEvent> eventos = RecordingFile.readAllEvents(recorder.descargar());
+            assertEquals(1, eventos.stream().filter(evento -> evento.getEventType().getName().equals(REDUCE_STOCK)).count());
+            assertEquals(1, eventos.stream().filter(evento -> evento.getEventType().getName().equals(SAVE_INVENTARIO)).count());
+        } finally {
+            recorder.cerrar();
+        }
+    }
+
+    // El repositorio guarda y busca en la tabla; solo en los tests que pasan por el servicio
+    private void repositorioEnMemoria() {
+        when(inventarioRepository.findByProductoId(anyLong()))
+                .thenAnswer(invocacion -> Optional.ofNullable(tabla.get(invocacion.<Long>getArgument(0))));
+        when(inventarioRepository.save(any(Inventario.class))).thenAnswer(invocacion -> {
+            Inventario inventario = invocacion.getArgument(0);
+            tabla.put(inventario.getProductoId(), inventario);
+            return inventario;
+        });
+    }
+
+    private List<RecordedEvent> eventos(String tipo) throws Exception {
+        return RecordingFile.readAllEvents(fichero).stream()
+                .filter(evento -> evento.getEventType().getName().equals(tipo))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+
+    private static Inventario inventario(Long productoId, Integer cantidad) {
+        Inventario inventario = new Inventario();
+        inventario.setProductoId(productoId);
+        inventario.setCantidad(cantidad);
+        return inventario;
+    }
+}
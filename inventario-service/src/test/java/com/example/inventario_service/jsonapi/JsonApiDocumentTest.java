@@ -0,0 +1,109 @@
+package com.example.inventario_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.inventario_service.model.Inventario;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El escritor en streaming debe producir exactamente los mismos bytes que Jackson
+ * serializando JsonApiResponse/JsonApiData (formato que consume productos-service).
+ */
+public class JsonApiDocumentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testInventarioIgualQueJsonApiResponse() throws Exception {
+        Inventario inventario = inventario(1L, 10L, 50);
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data(inventario))),
+                write(JsonApiDocument.of(InventarioJsonApi.INSTANCE, inventario)));
+    }
+
+    @Test
+    void testInventarioConValoresNulosIgualQueJsonApiResponse() throws Exception {
+        Inventario inventario = inventario(null, null, null);
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data(inventario))),
+                write(JsonApiDocument.of(InventarioJsonApi.INSTANCE, inventario)));
+    }
+
+    @Test
+    void testListaDeInventarioIgualQueJsonApiResponse() throws Exception {
+        List<Inventario> inventarios = Arrays.asList(
+                inventario(1L, 10L, 50),
+                inventario(Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE),
+                inventario(0L, 0L, 0));
+        List<JsonApiData<InventarioAttributes>> data = inventarios.stream().map(this::data).collect(Collectors.toList());
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data)),
+                write(JsonApiDocument.ofList(InventarioJsonApi.INSTANCE, inventarios, SparseFieldset.all())));
+    }
+
+    @Test
+    void testSparseFieldsetSoloEscribeLosAtributosPedidos() throws Exception {
+        SparseFieldset fieldset = SparseFieldset.parse("cantidad", InventarioJsonApi.FIELDS);
+
+        String json = new String(write(JsonApiDocument.of(InventarioJsonApi.INSTANCE, inventario(3L, 10L, 5), fieldset)), "UTF-8");
+
+        assertEquals("{\"data\":{\"id\":\"3\",\"type\":\"inventarios\",\"attributes\":{\"cantidad\":5}}}", json);
+    }
+
+    @Test
+    void testSmileIgualQueJsonApiResponse() throws Exception {
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        List<Inventario> inventarios = Arrays.asList(inventario(1L, 10L, 50), inventario(2L, 11L, null));
+        List<JsonApiData<InventarioAttributes>> data = inventarios.stream().map(this::data).collect(Collectors.toList());
+
+        assertArrayEquals(
+                smileMapper.writeValueAsBytes(response(data)),
+                write(smileMapper, JsonApiDocument.ofList(InventarioJsonApi.INSTANCE, inventarios, SparseFieldset.all())));
+    }
+
+    private byte[] write(JsonApiDocument document) throws Exception {
+        return write(objectMapper, document);
+    }
+
+    private byte[] write(ObjectMapper mapper, JsonApiDocument document) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.createGenerator(out, JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+        return out.toByteArray();
+    }
+
+    private Inventario inventario(Long id, Long productoId, Integer cantidad) {
+        Inventario inventario = new Inventario();
+        inventario.setId(id);
+        inventario.setProductoId(productoId);
+        inventario.setCantidad(cantidad);
+        return inventario;
+    }
+
+    private JsonApiData<InventarioAttributes> data(Inventario inventario) {
+        return new JsonApiData<>(
+                inventario.getId() == null ? null : inventario.getId().toString(),
+                "inventarios",
+                new InventarioAttributes(inventario.getProductoId(), inventario.getCantidad()));
+    }
+
+    private JsonApiResponse<Object> response(Object data) {
+        JsonApiResponse<Object> response = new JsonApiResponse<>();
+        response.setData(data);
+        return response;
+    }
+}
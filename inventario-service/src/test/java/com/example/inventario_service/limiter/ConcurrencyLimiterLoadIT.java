@@ -0,0 +1,162 @@
+package com.example.inventario_service.limiter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter;
+import com.example.common.limiter.AdaptiveConcurrencyLimiter.Prioridad;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga con una ralentización inducida de la base de datos. Servidor simulado: 100 hilos (Tomcat) y
+ * una base de datos con 10 conexiones que atiende una compra en 5 ms, y en 50 ms entre los segundos 2 y 6.
+ * Llegan 400 peticiones/s a ritmo fijo (80 % compras, 20 % listados, que cuestan el doble) y el cliente
+ * abandona a 1 s. Se mide el goodput: peticiones respondidas con éxito antes de que el cliente abandone.
+ * <p>
+ * Sin límite, durante la ralentización las peticiones se acumulan en la cola de hilos y en cuanto la espera
+ * supera 1 s todo el trabajo es inútil. Con el límite adaptativo lo que no cabe se rechaza en el acto con
+ * 503 y lo aceptado sigue respondiendo a tiempo, con preferencia para las compras.
+ */
+public class ConcurrencyLimiterLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiterLoadIT.class);
+
+    private static final int TASA = 400; // Peticiones por segundo
+    private static final int DURACION_S = 8;
+    private static final long INICIO_LENTO = TimeUnit.SECONDS.toNanos(2);
+    private static final long FIN_LENTO = TimeUnit.SECONDS.toNanos(6);
+    private static final long ABANDONO = TimeUnit.SECONDS.toNanos(1);
+    private static final int CONEXIONES_BD = 10;
+    private static final long COMPRA_NORMAL_MS = 5;
+    private static final long COMPRA_LENTA_MS = 50;
+
+    // Latencia de cada petición; RECHAZADA si se respondió con 503
+    private static final long RECHAZADA = -1;
+
+    @Test
+    void testElGoodputSeMantieneDuranteLaRalentizacion() throws InterruptedException {
+        Resultado sinLimite = ejecutar("Sin límite", null);
+        Resultado conLimite = ejecutar("Límite adaptativo", new AdaptiveConcurrencyLimiter(20, 4, 200, 0.5, 1.5, 0.2));
+
+        // Capacidad de la base de datos durante la ralentización (compras): 10 conexiones / 50 ms
+        double capacidadLenta = CONEXIONES_BD * 1000.0 / COMPRA_LENTA_MS;
+        logger.info("Capacidad de la BD durante la ralentización: ~{} compras/s", Math.round(capacidadLenta));
+        for (Resultado resultado : new Resultado[]{sinLimite, conLimite}) {
+            logger.info(String.format("%-18s goodput en la ralentización: %5.0f/s (compras %5.0f/s, listados %4.0f/s)  "
+                            + "503: %5d (listados %5d)  p99 éxito %5d ms  límite mínimo %s",
+                    resultado.nombre, resultado.goodputLento, resultado.goodputLentoCompras, resultado.goodputLentoListados,
+                    resultado.rechazadas, resultado.rechazadasListados, resultado.p99ExitoMs,
+                    resultado.limiteMinimo < 0 ? "-" : String.valueOf(resultado.limiteMinimo)));
+        }
+
+        assertTrue(conLimite.goodputLento > 2 * sinLimite.goodputLento,
+                "Goodput " + sinLimite.goodputLento + " -> " + conLimite.goodputLento);
+        assertTrue(conLimite.goodputLento > 0.5 * capacidadLenta, "Goodput con límite: " + conLimite.goodputLento);
+        // Se descartan antes los listados que las compras
+        assertTrue(conLimite.rechazadasListados / (double) conLimite.rechazadas > 0.2);
+        assertEquals(0, sinLimite.rechazadas);
+    }
+
+    private Resultado ejecutar(String nombre, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        int total = TASA * DURACION_S;
+        long[] llegadas = new long[total];
+        long[] latencias = new long[total];
+        Arrays.fill(latencias, Long.MAX_VALUE); // Sin terminar
+        Semaphore conexiones = new Semaphore(CONEXIONES_BD, true);
+        ThreadPoolExecutor tomcat = new ThreadPoolExecutor(100, 100, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        AtomicInteger limiteMinimo = new AtomicInteger(Integer.MAX_VALUE);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long llegada = inicio + i * TimeUnit.SECONDS.toNanos(1) / TASA;
+            LockSupport.parkNanos(llegada - System.nanoTime());
+            llegadas[i] = llegada - inicio;
+            int peticion = i;
+            boolean listado = i % 5 == 0;
+            tomcat.execute(() -> {
+                if (limiter != null && !limiter.adquirir(listado ? Prioridad.BAJA : Prioridad.ALTA)) {
+                    latencias[peticion] = RECHAZADA;
+                    return;
+                }
+                long atendida = System.nanoTime();
+                try {
+                    conexiones.acquire();
+                    try {
+                        boolean lenta = atendida - inicio >= INICIO_LENTO && atendida - inicio < FIN_LENTO;
+                        long ms = lenta ? COMPRA_LENTA_MS : COMPRA_NORMAL_MS;
+                        Thread.sleep(listado ? 2 * ms : ms);
+                    } finally {
+                        conexiones.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                long fin = System.nanoTime();
+                if (limiter != null) {
+                    limiter.liberar(fin - atendida, false);
+                    limiteMinimo.accumulateAndGet(limiter.getLimite(), Math::min);
+                }
+                latencias[peticion] = fin - llegada;
+            });
+        }
+        tomcat.shutdown();
+        assertTrue(tomcat.awaitTermination(2, TimeUnit.MINUTES));
+
+        return new Resultado(nombre, llegadas, latencias, limiter != null ? limiteMinimo.get() : -1);
+    }
+
+    private static final class Resultado {
+        final String nombre;
+        final double goodputLento;
+        final double goodputLentoCompras;
+        final double goodputLentoListados;
+        final int rechazadas;
+        final int rechazadasListados;
+        final long p99ExitoMs;
+        final int limiteMinimo;
+
+        Resultado(String nombre, long[] llegadas, long[] latencias, int limiteMinimo) {
+            this.nombre = nombre;
+            this.limiteMinimo = limiteMinimo;
+            double segundosLentos = (FIN_LENTO - INICIO_LENTO) / 1e9;
+            int compras = 0;
+            int listados = 0;
+            int rechazadas = 0;
+            int rechazadasListados = 0;
+            long[] exitos = new long[latencias.length];
+            int numExitos = 0;
+            for (int i = 0; i < latencias.length; i++) {
+                boolean listado = i % 5 == 0;
+                if (latencias[i] == RECHAZADA) {
+                    rechazadas++;
+                    rechazadasListados += listado ? 1 : 0;
+                    continue;
+                }
+                if (latencias[i] <= ABANDONO) {
+                    exitos[numExitos++] = latencias[i];
+                    if (llegadas[i] >= INICIO_LENTO && llegadas[i] < FIN_LENTO) {
+                        compras += listado ? 0 : 1;
+                        listados += listado ? 1 : 0;
+                    }
+                }
+            }
+            this.goodputLentoCompras = compras / segundosLentos;
+            this.goodputLentoListados = listados / segundosLentos;
+            this.goodputLento = (compras + listados) / segundosLentos;
+            this.rechazadas = rechazadas;
+            this.rechazadasListados = rechazadasListados;
+            long[] ordenadas = Arrays.copyOf(exitos, numExitos);
+            Arrays.sort(ordenadas);
+            this.p99ExitoMs = ordenadas.length == 0 ? 0 : ordenadas[(int) (ordenadas.length * 0.99)] / 1_000_000;
+        }
+    }
+}
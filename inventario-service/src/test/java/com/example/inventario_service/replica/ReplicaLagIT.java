@@ -0,0 +1,141 @@
+package com.example.inventario_service.replica;
+
+import com.example.inventario_service.InventarioServiceApplication;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Réplica con retraso: una segunda base de datos del mismo contenedor hace de réplica a la que nunca llegan las
+ * escrituras del primario. Lo que se lee de ella es, por tanto, siempre la versión anterior.
+ */
+@SpringBootTest(classes = InventarioServiceApplication.class)
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReplicaLagIT {
+
+    @Container
+    public static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.21")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        dynamicPropertyRegistry.add("spring.datasource.username", postgresContainer::getUsername);
+        dynamicPropertyRegistry.add("spring.datasource.password", postgresContainer::getPassword);
+        dynamicPropertyRegistry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        dynamicPropertyRegistry.add("spring.flyway.enabled", () -> "false");
+        dynamicPropertyRegistry.add("app.datasource.replica.enabled", () -> "true");
+        dynamicPropertyRegistry.add("app.datasource.replica.url", ReplicaLagIT::replicaUrl);
+        dynamicPropertyRegistry.add("app.datasource.replica.read-your-writes-window", () -> "1m");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @BeforeAll
+    static void crearReplica() throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword());
+             Statement statement = conexion.createStatement()) {
+            statement.execute("CREATE DATABASE replica");
+        }
+        try (Connection conexion = conectarReplica(); Statement statement = conexion.createStatement()) {
+            statement.execute("CREATE TABLE inventario (id BIGINT PRIMARY KEY, producto_id BIGINT UNIQUE, cantidad INTEGER)");
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        inventarioRepository.deleteAll();
+        try (Connection conexion = conectarReplica(); Statement statement = conexion.createStatement()) {
+            statement.execute("TRUNCATE inventario");
+        }
+    }
+
+    @Test
+    void trasComprar_seLeeElStockQueQuedaAunqueLaReplicaNoLoTenga() throws Exception {
+        replicado(2001L, 10);
+
+        performAsync(MockMvcRequestBuilders.put("/api/inventario/comprar/{productoId}/{cantidad}", 2001L, 3))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.attributes.cantidad", is(7)));
+
+        // La réplica sigue con 10: la lectura inmediata del comprador va al primario
+        performAsync(MockMvcRequestBuilders.get("/api/inventario/{productoId}", 2001L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.attributes.cantidad", is(7)));
+        performAsync(MockMvcRequestBuilders.get("/api/inventario/{productoId}", 2001L)
+                        .param("fields[inventarios]", "cantidad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.attributes.cantidad", is(7)));
+    }
+
+    @Test
+    void sinEscriturasRecientes_seLeeDeLaReplica() throws Exception {
+        Inventario inventario = replicado(2002L, 10);
+        inventario.setCantidad(4); // Cambio que aún no ha llegado a la réplica, hecho sin pasar por el servicio
+        inventarioRepository.save(inventario);
+
+        performAsync(MockMvcRequestBuilders.get("/api/inventario/{productoId}", 2002L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.attributes.cantidad", is(10)));
+    }
+
+    // El mismo inventario en el primario y en la réplica, como si ya se hubiera replicado
+    private Inventario replicado(Long productoId, int cantidad) throws SQLException {
+        Inventario inventario = inventarioRepository.save(Inventario.builder().productoId(productoId).cantidad(cantidad).build());
+        try (Connection conexion = conectarReplica();
+             PreparedStatement statement = conexion.prepareStatement("INSERT INTO inventario (id, producto_id, cantidad) VALUES (?, ?, ?)")) {
+            statement.setLong(1, inventario.getId());
+            statement.setLong(2, productoId);
+            statement.setInt(3, cantidad);
+            statement.executeUpdate();
+        }
+        return inventario;
+    }
+
+    private static String replicaUrl() {
+        return postgresContainer.getJdbcUrl().replace("/testdb", "/replica");
+    }
+
+    private static Connection conectarReplica() throws SQLException {
+        return DriverManager.getConnection(replicaUrl(), postgresContainer.getUsername(), postgresContainer.getPassword());
+    }
+
+    // Los endpoints responden con un CompletableFuture (WorkloadExecutor): se espera el resultado y se despacha
+    private ResultActions performAsync(RequestBuilder peticion) throws Exception {
+        MvcResult result = mockMvc.perform(peticion)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.inventario_service.service;
 
+import com.example.inventario_service.bloom.ProductoIdFilter;
 import com.example.inventario_service.model.Inventario;
 import com.example.inventario_service.repository.InventarioRepository;
 import com.example.inventario_service.service.impl.InventarioServiceImp;
@@ -9,7 +10,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -167,4 +171,35 @@ public class InventarioServiceTest {
         verify(inventarioRepository, times(1)).findByProductoId(101L);
         verify(inventarioRepository, never()).save(any(Inventario.class));
     }
+
+    @Test
+    void testGetInventarioByProductoIdDescartadoPorElFiltroNoConsultaLaBaseDeDatos() {
+        when(inventarioRepository.count()).thenReturn(1L);
+        when(inventarioRepository.findProductoIdsGreaterThan(anyLong(), any(Pageable.class))).thenReturn(List.of(101L));
+        ProductoIdFilter filtro = new ProductoIdFilter(inventarioRepository, 0.01, 1_000, Duration.ofMinutes(10), 5_000);
+        filtro.reconstruir();
+        ReflectionTestUtils.setField(inventarioService, "productoIdFilter", filtro);
+        when(inventarioRepository.findByProductoId(101L)).thenReturn(Optional.of(inventario));
+
+        assertTrue(inventarioService.getInventarioByProductoId(101L).isPresent());
+        assertFalse(inventarioService.getInventarioByProductoId(999L).isPresent());
+        verify(inventarioRepository, times(1)).findByProductoId(101L);
+        verify(inventarioRepository, never()).findByProductoId(999L);
+        assertEquals(1, filtro.getDescartadas());
+    }
+
+    @Test
+    void testReducirStockNoPasaPorElFiltro() {
+        // Filtro construido antes del alta (otra instancia, SQL directo): no conoce el producto 101
+        ProductoIdFilter filtro = new ProductoIdFilter(inventarioRepository, 0.01, 1_000, Duration.ofMinutes(10), 5_000);
+        filtro.reconstruir();
+        ReflectionTestUtils.setField(inventarioService, "productoIdFilter", filtro);
+        when(inventarioRepository.findByProductoId(101L)).thenReturn(Optional.of(inventario));
+        when(inventarioRepository.save(any(Inventario.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Inventario result = inventarioService.reduceStock(101L, 10);
+
+        assertEquals(90, result.getCantidad());
+        verify(inventarioRepository, times(1)).findByProductoId(101L);
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.inventario_service.timing;
+
+import com.example.common.timing.RequestTiming;
+import com.example.common.timing.ServerTimingFilter;
+import com.example.common.timing.SlowRequestLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerTimingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testLaCabeceraLlevaElDesgloseDeLaPeticion() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(new SlowRequestLog(Duration.ofHours(1), 5, meterRegistry), 20);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/inventario/comprar/1/2"), response, (req, res) -> {
+            RequestTiming timing = RequestTiming.actual();
+            timing.registrarRepositorio(TimeUnit.MILLISECONDS.toNanos(7));
+            timing.registrarSerializacion(TimeUnit.MICROSECONDS.toNanos(300));
+            res.getOutputStream().write("{}".getBytes());
+        });
+
+        String cabecera = response.getHeader(RequestTiming.HEADER);
+        assertNotNull(cabecera);
+        assertTrue(cabecera.startsWith("db;dur=7.0;desc=\"1 llamada\", downstream;dur=0.0;desc=\"0 llamadas\", serialize;dur=0.3, total;dur="),
+                cabecera);
+        assertNull(RequestTiming.actual());
+    }
+
+    @Test
+    void testLasPeticionesLentasSeRegistranConUnCupoPorSegundo() {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ZERO, 3, meterRegistry);
+        RequestTiming timing = new RequestTiming(20);
+        timing.registrarSentencia("select i1_0.id from inventario i1_0 where i1_0.producto_id=?");
+
+        int registradas = 0;
+        for (int i = 0; i < 10; i++) {
+            registradas += slowRequestLog.registrar("GET /api/inventario", 200, timing) ? 1 : 0;
+        }
+
+        assertEquals(3, registradas);
+        assertEquals(3.0, meterRegistry.get("http.server.slow.requests").tag("logged", "true").functionCounter().count());
+        assertEquals(7.0, meterRegistry.get("http.server.slow.requests").tag("logged", "false").functionCounter().count());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.inventario_service.workload;
+
+import com.example.common.timing.RequestTiming;
+import com.example.inventario_service.exception.WorkloadRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorkloadExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WorkloadExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.cerrar();
+        }
+    }
+
+    @Test
+    void testLaTareaCorreEnLosHilosDeSuClase() throws Exception {
+        executor = new WorkloadExecutor(new WorkloadProperties(), meterRegistry);
+
+        String hilo = executor.ejecutar(ClaseCarga.LISTADO, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        ClaseCarga clase = executor.ejecutar(ClaseCarga.ESCRITURA, ClaseCarga::actual).get(5, TimeUnit.SECONDS);
+
+        assertTrue(hilo.startsWith("carga-scans-"), hilo);
+        assertEquals(ClaseCarga.ESCRITURA, clase);
+        // Fuera de los ejecutores todo es tráfico de administración
+        assertEquals(ClaseCarga.ADMIN, ClaseCarga.actual());
+    }
+
+    @Test
+    void testElDesgloseDeTiemposLlegaAlHiloDeLaClase() throws Exception {
+        executor = new WorkloadExecutor(new WorkloadProperties(), meterRegistry);
+        RequestTiming timing = new RequestTiming(20);
+
+        // Como si la tarea se encolara desde el hilo de una petición (ServerTimingFilter)
+        RequestTiming visto = RequestTiming.envolver(timing, () -> executor.ejecutar(ClaseCarga.LECTURA, RequestTiming::actual))
+                .get().get(5, TimeUnit.SECONDS);
+        RequestTiming despues = executor.ejecutar(ClaseCarga.LECTURA, RequestTiming::actual).get(5, TimeUnit.SECONDS);
+
+        assertSame(timing, visto);
+        assertNull(despues); // El hilo del ejecutor no lo conserva para la siguiente tarea
+        assertNull(RequestTiming.actual());
+    }
+
+    @Test
+    void testConLaColaLlenaSeRechaza() throws Exception {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.getScans().setThreads(1);
+        properties.getScans().setQueueCapacity(1);
+        executor = new WorkloadExecutor(properties, meterRegistry);
+
+        CountDownLatch empezada = new CountDownLatch(1);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CompletableFuture<Boolean> enCurso = executor.ejecutar(ClaseCarga.LISTADO, () -> {
+            empezada.countDown();
+            return esperar(bloqueo);
+        });
+        assertTrue(empezada.await(5, TimeUnit.SECONDS)); // Ocupa el único hilo; la siguiente queda en la cola
+        CompletableFuture<Boolean> enCola = executor.ejecutar(ClaseCarga.LISTADO, () -> esperar(bloqueo));
+
+        assertThrows(WorkloadRejectedException.class, () -> executor.ejecutar(ClaseCarga.LISTADO, () -> true));
+        // Las otras clases no se ven afectadas
+        assertTrue(executor.ejecutar(ClaseCarga.ESCRITURA, () -> true).get(5, TimeUnit.SECONDS));
+
+        bloqueo.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS));
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("inventario.workload.rejected").tag("class", "scans").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("inventario.workload.rejected").tag("class", "writes").functionCounter().count());
+        assertEquals(2, meterRegistry.get("inventario.workload.queue.wait").tag("class", "scans").timer().count());
+    }
+
+    @Test
+    void testDeshabilitadoSeEjecutaEnElHiloDeLaPeticion() {
+        WorkloadProperties properties = new WorkloadProperties();
+        properties.setEnabled(false);
+        executor = new WorkloadExecutor(properties, meterRegistry);
+
+        CompletableFuture<String> hilo = executor.ejecutar(ClaseCarga.LISTADO, () -> Thread.currentThread().getName());
+
+        assertTrue(hilo.isDone());
+        assertEquals(Thread.currentThread().getName(), hilo.join());
+    }
+
+    @Test
+    void testCadaClaseUsaSuPoolDeConexiones() throws Exception {
+        List<ClaseCarga> usados = new CopyOnWriteArrayList<>();
+        Map<ClaseCarga, DataSource> pools = new EnumMap<>(ClaseCarga.class);
+        for (ClaseCarga clase : ClaseCarga.values()) {
+            DataSource pool = mock(DataSource.class);
+            when(pool.getConnection()).thenAnswer(invocacion -> {
+                usados.add(clase);
+                return null;
+            });
+            pools.put(clase, pool);
+        }
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools);
+        executor = new WorkloadExecutor(new WorkloadProperties(), meterRegistry);
+
+        for (ClaseCarga clase : List.of(ClaseCarga.ESCRITURA, ClaseCarga.LECTURA, ClaseCarga.LISTADO)) {
+            executor.ejecutar(clase, () -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).get(5, TimeUnit.SECONDS);
+        }
+        dataSource.getConnection();
+
+        assertEquals(List.of(ClaseCarga.ESCRITURA, ClaseCarga.LECTURA, ClaseCarga.LISTADO, ClaseCarga.ADMIN), usados);
+    }
+
+    private static boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(Duration.ofSeconds(5).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.inventario_service.workload;
+
+import com.example.inventario_service.exception.WorkloadRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Latencia de las compras mientras otros clientes lanzan listados completos sin parar. Servidor simulado:
+ * 20 hilos de Tomcat y una base de datos en la que una compra tiene la conexión 5 ms y un listado 300 ms.
+ * Llegan 100 compras/s y 30 clientes repiten listados (si reciben 503 esperan 100 ms y lo vuelven a intentar).
+ * <ul>
+ *   <li>Compartido: todo corre en los hilos de Tomcat con un único pool de 10 conexiones.</li>
+ *   <li>Por clase: WorkloadExecutor y WorkloadRoutingDataSource con la configuración por defecto.</li>
+ * </ul>
+ * Deja en el log p50/p99 de las compras en reposo y con los listados en cada configuración.
+ */
+public class WorkloadIsolationLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadIsolationLoadIT.class);
+
+    private static final int COMPRAS_POR_SEGUNDO = 100;
+    private static final int SEGUNDOS = 4;
+    private static final int CLIENTES_LISTADO = 30;
+    private static final long COMPRA_MS = 5;
+    private static final long LISTADO_MS = 300;
+
+    @Test
+    void testLasComprasNoEsperanALosListados() throws Exception {
+        WorkloadProperties properties = new WorkloadProperties();
+        Latencias enReposo = ejecutar("Por clase, sin listados", properties, false);
+        Latencias compartido = ejecutar("Compartido, con listados", null, true);
+        Latencias porClase = ejecutar("Por clase, con listados", properties, true);
+
+        for (Latencias latencias : List.of(enReposo, compartido, porClase)) {
+            logger.info(String.format("%-26s compras p50 %6.1f ms  p99 %7.1f ms  listados completados %4d  rechazados %5d",
+                    latencias.nombre, latencias.p50Ms, latencias.p99Ms, latencias.listados, latencias.listadosRechazados));
+        }
+
+        // Con pools separados las compras apenas notan los listados; compartiendo hilos y conexiones, sí
+        assertTrue(porClase.p99Ms < enReposo.p99Ms + 4 * COMPRA_MS + 20, "p99 por clase: " + porClase.p99Ms);
+        assertTrue(compartido.p99Ms > 5 * porClase.p99Ms, "p99 compartido: " + compartido.p99Ms);
+        assertTrue(porClase.listados > 0);
+    }
+
+    /**
+     * @param properties Configuración por clase, o null para el escenario compartido.
+     */
+    private Latencias ejecutar(String nombre, WorkloadProperties properties, boolean conListados) throws Exception {
+        ThreadPoolExecutor tomcat = new ThreadPoolExecutor(20, 20, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        WorkloadExecutor workload = properties != null ? new WorkloadExecutor(properties, new SimpleMeterRegistry()) : null;
+        DataSource dataSource;
+        if (properties != null) {
+            Map<ClaseCarga, DataSource> pools = new EnumMap<>(ClaseCarga.class);
+            for (ClaseCarga clase : ClaseCarga.values()) {
+                pools.put(clase, baseDeDatos(properties.get(clase).getConnections()));
+            }
+            dataSource = new WorkloadRoutingDataSource(pools);
+        } else {
+            dataSource = baseDeDatos(10);
+        }
+
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicInteger listados = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES_LISTADO);
+        if (conListados) {
+            for (int i = 0; i < CLIENTES_LISTADO; i++) {
+                clientes.execute(() -> {
+                    while (!parar.get()) {
+                        try {
+                            peticion(tomcat, workload, ClaseCarga.LISTADO, () -> usar(dataSource, LISTADO_MS)).join();
+                            listados.incrementAndGet();
+                        } catch (Exception e) {
+                            rechazados.incrementAndGet(); // 503: se reintenta más tarde
+                            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                        }
+                    }
+                });
+            }
+            Thread.sleep(500); // Que los listados ocupen hilos y conexiones antes de medir
+        }
+
+        int total = COMPRAS_POR_SEGUNDO * SEGUNDOS;
+        List<CompletableFuture<Long>> compras = new ArrayList<>(total);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long llegada = inicio + i * TimeUnit.SECONDS.toNanos(1) / COMPRAS_POR_SEGUNDO;
+            LockSupport.parkNanos(llegada - System.nanoTime());
+            compras.add(peticion(tomcat, workload, ClaseCarga.ESCRITURA, () -> usar(dataSource, COMPRA_MS))
+                    .thenApply(ignorado -> System.nanoTime() - llegada));
+        }
+        long[] latencias = new long[total];
+        for (int i = 0; i < total; i++) {
+            latencias[i] = compras.get(i).get(2, TimeUnit.MINUTES);
+        }
+
+        parar.set(true);
+        clientes.shutdown();
+        assertTrue(clientes.awaitTermination(1, TimeUnit.MINUTES));
+        tomcat.shutdown();
+        if (workload != null) {
+            workload.cerrar();
+        }
+        Arrays.sort(latencias);
+        return new Latencias(nombre, latencias[total / 2] / 1e6, latencias[(int) (total * 0.99)] / 1e6,
+                listados.get(), rechazados.get());
+    }
+
+    // Petición HTTP: entra por un hilo de Tomcat y, con WorkloadExecutor, pasa a los hilos de su clase
+    private static CompletableFuture<Void> peticion(ThreadPoolExecutor tomcat, WorkloadExecutor workload,
+                                                    ClaseCarga clase, Runnable trabajo) {
+        CompletableFuture<Void> respuesta = new CompletableFuture<>();
+        tomcat.execute(() -> {
+            try {
+                if (workload == null) {
+                    trabajo.run();
+                    respuesta.complete(null);
+                } else {
+                    workload.ejecutar(clase, () -> {
+                        trabajo.run();
+                        return null;
+                    }).whenComplete((ignorado, error) -> respuesta.complete(null));
+                }
+            } catch (WorkloadRejectedException e) {
+                respuesta.completeExceptionally(e);
+            }
+        });
+        return respuesta;
+    }
+
+    private static void usar(DataSource dataSource, long ms) {
+        try (Connection ignorada = dataSource.getConnection()) {
+            Thread.sleep(ms);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Pool con N conexiones: getConnection espera a que quede una libre y close la devuelve
+    private static DataSource baseDeDatos(int conexiones) throws SQLException {
+        Semaphore libres = new Semaphore(conexiones, true);
+        Connection conexion = mock(Connection.class, withSettings().stubOnly());
+        doAnswer(invocacion -> {
+            libres.release();
+            return null;
+        }).when(conexion).close();
+        DataSource pool = mock(DataSource.class, withSettings().stubOnly());
+        when(pool.getConnection()).thenAnswer(invocacion -> {
+            libres.acquire();
+            return conexion;
+        });
+        return pool;
+    }
+
+    private record Latencias(String nombre, double p50Ms, double p99Ms, int listados, int listadosRechazados) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara una ejecución con la baseline guardada. Es una regresión que un endpoint de la baseline falte,
+ * que su p99 supere el de la baseline en más de la tolerancia, que su throughput baje más de la tolerancia
+ * o que su tasa de errores suba más de un punto.
+ */
+final class ComparacionBaseline {
+
+    static final double MARGEN_ERRORES = 0.01;
+
+    private ComparacionBaseline() {
+    }
+
+    static List<String> regresiones(Informe actual, Informe baseline, double tolerancia) {
+        List<String> regresiones = new ArrayList<>();
+        for (Map.Entry<String, Informe.Resultado> entrada : baseline.endpoints().entrySet()) {
+            String endpoint = entrada.getKey();
+            Informe.Resultado antes = entrada.getValue();
+            Informe.Resultado ahora = actual.endpoints().get(endpoint);
+            if (ahora == null) {
+                regresiones.add(endpoint + ": no se ha medido");
+                continue;
+            }
+            if (ahora.latenciaMs().p99() > antes.latenciaMs().p99() * (1 + tolerancia)) {
+                regresiones.add(String.format(Locale.ROOT, "%s: p99 %.2f ms (baseline %.2f ms)",
+                        endpoint, ahora.latenciaMs().p99(), antes.latenciaMs().p99()));
+            }
+            if (ahora.throughput() < antes.throughput() * (1 - tolerancia)) {
+                regresiones.add(String.format(Locale.ROOT, "%s: throughput %.1f/s (baseline %.1f/s)",
+                        endpoint, ahora.throughput(), antes.throughput()));
+            }
+            if (ahora.tasaErrores() > antes.tasaErrores() + MARGEN_ERRORES) {
+                regresiones.add(String.format(Locale.ROOT, "%s: errores %.2f%% (baseline %.2f%%)",
+                        endpoint, 100 * ahora.tasaErrores(), 100 * antes.tasaErrores()));
+            }
+        }
+        return regresiones;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba, desde la línea de comandos (--rate=500 --duration=2m ...). Sin argumentos:
+ * 200 peticiones/s en lazo abierto durante 60 s tras 10 s de calentamiento, con la mezcla
+ * browse:60,with-stock:30,purchase:10 sobre 1000 productos.
+ */
+public class ConfiguracionCarga {
+
+    public enum Modo {
+        // Las peticiones salen a su hora aunque las anteriores no hayan terminado; la latencia se mide desde
+        // esa hora prevista, así que incluye la espera que provocan las respuestas lentas
+        OPEN,
+        // Cada usuario envía la siguiente petición al recibir la anterior: el sistema marca el ritmo y las
+        // esperas no se ven en la latencia (omisión coordinada); solo para comparar
+        CLOSED
+    }
+
+    private Modo modo = Modo.OPEN;
+    private double tasa = 200; // Peticiones por segundo (modo open)
+    private int concurrencia = 32; // Usuarios (modo closed)
+    private int maxEnCurso = 10_000; // Modo open: por encima se cuenta como error "saturado" en lugar de enviar
+    private Duration duracion = Duration.ofSeconds(60);
+    private Duration calentamiento = Duration.ofSeconds(10); // No cuenta en los resultados
+    private Duration timeout = Duration.ofSeconds(10);
+    private final Map<Endpoint, Integer> mezcla = new EnumMap<>(Map.of(Endpoint.BROWSE, 60, Endpoint.WITH_STOCK, 30, Endpoint.PURCHASE, 10));
+    private int productos = 1_000;
+    private int stockInicial = 1_000_000; // Por producto, para que las compras no se queden sin stock
+    private long semilla = 42;
+    private boolean calentarServicios = true; // app.warm-up de los servicios antes de empezar
+    private Path resultados = Path.of("loadtest-result.json");
+    private Path baseline; // Resultados con los que comparar
+    private Path guardarBaseline; // Dónde guardar estos resultados como nueva referencia
+    private double tolerancia = 0.2;
+
+    public static ConfiguracionCarga desdeArgumentos(String... args) {
+        ConfiguracionCarga configuracion = new ConfiguracionCarga();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg + " (se espera --clave=valor)");
+            }
+            configuracion.aplicar(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        return configuracion;
+    }
+
+    private void aplicar(String clave, String valor) {
+        switch (clave) {
+            case "mode" -> modo = Modo.valueOf(valor.toUpperCase());
+            case "rate" -> tasa = Double.parseDouble(valor);
+            case "concurrency" -> concurrencia = Integer.parseInt(valor);
+            case "max-in-flight" -> maxEnCurso = Integer.parseInt(valor);
+            case "duration" -> duracion = DurationStyle.detectAndParse(valor);
+            case "warmup" -> calentamiento = DurationStyle.detectAndParse(valor);
+            case "timeout" -> timeout = DurationStyle.detectAndParse(valor);
+            case "mix" -> {
+                mezcla.clear();
+                for (String parte : valor.split(",")) {
+                    String[] pesoPorEndpoint = parte.trim().split(":");
+                    mezcla.put(Endpoint.desdeClave(pesoPorEndpoint[0]), Integer.parseInt(pesoPorEndpoint[1]));
+                }
+            }
+            case "products" -> productos = Integer.parseInt(valor);
+            case "initial-stock" -> stockInicial = Integer.parseInt(valor);
+            case "seed" -> semilla = Long.parseLong(valor);
+            case "service-warm-up" -> calentarServicios = Boolean.parseBoolean(valor);
+            case "results" -> resultados = Path.of(valor);
+            case "baseline" -> baseline = Path.of(valor);
+            case "save-baseline" -> guardarBaseline = Path.of(valor);
+            case "tolerance" -> tolerancia = Double.parseDouble(valor);
+            default -> throw new IllegalArgumentException("Opción desconocida: --" + clave);
+        }
+        validar();
+    }
+
+    private void validar() {
+        if (tasa <= 0 || concurrencia <= 0 || maxEnCurso <= 0 || productos <= 0) {
+            throw new IllegalArgumentException("rate, concurrency, max-in-flight y products deben ser positivos");
+        }
+        if (mezcla.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener algún peso positivo");
+        }
+    }
+
+    /**
+     * Elige el endpoint de la siguiente petición según los pesos de la mezcla.
+     * @param sorteo Número entre 0 y la suma de los pesos (excluida).
+     */
+    public Endpoint elegir(int sorteo) {
+        int acumulado = 0;
+        Endpoint ultimo = null;
+        for (Map.Entry<Endpoint, Integer> entrada : mezcla.entrySet()) {
+            acumulado += entrada.getValue();
+            ultimo = entrada.getKey();
+            if (sorteo < acumulado) {
+                return ultimo;
+            }
+        }
+        return ultimo;
+    }
+
+    public int getPesoTotal() {
+        return mezcla.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public double getTasa() {
+        return tasa;
+    }
+
+    public int getConcurrencia() {
+        return concurrencia;
+    }
+
+    public int getMaxEnCurso() {
+        return maxEnCurso;
+    }
+
+    public Duration getDuracion() {
+        return duracion;
+    }
+
+    public Duration getCalentamiento() {
+        return calentamiento;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Map<Endpoint, Integer> getMezcla() {
+        return mezcla;
+    }
+
+    public int getProductos() {
+        return productos;
+    }
+
+    public int getStockInicial() {
+        return stockInicial;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public boolean isCalentarServicios() {
+        return calentarServicios;
+    }
+
+    public Path getResultados() {
+        return resultados;
+    }
+
+    public Path getBaseline() {
+        return baseline;
+    }
+
+    public Path getGuardarBaseline() {
+        return guardarBaseline;
+    }
+
+    public double getTolerancia() {
+        return tolerancia;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Tipos de petición de la mezcla de tráfico, todas contra productos-service (que llama a inventario-service
+ * en las dos últimas).
+ */
+public enum Endpoint {
+
+    // Navegación por el catálogo: páginas de 20 productos ordenadas por nombre
+    BROWSE("browse", "GET /api/productos?page={n}&size=20") {
+        @Override
+        String ruta(SplittableRandom random, int productos) {
+            return "/api/productos?page=" + random.nextInt(Math.max(1, productos / 20)) + "&size=20";
+        }
+    },
+    // Ficha de un producto con su stock (productos-service + inventario-service)
+    WITH_STOCK("with-stock", "GET /api/productos/{id}/with-stock") {
+        @Override
+        String ruta(SplittableRandom random, int productos) {
+            return "/api/productos/" + (1 + random.nextInt(productos)) + "/with-stock";
+        }
+    },
+    // Compra de una unidad (reduce el stock en inventario-service)
+    PURCHASE("purchase", "PUT /api/productos/{id}/reducir-stock/1") {
+        @Override
+        String ruta(SplittableRandom random, int productos) {
+            return "/api/productos/" + (1 + random.nextInt(productos)) + "/reducir-stock/1";
+        }
+
+        @Override
+        HttpRequest.Builder metodo(HttpRequest.Builder peticion) {
+            return peticion.PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    };
+
+    private final String clave;
+    private final String descripcion;
+
+    Endpoint(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    // Ruta con los parámetros de esta petición (producto o página al azar entre los sembrados)
+    abstract String ruta(SplittableRandom random, int productos);
+
+    HttpRequest.Builder metodo(HttpRequest.Builder peticion) {
+        return peticion.GET();
+    }
+
+    HttpRequest peticion(String base, String apiKey, Duration timeout, SplittableRandom random, int productos) {
+        return metodo(HttpRequest.newBuilder(URI.create(base + ruta(random, productos))))
+                .header("X-API-Key", apiKey)
+                .header("Accept", "application/json")
+                .timeout(timeout)
+                .build();
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public static Endpoint desdeClave(String clave) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.clave.equals(clave)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Endpoint desconocido: " + clave + " (browse, with-stock, purchase)");
+    }
+}
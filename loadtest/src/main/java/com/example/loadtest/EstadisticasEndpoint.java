@@ -0,0 +1,68 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores e histogramas de un endpoint; se registran desde los hilos que reciben las respuestas
+final class EstadisticasEndpoint {
+
+    // Valor máximo de los histogramas (5 minutos); lo que lo supere se registra como el máximo
+    private static final long MAXIMO_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Recorder latencia = new Recorder(MAXIMO_NANOS, 3);
+    private final Recorder servicio = new Recorder(MAXIMO_NANOS, 3);
+    private final LongAdder peticiones = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final Map<String, LongAdder> causas = new ConcurrentHashMap<>();
+    private Histogram latenciaFinal;
+    private Histogram servicioFinal;
+
+    /**
+     * @param previsto Hora prevista de envío (System.nanoTime).
+     * @param enviado Hora real de envío.
+     * @param terminado Hora de la respuesta o del error.
+     * @param causa Causa del error, o null si la respuesta es correcta.
+     */
+    void registrar(long previsto, long enviado, long terminado, String causa) {
+        peticiones.increment();
+        if (causa != null) {
+            error(causa);
+            return;
+        }
+        latencia.recordValue(Math.min(MAXIMO_NANOS, terminado - previsto));
+        servicio.recordValue(Math.min(MAXIMO_NANOS, terminado - enviado));
+    }
+
+    // Petición programada que no se llegó a enviar
+    void noEnviada(String causa) {
+        peticiones.increment();
+        error(causa);
+    }
+
+    private void error(String causa) {
+        errores.increment();
+        causas.computeIfAbsent(causa, c -> new LongAdder()).increment();
+    }
+
+    // Cierra la medición: a partir de aquí los histogramas no cambian
+    Informe.Resultado cerrar(double segundos) {
+        latenciaFinal = latencia.getIntervalHistogram();
+        servicioFinal = servicio.getIntervalHistogram();
+        Map<String, Long> porCausa = new TreeMap<>();
+        causas.forEach((causa, cuenta) -> porCausa.put(causa, cuenta.sum()));
+        long total = peticiones.sum();
+        long fallidas = errores.sum();
+        return new Informe.Resultado(total, fallidas, (total - fallidas) / segundos,
+                Informe.Percentiles.de(latenciaFinal), Informe.Percentiles.de(servicioFinal), porCausa);
+    }
+
+    Histogram getLatencia() {
+        return latenciaFinal;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Genera la carga contra productos-service y mide cada endpoint.
+ * <p>
+ * En modo open las peticiones salen a la tasa fijada aunque el servicio se retrase, y la latencia se mide desde
+ * la hora prevista de envío: las esperas que provoca un servicio lento cuentan (sin omisión coordinada).
+ * En modo closed cada usuario espera la respuesta antes de enviar la siguiente petición, como un cliente real
+ * con un número fijo de conexiones; mide la capacidad, pero no la latencia que vería una carga independiente.
+ */
+final class GeneradorCarga {
+
+    private final ConfiguracionCarga config;
+    private final String base;
+    private final String apiKey;
+    private final HttpClient cliente;
+    private final Map<Endpoint, EstadisticasEndpoint> estadisticas = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile long inicioMedicion;
+
+    GeneradorCarga(ConfiguracionCarga config, String base, String apiKey) {
+        this.config = config;
+        this.base = base;
+        this.apiKey = apiKey;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getTimeout())
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            estadisticas.put(endpoint, new EstadisticasEndpoint());
+        }
+    }
+
+    Informe ejecutar() throws InterruptedException {
+        long inicio = System.nanoTime();
+        inicioMedicion = inicio + config.getCalentamiento().toNanos();
+        long fin = inicioMedicion + config.getDuracion().toNanos();
+        if (config.getModo() == ConfiguracionCarga.Modo.OPEN) {
+            abierto(inicio, fin);
+        } else {
+            cerrado(fin);
+        }
+        esperarRespuestas();
+        double segundos = config.getDuracion().toNanos() / 1e9;
+        Map<String, Informe.Resultado> resultados = new LinkedHashMap<>();
+        config.getMezcla().keySet().forEach(endpoint -> resultados.put(endpoint.getClave(), estadisticas.get(endpoint).cerrar(segundos)));
+        return new Informe(config.getModo().name().toLowerCase(), config.getModo() == ConfiguracionCarga.Modo.OPEN ? config.getTasa() : 0,
+                config.getModo() == ConfiguracionCarga.Modo.CLOSED ? config.getConcurrencia() : 0, segundos, resultados);
+    }
+
+    // Histogramas de latencia de la última ejecución, para guardarlos en formato .hgrm
+    Map<String, Histogram> histogramas() {
+        Map<String, Histogram> histogramas = new LinkedHashMap<>();
+        config.getMezcla().keySet().forEach(endpoint -> histogramas.put(endpoint.getClave(), estadisticas.get(endpoint).getLatencia()));
+        return histogramas;
+    }
+
+    private void abierto(long inicio, long fin) {
+        SplittableRandom random = new SplittableRandom(config.getSemilla());
+        double intervalo = 1e9 / config.getTasa();
+        for (long i = 0; ; i++) {
+            long previsto = inicio + (long) (i * intervalo);
+            if (previsto >= fin) {
+                return;
+            }
+            esperarHasta(previsto);
+            Endpoint endpoint = config.elegir(random.nextInt(config.getPesoTotal()));
+            HttpRequest peticion = endpoint.peticion(base, apiKey, config.getTimeout(), random, config.getProductos());
+            if (enCurso.get() >= config.getMaxEnCurso()) {
+                // El servicio no da abasto: la petición cuenta como error en lugar de retrasar las siguientes
+                if (previsto >= inicioMedicion) {
+                    estadisticas.get(endpoint).noEnviada("saturado");
+                }
+                continue;
+            }
+            enCurso.incrementAndGet();
+            long enviado = System.nanoTime();
+            cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+                enCurso.decrementAndGet();
+                registrar(endpoint, previsto, enviado, respuesta, error);
+            });
+        }
+    }
+
+    private void cerrado(long fin) throws InterruptedException {
+        Thread[] usuarios = new Thread[config.getConcurrencia()];
+        for (int u = 0; u < usuarios.length; u++) {
+            SplittableRandom random = new SplittableRandom(config.getSemilla() + u);
+            usuarios[u] = new Thread(() -> usuario(random, fin), "loadtest-usuario-" + u);
+            usuarios[u].start();
+        }
+        for (Thread usuario : usuarios) {
+            usuario.join();
+        }
+    }
+
+    private void usuario(SplittableRandom random, long fin) {
+        while (System.nanoTime() < fin) {
+            Endpoint endpoint = config.elegir(random.nextInt(config.getPesoTotal()));
+            HttpRequest peticion = endpoint.peticion(base, apiKey, config.getTimeout(), random, config.getProductos());
+            long enviado = System.nanoTime();
+            try {
+                registrar(endpoint, enviado, enviado, cliente.send(peticion, HttpResponse.BodyHandlers.discarding()), null);
+            } catch (IOException e) {
+                registrar(endpoint, enviado, enviado, null, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void registrar(Endpoint endpoint, long previsto, long enviado, HttpResponse<?> respuesta, Throwable error) {
+        long terminado = System.nanoTime();
+        if (previsto < inicioMedicion) {
+            return; // Calentamiento
+        }
+        String causa = error != null ? causa(error) : respuesta.statusCode() >= 400 ? "http " + respuesta.statusCode() : null;
+        estadisticas.get(endpoint).registrar(previsto, enviado, terminado, causa);
+    }
+
+    static String causa(Throwable error) {
+        Throwable origen = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (origen instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        if (origen instanceof ConnectException) {
+            return "conexion";
+        }
+        return origen.getClass().getSimpleName();
+    }
+
+    // Las peticiones aún en curso al terminar acaban como mucho al vencer su timeout
+    private void esperarRespuestas() {
+        long limite = System.nanoTime() + config.getTimeout().plus(Duration.ofSeconds(1)).toNanos();
+        while (enCurso.get() > 0 && System.nanoTime() < limite) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    // parkNanos puede volver antes de tiempo
+    private static void esperarHasta(long instante) {
+        long espera;
+        while ((espera = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(espera);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultados de una ejecución por endpoint; se guardan en JSON y sirven de baseline para las siguientes.
+ * Las latencias son de las respuestas correctas, en milisegundos.
+ * @param modo open o closed.
+ * @param tasaObjetivo Peticiones por segundo programadas (modo open).
+ * @param concurrencia Usuarios (modo closed).
+ * @param segundos Duración de la medición, sin el calentamiento.
+ */
+public record Informe(String modo, double tasaObjetivo, int concurrencia, double segundos, Map<String, Resultado> endpoints) {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * @param peticiones Programadas durante la medición (incluidas las que fallaron o no se pudieron enviar).
+     * @param errores Respuestas 4xx/5xx, timeouts, errores de conexión y peticiones no enviadas por saturación.
+     * @param throughput Respuestas correctas por segundo.
+     * @param latenciaMs Desde la hora prevista de envío (modo open) hasta la respuesta.
+     * @param servicioMs Desde el envío real hasta la respuesta.
+     */
+    public record Resultado(long peticiones, long errores, double throughput, Percentiles latenciaMs, Percentiles servicioMs,
+                            Map<String, Long> erroresPorCausa) {
+
+        public double tasaErrores() {
+            return peticiones == 0 ? 0 : (double) errores / peticiones;
+        }
+    }
+
+    public record Percentiles(double p50, double p90, double p99, double p999, double max) {
+
+        static Percentiles de(Histogram nanos) {
+            return new Percentiles(ms(nanos.getValueAtPercentile(50)), ms(nanos.getValueAtPercentile(90)),
+                    ms(nanos.getValueAtPercentile(99)), ms(nanos.getValueAtPercentile(99.9)), ms(nanos.getMaxValue()));
+        }
+
+        private static double ms(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    // Solo tiene sentido comparar ejecuciones con la misma forma de generar la carga
+    public boolean comparableCon(Informe otro) {
+        return modo.equals(otro.modo) && tasaObjetivo == otro.tasaObjetivo && concurrencia == otro.concurrencia;
+    }
+
+    public void guardar(Path fichero) throws IOException {
+        JSON.writeValue(fichero.toFile(), this);
+    }
+
+    public static Informe leer(Path fichero) throws IOException {
+        return JSON.readValue(fichero.toFile(), Informe.class);
+    }
+
+    public void imprimir(PrintStream salida) {
+        salida.printf(Locale.ROOT, "Modo %s, %s, %.1f s medidos%n", modo,
+                "open".equals(modo) ? String.format(Locale.ROOT, "%.0f peticiones/s programadas", tasaObjetivo) : concurrencia + " usuarios", segundos);
+        salida.printf(Locale.ROOT, "%-11s %10s %8s %9s %9s %9s %9s %9s %9s %11s%n",
+                "endpoint", "peticiones", "errores", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 serv ms");
+        endpoints.forEach((endpoint, r) -> salida.printf(Locale.ROOT, "%-11s %10d %7.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%s%n",
+                endpoint, r.peticiones(), 100 * r.tasaErrores(), r.throughput(), r.latenciaMs().p50(), r.latenciaMs().p90(),
+                r.latenciaMs().p99(), r.latenciaMs().p999(), r.latenciaMs().max(), r.servicioMs().p99(),
+                r.erroresPorCausa().isEmpty() ? "" : "  " + r.erroresPorCausa()));
+    }
+}
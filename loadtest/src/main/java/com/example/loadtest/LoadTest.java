@@ -0,0 +1,73 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca ambos servicios, genera la mezcla de peticiones configurada,
+ * imprime y guarda los resultados y los compara con la baseline. Termina con código 1 si hay regresiones.
+ * <p>
+ * Opciones: ver {@link ConfiguracionCarga}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos(args);
+        int codigo;
+        try (ServiciosEmbebidos servicios = ServiciosEmbebidos.arrancar(config.getProductos(), config.getStockInicial(),
+                config.isCalentarServicios())) {
+            System.out.printf(Locale.ROOT, "Servicios arrancados en %s (%s); calentamiento %s, medición %s%n",
+                    servicios.getUrlProductos(), config.isCalentarServicios() ? "calentados" : "sin calentar",
+                    config.getCalentamiento(), config.getDuracion());
+            GeneradorCarga generador = new GeneradorCarga(config, servicios.getUrlProductos(), servicios.getApiKey());
+            Informe informe = generador.ejecutar();
+            informe.imprimir(System.out);
+            informe.guardar(config.getResultados());
+            guardarHistogramas(generador.histogramas(), config.getResultados());
+            if (config.getGuardarBaseline() != null) {
+                informe.guardar(config.getGuardarBaseline());
+                System.out.println("Baseline guardada en " + config.getGuardarBaseline());
+            }
+            codigo = config.getBaseline() != null ? comparar(informe, config) : 0;
+        }
+        System.exit(codigo);
+    }
+
+    private static int comparar(Informe informe, ConfiguracionCarga config) throws IOException {
+        Informe baseline = Informe.leer(config.getBaseline());
+        if (!informe.comparableCon(baseline)) {
+            System.out.println("Aviso: la baseline se generó con otro modo, tasa o concurrencia");
+        }
+        List<String> regresiones = ComparacionBaseline.regresiones(informe, baseline, config.getTolerancia());
+        if (regresiones.isEmpty()) {
+            System.out.printf(Locale.ROOT, "Sin regresiones respecto a %s (tolerancia %.0f%%)%n", config.getBaseline(), 100 * config.getTolerancia());
+            return 0;
+        }
+        System.out.println("Regresiones respecto a " + config.getBaseline() + ":");
+        regresiones.forEach(regresion -> System.out.println("  " + regresion));
+        return 1;
+    }
+
+    // Un fichero .hgrm por endpoint junto al JSON (se abre con HdrHistogram Plotter); valores en milisegundos
+    private static void guardarHistogramas(Map<String, Histogram> histogramas, Path resultados) throws IOException {
+        Path directorio = resultados.toAbsolutePath().getParent();
+        String prefijo = resultados.getFileName().toString().replaceFirst("\\.json$", "");
+        for (Map.Entry<String, Histogram> entrada : histogramas.entrySet()) {
+            Path fichero = directorio.resolve(prefijo + "-" + entrada.getKey() + ".hgrm");
+            try (PrintStream salida = new PrintStream(Files.newOutputStream(fichero), false, StandardCharsets.UTF_8)) {
+                entrada.getValue().outputPercentileDistribution(salida, 1_000_000.0);
+            }
+        }
+    }
+}
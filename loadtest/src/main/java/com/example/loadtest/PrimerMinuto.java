@@ -0,0 +1,85 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Latencia del primer minuto tras arrancar, con y sin el calentamiento de los servicios (app.warm-up).
+ * Ejecuta LoadTest dos veces, cada una en una JVM nueva para que el JIT de una no ayude a la otra, midiendo
+ * desde la primera petición (--warmup=0s --duration=60s) en cuanto los servicios han arrancado, e imprime
+ * por endpoint los percentiles de ambas ejecuciones y cuánto cambian. Los argumentos se pasan a LoadTest
+ * (--rate=300, --mix=..., --duration=2m); los resultados quedan en primer-minuto-sin.json y primer-minuto-con.json.
+ */
+public final class PrimerMinuto {
+
+    static final List<String> POR_DEFECTO = List.of("--warmup=0s", "--duration=60s");
+
+    private PrimerMinuto() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga.desdeArgumentos(args); // Los errores en las opciones, antes de arrancar nada
+        Informe sin = ejecutar(false, args);
+        Informe con = ejecutar(true, args);
+        comparacion(sin, con).forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static Informe ejecutar(boolean calentar, String[] args) throws IOException, InterruptedException {
+        System.out.println(calentar ? "== Con calentamiento ==" : "== Sin calentamiento ==");
+        Process loadTest = new ProcessBuilder(comando(calentar, args)).inheritIO().start();
+        if (loadTest.waitFor() != 0) {
+            throw new IllegalStateException("LoadTest terminó con código " + loadTest.exitValue());
+        }
+        return Informe.leer(resultados(calentar));
+    }
+
+    // Lo que se pasa después prevalece: las opciones por defecto van antes y las de cada ejecución al final
+    static List<String> comando(boolean calentar, String... args) {
+        List<String> comando = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                LoadTest.class.getName()));
+        comando.addAll(POR_DEFECTO);
+        comando.addAll(List.of(args));
+        comando.add("--service-warm-up=" + calentar);
+        comando.add("--results=" + resultados(calentar));
+        return comando;
+    }
+
+    static Path resultados(boolean calentar) {
+        return Path.of(calentar ? "primer-minuto-con.json" : "primer-minuto-sin.json");
+    }
+
+    static List<String> comparacion(Informe sin, Informe con) {
+        List<String> lineas = new ArrayList<>();
+        lineas.add(String.format(Locale.ROOT, "%-11s %-10s %13s %11s %8s", "endpoint", "métrica", "sin calentar", "calentado", "cambio"));
+        Set<String> endpoints = new LinkedHashSet<>(sin.endpoints().keySet());
+        endpoints.addAll(con.endpoints().keySet());
+        for (String endpoint : endpoints) {
+            Informe.Resultado antes = sin.endpoints().get(endpoint);
+            Informe.Resultado despues = con.endpoints().get(endpoint);
+            fila(lineas, endpoint, "p50 ms", antes, despues, r -> r.latenciaMs().p50());
+            fila(lineas, "", "p99 ms", antes, despues, r -> r.latenciaMs().p99());
+            fila(lineas, "", "p99.9 ms", antes, despues, r -> r.latenciaMs().p999());
+            fila(lineas, "", "max ms", antes, despues, r -> r.latenciaMs().max());
+            fila(lineas, "", "errores %", antes, despues, r -> 100 * r.tasaErrores());
+        }
+        return lineas;
+    }
+
+    private static void fila(List<String> lineas, String endpoint, String metrica, Informe.Resultado antes,
+                             Informe.Resultado despues, ToDoubleFunction<Informe.Resultado> valor) {
+        String sinCalentar = antes == null ? "-" : String.format(Locale.ROOT, "%.2f", valor.applyAsDouble(antes));
+        String calentado = despues == null ? "-" : String.format(Locale.ROOT, "%.2f", valor.applyAsDouble(despues));
+        String cambio = antes == null || despues == null || valor.applyAsDouble(antes) == 0 ? "-"
+                : String.format(Locale.ROOT, "%+.1f%%", 100 * (valor.applyAsDouble(despues) / valor.applyAsDouble(antes) - 1));
+        lineas.add(String.format(Locale.ROOT, "%-11s %-10s %13s %11s %8s", endpoint, metrica, sinCalentar, calentado, cambio));
+    }
+}
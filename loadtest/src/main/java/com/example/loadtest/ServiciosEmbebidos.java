@@ -0,0 +1,156 @@
+package com.example.loadtest;
+
+import com.example.inventario_service.InventarioServiceApplication;
+import com.example.inventario_service.model.Inventario;
+import com.example.inventario_service.repository.InventarioRepository;
+import com.example.productos_service.ProductosServiceApplication;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.repository.ProductoRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Arranca inventario-service y productos-service en este proceso, cada uno con su base de datos H2 en memoria
+ * (modo PostgreSQL) en lugar de PostgreSQL, y carga el catálogo y el stock de la prueba antes de que se calienten.
+ * El esquema lo crea Hibernate: las migraciones de Flyway de ambos servicios comparten ruta en el classpath.
+ */
+final class ServiciosEmbebidos implements AutoCloseable {
+
+    private static final int LOTE = 1000;
+
+    private final ConfigurableApplicationContext inventario;
+    private final ConfigurableApplicationContext productos;
+    private final String urlProductos;
+
+    private ServiciosEmbebidos(ConfigurableApplicationContext inventario, ConfigurableApplicationContext productos, int puertoProductos) {
+        this.inventario = inventario;
+        this.productos = productos;
+        this.urlProductos = "http://localhost:" + puertoProductos;
+    }
+
+    /**
+     * @param numeroProductos Se crean los productos con IDs 1..n y su inventario.
+     * @param calentar Si los servicios se calientan al arrancar (app.warm-up.enabled) antes de devolver el control.
+     */
+    static ServiciosEmbebidos arrancar(int numeroProductos, int stockInicial, boolean calentar) {
+        int puertoInventario = puertoLibre();
+        int puertoProductos = puertoLibre();
+        ConfigurableApplicationContext inventario = arrancar(InventarioServiceApplication.class, "inventario", puertoInventario,
+                calentar, contexto -> cargarInventario(contexto, numeroProductos, stockInicial),
+                "--productos.service.url=http://localhost:" + puertoProductos);
+        try {
+            ConfigurableApplicationContext productos = arrancar(ProductosServiceApplication.class, "productos", puertoProductos,
+                    calentar, contexto -> cargarProductos(contexto, numeroProductos),
+                    "--inventario-service.url=http://localhost:" + puertoInventario + "/api/inventario");
+            return new ServiciosEmbebidos(inventario, productos, puertoProductos);
+        } catch (RuntimeException e) {
+            inventario.close();
+            throw e;
+        }
+    }
+
+    private static ConfigurableApplicationContext arrancar(Class<?> aplicacion, String baseDatos, int puerto, boolean calentar,
+                                                           Consumer<ConfigurableApplicationContext> carga, String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=" + configuracion(aplicacion),
+                "--server.port=" + puerto,
+                "--spring.datasource.url=jdbc:h2:mem:" + baseDatos
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.flyway.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--app.warm-up.enabled=" + calentar,
+                "--app.warm-up.hot-keys.file=", // Sin lista guardada: cada ejecución empieza igual
+                "--logging.file.name=loadtest-servicios.log",
+                "--logging.threshold.console=WARN"));
+        args.addAll(List.of(extra));
+        return new SpringApplicationBuilder(aplicacion)
+                // Los datos se cargan antes que los ApplicationRunner: el calentamiento ya los encuentra
+                .listeners(evento -> {
+                    if (evento instanceof ApplicationStartedEvent iniciada) {
+                        carga.accept(iniciada.getApplicationContext());
+                    }
+                })
+                .run(args.toArray(String[]::new));
+    }
+
+    // Los dos servicios tienen application.yml en la raíz del classpath: cada uno se arranca con el de su jar
+    private static String configuracion(Class<?> aplicacion) {
+        try {
+            Path origen = Path.of(aplicacion.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return Files.isDirectory(origen)
+                    ? origen.resolve("application.yml").toUri().toString()
+                    : "jar:" + origen.toUri() + "!/application.yml";
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("No se encuentra el jar de " + aplicacion.getSimpleName(), e);
+        }
+    }
+
+    private static int puertoLibre() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Productos con IDs 1..n, directamente en el repositorio, sin pasar por la API
+    private static void cargarProductos(ConfigurableApplicationContext productos, int numeroProductos) {
+        ProductoRepository productoRepository = productos.getBean(ProductoRepository.class);
+        for (int desde = 1; desde <= numeroProductos; desde += LOTE) {
+            int hasta = Math.min(numeroProductos, desde + LOTE - 1);
+            List<Producto> lote = new ArrayList<>(hasta - desde + 1);
+            for (int i = desde; i <= hasta; i++) {
+                lote.add(new Producto("Producto " + i, "Producto de la prueba de carga " + i, BigDecimal.valueOf(10 + i % 90, 0)));
+            }
+            productoRepository.saveAll(lote);
+        }
+        long ultimo = productoRepository.count();
+        if (ultimo != numeroProductos || !productoRepository.existsById((long) numeroProductos)) {
+            throw new IllegalStateException("Los productos de la prueba deben tener los IDs 1.." + numeroProductos);
+        }
+    }
+
+    private static void cargarInventario(ConfigurableApplicationContext inventario, int numeroProductos, int stockInicial) {
+        InventarioRepository inventarioRepository = inventario.getBean(InventarioRepository.class);
+        for (int desde = 1; desde <= numeroProductos; desde += LOTE) {
+            int hasta = Math.min(numeroProductos, desde + LOTE - 1);
+            List<Inventario> lote = new ArrayList<>(hasta - desde + 1);
+            for (long productoId = desde; productoId <= hasta; productoId++) {
+                lote.add(new Inventario(null, productoId, stockInicial));
+            }
+            inventarioRepository.saveAll(lote);
+        }
+    }
+
+    String getUrlProductos() {
+        return urlProductos;
+    }
+
+    String getApiKey() {
+        return productos.getEnvironment().getRequiredProperty("app.security.api-key");
+    }
+
+    @Override
+    public void close() {
+        productos.close();
+        inventario.close();
+    }
+}
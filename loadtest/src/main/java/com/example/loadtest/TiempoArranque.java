@@ -0,0 +1,208 @@
+package com.example.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Tiempo hasta la primera petición correcta de un servicio en cada modo de arranque:
+ * <ul>
+ *     <li>jar: java -jar con el jar ejecutable, como antes.</li>
+ *     <li>cds: jar descomprimido y archivo AppCDS de una ejecución de entrenamiento, como el Dockerfile.</li>
+ *     <li>fast: lo anterior más Spring AOT y el perfil fast-startup (inicialización diferida); solo si el jar
+ *     se construyó con mvn -Pfast-startup.</li>
+ * </ul>
+ * Cada modo se arranca --runs veces en una JVM nueva; el servicio necesita su base de datos (docker compose up
+ * productos-db). Los argumentos tras -- se pasan al servicio.
+ * <pre>
+ * --jar=ruta/al/servicio-exec.jar --url=http://localhost:8081/api/productos?size=1 [--runs=5] [--timeout=120s]
+ * [--api-key=...] [--modes=jar,cds,fast] [-- --spring.datasource.url=...]
+ * </pre>
+ */
+public final class TiempoArranque {
+
+    // Igual que en los Dockerfile: el entrenamiento arranca el contexto sin conectarse a la base de datos
+    static final List<String> ENTRENAMIENTO = List.of(
+            "--spring.flyway.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+            "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false");
+    static final List<String> MODOS = List.of("jar", "cds", "fast");
+
+    private Path jar;
+    private URI url;
+    private int arranques = 5;
+    private Duration timeout = Duration.ofSeconds(120);
+    private String apiKey = "SuperSecretaAPIKeyParaMicroservicios2025!";
+    private List<String> modos = MODOS;
+    private final List<String> argumentosServicio = new ArrayList<>();
+
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Path directorio = Path.of("arranque").toAbsolutePath();
+
+    public static void main(String[] args) throws Exception {
+        TiempoArranque tiempo = desdeArgumentos(args);
+        tiempo.ejecutar();
+        System.exit(0);
+    }
+
+    static TiempoArranque desdeArgumentos(String... args) {
+        TiempoArranque tiempo = new TiempoArranque();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--")) {
+                tiempo.argumentosServicio.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            }
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg + " (se espera --clave=valor)");
+            }
+            String valor = arg.substring(igual + 1);
+            switch (arg.substring(2, igual)) {
+                case "jar" -> tiempo.jar = Path.of(valor).toAbsolutePath();
+                case "url" -> tiempo.url = URI.create(valor);
+                case "runs" -> tiempo.arranques = Integer.parseInt(valor);
+                case "timeout" -> tiempo.timeout = DurationStyle.detectAndParse(valor);
+                case "api-key" -> tiempo.apiKey = valor;
+                case "modes" -> tiempo.modos = List.of(valor.split(","));
+                default -> throw new IllegalArgumentException("Opción desconocida: " + arg.substring(0, igual));
+            }
+        }
+        if (tiempo.jar == null || tiempo.url == null) {
+            throw new IllegalArgumentException("--jar y --url son obligatorios");
+        }
+        if (tiempo.arranques <= 0 || !MODOS.containsAll(tiempo.modos)) {
+            throw new IllegalArgumentException("--runs debe ser positivo y --modes una lista de " + MODOS);
+        }
+        return tiempo;
+    }
+
+    void ejecutar() throws IOException, InterruptedException {
+        boolean aot = conAot(jar);
+        Path extraido = modos.contains("cds") || modos.contains("fast") ? prepararCds() : null;
+        System.out.printf(Locale.ROOT, "%-5s %9s %8s %11s %8s%n", "modo", "arranques", "mín ms", "mediana ms", "máx ms");
+        for (String modo : modos) {
+            if (modo.equals("fast") && !aot) {
+                System.out.printf("%-5s el jar no tiene el código de Spring AOT (construirlo con mvn -Pfast-startup)%n", modo);
+                continue;
+            }
+            long[] milisegundos = new long[arranques];
+            for (int i = 0; i < arranques; i++) {
+                milisegundos[i] = arrancar(modo, comando(modo, extraido), i);
+            }
+            Arrays.sort(milisegundos);
+            System.out.printf(Locale.ROOT, "%-5s %9d %8d %11d %8d%n", modo, arranques, milisegundos[0],
+                    milisegundos[arranques / 2], milisegundos[arranques - 1]);
+        }
+    }
+
+    List<String> comando(String modo, Path extraido) {
+        List<String> comando = new ArrayList<>(List.of(java()));
+        if (!modo.equals("jar")) {
+            comando.add("-XX:SharedArchiveFile=" + extraido.resolve("app.jsa"));
+        }
+        if (modo.equals("fast")) {
+            comando.add("-Dspring.aot.enabled=true");
+            comando.add("-Dspring.profiles.active=fast-startup");
+        }
+        comando.add("-jar");
+        comando.add(modo.equals("jar") ? jar.toString() : extraido.resolve("app.jar").toString());
+        comando.addAll(argumentosServicio);
+        return comando;
+    }
+
+    // Descomprime el jar y genera el archivo CDS como el Dockerfile
+    private Path prepararCds() throws IOException, InterruptedException {
+        Path extraido = directorio.resolve("extraido");
+        FileSystemUtils.deleteRecursively(extraido);
+        Files.createDirectories(directorio);
+        esperar(new ProcessBuilder(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract",
+                "--destination", extraido.toString(), "--application-filename", "app.jar"), "extracción");
+        List<String> entrenamiento = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + extraido.resolve("app.jsa"),
+                "-Dspring.context.exit=onRefresh", "-jar", extraido.resolve("app.jar").toString()));
+        entrenamiento.addAll(ENTRENAMIENTO);
+        esperar(new ProcessBuilder(entrenamiento), "entrenamiento CDS");
+        return extraido;
+    }
+
+    private void esperar(ProcessBuilder proceso, String paso) throws IOException, InterruptedException {
+        Path log = directorio.resolve(paso.replace(' ', '-') + ".log");
+        Process ejecucion = proceso.redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!ejecucion.waitFor(timeout.toSeconds(), TimeUnit.SECONDS) || ejecucion.exitValue() != 0) {
+            ejecucion.destroyForcibly();
+            throw new IllegalStateException("Falló la " + paso + "; ver " + log);
+        }
+    }
+
+    /**
+     * Arranca el servicio y mide hasta la primera respuesta 2xx de la URL.
+     * @return Milisegundos desde que se lanza el proceso.
+     */
+    private long arrancar(String modo, List<String> comando, int arranque) throws IOException, InterruptedException {
+        Path log = directorio.resolve(modo + "-" + arranque + ".log");
+        HttpRequest peticion = HttpRequest.newBuilder(url).header("X-API-Key", apiKey).timeout(Duration.ofSeconds(5)).GET().build();
+        long inicio = System.nanoTime();
+        Process servicio = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long limite = inicio + timeout.toNanos();
+            while (System.nanoTime() < limite) {
+                if (!servicio.isAlive()) {
+                    throw new IllegalStateException("El servicio terminó al arrancar (" + modo + "); ver " + log);
+                }
+                try {
+                    int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (estado >= 200 && estado < 300) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                    }
+                } catch (IOException e) {
+                    // Todavía no escucha
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Sin respuesta correcta en " + timeout + " (" + modo + "); ver " + log);
+        } finally {
+            servicio.destroy();
+            if (!servicio.waitFor(30, TimeUnit.SECONDS)) {
+                servicio.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // process-aot deja en el jar el inicializador generado del contexto (<Aplicación>__ApplicationContextInitializer)
+    static boolean conAot(Path jar) throws IOException {
+        try (JarFile contenido = new JarFile(jar.toFile())) {
+            return contenido.stream().anyMatch(entrada -> entrada.getName().endsWith("__ApplicationContextInitializer.class"));
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    List<String> getArgumentosServicio() {
+        return argumentosServicio;
+    }
+
+    List<String> getModos() {
+        return modos;
+    }
+
+    int getArranques() {
+        return arranques;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComparacionBaselineTest {
+
+    private static final Informe BASELINE = informe(Map.of(
+            "browse", resultado(1000, 0, 100, 20),
+            "purchase", resultado(200, 2, 20, 50)));
+
+    @Test
+    void sinCambiosNoHayRegresiones() {
+        assertEquals(List.of(), ComparacionBaseline.regresiones(BASELINE, BASELINE, 0.2));
+    }
+
+    @Test
+    void toleraVariacionesDentroDelMargen() {
+        Informe actual = informe(Map.of(
+                "browse", resultado(1000, 5, 85, 23.9),
+                "purchase", resultado(200, 3, 17, 59)));
+
+        assertEquals(List.of(), ComparacionBaseline.regresiones(actual, BASELINE, 0.2));
+    }
+
+    @Test
+    void detectaP99ThroughputYErrores() {
+        Informe actual = informe(Map.of(
+                "browse", resultado(1000, 0, 70, 30),
+                "purchase", resultado(200, 10, 20, 50)));
+
+        List<String> regresiones = ComparacionBaseline.regresiones(actual, BASELINE, 0.2);
+
+        assertEquals(3, regresiones.size(), regresiones.toString());
+        assertTrue(regresiones.stream().anyMatch(r -> r.startsWith("browse: p99")));
+        assertTrue(regresiones.stream().anyMatch(r -> r.startsWith("browse: throughput")));
+        assertTrue(regresiones.stream().anyMatch(r -> r.startsWith("purchase: errores")));
+    }
+
+    @Test
+    void unEndpointSinMedirEsUnaRegresion() {
+        Informe actual = informe(Map.of("browse", resultado(1000, 0, 100, 20)));
+
+        assertEquals(List.of("purchase: no se ha medido"), ComparacionBaseline.regresiones(actual, BASELINE, 0.2));
+    }
+
+    private static Informe informe(Map<String, Informe.Resultado> endpoints) {
+        return new Informe("open", 120, 0, 10, endpoints);
+    }
+
+    private static Informe.Resultado resultado(long peticiones, long errores, double throughput, double p99) {
+        Informe.Percentiles latencia = new Informe.Percentiles(p99 / 4, p99 / 2, p99, p99 * 2, p99 * 3);
+        return new Informe.Resultado(peticiones, errores, throughput, latencia, latencia, Map.of());
+    }
+}
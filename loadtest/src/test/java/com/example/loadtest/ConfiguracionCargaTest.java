@@ -0,0 +1,57 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfiguracionCargaTest {
+
+    @Test
+    void sinArgumentosUsaLosValoresPorDefecto() {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos();
+
+        assertEquals(ConfiguracionCarga.Modo.OPEN, config.getModo());
+        assertEquals(200.0, config.getTasa());
+        assertEquals(Duration.ofSeconds(60), config.getDuracion());
+        assertEquals(100, config.getPesoTotal());
+        assertNull(config.getBaseline());
+    }
+
+    @Test
+    void leeLasOpciones() {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos("--mode=closed", "--concurrency=8", "--duration=2m",
+                "--warmup=500ms", "--mix=purchase:1,browse:3", "--baseline=base.json", "--tolerance=0.1", "");
+
+        assertEquals(ConfiguracionCarga.Modo.CLOSED, config.getModo());
+        assertEquals(8, config.getConcurrencia());
+        assertEquals(Duration.ofMinutes(2), config.getDuracion());
+        assertEquals(Duration.ofMillis(500), config.getCalentamiento());
+        assertEquals(4, config.getPesoTotal());
+        assertEquals(Path.of("base.json"), config.getBaseline());
+        assertEquals(0.1, config.getTolerancia());
+    }
+
+    @Test
+    void eligeElEndpointSegunLosPesos() {
+        ConfiguracionCarga config = ConfiguracionCarga.desdeArgumentos("--mix=browse:60,with-stock:30,purchase:10");
+
+        assertEquals(Endpoint.BROWSE, config.elegir(0));
+        assertEquals(Endpoint.BROWSE, config.elegir(59));
+        assertEquals(Endpoint.WITH_STOCK, config.elegir(60));
+        assertEquals(Endpoint.WITH_STOCK, config.elegir(89));
+        assertEquals(Endpoint.PURCHASE, config.elegir(90));
+        assertEquals(Endpoint.PURCHASE, config.elegir(99));
+    }
+
+    @Test
+    void rechazaOpcionesNoValidas() {
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.desdeArgumentos("--rate"));
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.desdeArgumentos("--desconocida=1"));
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.desdeArgumentos("--rate=0"));
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.desdeArgumentos("--mix=checkout:10"));
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracionCarga.desdeArgumentos("--mix=browse:0"));
+    }
+}
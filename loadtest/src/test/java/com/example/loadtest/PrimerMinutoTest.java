@@ -0,0 +1,52 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimerMinutoTest {
+
+    @Test
+    void cadaEjecucionMideElPrimerMinutoConOSinCalentamiento() {
+        List<String> sin = PrimerMinuto.comando(false, "--rate=300", "--duration=2m");
+        List<String> con = PrimerMinuto.comando(true, "--rate=300");
+
+        assertEquals(LoadTest.class.getName(), sin.get(3));
+        // Las opciones del usuario van detrás de las por defecto y prevalecen
+        assertTrue(sin.indexOf("--duration=2m") > sin.indexOf("--duration=60s"), sin.toString());
+        assertTrue(sin.containsAll(List.of("--warmup=0s", "--rate=300", "--service-warm-up=false", "--results=primer-minuto-sin.json")), sin.toString());
+        assertTrue(con.containsAll(List.of("--service-warm-up=true", "--results=primer-minuto-con.json")), con.toString());
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdeArgumentos(sin.subList(4, sin.size()).toArray(String[]::new));
+        assertFalse(configuracion.isCalentarServicios());
+        assertEquals(120, configuracion.getDuracion().toSeconds());
+        assertEquals(0, configuracion.getCalentamiento().toSeconds());
+    }
+
+    @Test
+    void comparaLosPercentilesDeAmbasEjecuciones() {
+        Informe sin = informe(Map.of("browse", resultado(40, 0), "purchase", resultado(80, 2)));
+        Informe con = informe(Map.of("browse", resultado(10, 0)));
+
+        List<String> lineas = PrimerMinuto.comparacion(sin, con);
+
+        assertEquals(11, lineas.size(), String.join("\n", lineas));
+        String p99Browse = lineas.get(lineas.indexOf(lineas.stream().filter(l -> l.startsWith("browse")).findFirst().orElseThrow()) + 1);
+        assertTrue(p99Browse.contains("p99 ms"), p99Browse);
+        assertTrue(p99Browse.contains("40.00") && p99Browse.contains("10.00") && p99Browse.endsWith("-75.0%"), p99Browse);
+        // Un endpoint que solo está en una ejecución se muestra sin cambio
+        assertTrue(lineas.stream().filter(l -> l.contains("errores %")).anyMatch(l -> l.contains("2.00") && l.endsWith("-")), lineas.toString());
+    }
+
+    private static Informe informe(Map<String, Informe.Resultado> endpoints) {
+        return new Informe("open", 200, 0, 60, new LinkedHashMap<>(endpoints));
+    }
+
+    private static Informe.Resultado resultado(double p99, long errores) {
+        Informe.Percentiles latencia = new Informe.Percentiles(p99 / 4, p99 / 2, p99, p99 * 2, p99 * 3);
+        return new Informe.Resultado(100, errores, 10, latencia, latencia, Map.of());
+    }
+}
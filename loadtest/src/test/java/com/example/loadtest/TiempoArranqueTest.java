@@ -0,0 +1,46 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TiempoArranqueTest {
+
+    @Test
+    void leeLasOpcionesYPasaAlServicioLoQueSigueAlSeparador() {
+        TiempoArranque tiempo = TiempoArranque.desdeArgumentos("--jar=servicio-exec.jar", "--url=http://localhost:8081/api/productos",
+                "--runs=3", "--modes=jar,fast", "--", "--spring.datasource.url=jdbc:postgresql://db/productos", "--server.port=8081");
+
+        assertEquals(3, tiempo.getArranques());
+        assertEquals(List.of("jar", "fast"), tiempo.getModos());
+        assertEquals(List.of("--spring.datasource.url=jdbc:postgresql://db/productos", "--server.port=8081"), tiempo.getArgumentosServicio());
+    }
+
+    @Test
+    void construyeElComandoDeCadaModo() {
+        TiempoArranque tiempo = TiempoArranque.desdeArgumentos("--jar=servicio-exec.jar", "--url=http://localhost:8081/", "--", "--server.port=8081");
+        Path extraido = Path.of("arranque", "extraido");
+
+        List<String> jar = tiempo.comando("jar", extraido);
+        List<String> cds = tiempo.comando("cds", extraido);
+        List<String> fast = tiempo.comando("fast", extraido);
+
+        assertTrue(jar.get(jar.size() - 2).endsWith("servicio-exec.jar"), jar.toString());
+        assertFalse(jar.stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")), jar.toString());
+        assertTrue(cds.contains("-XX:SharedArchiveFile=" + extraido.resolve("app.jsa")), cds.toString());
+        assertTrue(cds.contains(extraido.resolve("app.jar").toString()), cds.toString());
+        assertFalse(cds.contains("-Dspring.aot.enabled=true"), cds.toString());
+        assertTrue(fast.containsAll(List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup")), fast.toString());
+        assertEquals("--server.port=8081", fast.get(fast.size() - 1));
+    }
+
+    @Test
+    void rechazaOpcionesNoValidas() {
+        assertThrows(IllegalArgumentException.class, () -> TiempoArranque.desdeArgumentos("--url=http://localhost:8081/"));
+        assertThrows(IllegalArgumentException.class, () -> TiempoArranque.desdeArgumentos("--jar=a.jar", "--url=http://x/", "--modes=native"));
+        assertThrows(IllegalArgumentException.class, () -> TiempoArranque.desdeArgumentos("--jar=a.jar", "--url=http://x/", "--runs=0"));
+    }
+}
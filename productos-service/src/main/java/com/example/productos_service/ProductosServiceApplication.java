@@ -3,7 +3,8 @@ package com.example.productos_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// Los filtros y configuraciones compartidos (módulo common) viven fuera del paquete del servicio
+@SpringBootApplication(scanBasePackages = {"com.example.productos_service", "com.example.common"})
 public class ProductosServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,259 @@
+package com.example.productos_service.cache;
+
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de las respuestas ya serializadas de GET /api/productos/{id} (documento JSON:API completo).
+ * Un acierto se sirve sin consultar el repositorio ni pasar por Jackson.
+ * <p>
+ * Cada ID tiene una versión (en realidad una franja de versiones compartida por varios IDs) que se incrementa
+ * al invalidar; una carga que empezó antes de la invalidación no puede dejar en la caché un producto obsoleto.
+ * El tamaño está acotado en bytes y se expulsan primero las entradas menos usadas (LRU aproximado).
+ * <p>
+ * Un acierto no toma ningún lock: lee del ConcurrentHashMap y anota en la entrada el instante lógico del último
+ * acceso. Las altas, las invalidaciones y la expulsión se serializan entre ellas; al pasar del límite se
+ * expulsan de una vez las entradas con el acceso más antiguo hasta quedar un 10 % por debajo, de modo que
+ * ordenar la caché no ocurre en cada fallo.
+ */
+@Component
+public class ProductoResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductoResponseCache.class);
+
+    // Coste aproximado de una entrada aparte de los bytes serializados (nodo del mapa, Producto, arrays)
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int VERSION_STRIPES = 1024; // Potencia de 2
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final boolean gzip;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>(256);
+    private final AtomicLong reloj = new AtomicLong(); // Instante lógico de los accesos
+    private final Object escrituras = new Object();
+    private long currentBytes; // Protegido por escrituras
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductoResponseCache(ObjectMapper objectMapper,
+                                 @Value("${productos.response-cache.enabled:true}") boolean enabled,
+                                 @Value("${productos.response-cache.max-bytes:16777216}") long maxBytes,
+                                 @Value("${productos.response-cache.gzip:true}") boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Devuelve la respuesta cacheada del producto o la construye con el loader y la guarda.
+     * @param id El ID del producto.
+     * @param loader Lectura del producto (normalmente del repositorio) si no está en la caché.
+     * @return Optional con la entrada, o vacío si el producto no existe.
+     */
+    public Optional<Entry> getOrLoad(Long id, Function<Long, Optional<Producto>> loader) {
+        if (!enabled) {
+            return loader.apply(id).map(producto -> new Entry(producto, null, null)); // Se serializa en streaming
+        }
+        Entry cached = entries.get(id);
+        if (cached != null) {
+            hits.increment();
+            tocar(cached);
+            return Optional.of(cached);
+        }
+        misses.increment();
+
+        // La versión se lee antes de cargar: si alguien invalida mientras tanto, el resultado no se guarda
+        long version = versions.get(stripe(id));
+        Optional<Entry> loaded = loader.apply(id).map(this::serialize);
+        loaded.ifPresent(entry -> put(id, version, entry));
+        return loaded;
+    }
+
+    /**
+     * Invalida la respuesta cacheada de un producto. Debe llamarse después de confirmar el cambio en la base de datos.
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        versions.incrementAndGet(stripe(id));
+        synchronized (escrituras) {
+            Entry removed = entries.remove(id);
+            if (removed != null) {
+                currentBytes -= removed.weight();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCurrentBytes() {
+        synchronized (escrituras) {
+            return currentBytes;
+        }
+    }
+
+    private void put(Long id, long version, Entry entry) {
+        int weight = entry.weight();
+        if (weight > maxBytes) {
+            return;
+        }
+        synchronized (escrituras) {
+            if (versions.get(stripe(id)) != version) {
+                return; // Se invalidó durante la carga
+            }
+            entry.acceso = reloj.incrementAndGet();
+            Entry previous = entries.put(id, entry);
+            currentBytes += weight - (previous != null ? previous.weight() : 0);
+            if (currentBytes > maxBytes) {
+                expulsar(maxBytes - maxBytes / 10);
+            }
+        }
+    }
+
+    // Solo escribe si otra entrada se ha usado después: el producto más pedido no reescribe su entrada en cada acierto
+    private void tocar(Entry entry) {
+        if (entry.acceso != reloj.get()) {
+            entry.acceso = reloj.incrementAndGet();
+        }
+    }
+
+    // Con el lock de escrituras: quita las de acceso más antiguo hasta bajar de objetivo bytes
+    private void expulsar(long objetivo) {
+        List<Map.Entry<Long, Long>> porAcceso = new ArrayList<>(entries.size());
+        entries.forEach((id, entry) -> porAcceso.add(Map.entry(id, entry.acceso))); // Copia: los aciertos siguen cambiándolo
+        porAcceso.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Long> candidata : porAcceso) {
+            if (currentBytes <= objetivo) {
+                return;
+            }
+            Entry removed = entries.remove(candidata.getKey());
+            if (removed != null) {
+                currentBytes -= removed.weight();
+            }
+        }
+    }
+
+    private Entry serialize(Producto producto) {
+        // Copia desacoplada de la sesión JPA: la entrada puede vivir más que la petición que la cargó
+        Producto copia = new Producto(producto.getNombre(), producto.getDescripcion(), producto.getPrecio());
+        copia.setId(producto.getId());
+        try {
+            ByteArrayOutputStream json = new ByteArrayOutputStream(256);
+            try (JsonGenerator generator = objectMapper.createGenerator(json, JsonEncoding.UTF8)) {
+                JsonApiDocument.of(ProductoJsonApi.INSTANCE, copia).writeTo(generator);
+            }
+            byte[] jsonBytes = json.toByteArray();
+            return new Entry(copia, jsonBytes, gzip ? gzip(jsonBytes) : null);
+        } catch (IOException e) {
+            logger.warn("No se pudo serializar el producto {} para la caché: {}", producto.getId(), e.getMessage());
+            return new Entry(copia, null, null);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        }
+        byte[] gzipped = out.toByteArray();
+        return gzipped.length < bytes.length ? gzipped : null; // En documentos muy pequeños gzip no compensa
+    }
+
+    private static int stripe(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Indica si la cabecera Accept-Encoding admite gzip (ignora los valores con q=0).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && param.substring(2).trim().matches("0(\\.0{0,3})?")) {
+                    rejected = true;
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Respuesta cacheada: el producto y su documento JSON:API en JSON y, si compensa, en gzip.
+     */
+    public static final class Entry {
+
+        private final Producto producto;
+        private final byte[] json;
+        private final byte[] gzip;
+        private volatile long acceso; // Instante lógico del último uso, para la expulsión
+
+        Entry(Producto producto, byte[] json, byte[] gzip) {
+            this.producto = producto;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public Producto getProducto() {
+            return producto;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        int weight() {
+            return ENTRY_OVERHEAD + (json != null ? json.length : 0) + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.productos_service.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> long con direccionamiento abierto (sondeo lineal) sobre dos arrays primitivos.
+ * Evita un objeto Long y un nodo por entrada, lo que con millones de productos supone cientos de MB de heap.
+ * No es thread-safe: OffHeapCatalog lo protege con su lock.
+ */
+final class LongLongHashMap {
+
+    static final long MISSING = -1L;
+
+    private static final long EMPTY_KEY = 0L; // La clave 0 se guarda aparte
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    long get(long key) {
+        if (key == EMPTY_KEY) {
+            return hasZeroKey ? zeroValue : MISSING;
+        }
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == EMPTY_KEY) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return El valor anterior, o MISSING si la clave no existía.
+     */
+    long put(long key, long value) {
+        if (key == EMPTY_KEY) {
+            long previous = hasZeroKey ? zeroValue : MISSING;
+            if (!hasZeroKey) {
+                size++;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (k == EMPTY_KEY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    resize(keys.length << 1);
+                }
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return El valor eliminado, o MISSING si la clave no existía.
+     */
+    long remove(long key) {
+        if (key == EMPTY_KEY) {
+            if (!hasZeroKey) {
+                return MISSING;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY_KEY) {
+                return MISSING;
+            }
+            if (k == key) {
+                long previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recorre todas las entradas; el visitor puede sustituir el valor devolviendo uno nuevo.
+     */
+    void replaceAll(EntryVisitor visitor) {
+        if (hasZeroKey) {
+            zeroValue = visitor.visit(EMPTY_KEY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                values[i] = visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Bytes de heap que ocupan los arrays del índice
+    long heapBytes() {
+        return 2L * keys.length * Long.BYTES;
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        long visit(long key, long value);
+    }
+
+    // Borrado sin lápidas: se desplazan hacia atrás las claves que dependían del hueco
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY_KEY) {
+            int ideal = slot(keys[next]);
+            boolean movable = gap <= next ? (ideal <= gap || ideal > next) : (ideal <= gap && ideal > next);
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY_KEY;
+        values[gap] = 0L;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.productos_service.catalog;
+
+import com.example.productos_service.model.Producto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Catálogo de productos fuera del heap para catálogos muy grandes (millones de productos).
+ * <p>
+ * Cada producto se guarda como un registro compacto en buffers directos (segmentos), indexado por ID con un
+ * mapa de longs primitivos; en el heap solo quedan los arrays del índice, así que el GC no tiene que recorrer
+ * millones de Producto/String/BigDecimal. Registro:
+ * <pre>
+ * id (long) | precio sin escala (long) | escala (byte) | flags de nulos (byte) | nombre (int + UTF-8) | descripcion (int + UTF-8)
+ * </pre>
+ * Los segmentos son de solo anexado: una actualización escribe un registro nuevo y el antiguo queda como
+ * espacio muerto, que se recupera compactando cuando supera al espacio vivo.
+ * Se activa con productos.off-heap-catalog.enabled=true; OffHeapCatalogLoader hace la carga inicial
+ * y ProductoCatalogListener lo mantiene al día con los cambios confirmados en ProductoRepository.
+ */
+@Component
+@ConditionalOnProperty(prefix = "productos.off-heap-catalog", name = "enabled", havingValue = "true")
+public class OffHeapCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCatalog.class);
+
+    private static final int HEADER_BYTES = Long.BYTES + Long.BYTES + 1 + 1 + Integer.BYTES + Integer.BYTES;
+    private static final byte PRECIO_NULL = 1;
+    private static final byte NOMBRE_NULL = 1 << 1;
+    private static final byte DESCRIPCION_NULL = 1 << 2;
+
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongLongHashMap index;
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private ByteBuffer current; // Segmento en el que se anexa
+    private long liveBytes;
+    private long deadBytes;
+
+    // Mientras dura la carga inicial: IDs modificados o eliminados por la aplicación, que la carga no debe pisar
+    private volatile boolean loading;
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    public OffHeapCatalog(@Value("${productos.off-heap-catalog.segment-bytes:67108864}") int segmentBytes,
+                          @Value("${productos.off-heap-catalog.max-bytes:1073741824}") long maxBytes,
+                          @Value("${productos.off-heap-catalog.expected-size:100000}") int expectedSize) {
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.index = new LongLongHashMap(expectedSize);
+    }
+
+    /**
+     * Lee un producto del catálogo. Devuelve un Producto nuevo (no gestionado por JPA) en cada llamada.
+     * @return Optional con el producto, o vacío si no está en el catálogo (el llamante debe ir a la base de datos).
+     */
+    public Optional<Producto> get(Long id) {
+        // Lectura optimista sin bloqueo; si hubo una escritura concurrente se repite con el lock de lectura
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                Producto producto = read(id);
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(producto);
+                }
+            } catch (RuntimeException e) {
+                // Estado intermedio de una escritura concurrente: se reintenta con el lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(read(id));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Inserta o actualiza un producto (cambio confirmado en la base de datos).
+     */
+    public void put(Producto producto) {
+        if (loading) {
+            changedWhileLoading.add(producto.getId());
+        }
+        store(producto, false);
+    }
+
+    /**
+     * Elimina un producto del catálogo (borrado confirmado en la base de datos).
+     */
+    public void remove(Long id) {
+        if (loading) {
+            changedWhileLoading.add(id);
+        }
+        long stamp = lock.writeLock();
+        try {
+            long address = index.remove(id);
+            if (address != LongLongHashMap.MISSING) {
+                int length = recordLength(address);
+                liveBytes -= length;
+                deadBytes += length;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Bytes reservados fuera del heap
+    public long getOffHeapBytes() {
+        return (long) segments.length * segmentBytes;
+    }
+
+    // Bytes de heap del índice
+    public long getIndexHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return index.heapBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // --- Carga inicial (OffHeapCatalogLoader) ---
+
+    void startLoading() {
+        changedWhileLoading.clear();
+        loading = true;
+    }
+
+    // Inserta un producto leído por la carga inicial, salvo que la aplicación lo haya cambiado mientras tanto
+    void load(Producto producto) {
+        if (!changedWhileLoading.contains(producto.getId())) {
+            store(producto, true);
+        }
+    }
+
+    void finishLoading() {
+        loading = false;
+        changedWhileLoading.clear();
+    }
+
+    // --- Implementación ---
+
+    private void store(Producto producto, boolean onlyIfAbsent) {
+        Long id = producto.getId();
+        if (id == null) {
+            return;
+        }
+        BigDecimal precio = producto.getPrecio();
+        if (precio != null && (precio.unscaledValue().bitLength() > 63 || precio.scale() != (byte) precio.scale())) {
+            remove(id); // No cabe en el formato compacto: se servirá desde la base de datos
+            return;
+        }
+        byte[] nombre = producto.getNombre() != null ? producto.getNombre().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] descripcion = producto.getDescripcion() != null ? producto.getDescripcion().getBytes(StandardCharsets.UTF_8) : null;
+        int length = HEADER_BYTES + (nombre != null ? nombre.length : 0) + (descripcion != null ? descripcion.length : 0);
+        if (length > segmentBytes) {
+            remove(id);
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long previous = index.get(id);
+            if (onlyIfAbsent && previous != LongLongHashMap.MISSING) {
+                return;
+            }
+            // Se calcula antes de una posible compactación, que cambia las direcciones
+            int previousLength = previous != LongLongHashMap.MISSING ? recordLength(previous) : 0;
+            if (!ensureCapacity(length)) {
+                // Sin espacio: el producto se elimina del catálogo para no servir una versión antigua
+                if (previous != LongLongHashMap.MISSING) {
+                    index.remove(id);
+                    liveBytes -= previousLength;
+                    deadBytes += previousLength;
+                }
+                logger.warn("Catálogo off-heap lleno ({} bytes); el producto {} se servirá desde la base de datos", maxBytes, id);
+                return;
+            }
+            long address = append(id, precio, nombre, descripcion);
+            index.put(id, address);
+            liveBytes += length - previousLength;
+            deadBytes += previousLength;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Debe llamarse con el lock de escritura
+    private boolean ensureCapacity(int length) {
+        if (current != null && current.remaining() >= length) {
+            return true;
+        }
+        if (deadBytes > liveBytes && deadBytes >= segmentBytes) {
+            compact();
+            if (current != null && current.remaining() >= length) {
+                return true;
+            }
+        }
+        if ((long) (segments.length + 1) * segmentBytes > maxBytes) {
+            return false;
+        }
+        addSegment();
+        return true;
+    }
+
+    private void addSegment() {
+        ByteBuffer[] grown = new ByteBuffer[segments.length + 1];
+        System.arraycopy(segments, 0, grown, 0, segments.length);
+        current = ByteBuffer.allocateDirect(segmentBytes);
+        grown[segments.length] = current;
+        segments = grown;
+    }
+
+    // Copia los registros vivos a segmentos nuevos; los antiguos los libera el GC (Cleaner de los buffers directos)
+    private void compact() {
+        ByteBuffer[] old = segments;
+        long before = (long) old.length * segmentBytes;
+        segments = new ByteBuffer[0];
+        current = null;
+        List<ByteBuffer> sources = new ArrayList<>(List.of(old));
+        index.replaceAll((id, address) -> {
+            ByteBuffer source = sources.get(segment(address));
+            int offset = offset(address);
+            int length = recordLength(source, offset);
+            if (current == null || current.remaining() < length) {
+                addSegment();
+            }
+            int target = current.position();
+            current.put(current.position(), source, offset, length);
+            current.position(target + length);
+            return address(segments.length - 1, target);
+        });
+        deadBytes = 0;
+        logger.info("Catálogo off-heap compactado: {} -> {} bytes reservados", before, (long) segments.length * segmentBytes);
+    }
+
+    private long append(long id, BigDecimal precio, byte[] nombre, byte[] descripcion) {
+        int offset = current.position();
+        byte flags = 0;
+        current.putLong(id);
+        if (precio != null) {
+            current.putLong(precio.unscaledValue().longValue());
+            current.put((byte) precio.scale());
+        } else {
+            current.putLong(0L);
+            current.put((byte) 0);
+            flags |= PRECIO_NULL;
+        }
+        if (nombre == null) {
+            flags |= NOMBRE_NULL;
+        }
+        if (descripcion == null) {
+            flags |= DESCRIPCION_NULL;
+        }
+        current.put(flags);
+        putBytes(nombre);
+        putBytes(descripcion);
+        return address(segments.length - 1, offset);
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes == null) {
+            current.putInt(0);
+        } else {
+            current.putInt(bytes.length);
+            current.put(bytes);
+        }
+    }
+
+    private Producto read(Long id) {
+        long address = index.get(id);
+        if (address == LongLongHashMap.MISSING) {
+            return null;
+        }
+        ByteBuffer segment = segments[segment(address)];
+        int pos = offset(address);
+
+        Producto producto = new Producto();
+        producto.setId(segment.getLong(pos));
+        long unscaled = segment.getLong(pos + 8);
+        byte scale = segment.get(pos + 16);
+        byte flags = segment.get(pos + 17);
+        pos += 18;
+        if ((flags & PRECIO_NULL) == 0) {
+            producto.setPrecio(BigDecimal.valueOf(unscaled, scale));
+        }
+        int nombreLength = checkedLength(segment, pos);
+        if ((flags & NOMBRE_NULL) == 0) {
+            producto.setNombre(readString(segment, pos + Integer.BYTES, nombreLength));
+        }
+        pos += Integer.BYTES + nombreLength;
+        int descripcionLength = checkedLength(segment, pos);
+        if ((flags & DESCRIPCION_NULL) == 0) {
+            producto.setDescripcion(readString(segment, pos + Integer.BYTES, descripcionLength));
+        }
+        return producto;
+    }
+
+    // En una lectura optimista la longitud puede ser basura: se valida antes de reservar memoria
+    private static int checkedLength(ByteBuffer segment, int pos) {
+        int length = segment.getInt(pos);
+        if (length < 0 || length > segment.capacity() - pos - Integer.BYTES) {
+            throw new IllegalStateException("Registro inconsistente en el catálogo off-heap");
+        }
+        return length;
+    }
+
+    private static String readString(ByteBuffer segment, int pos, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int recordLength(long address) {
+        return recordLength(segments[segment(address)], offset(address));
+    }
+
+    private static int recordLength(ByteBuffer segment, int offset) {
+        int pos = offset + 18;
+        int nombreLength = segment.getInt(pos);
+        pos += Integer.BYTES + nombreLength;
+        int descripcionLength = segment.getInt(pos);
+        return HEADER_BYTES + nombreLength + descripcionLength;
+    }
+
+    private static long address(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segment(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.productos_service.catalog;
+
+import com.example.common.replica.ReplicaRoutingDataSource;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga inicial del catálogo off-heap al arrancar, en un hilo aparte para no retrasar el arranque.
+ * Recorre la tabla por rangos de ID (keyset) en lugar de con OFFSET, que con millones de filas es cuadrático.
+ * Mientras tanto las lecturas que no encuentran el producto en el catálogo van a la base de datos.
+ * Con réplica se carga del primario: lo que la réplica aún no tuviera se quedaría en el catálogo desactualizado.
+ */
+@Component
+@ConditionalOnProperty(prefix = "productos.off-heap-catalog", name = "enabled", havingValue = "true")
+public class OffHeapCatalogLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCatalogLoader.class);
+
+    private final OffHeapCatalog catalog;
+    private final ProductoRepository productoRepository;
+    private final int batchSize;
+
+    public OffHeapCatalogLoader(OffHeapCatalog catalog, ProductoRepository productoRepository,
+                                @Value("${productos.off-heap-catalog.load-batch-size:5000}") int batchSize) {
+        this.catalog = catalog;
+        this.productoRepository = productoRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(() -> ReplicaRoutingDataSource.enPrimario(this::load), "off-heap-catalog-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        catalog.startLoading();
+        try {
+            long lastId = Long.MIN_VALUE;
+            Slice<Producto> batch;
+            do {
+                batch = productoRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.ofSize(batchSize));
+                for (Producto producto : batch) {
+                    catalog.load(producto);
+                    lastId = producto.getId();
+                }
+            } while (batch.hasNext());
+            logger.info("Catálogo off-heap cargado: {} productos, {} bytes fuera del heap, {} ms",
+                    catalog.size(), catalog.getOffHeapBytes(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Error en la carga inicial del catálogo off-heap: {}", e.getMessage(), e);
+        } finally {
+            catalog.finishLoading();
+        }
+    }
+}
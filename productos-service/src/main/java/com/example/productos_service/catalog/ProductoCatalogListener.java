@@ -0,0 +1,61 @@
+package com.example.productos_service.catalog;
+
+import com.example.productos_service.model.Producto;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de Producto que propaga al catálogo off-heap (si está activado) cada alta, modificación o
+ * borrado hecho a través de ProductoRepository. El cambio se aplica tras el commit para no publicar datos
+ * de una transacción que luego se deshace.
+ */
+@Component
+public class ProductoCatalogListener {
+
+    private final ObjectProvider<OffHeapCatalog> offHeapCatalog;
+
+    public ProductoCatalogListener(ObjectProvider<OffHeapCatalog> offHeapCatalog) {
+        this.offHeapCatalog = offHeapCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Producto producto) {
+        OffHeapCatalog catalog = offHeapCatalog.getIfAvailable();
+        if (catalog == null) {
+            return;
+        }
+        // Copia del estado actual: la entidad puede seguir modificándose antes del commit
+        Producto copia = new Producto(producto.getNombre(), producto.getDescripcion(), producto.getPrecio());
+        copia.setId(producto.getId());
+        afterCommit(() -> catalog.put(copia));
+    }
+
+    @PostRemove
+    public void onRemove(Producto producto) {
+        OffHeapCatalog catalog = offHeapCatalog.getIfAvailable();
+        if (catalog == null) {
+            return;
+        }
+        Long id = producto.getId();
+        afterCommit(() -> catalog.remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.productos_service.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente HTTP hacia inventario-service (prefijo inventario-service en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "inventario-service")
+public class InventarioClientProperties {
+
+    // URL base del API de inventario
+    private String url;
+
+    // Tiempo máximo para establecer la conexión TCP
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Tiempo máximo entre el envío de la petición y la respuesta (valor por defecto de todas las operaciones)
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    // HTTP/2 sin TLS (h2c) con upgrade desde HTTP/1.1; inventario-service debe tener server.http2.enabled=true
+    private boolean h2c = false;
+
+    private Pool pool = new Pool();
+
+    private Timeouts timeouts = new Timeouts();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkheads bulkheads = new Bulkheads();
+
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Pool {
+        // Conexiones simultáneas máximas hacia inventario-service
+        private int maxConnections = 50;
+        // Peticiones que pueden esperar una conexión libre; el resto falla en el acto
+        private int pendingAcquireMaxCount = 100;
+        // Tiempo máximo esperando una conexión libre
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        // Una conexión inactiva más tiempo que este se cierra (debe ser menor que el keep-alive del servidor)
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        // Vida máxima de una conexión, para repartir carga tras escalar inventario-service
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        // Frecuencia con la que se cierran en segundo plano las conexiones caducadas
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    // Timeouts por operación (sustituyen a responseTimeout si se indican)
+    @Data
+    public static class Timeouts {
+        private Duration obtenerInventario;
+        private Duration obtenerTodos;
+        private Duration crearInventario;
+        private Duration reducirStock;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        // Número de llamadas recientes sobre las que se calcula la tasa de fallos
+        private int slidingWindowSize = 20;
+        // Llamadas mínimas antes de poder abrir el circuito
+        private int minimumNumberOfCalls = 10;
+        // Porcentaje de fallos (errores de red, timeouts, 5xx) que abre el circuito
+        private float failureRateThreshold = 50;
+        // Porcentaje de llamadas lentas que abre el circuito
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        // Tiempo en abierto antes de pasar a half-open y sondear
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        // Llamadas de prueba en half-open
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    // Llamadas concurrentes máximas por operación
+    @Data
+    public static class Bulkheads {
+        private int obtenerInventario = 40;
+        private int obtenerTodos = 5;
+        private int crearInventario = 10;
+        private int reducirStock = 20;
+    }
+
+    // Peticiones de respaldo (hedging) para lecturas idempotentes de stock
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // Percentil de la latencia reciente a partir del cual se envía la segunda petición
+        private double percentile = 95;
+        // Límites del retardo calculado
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        // Latencias recientes que se conservan para calcular el percentil
+        private int windowSize = 1024;
+        // Muestras necesarias antes de empezar a enviar peticiones de respaldo
+        private int minSamples = 100;
+        // Peticiones de respaldo máximas, en % de las peticiones normales
+        private double budgetPercent = 10;
+        // Ráfaga máxima de peticiones de respaldo acumuladas por el presupuesto
+        private int maxBurst = 10;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.productos_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Peticiones de respaldo (hedging) para lecturas idempotentes a inventario-service.
+ * <p>
+ * Si la petición no ha respondido cuando se alcanza el percentil configurado de la latencia reciente,
+ * se envía una segunda y se usa la primera que termine; la otra se cancela. Un presupuesto tipo token
+ * bucket limita las peticiones de respaldo a budget-percent % de las normales. Métricas:
+ * inventario.hedge.sent, inventario.hedge.won, inventario.hedge.rejected e inventario.hedge.delay.
+ */
+@Component
+public class InventarioHedging {
+
+    // Un token equivale a una petición de respaldo; se cuenta en milésimas para admitir porcentajes
+    private static final long TOKEN = 1_000;
+
+    private static final int PENDIENTE = 0;
+    private static final int ENVIADO = 1;
+    private static final int FALLIDO = 2;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final long depositoPorPeticion;
+    private final long maxTokens;
+
+    // Ventana circular con las últimas latencias correctas (en nanosegundos)
+    private final AtomicLongArray latencias;
+    private final AtomicLong muestras = new AtomicLong();
+    private final int recalcularCada;
+    // Retardo actual en nanosegundos; -1 mientras no haya muestras suficientes
+    private volatile long retardoNanos = -1;
+
+    private final AtomicLong tokens;
+
+    private final Counter enviadas;
+    private final Counter ganadas;
+    private final Counter rechazadas;
+
+    public InventarioHedging(InventarioClientProperties properties, MeterRegistry meterRegistry) {
+        InventarioClientProperties.Hedging hedging = properties.getHedging();
+        this.enabled = hedging.isEnabled();
+        this.percentile = hedging.getPercentile();
+        this.minDelayNanos = hedging.getMinDelay().toNanos();
+        this.maxDelayNanos = hedging.getMaxDelay().toNanos();
+        this.minSamples = Math.min(hedging.getMinSamples(), hedging.getWindowSize());
+        this.depositoPorPeticion = Math.round(hedging.getBudgetPercent() * TOKEN / 100);
+        this.maxTokens = hedging.getMaxBurst() * TOKEN;
+        this.latencias = new AtomicLongArray(hedging.getWindowSize());
+        this.recalcularCada = Math.max(1, hedging.getWindowSize() / 16);
+        this.tokens = new AtomicLong(maxTokens);
+
+        this.enviadas = meterRegistry.counter("inventario.hedge.sent");
+        this.ganadas = meterRegistry.counter("inventario.hedge.won");
+        this.rechazadas = meterRegistry.counter("inventario.hedge.rejected");
+        Gauge.builder("inventario.hedge.delay", this, h -> Math.max(h.retardoNanos, 0) / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Aplica hedging a una llamada. La llamada debe ser fría e idempotente: se suscribe una segunda vez
+     * para enviar la petición de respaldo. Gana la primera respuesta (con valor o vacía); un error solo se
+     * propaga si no queda otra petición en curso.
+     */
+    public <T> Mono<T> hedge(Mono<T> llamada) {
+        if (!enabled) {
+            return llamada;
+        }
+        return Mono.defer(() -> {
+            depositar();
+            long retardo = retardoNanos;
+            if (retardo < 0) {
+                return medir(llamada);
+            }
+            // PENDIENTE -> ENVIADO (salió el respaldo) o PENDIENTE -> FALLIDO (la principal falló antes)
+            AtomicInteger estado = new AtomicInteger(PENDIENTE);
+            AtomicReference<Throwable> errorPrincipal = new AtomicReference<>();
+
+            Mono<Optional<T>> principal = medir(llamada)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorResume(e -> {
+                        if (estado.compareAndSet(PENDIENTE, FALLIDO)) {
+                            return Mono.error(e);
+                        }
+                        // Con el respaldo en curso se espera a su respuesta
+                        errorPrincipal.set(e);
+                        return Mono.empty();
+                    });
+            Mono<Optional<T>> respaldo = Mono.delay(Duration.ofNanos(retardo))
+                    .flatMap(t -> {
+                        // Primero el estado: si la principal ya falló no se gasta un token
+                        if (!estado.compareAndSet(PENDIENTE, ENVIADO)) {
+                            return Mono.empty();
+                        }
+                        if (!consumirToken()) {
+                            estado.compareAndSet(ENVIADO, PENDIENTE);
+                            rechazadas.increment();
+                            return Mono.empty();
+                        }
+                        enviadas.increment();
+                        return medir(llamada)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .doOnNext(v -> ganadas.increment())
+                                // Si falla el respaldo decide la principal
+                                .onErrorResume(e -> Mono.empty());
+                    });
+
+            // Gana la primera respuesta y la otra petición se cancela. Cancelar desde fuera (timeout, deadline,
+            // el llamante) cancela las dos: no siguen ocupando conexiones fuera del bulkhead, que ya soltó su
+            // permiso. En h2c se cancela solo el stream; en HTTP/1.1 Reactor Netty cierra la conexión y no la
+            // devuelve al pool
+            return Flux.merge(principal, respaldo)
+                    .next()
+                    .switchIfEmpty(Mono.defer(() -> Mono.error(errorPrincipal.get())))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    /**
+     * Retardo actual antes de enviar la petición de respaldo, o null si aún no hay muestras suficientes.
+     */
+    public Duration getRetardoActual() {
+        long retardo = retardoNanos;
+        return retardo < 0 ? null : Duration.ofNanos(retardo);
+    }
+
+    private <T> Mono<T> medir(Mono<T> llamada) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return llamada.doOnSuccess(v -> registrar(System.nanoTime() - inicio));
+        });
+    }
+
+    private void registrar(long nanos) {
+        long n = muestras.getAndIncrement();
+        latencias.set((int) (n % latencias.length()), nanos);
+        if (n + 1 >= minSamples && (n + 1) % recalcularCada == 0) {
+            recalcularRetardo(Math.min(n + 1, latencias.length()));
+        }
+    }
+
+    // Se ordena una copia de la ventana cada window-size/16 muestras; entre medias se usa el último valor
+    private void recalcularRetardo(long disponibles) {
+        long[] copia = new long[(int) disponibles];
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = latencias.get(i);
+        }
+        Arrays.sort(copia);
+        int indice = (int) Math.min(copia.length - 1, Math.max(0, Math.ceil(percentile / 100 * copia.length) - 1));
+        retardoNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, copia[indice]));
+    }
+
+    private void depositar() {
+        long actual;
+        do {
+            actual = tokens.get();
+            if (actual >= maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(actual, Math.min(maxTokens, actual + depositoPorPeticion)));
+    }
+
+    private boolean consumirToken() {
+        long actual;
+        do {
+            actual = tokens.get();
+            if (actual < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(actual, actual - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.productos_service.client;
+
+import org.springframework.http.HttpStatusCode;
+
+// Respuesta de error (4xx/5xx) de inventario-service; solo los 5xx cuentan como fallo para el circuit breaker
+public class InventarioHttpException extends RuntimeException {
+
+    private final HttpStatusCode statusCode;
+
+    public InventarioHttpException(String message, HttpStatusCode statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public HttpStatusCode getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.productos_service.client;
+
+import com.example.common.exception.DeadlineExceededException;
+import com.example.productos_service.exception.InventarioNoDisponibleException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker y bulkheads de las llamadas a inventario-service.
+ * <p>
+ * Un único circuit breaker para el servicio (si inventario cae, cae para todas las operaciones) con sondeo
+ * en half-open, y un bulkhead de concurrencia por operación para que, por ejemplo, un listado lento no
+ * consuma la capacidad de las compras. Las llamadas rechazadas fallan en el acto con
+ * InventarioNoDisponibleException. Métricas: resilience4j.circuitbreaker.* y resilience4j.bulkhead.*,
+ * más inventario.circuitbreaker.transitions por cada cambio de estado.
+ */
+@Component
+public class InventarioResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioResilience.class);
+
+    public enum Operacion {
+        OBTENER_INVENTARIO, OBTENER_TODOS, CREAR_INVENTARIO, REDUCIR_STOCK
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead[] bulkheads = new Bulkhead[Operacion.values().length];
+
+    public InventarioResilience(InventarioClientProperties properties, MeterRegistry meterRegistry) {
+        InventarioClientProperties.CircuitBreaker cb = properties.getCircuitBreaker();
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowSize(cb.getSlidingWindowSize())
+                .minimumNumberOfCalls(cb.getMinimumNumberOfCalls())
+                .failureRateThreshold(cb.getFailureRateThreshold())
+                .slowCallRateThreshold(cb.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(cb.getSlowCallDuration())
+                .waitDurationInOpenState(cb.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(cb.getPermittedCallsInHalfOpenState())
+                // Un 4xx (p. ej. stock insuficiente) es una respuesta correcta de un servicio sano, y un deadline
+                // vencido depende del llamante, no de inventario
+                .recordException(e -> !(e instanceof DeadlineExceededException)
+                        && (!(e instanceof InventarioHttpException http) || http.getStatusCode().is5xxServerError()))
+                .build();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("inventario-service");
+        this.circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            logger.warn("Circuit breaker de inventario-service: {} -> {}", transition.getFromState(), transition.getToState());
+            meterRegistry.counter("inventario.circuitbreaker.transitions",
+                    "from", transition.getFromState().name(), "to", transition.getToState().name()).increment();
+        });
+
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        InventarioClientProperties.Bulkheads limits = properties.getBulkheads();
+        bulkheads[Operacion.OBTENER_INVENTARIO.ordinal()] = bulkhead(bulkheadRegistry, "inventario-obtener", limits.getObtenerInventario());
+        bulkheads[Operacion.OBTENER_TODOS.ordinal()] = bulkhead(bulkheadRegistry, "inventario-obtener-todos", limits.getObtenerTodos());
+        bulkheads[Operacion.CREAR_INVENTARIO.ordinal()] = bulkhead(bulkheadRegistry, "inventario-crear", limits.getCrearInventario());
+        bulkheads[Operacion.REDUCIR_STOCK.ordinal()] = bulkhead(bulkheadRegistry, "inventario-reducir-stock", limits.getReducirStock());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Aplica bulkhead y circuit breaker a una llamada. El bulkhead va por fuera para que sus rechazos
+     * no cuenten como fallos del circuito.
+     */
+    public <T> Mono<T> decorate(Operacion operacion, Mono<T> llamada) {
+        return llamada
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkheads[operacion.ordinal()]))
+                .onErrorMap(CallNotPermittedException.class,
+                        e -> new InventarioNoDisponibleException("Circuito abierto hacia inventario-service", e))
+                .onErrorMap(BulkheadFullException.class,
+                        e -> new InventarioNoDisponibleException("Demasiadas llamadas concurrentes a inventario-service (" + operacion + ")", e));
+    }
+
+    public CircuitBreaker.State getEstado() {
+        return circuitBreaker.getState();
+    }
+
+    private static Bulkhead bulkhead(BulkheadRegistry registry, String name, int maxConcurrentCalls) {
+        return registry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO) // Sin espera: en reactivo no se bloquean hilos
+                .build());
+    }
+}
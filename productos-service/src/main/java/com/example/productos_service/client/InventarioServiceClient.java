@@ -1,19 +1,71 @@
 package com.example.productos_service.client;
 
+import com.example.common.deadline.Deadline;
+import com.example.common.deadline.DeadlineExchangeFilter;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.jfr.MedicionJfr;
+import com.example.common.timing.TimingExchangeFilter;
+import com.example.productos_service.client.InventarioResilience.Operacion;
 import com.example.productos_service.client.model.InventarioResponse;
-import org.springframework.beans.factory.annotation.Value;
+import com.example.productos_service.jfr.InventarioServiceCallEvent;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import io.netty.channel.ChannelOption;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 @Component
 public class InventarioServiceClient {
 
+    // Los IDs de las URIs se agrupan en las métricas para no crear una serie por producto
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+");
+
     private final WebClient webClient;
+    private final InventarioClientProperties properties;
+    private final InventarioResilience resilience;
+    private final InventarioHedging hedging;
 
-    // Inyecta la URL base del servicio de inventario desde application.yml
-    public InventarioServiceClient(@Value("${inventario-service.url}") String inventarioServiceUrl) {
-        this.webClient = WebClient.builder().baseUrl(inventarioServiceUrl).build();
+    /**
+     * @param webClientBuilder Builder de Spring Boot (codecs y observabilidad ya configurados).
+     * @param properties Configuración de inventario-service (URL, pool, timeouts, h2c).
+     * @param inventarioConnectionProvider Pool de conexiones dedicado a inventario-service.
+     * @param resilience Circuit breaker y bulkheads por operación.
+     * @param hedging Peticiones de respaldo para las lecturas de stock por producto.
+     */
+    public InventarioServiceClient(WebClient.Builder webClientBuilder, InventarioClientProperties properties,
+                                   ConnectionProvider inventarioConnectionProvider, InventarioResilience resilience,
+                                   InventarioHedging hedging) {
+        this.properties = properties;
+        this.resilience = resilience;
+        this.hedging = hedging;
+        HttpClient httpClient = HttpClient.create(inventarioConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.getResponseTimeout())
+                .protocol(properties.isH2c() ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11} : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .metrics(true, uri -> ID_SEGMENT.matcher(uri).replaceAll("/{id}"));
+
+        // Llamada interna: se pide Smile y se deja JSON como alternativa por si inventario-service no lo soporta.
+        // Los codecs Smile de WebClient se registran solos al estar jackson-dataformat-smile en el classpath.
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(properties.getUrl())
+                .defaultHeader(HttpHeaders.ACCEPT, JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_JSON_VALUE)
+                // Reenvía el deadline de la petición en curso (X-Deadline-Ms)
+                .filter(new DeadlineExchangeFilter())
+                // Suma cada intento a la partida downstream de Server-Timing de la petición en curso
+                .filter(new TimingExchangeFilter())
+                .build();
     }
 
     /**
@@ -29,13 +81,16 @@ public class InventarioServiceClient {
         inventarioRequest.setCantidad(cantidadInicial);
 
         return webClient.post()
+                .contentType(JsonApiHttpMessageConverter.APPLICATION_SMILE)
                 .bodyValue(inventarioRequest)
                 .retrieve()
                 // Manejo de errores HTTP: si el estado es 4xx o 5xx, se propaga una excepción
                 .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
                         response -> response.bodyToMono(String.class) // Obtiene el cuerpo del error
-                                .flatMap(errorBody -> Mono.error(new RuntimeException("Error al crear inventario (" + response.statusCode() + "): " + errorBody))))
-                .bodyToMono(InventarioResponse.class);
+                                .flatMap(errorBody -> Mono.error(new InventarioHttpException("Error al crear inventario (" + response.statusCode() + "): " + errorBody, response.statusCode()))))
+                .bodyToMono(InventarioResponse.class)
+                .transform(mono -> withTimeout(mono, properties.getTimeouts().getCrearInventario()))
+                .transform(mono -> resilience.decorate(Operacion.CREAR_INVENTARIO, mono));
     }
 
     /**
@@ -54,8 +109,14 @@ public class InventarioServiceClient {
                 // Manejo de otros errores (4xx, 5xx)
                 .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
                         response -> response.bodyToMono(String.class)
-                                .flatMap(errorBody -> Mono.error(new RuntimeException("Error al obtener inventario (" + response.statusCode() + "): " + errorBody))))
-                .bodyToMono(InventarioResponse.class);
+                                .flatMap(errorBody -> Mono.error(new InventarioHttpException("Error al obtener inventario (" + response.statusCode() + "): " + errorBody, response.statusCode()))))
+                .bodyToMono(InventarioResponse.class)
+                // Lectura idempotente: si tarda más de lo habitual se envía una segunda petición
+                .transform(hedging::hedge)
+                .transform(mono -> withTimeout(mono, properties.getTimeouts().getObtenerInventario()))
+                .transform(mono -> resilience.decorate(Operacion.OBTENER_INVENTARIO, mono))
+                .as(mono -> MedicionJfr.medir(() -> new InventarioServiceCallEvent("GET /api/inventario/{productoId}", productoId, 0),
+                        evento -> mono));
     }
 
     /**
@@ -72,8 +133,12 @@ public class InventarioServiceClient {
                 // Manejo de errores HTTP
                 .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
                         response -> response.bodyToMono(String.class)
-                                .flatMap(errorBody -> Mono.error(new RuntimeException("Error al reducir stock (" + response.statusCode() + "): " + errorBody))))
-                .bodyToMono(InventarioResponse.class);
+                                .flatMap(errorBody -> Mono.error(new InventarioHttpException("Error al reducir stock (" + response.statusCode() + "): " + errorBody, response.statusCode()))))
+                .bodyToMono(InventarioResponse.class)
+                .transform(mono -> withTimeout(mono, properties.getTimeouts().getReducirStock()))
+                .transform(mono -> resilience.decorate(Operacion.REDUCIR_STOCK, mono))
+                .as(mono -> MedicionJfr.medir(() -> new InventarioServiceCallEvent("PUT /api/inventario/comprar", productoId, cantidadAReducir),
+                        evento -> mono));
     }
 
     /**
@@ -86,7 +151,28 @@ public class InventarioServiceClient {
                 .retrieve()
                 .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
                         response -> response.bodyToMono(String.class)
-                                .flatMap(errorBody -> Mono.error(new RuntimeException("Error al obtener todos los inventarios (" + response.statusCode() + "): " + errorBody))))
-                .bodyToMono(InventarioResponse[].class);
+                                .flatMap(errorBody -> Mono.error(new InventarioHttpException("Error al obtener todos los inventarios (" + response.statusCode() + "): " + errorBody, response.statusCode()))))
+                .bodyToMono(InventarioResponse[].class)
+                .transform(mono -> withTimeout(mono, properties.getTimeouts().getObtenerTodos()))
+                .transform(mono -> resilience.decorate(Operacion.OBTENER_TODOS, mono));
+    }
+
+    // Timeout total de la operación (esperar conexión + petición + respuesta), si está configurado, acotado
+    // por el deadline de la petición en curso. Sin ninguno de los dos, la operación queda acotada por
+    // pending-acquire-timeout, connect-timeout y response-timeout.
+    private static <T> Mono<T> withTimeout(Mono<T> mono, Duration operationTimeout) {
+        // Se captura en el hilo que crea la llamada; si se suscribe en otro, manda el contexto de Reactor
+        Deadline llamante = Deadline.actual();
+        return Mono.deferContextual(contexto -> {
+            Deadline deadline = Deadline.desdeContexto(contexto, llamante);
+            if (deadline == null) {
+                return operationTimeout != null ? mono.timeout(operationTimeout) : mono;
+            }
+            return mono
+                    .timeout(deadline.acotar(operationTimeout))
+                    .onErrorMap(TimeoutException.class, e -> deadline.vencido()
+                            ? new DeadlineExceededException("Deadline vencido esperando a inventario-service", e) : e)
+                    .contextWrite(c -> c.put(Deadline.class, deadline));
+        });
     }
 }
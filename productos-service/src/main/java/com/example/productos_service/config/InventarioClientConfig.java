@@ -0,0 +1,30 @@
+package com.example.productos_service.config;
+
+import com.example.productos_service.client.InventarioClientProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@EnableConfigurationProperties(InventarioClientProperties.class)
+public class InventarioClientConfig {
+
+    /**
+     * Pool de conexiones dedicado a inventario-service, con límites explícitos y métricas en Micrometer
+     * (reactor.netty.connection.provider.*: conexiones activas, inactivas, pendientes y tiempo de adquisición).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider inventarioConnectionProvider(InventarioClientProperties properties) {
+        InventarioClientProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("inventario-service")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+}
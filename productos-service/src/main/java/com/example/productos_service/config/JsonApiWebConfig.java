@@ -0,0 +1,29 @@
+package com.example.productos_service.config;
+
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class JsonApiWebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    // Mismo mapper que usa el MappingJackson2SmileHttpMessageConverter por defecto de Spring MVC
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+    public JsonApiWebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Se registra antes que el convertidor Jackson genérico para que sea el elegido para JsonApiDocument
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new JsonApiHttpMessageConverter(objectMapper, smileMapper));
+    }
+}
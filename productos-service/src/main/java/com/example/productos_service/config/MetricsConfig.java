@@ -0,0 +1,29 @@
+package com.example.productos_service.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Predicate;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Mide los métodos de las clases anotadas con @Timed (capa de servicio: productos.service{class, method}).
+     * Los que devuelven Mono/Flux se omiten: el aspecto solo vería el montaje del flujo, no su ejecución.
+     * Controladores (http.server.requests), repositorios (spring.data.repository.invocations) y llamadas
+     * con WebClient (http.client.requests) los mide ya Spring Boot; los histogramas se activan en
+     * management.metrics.distribution y se publican en /actuator/prometheus.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        Predicate<ProceedingJoinPoint> reactivo = joinPoint -> joinPoint.getSignature() instanceof MethodSignature metodo
+                && Publisher.class.isAssignableFrom(metodo.getReturnType());
+        return new TimedAspect(meterRegistry, reactivo);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productos_service.config;
+
+import com.example.common.replica.ReadYourWrites;
+import com.example.common.replica.ReplicaRoutingDataSource;
+import com.example.productos_service.replica.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * Sustituye al DataSource de spring.datasource: un pool de Hikari para el primario (productos-primary) y otro
+     * para la réplica (productos-replica), con sus métricas por separado en hikaricp.connections{pool}.
+     */
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                               MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(replicaProperties.getUrl())) {
+            throw new IllegalStateException("app.datasource.replica.url es obligatoria con app.datasource.replica.enabled=true");
+        }
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurar(primario, "productos-primary", replicaProperties.getPrimary(), meterRegistry);
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.getUrl())
+                .username(StringUtils.hasText(replicaProperties.getUsername()) ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(StringUtils.hasText(replicaProperties.getPassword()) ? replicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        configurar(replica, "productos-replica", replicaProperties.getReplica(), meterRegistry);
+
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primario, replica);
+        FunctionCounter.builder("datasource.read.connections", dataSource, ReplicaRoutingDataSource::getLecturasReplica)
+                .description("Conexiones de solo lectura por destino")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        FunctionCounter.builder("datasource.read.connections", dataSource, ReplicaRoutingDataSource::getLecturasPrimario)
+                .description("Conexiones de solo lectura por destino")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        ReadYourWrites readYourWrites = new ReadYourWrites(replicaProperties.getReadYourWritesWindow(), replicaProperties.getTrackedKeys());
+        Gauge.builder("datasource.read-your-writes.keys", readYourWrites, ReadYourWrites::getRecordados)
+                .description("Productos recordados para leer del primario lo recién escrito")
+                .register(meterRegistry);
+        return readYourWrites;
+    }
+
+    private static void configurar(HikariDataSource pool, String nombre, ReplicaProperties.Pool config, MeterRegistry meterRegistry) {
+        pool.setPoolName(nombre);
+        pool.setMaximumPoolSize(config.getConnections());
+        pool.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.productos_service.config;
+
+import com.example.productos_service.security.ApiKeyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ApiKeyProperties.class)
+public class SecurityConfig {
+}
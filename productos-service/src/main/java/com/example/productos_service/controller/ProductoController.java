@@ -1,7 +1,16 @@
 package com.example.productos_service.controller;
 
-
-import com.example.productos_service.jsonapi.ProductoConStockAttributes;
+import com.example.common.deadline.Deadline;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.timing.RequestTiming;
+import com.example.common.warmup.HotKeyTracker;
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.exception.InventarioNoDisponibleException;
+import com.example.productos_service.jsonapi.IdFilter;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.jsonapi.ProductoConStockJsonApi;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
 import com.example.productos_service.model.Producto;
 import com.example.productos_service.service.ProductoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,27 +19,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import reactor.core.publisher.Mono;
-import java.util.Optional;
-import com.example.productos_service.jsonapi.JsonApiData;
-import com.example.productos_service.jsonapi.JsonApiResponse;
-import com.example.productos_service.jsonapi.ProductoAttributes;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import com.example.common.jsonapi.SparseFieldset;
 
 
 @RestController
-@RequestMapping(value = "/api/productos", produces = MediaType.APPLICATION_JSON_VALUE)
+// JSON para clientes externos; Smile (binario) para las llamadas desde inventario-service
+@RequestMapping(value = "/api/productos", produces = {MediaType.APPLICATION_JSON_VALUE, JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE})
 public class ProductoController {
 
+    // IDs máximos en GET /api/productos?filter[id]=... (la consulta IN y la respuesta quedan acotadas)
+    public static final int MAX_IDS_POR_CONSULTA = 100;
+
     @Autowired
     private ProductoService productoService; // Inyecta el servicio de Productos
 
+    @Autowired
+    private ProductoResponseCache productoResponseCache; // Respuestas ya serializadas de GET /{id}
+
+    @Autowired(required = false)
+    private HotKeyTracker hotKeys; // Productos más leídos, para el calentamiento del siguiente arranque (null si app.warm-up.enabled=false)
+
     /**
      * Crea un nuevo producto.
      * POST /api/productos
@@ -41,54 +58,48 @@ public class ProductoController {
     @Operation(summary = "Crea un nuevo producto", description = "Permite registrar un nuevo producto en el sistema, inicializando su stock en inventario.")
     @ApiResponse(responseCode = "201", description = "Producto creado exitosamente")
     @ApiResponse(responseCode = "400", description = "Solicitud inválida")
-    public ResponseEntity<JsonApiResponse<ProductoAttributes>> createProducto(@RequestBody Producto producto) {
+    public ResponseEntity<JsonApiDocument> createProducto(@RequestBody Producto producto) {
         Producto savedProducto = productoService.saveProducto(producto);
 
-        // Convertir la entidad Producto a JsonApiData<ProductoAttributes>
-        ProductoAttributes attributes = new ProductoAttributes(
-                savedProducto.getNombre(),
-                savedProducto.getDescripcion(),
-                savedProducto.getPrecio()
-        );
-        JsonApiData<ProductoAttributes> data = new JsonApiData<>(
-                savedProducto.getId().toString(), // El ID debe ser String en JSON API
-                "productos", // Tipo de recurso
-                attributes
-        );
-
-        // Envolver en JsonApiResponse
-        JsonApiResponse<ProductoAttributes> response = new JsonApiResponse<>(data);
-
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        // El documento JSON:API se escribe en streaming directamente desde la entidad
+        return new ResponseEntity<>(JsonApiDocument.of(ProductoJsonApi.INSTANCE, savedProducto), HttpStatus.CREATED);
     }
 
     /**
-     * Obtiene un producto por su ID, incluyendo la información de stock.
-     * GET /api/productos/{id}
+     * Obtiene un producto por su ID.
+     * GET /api/productos/{id}?fields[productos]=nombre,precio
      * @param id El ID del producto.
-     * @return Mono<ResponseEntity<ProductoConStockDTO>> con el producto y su stock, o 404 NOT_FOUND.
+     * @param fields Sparse fieldset de JSON:API: atributos a devolver (opcional, por defecto todos).
+     * @return ResponseEntity con el producto en formato JSON:API, 404 NOT_FOUND o 400 BAD_REQUEST si fields es inválido.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Obtiene un producto por su ID", description = "Recupera los detalles de un producto específico, sin información de stock.")
+    @Operation(summary = "Obtiene un producto por su ID", description = "Recupera los detalles de un producto específico, sin información de stock. Admite fields[productos] para limitar los atributos.")
     @ApiResponse(responseCode = "200", description = "Producto encontrado")
+    @ApiResponse(responseCode = "400", description = "fields[productos] contiene atributos desconocidos")
     @ApiResponse(responseCode = "404", description = "Producto no encontrado")
-    public ResponseEntity<JsonApiResponse<ProductoAttributes>> getProductoById(@PathVariable Long id) {
-        Optional<Producto> productoOptional = productoService.getProductoById(id);
+    public ResponseEntity<JsonApiDocument> getProductoById(
+            @PathVariable Long id,
+            @RequestParam(name = "fields[productos]", required = false) String fields,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (hotKeys != null) {
+            hotKeys.registrar(id);
+        }
+        if (fields == null) {
+            // Documento completo: se sirve desde la caché de respuestas ya serializadas (y comprimidas si se acepta gzip)
+            return productoResponseCache.getOrLoad(id, productoService::getProductoById)
+                    .map(entry -> ResponseEntity.ok()
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                            .body(JsonApiDocument.preSerialized(ProductoJsonApi.INSTANCE, entry.getProducto(), entry.getJson(),
+                                    ProductoResponseCache.acceptsGzip(acceptEncoding) ? entry.getGzip() : null)))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        }
 
-        return productoOptional.map(producto -> {
-            // Convertir la entidad Producto a JsonApiData<ProductoAttributes>
-            ProductoAttributes attributes = new ProductoAttributes(
-                    producto.getNombre(),
-                    producto.getDescripcion(),
-                    producto.getPrecio()
-            );
-            JsonApiData<ProductoAttributes> data = new JsonApiData<>(
-                    producto.getId().toString(), // El ID debe ser String
-                    "productos", // Tipo de recurso
-                    attributes
-            );
-            return new ResponseEntity<>(new JsonApiResponse<>(data), HttpStatus.OK);
-        }).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        SparseFieldset fieldset = SparseFieldset.parse(fields, ProductoJsonApi.FIELDS);
+        Optional<Producto> productoOptional = productoService.getProductoById(id, fieldset.getFields());
+
+        return productoOptional
+                .map(producto -> new ResponseEntity<>(JsonApiDocument.of(ProductoJsonApi.INSTANCE, producto, fieldset), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -106,38 +117,49 @@ public class ProductoController {
 
     /**
      * Obtiene todos los productos con paginación.
-     * GET /api/productos?page=0&size=10&sort=nombre,asc
+     * GET /api/productos?page=0&size=10&sort=nombre,asc&fields[productos]=nombre,precio
      * @param pageable Objeto Pageable inyectado automáticamente por Spring.
      * Puedes usar @PageableDefault para definir valores por defecto.
+     * @param fields Sparse fieldset de JSON:API: atributos a devolver (opcional, por defecto todos).
      * @return ResponseEntity con una página de productos y el estado HTTP 200 OK.
      */
     @GetMapping
-    @Operation(summary = "Lista todos los productos", description = "Recupera una lista paginada de todos los productos disponibles.")
+    @Operation(summary = "Lista todos los productos", description = "Recupera una lista paginada de todos los productos disponibles. Admite fields[productos] para limitar los atributos.")
     @ApiResponse(responseCode = "200", description = "Lista de productos recuperada")
-    public ResponseEntity<JsonApiResponse<ProductoAttributes>> getAllProductos(
-            @PageableDefault(page = 0, size = 10, sort = "nombre") Pageable pageable) {
+    @ApiResponse(responseCode = "400", description = "fields[productos] contiene atributos desconocidos")
+    public ResponseEntity<JsonApiDocument> getAllProductos(
+            @PageableDefault(page = 0, size = 10, sort = "nombre") Pageable pageable,
+            @RequestParam(name = "fields[productos]", required = false) String fields) {
 
-        Page<Producto> productosPage = productoService.getAllProductos(pageable);
+        // Las columnas no solicitadas no se leen de la base de datos
+        SparseFieldset fieldset = SparseFieldset.parse(fields, ProductoJsonApi.FIELDS);
+        Page<Producto> productosPage = productoService.getAllProductos(pageable, fieldset.getFields());
 
-        // Convertir la lista de entidades Producto a una lista de JsonApiData<ProductoAttributes>
-        List<JsonApiData<ProductoAttributes>> dataList = productosPage.getContent().stream()
-                .map(producto -> new JsonApiData<>(
-                        producto.getId().toString(), // ID como String
-                        "productos", // Tipo de recurso
-                        new ProductoAttributes(producto.getNombre(), producto.getDescripcion(), producto.getPrecio())
-                ))
-                .collect(Collectors.toList());
+        // Las filas se escriben en streaming, sin crear un JsonApiData por producto
+        JsonApiDocument response = JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productosPage.getContent(), fieldset);
 
-        // Envolver la lista en JsonApiResponse
-        JsonApiResponse<ProductoAttributes> response = new JsonApiResponse<>(dataList);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 
-        // Opcional: Si quieres añadir metadatos de paginación al JsonApiResponse
-        // JsonApiMeta meta = new JsonApiMeta();
-        // meta.setTotalPages(productosPage.getTotalPages());
-        // meta.setTotalElements(productosPage.getTotalElements());
-        // response.setMeta(meta);
+    /**
+     * Obtiene varios productos por ID en una sola petición (pensado para otros servicios que enriquecen listas).
+     * GET /api/productos?filter[id]=1,2,3&fields[productos]=nombre,precio
+     * @param ids IDs separados por comas (como máximo MAX_IDS_POR_CONSULTA).
+     * @param fields Sparse fieldset de JSON:API: atributos a devolver (opcional, por defecto todos).
+     * @return ResponseEntity con los productos encontrados, en el orden pedido; los IDs inexistentes se omiten.
+     */
+    @GetMapping(params = "filter[id]")
+    @Operation(summary = "Obtiene varios productos por ID", description = "Recupera en una sola petición los productos cuyos IDs se indican en filter[id] (separados por comas). Los IDs que no existen se omiten.")
+    @ApiResponse(responseCode = "200", description = "Productos encontrados")
+    @ApiResponse(responseCode = "400", description = "filter[id] inválido o con demasiados IDs, o fields[productos] con atributos desconocidos")
+    public ResponseEntity<JsonApiDocument> getProductosByIds(
+            @RequestParam(name = "filter[id]") String ids,
+            @RequestParam(name = "fields[productos]", required = false) String fields) {
+        List<Long> idsSolicitados = IdFilter.parse(ids, MAX_IDS_POR_CONSULTA);
+        SparseFieldset fieldset = SparseFieldset.parse(fields, ProductoJsonApi.FIELDS);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        List<Producto> productos = productoService.getProductosByIds(idsSolicitados);
+        return new ResponseEntity<>(JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, fieldset), HttpStatus.OK);
     }
 
     /**
@@ -152,26 +174,13 @@ public class ProductoController {
     @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente")
     @ApiResponse(responseCode = "404", description = "Producto no encontrado") // Si tu lógica maneja 404 para update
     @ApiResponse(responseCode = "400", description = "Solicitud inválida")
-    public ResponseEntity<JsonApiResponse<ProductoAttributes>> updateProducto(@PathVariable Long id, @RequestBody Producto producto) {
+    public ResponseEntity<JsonApiDocument> updateProducto(@PathVariable Long id, @RequestBody Producto producto) {
         // Asegúrate de que el ID del producto que llega en el body se establezca
         // para que saveProducto lo use como actualización
         producto.setId(id);
         Producto updatedProducto = productoService.saveProducto(producto); // saveProducto maneja tanto create como update
 
-        // Convertir la entidad Producto a JsonApiData<ProductoAttributes>
-        ProductoAttributes attributes = new ProductoAttributes(
-                updatedProducto.getNombre(),
-                updatedProducto.getDescripcion(),
-                updatedProducto.getPrecio()
-        );
-        JsonApiData<ProductoAttributes> data = new JsonApiData<>(
-                updatedProducto.getId().toString(), // El ID debe ser String en JSON API
-                "productos", // Tipo de recurso
-                attributes
-        );
-
-        JsonApiResponse<ProductoAttributes> response = new JsonApiResponse<>(data);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return new ResponseEntity<>(JsonApiDocument.of(ProductoJsonApi.INSTANCE, updatedProducto), HttpStatus.OK);
     }
 
     /**
@@ -204,24 +213,26 @@ public class ProductoController {
     @ApiResponse(responseCode = "200", description = "Stock reducido exitosamente")
     @ApiResponse(responseCode = "400", description = "Solicitud inválida (ej. stock insuficiente)")
     @ApiResponse(responseCode = "404", description = "Producto no encontrado")
-    public Mono<ResponseEntity<JsonApiResponse<ProductoConStockAttributes>>> reducirStockProducto(@PathVariable Long productoId, @PathVariable Integer cantidad) {
+    @ApiResponse(responseCode = "503", description = "Inventario no disponible temporalmente (circuito abierto)")
+    @ApiResponse(responseCode = "504", description = "El deadline de la petición (X-Deadline-Ms) venció antes de completar la compra")
+    public Mono<ResponseEntity<JsonApiDocument>> reducirStockProducto(@PathVariable Long productoId, @PathVariable Integer cantidad) {
         return productoService.reducirStockProducto(productoId, cantidad)
-                .map(dto -> {
-                    ProductoConStockAttributes attributes = new ProductoConStockAttributes(
-                            dto.getNombre(),
-                            dto.getDescripcion(),
-                            dto.getPrecio(),
-                            dto.getStockDisponible()
-                    );
-                    JsonApiData<ProductoConStockAttributes> data = new JsonApiData<>(
-                            dto.getId().toString(),
-                            "productos-con-stock", // El mismo tipo que para el GET con stock
-                            attributes
-                    );
-                    return new ResponseEntity<>(new JsonApiResponse<>(data), HttpStatus.OK);
-                })
+                .transform(Deadline::propagar) // Las llamadas a inventario respetan el deadline de esta petición
+                .transform(RequestTiming::propagar) // Y suman su tiempo a la cabecera Server-Timing
+                // El mismo tipo "productos-con-stock" que para el GET con stock
+                .map(dto -> new ResponseEntity<>(JsonApiDocument.of(ProductoConStockJsonApi.INSTANCE, dto), HttpStatus.OK))
                 .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND)) // En caso de que el mono esté vacío
                 .onErrorResume(e -> { // Manejo de errores para stock insuficiente
+                    if (e instanceof InventarioNoDisponibleException) {
+                        // Inventario degradado: se rechaza la compra en el acto para que el cliente reintente más tarde
+                        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "10")
+                                .<JsonApiDocument>build());
+                    }
+                    if (e instanceof DeadlineExceededException) {
+                        // El llamante ya no espera la respuesta
+                        return Mono.just(new ResponseEntity<>(HttpStatus.GATEWAY_TIMEOUT));
+                    }
                     if (e instanceof IllegalArgumentException) {
                         // Puedes crear una estructura JsonApiError si quieres ser más estricto con el estándar
                         return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
@@ -232,25 +243,18 @@ public class ProductoController {
 
 
     @GetMapping("/{id}/with-stock")
-    @Operation(summary = "Obtiene un producto y su stock", description = "Recupera los detalles de un producto específico junto con su cantidad disponible en inventario.")
+    @Operation(summary = "Obtiene un producto y su stock", description = "Recupera los detalles de un producto específico junto con su cantidad disponible en inventario. Si inventario no está disponible, stockDisponible es null.")
     @ApiResponse(responseCode = "200", description = "Producto y stock encontrados")
     @ApiResponse(responseCode = "404", description = "Producto no encontrado")
-    public Mono<ResponseEntity<JsonApiResponse<ProductoConStockAttributes>>> getProductoByIdWithStock(@PathVariable Long id) {
+    public Mono<ResponseEntity<JsonApiDocument>> getProductoByIdWithStock(@PathVariable Long id) {
+        if (hotKeys != null) {
+            hotKeys.registrar(id);
+        }
         return productoService.getProductoByIdWithStock(id)
-                .map(dto -> {
-                    ProductoConStockAttributes attributes = new ProductoConStockAttributes(
-                            dto.getNombre(),
-                            dto.getDescripcion(),
-                            dto.getPrecio(),
-                            dto.getStockDisponible()
-                    );
-                    JsonApiData<ProductoConStockAttributes> data = new JsonApiData<>(
-                            dto.getId().toString(),
-                            "productos-con-stock", // Un tipo distinto para este recurso combinado
-                            attributes
-                    );
-                    return new ResponseEntity<>(new JsonApiResponse<>(data), HttpStatus.OK);
-                })
+                .transform(Deadline::propagar)
+                .transform(RequestTiming::propagar)
+                // Un tipo distinto ("productos-con-stock") para este recurso combinado
+                .map(dto -> new ResponseEntity<>(JsonApiDocument.of(ProductoConStockJsonApi.INSTANCE, dto), HttpStatus.OK))
                 .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 }
@@ -0,0 +1,13 @@
+package com.example.productos_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Se lanza cuando un parámetro filter[...] no se puede interpretar o pide demasiados elementos (400)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFilterException extends IllegalArgumentException {
+
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.productos_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// inventario-service no acepta llamadas ahora mismo (circuito abierto o bulkhead lleno)
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class InventarioNoDisponibleException extends RuntimeException {
+
+    public InventarioNoDisponibleException(String message) {
+        super(message);
+    }
+
+    public InventarioNoDisponibleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
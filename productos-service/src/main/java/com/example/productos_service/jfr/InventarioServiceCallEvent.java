@@ -0,0 +1,32 @@
+package com.example.productos_service.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.productos.InventarioServiceCall")
+@Label("Llamada a inventario-service")
+@Category({"Productos", "Cliente HTTP"})
+@Description("Llamada a inventario-service con hedging, timeout, circuit breaker y bulkhead incluidos")
+@StackTrace(false)
+public class InventarioServiceCallEvent extends EventoMedido {
+
+    @Label("Operación")
+    public String operacion;
+
+    @Label("Producto")
+    public long productoId;
+
+    @Label("Cantidad")
+    @Description("Unidades a reducir; 0 en las consultas")
+    public int cantidad;
+
+    public InventarioServiceCallEvent(String operacion, long productoId, int cantidad) {
+        this.operacion = operacion;
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+    }
+}
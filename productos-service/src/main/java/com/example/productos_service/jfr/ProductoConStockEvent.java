@@ -0,0 +1,27 @@
+package com.example.productos_service.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.productos.ProductoConStock")
+@Label("Producto con stock")
+@Category({"Productos", "Stock"})
+@Description("ProductoServiceImpl.getProductoByIdWithStock: lectura del producto y consulta del stock a inventario-service")
+@StackTrace(false)
+public class ProductoConStockEvent extends EventoMedido {
+
+    @Label("Producto")
+    public long productoId;
+
+    @Label("Stock disponible")
+    @Description("-1 si inventario-service no respondió (stock desconocido)")
+    public int stockDisponible = -1;
+
+    public ProductoConStockEvent(long productoId) {
+        this.productoId = productoId;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.productos_service.exception.InvalidFilterException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filtro de JSON:API por identificadores (parámetro filter[id]=1,2,3).
+ * Los IDs repetidos se ignoran y se conserva el orden en que se pidieron.
+ */
+public final class IdFilter {
+
+    private IdFilter() {
+    }
+
+    /**
+     * Interpreta el valor de filter[id].
+     * @param raw Valor crudo del parámetro.
+     * @param max Número máximo de IDs admitidos en una consulta.
+     * @return Los IDs solicitados, sin repetidos.
+     * @throws InvalidFilterException Si algún ID no es numérico, no hay ninguno o hay más de max.
+     */
+    public static List<Long> parse(String raw, int max) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String valor : raw.split(",")) {
+            String trimmed = valor.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.valueOf(trimmed));
+            } catch (NumberFormatException e) {
+                throw new InvalidFilterException("ID no numérico en filter[id]: " + trimmed);
+            }
+            if (ids.size() > max) {
+                throw new InvalidFilterException("filter[id] admite como máximo " + max + " IDs");
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new InvalidFilterException("filter[id] no contiene ningún ID");
+        }
+        return Collections.unmodifiableList(new ArrayList<>(ids));
+    }
+}
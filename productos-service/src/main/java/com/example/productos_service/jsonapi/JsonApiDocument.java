@@ -0,0 +1,86 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Documento JSON:API ({"data": ...}) que los controladores devuelven como cuerpo de la respuesta.
+ * Solo guarda referencias a las entidades; JsonApiHttpMessageConverter lo escribe en streaming.
+ */
+public final class JsonApiDocument {
+
+    private static final SerializableString DATA = new SerializedString("data");
+
+    private final JsonApiResourceWriter<Object> writer;
+    private final Object single;
+    private final List<?> list;
+    private final SparseFieldset fieldset;
+    private final byte[] json; // JSON ya serializado (opcional)
+    private final byte[] gzipJson; // El mismo JSON comprimido con gzip (opcional)
+
+    @SuppressWarnings("unchecked")
+    private JsonApiDocument(JsonApiResourceWriter<?> writer, Object single, List<?> list, SparseFieldset fieldset,
+                            byte[] json, byte[] gzipJson) {
+        this.writer = (JsonApiResourceWriter<Object>) writer;
+        this.single = single;
+        this.list = list;
+        this.fieldset = fieldset;
+        this.json = json;
+        this.gzipJson = gzipJson;
+    }
+
+    public static <T> JsonApiDocument of(JsonApiResourceWriter<T> writer, T resource) {
+        return new JsonApiDocument(writer, resource, null, SparseFieldset.all(), null, null);
+    }
+
+    public static <T> JsonApiDocument of(JsonApiResourceWriter<T> writer, T resource, SparseFieldset fieldset) {
+        return new JsonApiDocument(writer, resource, null, fieldset, null, null);
+    }
+
+    public static <T> JsonApiDocument ofList(JsonApiResourceWriter<T> writer, List<? extends T> resources, SparseFieldset fieldset) {
+        return new JsonApiDocument(writer, null, resources, fieldset, null, null);
+    }
+
+    /**
+     * Documento de un recurso completo cuyo JSON ya está serializado (p. ej. desde una caché).
+     * Si se negocia JSON se envían esos bytes tal cual; para otros formatos se escribe el recurso.
+     * @param json Bytes JSON del documento, o null.
+     * @param gzipJson Los mismos bytes comprimidos con gzip, o null si el cliente no acepta gzip.
+     */
+    public static <T> JsonApiDocument preSerialized(JsonApiResourceWriter<T> writer, T resource, byte[] json, byte[] gzipJson) {
+        return new JsonApiDocument(writer, resource, null, SparseFieldset.all(), json, gzipJson);
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    byte[] getGzipJson() {
+        return gzipJson;
+    }
+
+    /**
+     * Escribe el documento completo en el generador (JSON o cualquier otro formato de Jackson).
+     */
+    public void writeTo(JsonGenerator generator) throws IOException {
+        char[] idBuffer = new char[20]; // Long.MAX_VALUE tiene 19 dígitos
+        generator.writeStartObject();
+        if (list != null) {
+            generator.writeFieldName(DATA);
+            generator.writeStartArray();
+            for (int i = 0, size = list.size(); i < size; i++) {
+                writer.write(generator, list.get(i), fieldset, idBuffer);
+            }
+            generator.writeEndArray();
+        } else if (single != null) { // JsonApiResponse omite data nulo (NON_NULL)
+            generator.writeFieldName(DATA);
+            writer.write(generator, single, fieldset, idBuffer);
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.common.timing.RequestTiming;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Escribe JsonApiDocument con el generador en streaming de Jackson, sin reflexión ni objetos intermedios.
+ * Usa el ObjectMapper de la aplicación para que la salida sea idéntica a la del convertidor Jackson estándar.
+ * Si el cliente pide Smile (Accept: application/x-jackson-smile) el mismo documento se escribe en binario.
+ */
+public class JsonApiHttpMessageConverter extends AbstractHttpMessageConverter<JsonApiDocument> {
+
+    // Formato binario de Jackson usado en las llamadas entre servicios
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+
+    public JsonApiHttpMessageConverter(ObjectMapper objectMapper, ObjectMapper smileMapper) {
+        super(MediaType.APPLICATION_JSON, APPLICATION_SMILE);
+        this.objectMapper = objectMapper;
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonApiDocument.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false; // Solo se usa para escribir respuestas
+    }
+
+    @Override
+    protected JsonApiDocument readInternal(Class<? extends JsonApiDocument> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("JsonApiDocument solo se puede escribir", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonApiDocument document, MediaType contentType) {
+        byte[] bytes = preSerialized(document, contentType);
+        return bytes != null ? (long) bytes.length : null;
+    }
+
+    @Override
+    protected void writeInternal(JsonApiDocument document, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        byte[] bytes = preSerialized(document, contentType);
+        if (bytes != null) {
+            // Respuesta ya serializada: se copia sin pasar por Jackson
+            if (bytes == document.getGzipJson()) {
+                outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            outputMessage.getBody().write(bytes);
+            return;
+        }
+        ObjectMapper mapper = contentType != null && APPLICATION_SMILE.isCompatibleWith(contentType) ? smileMapper : objectMapper;
+        RequestTiming timing = RequestTiming.actual();
+        if (timing == null) {
+            try (JsonGenerator generator = mapper.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+                document.writeTo(generator);
+            }
+            return;
+        }
+        // Con desglose de tiempos se serializa antes en memoria, para que la cabecera Server-Timing (que sale
+        // con el primer byte del cuerpo) incluya la serialización
+        long inicio = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        try (JsonGenerator generator = mapper.createGenerator(buffer, JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+        timing.registrarSerializacion(System.nanoTime() - inicio);
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    // Bytes a enviar tal cual si el documento viene ya serializado y se ha negociado JSON
+    private static byte[] preSerialized(JsonApiDocument document, MediaType contentType) {
+        if (document.getJson() == null || (contentType != null && !MediaType.APPLICATION_JSON.isCompatibleWith(contentType))) {
+            return null;
+        }
+        return document.getGzipJson() != null ? document.getGzipJson() : document.getJson();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Escribe un tipo de recurso JSON:API directamente sobre un JsonGenerator,
+ * sin construir objetos Attributes/JsonApiData intermedios por cada fila.
+ * El formato es idéntico al que produce Jackson con JsonApiResponse/JsonApiData.
+ * @param <T> Tipo de la entidad o DTO que se serializa.
+ */
+public abstract class JsonApiResourceWriter<T> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString ATTRIBUTES = new SerializedString("attributes");
+
+    private final SerializableString type;
+
+    protected JsonApiResourceWriter(String type) {
+        this.type = new SerializedString(type);
+    }
+
+    // ID del recurso (el de la entidad, no el de otro servicio)
+    protected abstract Long id(T resource);
+
+    // Escribe los campos del objeto "attributes" respetando el sparse fieldset
+    protected abstract void writeAttributes(JsonGenerator generator, T resource, SparseFieldset fieldset) throws IOException;
+
+    /**
+     * Escribe {"id":"..","type":"..","attributes":{..}} para un recurso.
+     * @param idBuffer Buffer reutilizable para formatear el ID como texto sin crear un String.
+     */
+    void write(JsonGenerator generator, T resource, SparseFieldset fieldset, char[] idBuffer) throws IOException {
+        generator.writeStartObject();
+        Long id = id(resource);
+        if (id != null) { // JsonApiData omite el id nulo (NON_NULL)
+            generator.writeFieldName(ID);
+            writeId(generator, id, idBuffer);
+        }
+        generator.writeFieldName(TYPE);
+        generator.writeString(type);
+        generator.writeFieldName(ATTRIBUTES);
+        generator.writeStartObject();
+        writeAttributes(generator, resource, fieldset);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    // Helpers para las subclases: los atributos nulos se escriben como null, igual que Jackson
+
+    protected static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator generator, SerializableString name, BigDecimal value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator generator, SerializableString name, Integer value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.intValue());
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    // En JSON:API el id es un String: se formatea en el buffer en lugar de usar Long.toString()
+    private static void writeId(JsonGenerator generator, long id, char[] buffer) throws IOException {
+        if (id < 0) {
+            generator.writeString(Long.toString(id));
+            return;
+        }
+        int pos = buffer.length;
+        do {
+            buffer[--pos] = (char) ('0' + (id % 10));
+            id /= 10;
+        } while (id != 0);
+        generator.writeString(buffer, pos, buffer.length - pos);
+    }
+}
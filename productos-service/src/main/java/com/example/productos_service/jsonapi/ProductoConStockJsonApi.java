@@ -0,0 +1,47 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.ProductoConStockDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+// Recurso combinado "productos-con-stock": mismos atributos y orden que ProductoConStockAttributes
+public final class ProductoConStockJsonApi extends JsonApiResourceWriter<ProductoConStockDTO> {
+
+    public static final String TYPE = "productos-con-stock";
+
+    public static final ProductoConStockJsonApi INSTANCE = new ProductoConStockJsonApi();
+
+    private static final SerializableString NOMBRE = new SerializedString("nombre");
+    private static final SerializableString DESCRIPCION = new SerializedString("descripcion");
+    private static final SerializableString PRECIO = new SerializedString("precio");
+    private static final SerializableString STOCK_DISPONIBLE = new SerializedString("stockDisponible");
+
+    private ProductoConStockJsonApi() {
+        super(TYPE);
+    }
+
+    @Override
+    protected Long id(ProductoConStockDTO dto) {
+        return dto.getId();
+    }
+
+    @Override
+    protected void writeAttributes(JsonGenerator generator, ProductoConStockDTO dto, SparseFieldset fieldset) throws IOException {
+        if (fieldset.includes("nombre")) {
+            writeString(generator, NOMBRE, dto.getNombre());
+        }
+        if (fieldset.includes("descripcion")) {
+            writeString(generator, DESCRIPCION, dto.getDescripcion());
+        }
+        if (fieldset.includes("precio")) {
+            writeNumber(generator, PRECIO, dto.getPrecio());
+        }
+        if (fieldset.includes("stockDisponible")) {
+            writeNumber(generator, STOCK_DISPONIBLE, dto.getStockDisponible());
+        }
+    }
+}
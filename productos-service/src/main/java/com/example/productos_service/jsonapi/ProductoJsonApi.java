@@ -0,0 +1,47 @@
+package com.example.productos_service.jsonapi;
+
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Recurso "productos": mismos atributos y orden que ProductoAttributes
+public final class ProductoJsonApi extends JsonApiResourceWriter<Producto> {
+
+    public static final String TYPE = "productos";
+
+    // Atributos que se pueden pedir con fields[productos]
+    public static final Set<String> FIELDS = Set.of("nombre", "descripcion", "precio");
+
+    public static final ProductoJsonApi INSTANCE = new ProductoJsonApi();
+
+    private static final SerializableString NOMBRE = new SerializedString("nombre");
+    private static final SerializableString DESCRIPCION = new SerializedString("descripcion");
+    private static final SerializableString PRECIO = new SerializedString("precio");
+
+    private ProductoJsonApi() {
+        super(TYPE);
+    }
+
+    @Override
+    protected Long id(Producto producto) {
+        return producto.getId();
+    }
+
+    @Override
+    protected void writeAttributes(JsonGenerator generator, Producto producto, SparseFieldset fieldset) throws IOException {
+        if (fieldset.includes("nombre")) {
+            writeString(generator, NOMBRE, producto.getNombre());
+        }
+        if (fieldset.includes("descripcion")) {
+            writeString(generator, DESCRIPCION, producto.getDescripcion());
+        }
+        if (fieldset.includes("precio")) {
+            writeNumber(generator, PRECIO, producto.getPrecio());
+        }
+    }
+}
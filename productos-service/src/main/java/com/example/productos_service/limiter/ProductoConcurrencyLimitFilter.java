@@ -0,0 +1,45 @@
+package com.example.productos_service.limiter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter;
+import com.example.common.limiter.AdaptiveConcurrencyLimiter.Prioridad;
+import com.example.common.limiter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límite de concurrencia de las compras (PUT /api/productos/{id}/reducir-stock/{cantidad}, prioridad alta) y
+ * del listado completo (GET /api/productos, prioridad baja).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1) // Justo después de DeadlineFilter
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductoConcurrencyLimitFilter extends ConcurrencyLimitFilter {
+
+    public ProductoConcurrencyLimitFilter(@Value("${app.concurrency-limit.initial-limit:20}") int limiteInicial,
+                                          @Value("${app.concurrency-limit.min-limit:4}") int limiteMinimo,
+                                          @Value("${app.concurrency-limit.max-limit:200}") int limiteMaximo,
+                                          @Value("${app.concurrency-limit.bulk-share:0.5}") double fraccionBaja,
+                                          @Value("${app.concurrency-limit.tolerance:1.5}") double tolerancia,
+                                          @Value("${app.concurrency-limit.smoothing:0.2}") double suavizado,
+                                          MeterRegistry meterRegistry) {
+        super(new AdaptiveConcurrencyLimiter(limiteInicial, limiteMinimo, limiteMaximo, fraccionBaja, tolerancia, suavizado), meterRegistry);
+    }
+
+    // Compras: prioridad alta. Listado completo: prioridad baja. Resto: sin límite (null).
+    @Override
+    protected Prioridad prioridad(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if ("PUT".equals(request.getMethod()) && uri.startsWith("/api/productos/") && uri.contains("/reducir-stock/")) {
+            return Prioridad.ALTA;
+        }
+        if ("GET".equals(request.getMethod()) && uri.equals("/api/productos")) {
+            return Prioridad.BAJA;
+        }
+        return null;
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.productos_service.model;
 
+import com.example.productos_service.catalog.ProductoCatalogListener;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name="productos")
+@EntityListeners(ProductoCatalogListener.class) // Mantiene al día el catálogo off-heap (opcional)
 public class Producto {
 
+    // Tamaño de los bloques de IDs; igual que el INCREMENT BY de la secuencia (V2__pooled_id_sequence.sql)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id // Marca el campo como clave primaria
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Estrategia de generación de ID (autoincremental)
+    // IDs por bloques de la secuencia (optimizador pooled): un nextval cada 50 altas, y los INSERT se pueden agrupar en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_id_seq")
+    @SequenceGenerator(name = "productos_id_seq", sequenceName = "productos_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id; // ID del producto (tipo Long, como acordamos)
 
     private String nombre;
@@ -0,0 +1,48 @@
+package com.example.productos_service.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Réplica de lectura de la base de datos (prefijo app.datasource.replica en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    // Con false todo va al primario con el pool de spring.datasource.hikari
+    private boolean enabled = false;
+
+    private String url;
+
+    // Vacíos = los de spring.datasource
+    private String username;
+    private String password;
+
+    // Tras escribir un producto, sus lecturas van al primario durante este tiempo; mayor que el retraso habitual de la réplica
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    // Productos recordados a partir de los cuales se olvidan los que ya salieron de la ventana
+    private int trackedKeys = 100_000;
+
+    private Pool primary = new Pool(10, Duration.ofSeconds(2));
+
+    private Pool replica = new Pool(10, Duration.ofSeconds(2));
+
+    @Data
+    public static class Pool {
+        private int connections;
+        // Espera máxima por una conexión del pool
+        private Duration connectionTimeout;
+
+        public Pool() {
+        }
+
+        public Pool(int connections, Duration connectionTimeout) {
+            this.connections = connections;
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
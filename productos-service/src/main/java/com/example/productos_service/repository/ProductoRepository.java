@@ -1,10 +1,15 @@
 package com.example.productos_service.repository;
 
 import com.example.productos_service.model.Producto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, ProductoRepositoryCustom {
     Optional<Producto> findByNombre(String nombre);
+
+    // Recorrido por rangos de ID (keyset), para cargas masivas sin OFFSET
+    Slice<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.example.productos_service.repository;
+
+import com.example.productos_service.model.Producto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Consultas con proyección dinámica: solo se leen de la base de datos las columnas solicitadas
+public interface ProductoRepositoryCustom {
+
+    Optional<Producto> findProjectedById(Long id, Collection<String> atributos);
+
+    Page<Producto> findAllProjected(Collection<String> atributos, Pageable pageable);
+}
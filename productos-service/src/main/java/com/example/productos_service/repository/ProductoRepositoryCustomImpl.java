@@ -0,0 +1,95 @@
+package com.example.productos_service.repository;
+
+import com.example.productos_service.model.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// De solo lectura, como las consultas de Spring Data: con réplica (app.datasource.replica) se ejecutan en ella
+@Transactional(readOnly = true)
+public class ProductoRepositoryCustomImpl implements ProductoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Busca un producto por ID leyendo únicamente el id y los atributos indicados.
+     * El Producto devuelto no está gestionado por JPA y los atributos no pedidos quedan en null.
+     */
+    @Override
+    public Optional<Producto> findProjectedById(Long id, Collection<String> atributos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Producto> root = query.from(Producto.class);
+        query.multiselect(selecciones(root, atributos)).where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .findFirst()
+                .map(tuple -> aProducto(tuple, atributos));
+    }
+
+    /**
+     * Lista paginada de productos leyendo únicamente el id y los atributos indicados.
+     * La ordenación puede usar columnas que no se proyectan.
+     */
+    @Override
+    public Page<Producto> findAllProjected(Collection<String> atributos, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Producto> root = query.from(Producto.class);
+        query.multiselect(selecciones(root, atributos));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Producto> contenido = typedQuery.getResultList().stream()
+                .map(tuple -> aProducto(tuple, atributos))
+                .toList();
+
+        return PageableExecutionUtils.getPage(contenido, pageable, () ->
+                entityManager.createQuery("select count(p) from Producto p", Long.class).getSingleResult());
+    }
+
+    private List<Selection<?>> selecciones(Root<Producto> root, Collection<String> atributos) {
+        List<Selection<?>> selecciones = new ArrayList<>(atributos.size() + 1);
+        selecciones.add(root.get("id").alias("id"));
+        for (String atributo : atributos) {
+            selecciones.add(root.get(atributo).alias(atributo));
+        }
+        return selecciones;
+    }
+
+    private Producto aProducto(Tuple tuple, Collection<String> atributos) {
+        Producto producto = new Producto();
+        producto.setId(tuple.get("id", Long.class));
+        for (String atributo : atributos) {
+            switch (atributo) {
+                case "nombre" -> producto.setNombre(tuple.get(atributo, String.class));
+                case "descripcion" -> producto.setDescripcion(tuple.get(atributo, String.class));
+                case "precio" -> producto.setPrecio(tuple.get(atributo, BigDecimal.class));
+                default -> throw new IllegalArgumentException("Atributo no proyectable: " + atributo);
+            }
+        }
+        return producto;
+    }
+}
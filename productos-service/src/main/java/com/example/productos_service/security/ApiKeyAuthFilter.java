@@ -1,40 +1,78 @@
 package com.example.productos_service.security;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Autenticación por API Key (cabecera X-API-Key) con una cuota de peticiones por clave.
+ * Cada clave tiene su propia cubeta de tokens; al agotarla se responde 429 con Retry-After.
+ * Las métricas productos.apikey.requests{client, outcome=accepted|rejected} cuentan las peticiones de cada clave.
+ * El camino de una petición aceptada no crea objetos: comparación de claves, cubeta y contadores trabajan
+ * sobre estado ya creado al arrancar.
+ */
 @Component
 public class ApiKeyAuthFilter extends OncePerRequestFilter{
 
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyAuthFilter.class);
     private static final String API_KEY_HEADER = "X-API-Key";
+    private static final String CLIENTE_POR_DEFECTO = "default";
+
+    private final Cliente[] clientes;
 
-    @Value("${app.security.api-key}")
-    private String requiredApiKey; // Renombrado para mayor claridad
+    public ApiKeyAuthFilter(ApiKeyProperties properties, MeterRegistry meterRegistry) {
+        List<Cliente> configurados = new ArrayList<>();
+        if (properties.getApiKey() != null) {
+            ApiKeyProperties.Quota cuota = properties.getRateLimit();
+            configurados.add(new Cliente(CLIENTE_POR_DEFECTO, properties.getApiKey(), cuota.getRatePerSecond(), cuota.getBurst()));
+        }
+        for (ApiKeyProperties.Key key : properties.getKeys()) {
+            configurados.add(new Cliente(key.getName(), key.getValue(), key.getRatePerSecond(), key.getBurst()));
+        }
+        this.clientes = configurados.toArray(new Cliente[0]);
+
+        for (Cliente cliente : clientes) {
+            FunctionCounter.builder("productos.apikey.requests", cliente.aceptadas, LongAdder::sum)
+                    .tag("client", cliente.nombre)
+                    .tag("outcome", "accepted")
+                    .register(meterRegistry);
+            FunctionCounter.builder("productos.apikey.requests", cliente.rechazadas, LongAdder::sum)
+                    .tag("client", cliente.nombre)
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry);
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String requestApiKey = request.getHeader(API_KEY_HEADER);
-
         // Opcional: Permite pasar requests a /actuator/** sin API Key (para health checks, etc.)
         if (request.getRequestURI().startsWith("/actuator")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (requestApiKey == null || !requestApiKey.equals(requiredApiKey)) {
+        String requestApiKey = request.getHeader(API_KEY_HEADER);
+        Cliente cliente = requestApiKey != null ? buscar(requestApiKey) : null;
+
+        if (cliente == null) {
             logger.warn("Acceso no autorizado a {} desde {}. API Key inválida o faltante.",
                     request.getRequestURI(), request.getRemoteAddr());
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
@@ -43,7 +81,61 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter{
             return;
         }
 
+        long esperaNanos = cliente.cubeta != null ? cliente.cubeta.intentar() : 0;
+        if (esperaNanos > 0) {
+            cliente.rechazadas.increment();
+            long retryAfter = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            logger.debug("Cuota agotada para el cliente {} en {}", cliente.nombre, request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too Many Requests\", \"message\": \"Cuota de peticiones agotada para esta API Key.\"}");
+            return;
+        }
+        cliente.aceptadas.increment();
+
         logger.debug("API Key válida para la petición a {}", request.getRequestURI());
         filterChain.doFilter(request, response);
     }
+
+    // Compara con todas las claves sin salir antes de tiempo: la duración no revela cuántos caracteres coinciden
+    private Cliente buscar(String presentada) {
+        Cliente encontrado = null;
+        for (Cliente cliente : clientes) {
+            if (igualesEnTiempoConstante(presentada, cliente.clave)) {
+                encontrado = cliente;
+            }
+        }
+        return encontrado;
+    }
+
+    // Equivalente a MessageDigest.isEqual sin pasar las cadenas a byte[]; el tiempo solo depende de la clave configurada
+    private static boolean igualesEnTiempoConstante(String presentada, String esperada) {
+        int longitud = presentada.length();
+        if (longitud == 0) {
+            return false;
+        }
+        int diferencia = longitud ^ esperada.length();
+        for (int i = 0; i < esperada.length(); i++) {
+            diferencia |= esperada.charAt(i) ^ presentada.charAt(i % longitud);
+        }
+        return diferencia == 0;
+    }
+
+    private static final class Cliente {
+        private final String nombre;
+        private final String clave;
+        private final TokenBucket cubeta; // null si no tiene límite
+        private final LongAdder aceptadas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+
+        private Cliente(String nombre, String clave, double peticionesPorSegundo, int rafaga) {
+            if (nombre == null || clave == null || clave.isEmpty()) {
+                throw new IllegalStateException("Cada API Key necesita nombre y valor");
+            }
+            this.nombre = nombre;
+            this.clave = clave;
+            this.cubeta = peticionesPorSegundo > 0 ? new TokenBucket(peticionesPorSegundo, rafaga) : null;
+        }
+    }
 }
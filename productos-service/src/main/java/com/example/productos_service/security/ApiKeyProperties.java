@@ -0,0 +1,40 @@
+package com.example.productos_service.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Claves de API admitidas y cuota de peticiones de cada una (prefijo app.security en application.yml).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.security")
+public class ApiKeyProperties {
+
+    // Clave del cliente "default" (la que usa inventario-service)
+    private String apiKey;
+
+    // Cuota del cliente "default"
+    private Quota rateLimit = new Quota();
+
+    // Claves adicionales, cada una con su nombre (etiqueta de las métricas) y su cuota
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Quota {
+        // Peticiones por segundo sostenidas; 0 = sin límite
+        private double ratePerSecond = 0;
+        // Peticiones que se admiten de golpe antes de aplicar la tasa
+        private int burst = 100;
+    }
+
+    @Data
+    public static class Key {
+        private String name;
+        private String value;
+        private double ratePerSecond = 0;
+        private int burst = 100;
+    }
+}
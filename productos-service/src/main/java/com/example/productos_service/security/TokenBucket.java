@@ -0,0 +1,50 @@
+package com.example.productos_service.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de tokens sin bloqueos ni asignaciones, implementada con GCRA (Generic Cell Rate Algorithm).
+ * <p>
+ * Todo el estado es un único long: el instante teórico de llegada (TAT) de la siguiente petición si el
+ * cliente fuera exactamente a la tasa permitida. Cada petición aceptada lo adelanta un intervalo; se rechaza
+ * si lo dejaría más de {@code rafaga} intervalos por delante del reloj. Aceptar es un compareAndSet; rechazar
+ * solo lee, así que los clientes que superan su cuota no compiten con los que sí pueden pasar.
+ */
+public final class TokenBucket {
+
+    private final long intervaloNanos; // Tiempo en reponer un token
+    private final long toleranciaNanos; // Ráfaga máxima, expresada en tiempo
+    private final AtomicLong tat;
+
+    public TokenBucket(double tokensPorSegundo, int rafaga) {
+        if (tokensPorSegundo <= 0 || rafaga < 1) {
+            throw new IllegalArgumentException("La tasa y la ráfaga deben ser positivas");
+        }
+        this.intervaloNanos = Math.max(1, Math.round(1_000_000_000 / tokensPorSegundo));
+        this.toleranciaNanos = intervaloNanos * rafaga;
+        this.tat = new AtomicLong(System.nanoTime()); // Empieza llena
+    }
+
+    /**
+     * Intenta consumir un token.
+     * @return 0 si se consumió; si no, los nanosegundos que faltan para que haya uno disponible.
+     */
+    public long intentar() {
+        return intentar(System.nanoTime());
+    }
+
+    public long intentar(long ahoraNanos) {
+        while (true) {
+            long actual = tat.get();
+            long siguiente = Math.max(actual, ahoraNanos) + intervaloNanos;
+            long exceso = siguiente - ahoraNanos - toleranciaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (tat.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+            // Otro hilo consumió un token a la vez: se recalcula con su TAT
+        }
+    }
+}
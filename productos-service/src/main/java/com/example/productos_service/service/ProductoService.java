@@ -8,6 +8,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ProductoService {
 
@@ -20,9 +21,18 @@ public interface ProductoService {
     // Método para obtener un producto por ID (versión básica sin stock)
     Optional<Producto> getProductoById(Long id);
 
+    // Método para obtener un producto por ID leyendo solo los atributos indicados (null = todos)
+    Optional<Producto> getProductoById(Long id, Set<String> atributos);
+
+    // Método para obtener varios productos por ID en una sola consulta (en el orden pedido; los que no existen se omiten)
+    List<Producto> getProductosByIds(List<Long> ids);
+
     // Método para obtener todos los productos
     Page<Producto> getAllProductos(Pageable pageable);
 
+    // Método para obtener todos los productos leyendo solo los atributos indicados (null = todos)
+    Page<Producto> getAllProductos(Pageable pageable, Set<String> atributos);
+
     // Método para eliminar un producto por ID
     void deleteProducto(Long id);
 
@@ -1,11 +1,23 @@
 package com.example.productos_service.service.impl;
 
+import com.example.common.eventlog.EventLog;
+import com.example.common.exception.DeadlineExceededException;
+import com.example.common.jfr.MedicionJfr;
+import com.example.common.replica.ReadYourWrites;
+import com.example.common.timing.RequestTiming;
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.catalog.OffHeapCatalog;
 import com.example.productos_service.client.InventarioServiceClient;
 import com.example.productos_service.model.Producto;
 import com.example.productos_service.model.ProductoConStockDTO;
 import com.example.productos_service.repository.ProductoRepository;
 import com.example.productos_service.service.ProductoService;
+import com.example.productos_service.exception.InventarioNoDisponibleException;
 import com.example.productos_service.exception.ResourceNotFoundException;
+import com.example.productos_service.jfr.ProductoConStockEvent;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,32 +26,57 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
+@Timed(value = "productos.service", histogram = true) // Por método; los que devuelven Mono no se miden (MetricsConfig)
 public class ProductoServiceImpl implements ProductoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductoServiceImpl.class);
+
     @Autowired
     private ProductoRepository productoRepository;
 
     @Autowired
     private InventarioServiceClient inventarioServiceClient; // Inyecta el cliente del servicio de Inventario
 
+    @Autowired
+    private ProductoResponseCache productoResponseCache; // Se invalida al modificar o eliminar un producto
+
+    @Autowired(required = false)
+    private OffHeapCatalog offHeapCatalog; // Solo si productos.off-heap-catalog.enabled=true
+
+    @Autowired(required = false)
+    private EventLog eventLog = EventLog.sincrono(); // Asíncrono con app.event-log.enabled=true (EventLogConfig)
+
+    @Autowired(required = false)
+    private ReadYourWrites readYourWrites; // Solo con réplica (app.datasource.replica.enabled=true)
+
     /**
      * Guarda un producto en la base de datos y, si es nuevo, inicializa su inventario en el servicio de Inventario.
      * @param producto El objeto Producto a guardar.
      * @return El objeto Producto guardado.
      */
     public Producto saveProducto(Producto producto) {
+        registrarEscritura(producto.getId()); // Desde ahora y hasta pasada la ventana, el producto se lee del primario
         Producto savedProducto = productoRepository.save(producto);
+        registrarEscritura(savedProducto.getId()); // Antes de que inventario-service lo consulte al crear su inventario
+        productoResponseCache.evict(savedProducto.getId()); // La respuesta cacheada de GET /{id} ya no es válida
 
         // Almacena en la base de datos de productos. Luego, intenta inicializar el inventario.
         // La llamada a crearInventario es asíncrona y no bloquea el flujo principal.
         inventarioServiceClient.crearInventario(savedProducto.getId(), 0) // Inicializa con 0 unidades
                 .subscribe(
-                        inventarioResponse -> System.out.println("Inventario creado/actualizado para producto: " + inventarioResponse.getProductoId() + " con cantidad: " + inventarioResponse.getCantidad()),
-                        error -> System.err.println("Error al crear/actualizar inventario para producto " + savedProducto.getId() + ": " + error.getMessage())
+                        inventarioResponse -> eventLog.info(logger, "inventario.inicializado", "productoId", savedProducto.getId(),
+                                "cantidad", inventarioResponse.getCantidad() != null ? inventarioResponse.getCantidad() : 0),
+                        error -> eventLog.warn(logger, "inventario.inicializacion.error", "productoId", savedProducto.getId(), "error", error.getMessage())
                 );
 
         return savedProducto;
@@ -51,10 +88,17 @@ public class ProductoServiceImpl implements ProductoService {
      * @return Mono<ProductoConStockDTO> que contiene el producto y su stock, o Mono.empty() si el producto no existe.
      */
     public Mono<ProductoConStockDTO> getProductoByIdWithStock(Long id) {
+        // Evento JFR de toda la operación (producto + stock); sin grabación activa no añade operadores
+        return MedicionJfr.medir(() -> new ProductoConStockEvent(id != null ? id : 0), evento -> productoConStock(id)
+                .doOnNext(dto -> evento.stockDisponible = dto.getStockDisponible() != null ? dto.getStockDisponible() : -1));
+    }
+
+    private Mono<ProductoConStockDTO> productoConStock(Long id) {
         // Obtener el producto de la base de datos de productos.
         // fromCallable y subscribeOn son usados para envolver una operación bloqueante (findById) en un flujo reactivo
         // y ejecutarla en un Scheduler diferente para no bloquear el hilo principal de Netty (si usas WebFlux).
-        Mono<Producto> productoMono = Mono.fromCallable(() -> productoRepository.findById(id).orElse(null))
+        // RequestTiming.bloqueante lleva a ese hilo el desglose de tiempos de la petición (Server-Timing).
+        Mono<Producto> productoMono = RequestTiming.bloqueante(() -> getProductoById(id).orElse(null))
                 .subscribeOn(Schedulers.boundedElastic());
 
         return productoMono.flatMap(producto -> {
@@ -74,8 +118,13 @@ public class ProductoServiceImpl implements ProductoService {
                     // Si el inventario no se encuentra (WebClient devuelve Mono.empty() para 404),
                     // o si hay un error en la llamada, asigna stock 0 y devuelve el DTO.
                     .defaultIfEmpty(dto) // En caso de Mono.empty() del cliente
+                    .onErrorResume(e -> e instanceof InventarioNoDisponibleException || e instanceof DeadlineExceededException, e -> {
+                        // Circuito abierto, bulkhead lleno o deadline vencido: respuesta inmediata con stock desconocido (null)
+                        dto.setStockDisponible(null);
+                        return Mono.just(dto);
+                    })
                     .onErrorResume(e -> { // En caso de error en la llamada HTTP
-                        System.err.println("Advertencia: No se pudo obtener inventario para producto " + producto.getId() + ": " + e.getMessage());
+                        eventLog.warn(logger, "inventario.consulta.error", "productoId", producto.getId(), "error", e.getMessage());
                         dto.setStockDisponible(0); // Valor por defecto si no se puede obtener el stock
                         return Mono.just(dto);
                     });
@@ -97,8 +146,11 @@ public class ProductoServiceImpl implements ProductoService {
                 })
                 .switchIfEmpty(Mono.error(new RuntimeException("Producto o inventario no encontrado durante la reducción de stock.")))
                 .onErrorResume(e -> {
+                    if (e instanceof InventarioNoDisponibleException || e instanceof DeadlineExceededException) {
+                        return Mono.error(e); // Inventario no acepta llamadas o no queda tiempo: 503/504, no 400
+                    }
                     // Captura errores como stock insuficiente o problemas de comunicación
-                    System.err.println("Error al reducir stock para producto " + productoId + ": " + e.getMessage());
+                    eventLog.warn(logger, "stock.reduccion.error", "productoId", productoId, "cantidad", cantidad, "error", e.getMessage());
                     return Mono.error(new IllegalArgumentException(e.getMessage())); // Propaga una excepción más amigable
                 });
     }
@@ -106,7 +158,66 @@ public class ProductoServiceImpl implements ProductoService {
     // --- Otros métodos básicos del CRUD de Productos ---
 
     public Optional<Producto> getProductoById(Long id) {
-        return productoRepository.findById(id);
+        // Con el catálogo off-heap activado se lee de ahí; si no está (p. ej. durante la carga inicial), de la base de datos
+        if (offHeapCatalog != null) {
+            Optional<Producto> producto = offHeapCatalog.get(id);
+            if (producto.isPresent()) {
+                return producto;
+            }
+        }
+        return leer(id, () -> productoRepository.findById(id));
+    }
+
+    /**
+     * Obtiene un producto por ID leyendo de la base de datos solo los atributos indicados.
+     * @param id El ID del producto.
+     * @param atributos Atributos a leer, o null para leer el producto completo.
+     * @return Optional con el producto (no gestionado por JPA si es una proyección).
+     */
+    @Override
+    public Optional<Producto> getProductoById(Long id, Set<String> atributos) {
+        if (atributos == null) {
+            return getProductoById(id);
+        }
+        return leer(id, () -> productoRepository.findProjectedById(id, atributos));
+    }
+
+    /**
+     * Obtiene varios productos por ID con una sola consulta a la base de datos (WHERE id IN ...).
+     * Con el catálogo off-heap activado, solo se consultan los que no estén en él.
+     * @param ids IDs a buscar, sin repetidos.
+     * @return Los productos encontrados, en el orden de ids; los que no existen se omiten.
+     */
+    @Override
+    public List<Producto> getProductosByIds(List<Long> ids) {
+        Map<Long, Producto> encontrados = new HashMap<>(ids.size() * 2);
+        List<Long> pendientes = ids;
+        if (offHeapCatalog != null) {
+            pendientes = new ArrayList<>();
+            for (Long id : ids) {
+                Optional<Producto> producto = offHeapCatalog.get(id);
+                if (producto.isPresent()) {
+                    encontrados.put(id, producto.get());
+                } else {
+                    pendientes.add(id);
+                }
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            List<Long> consulta = pendientes;
+            for (Producto producto : leer(consulta, () -> productoRepository.findAllById(consulta))) {
+                encontrados.put(producto.getId(), producto);
+            }
+        }
+
+        List<Producto> productos = new ArrayList<>(encontrados.size());
+        for (Long id : ids) {
+            Producto producto = encontrados.get(id);
+            if (producto != null) {
+                productos.add(producto);
+            }
+        }
+        return productos;
     }
 
     /**
@@ -120,13 +231,45 @@ public class ProductoServiceImpl implements ProductoService {
         return productoRepository.findAll(pageable); // <-- Usa el método findAll(Pageable) del JpaRepository
     }
 
+    /**
+     * Obtiene todos los productos con paginación leyendo solo los atributos indicados.
+     * @param pageable Información de paginación y ordenación.
+     * @param atributos Atributos a leer, o null para leer los productos completos.
+     * @return Página de productos.
+     */
+    @Override
+    public Page<Producto> getAllProductos(Pageable pageable, Set<String> atributos) {
+        if (atributos == null) {
+            return getAllProductos(pageable);
+        }
+        return productoRepository.findAllProjected(atributos, pageable);
+    }
+
     @Override
     public void deleteProducto(Long id) {
+        registrarEscritura(id);
         // 1. Busca el producto por ID. Si no existe, lanza ResourceNotFoundException.
-        productoRepository.findById(id)
+        leer(id, () -> productoRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con id: " + id));
 
         // 2. Si el producto existe, procede a eliminarlo.
         productoRepository.deleteById(id);
+        registrarEscritura(id);
+        productoResponseCache.evict(id);
+    }
+
+    // Con réplica, las lecturas de un producto recién escrito van al primario (ReadYourWrites)
+    private <T> T leer(Long id, Supplier<T> lectura) {
+        return readYourWrites != null ? readYourWrites.leer(id, lectura) : lectura.get();
+    }
+
+    private <T> T leer(Collection<Long> ids, Supplier<T> lectura) {
+        return readYourWrites != null ? readYourWrites.leer(ids, lectura) : lectura.get();
+    }
+
+    private void registrarEscritura(Long id) {
+        if (readYourWrites != null) {
+            readYourWrites.registrar(id);
+        }
     }
 }
@@ -0,0 +1,187 @@
+package com.example.productos_service.warmup;
+
+import com.example.common.warmup.EjercicioEndpoints;
+import com.example.common.warmup.HotKeyTracker;
+import com.example.common.warmup.WarmUpProperties;
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioResilience;
+import com.example.productos_service.controller.ProductoController;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.repository.ProductoRepository;
+import com.example.productos_service.service.ProductoService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Calentamiento al arrancar, antes de aceptar tráfico: precarga en ProductoResponseCache los productos más
+ * leídos (HotKeyTracker; si no hay lista, los primeros de la tabla) y ejercita los endpoints de lectura con
+ * peticiones al propio servicio para que el JIT compile su camino y se abran las conexiones a la base de datos
+ * y a inventario-service.
+ * <p>
+ * Se ejecuta como ApplicationRunner: Spring Boot no publica ReadinessState.ACCEPTING_TRAFFIC (y
+ * /actuator/health/readiness no responde UP) hasta que termina, o hasta que se agota app.warm-up.budget.
+ * Un error en el calentamiento se registra y no impide arrancar. GET /api/productos/{id}/with-stock solo se
+ * ejercita si inventario-service está listo y el circuit breaker hacia él, cerrado: sin inventario responde 200
+ * con el stock degradado, y las llamadas fallidas abrirían el circuito antes de recibir tráfico.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final Duration SONDEO_TIMEOUT = Duration.ofSeconds(2);
+
+    private final WarmUpProperties properties;
+    private final HotKeyTracker hotKeys;
+    private final ProductoService productoService;
+    private final ProductoRepository productoRepository;
+    private final ProductoResponseCache productoResponseCache;
+    private final InventarioResilience inventarioResilience;
+    private final InventarioClientProperties inventarioClientProperties;
+    private final ApplicationEventPublisher publisher;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final String apiKey;
+
+    public WarmUpRunner(WarmUpProperties properties, HotKeyTracker hotKeys, ProductoService productoService,
+                        ProductoRepository productoRepository, ProductoResponseCache productoResponseCache,
+                        InventarioResilience inventarioResilience, InventarioClientProperties inventarioClientProperties,
+                        ApplicationEventPublisher publisher, Environment environment, MeterRegistry meterRegistry,
+                        @Value("${app.security.api-key:}") String apiKey) {
+        this.properties = properties;
+        this.hotKeys = hotKeys;
+        this.productoService = productoService;
+        this.productoRepository = productoRepository;
+        this.productoResponseCache = productoResponseCache;
+        this.inventarioResilience = inventarioResilience;
+        this.inventarioClientProperties = inventarioClientProperties;
+        this.publisher = publisher;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        calentar();
+    }
+
+    void calentar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + properties.getBudget().toNanos();
+        hotKeys.pausar();
+        try {
+            List<Long> ids = hotKeys.leer();
+            String origen = "lista guardada";
+            if (ids.isEmpty()) {
+                ids = productoRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE,
+                        PageRequest.ofSize(properties.getHotKeys().getMaxKeys())).map(Producto::getId).getContent();
+                origen = "tabla";
+            }
+            int precargados = precargar(ids, limite);
+            // Sin servidor web (tests con MockMvc) solo se precarga
+            Integer puerto = environment.getProperty("local.server.port", Integer.class);
+            EjercicioEndpoints.Resultado peticiones = puerto != null
+                    ? ejercicio(puerto, ids).ejecutar(limite)
+                    : new EjercicioEndpoints.Resultado(0, 0, List.of());
+
+            long duracion = System.nanoTime() - inicio;
+            boolean completo = System.nanoTime() < limite;
+            Timer.builder("warmup.duration")
+                    .description("Duración del calentamiento al arrancar")
+                    .tag("outcome", completo ? "completed" : "budget-exceeded")
+                    .register(meterRegistry)
+                    .record(duracion, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("warmup.requests", "outcome", "ok").increment(peticiones.correctas());
+            meterRegistry.counter("warmup.requests", "outcome", "error").increment(peticiones.errores());
+            logger.info("Calentamiento {} en {} ms: {} productos precargados ({}), {} peticiones, {} errores{}",
+                    completo ? "terminado" : "interrumpido por app.warm-up.budget", duracion / 1_000_000,
+                    precargados, origen, peticiones.correctas(), peticiones.errores(),
+                    peticiones.descartados().isEmpty() ? "" : ", sin ejercitar " + peticiones.descartados());
+        } catch (RuntimeException e) {
+            logger.error("Error en el calentamiento: {}", e.getMessage(), e);
+        } finally {
+            hotKeys.reanudar();
+        }
+    }
+
+    // Por lotes, como GET /api/productos?filter[id]=...: una consulta por lote en lugar de una por producto
+    private int precargar(List<Long> ids, long limite) {
+        int precargados = 0;
+        for (int desde = 0; desde < ids.size() && System.nanoTime() < limite; desde += ProductoController.MAX_IDS_POR_CONSULTA) {
+            List<Long> lote = ids.subList(desde, Math.min(ids.size(), desde + ProductoController.MAX_IDS_POR_CONSULTA));
+            for (Producto producto : productoService.getProductosByIds(lote)) {
+                productoResponseCache.getOrLoad(producto.getId(), id -> Optional.of(producto));
+                precargados++;
+            }
+        }
+        return precargados;
+    }
+
+    private EjercicioEndpoints ejercicio(int puerto, List<Long> ids) {
+        boolean inventarioListo = inventarioListo();
+        String base = "http://localhost:" + puerto;
+        String json = MediaType.APPLICATION_JSON_VALUE;
+        List<EjercicioEndpoints.Endpoint> endpoints = List.of(
+                new EjercicioEndpoints.Endpoint("GET /api/productos/{id}", id -> "/api/productos/" + id, json),
+                // Nunca falla (sin inventario responde 200 con stock null o 0): solo con inventario listo y el circuito cerrado
+                new EjercicioEndpoints.Endpoint("GET /api/productos/{id}/with-stock", id -> "/api/productos/" + id + "/with-stock", json,
+                        () -> inventarioListo && inventarioResilience.getEstado() == CircuitBreaker.State.CLOSED),
+                // Como lo llama inventario-service: en Smile y por lotes
+                new EjercicioEndpoints.Endpoint("GET /api/productos?filter[id]", id -> "/api/productos?filter%5Bid%5D="
+                        + LongStream.range(id, id + 10).mapToObj(Long::toString).collect(Collectors.joining(",")),
+                        JsonApiHttpMessageConverter.APPLICATION_SMILE_VALUE),
+                new EjercicioEndpoints.Endpoint("GET /api/productos", id -> "/api/productos?page=" + id % 10 + "&size=20", json));
+        Map<String, String> cabeceras = apiKey.isEmpty() ? Map.of() : Map.of("X-API-Key", apiKey);
+        return new EjercicioEndpoints(base, cabeceras, endpoints, ids, properties.getRequests(), properties.getConcurrency());
+    }
+
+    // /actuator/health/readiness de inventario-service (en la raíz de inventario-service.url); 200 = listo
+    private boolean inventarioListo() {
+        try {
+            URI readiness = URI.create(inventarioClientProperties.getUrl()).resolve("/actuator/health/readiness");
+            HttpClient cliente = HttpClient.newBuilder().connectTimeout(SONDEO_TIMEOUT).build();
+            int status = cliente.send(HttpRequest.newBuilder(readiness).timeout(SONDEO_TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 200) {
+                return true;
+            }
+            logger.info("Calentamiento: inventario-service no está listo ({}); no se ejercita with-stock", status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.info("Calentamiento: inventario-service no responde ({}); no se ejercita with-stock", e.toString());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+-- IDs por bloques: Hibernate pide un valor a la secuencia cada 50 altas (optimizador pooled) en lugar de
+-- leer el ID de cada INSERT (IDENTITY), así que los INSERT se pueden agrupar en lotes JDBC.
+-- Se reutiliza la secuencia de la columna (productos_id_seq): sirve tanto si la tabla se creó con BIGSERIAL
+-- (V1) como con una columna identity (ddl-auto de Hibernate). El DEFAULT de la columna se mantiene: un
+-- INSERT sin id (SQL directo) consume un bloque entero y usa su último valor; Hibernate no reparte ese bloque.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'productos' AND column_name = 'id' AND is_identity = 'YES') THEN
+        ALTER TABLE productos ALTER COLUMN id SET INCREMENT BY 50;
+    ELSE
+        ALTER SEQUENCE productos_id_seq INCREMENT BY 50;
+    END IF;
+END
+$$;
+
+-- El siguiente nextval devuelve MAX(id) + 50 y Hibernate reparte MAX(id) + 1 .. MAX(id) + 50: los IDs
+-- existentes siguen siendo válidos. Con la tabla vacía, el primer nextval devuelve 1 y el bloque empieza en 1.
+SELECT setval(pg_get_serial_sequence('productos', 'id'), COALESCE(MAX(id), 1), MAX(id) IS NOT NULL) FROM productos;
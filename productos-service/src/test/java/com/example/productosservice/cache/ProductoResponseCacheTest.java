@@ -0,0 +1,161 @@
+package com.example.productosservice.cache;
+
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductoResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testAciertoNoVuelveACargar() {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1024 * 1024, true);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.getOrLoad(1L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+        Optional<ProductoResponseCache.Entry> entry = cache.getOrLoad(1L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+
+        assertTrue(entry.isPresent());
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("{\"data\":{\"id\":\"1\",\"type\":\"productos\",\"attributes\":{\"nombre\":\"Producto 1\",\"descripcion\":\"Descripción del producto 1\",\"precio\":19.99}}}",
+                new String(entry.get().getJson(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGzipContieneElMismoJson() throws Exception {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1024 * 1024, true);
+        Producto producto = producto(1L);
+        producto.setDescripcion("Descripción larga ".repeat(20)); // Suficiente para que gzip compense
+
+        ProductoResponseCache.Entry entry = cache.getOrLoad(1L, id -> Optional.of(producto)).orElseThrow();
+
+        assertNotNull(entry.getGzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(entry.getGzip()))) {
+            assertArrayEquals(entry.getJson(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testProductoInexistenteNoSeCachea() {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1024 * 1024, true);
+
+        assertTrue(cache.getOrLoad(99L, id -> Optional.empty()).isEmpty());
+        assertEquals(0, cache.getCurrentBytes());
+    }
+
+    @Test
+    void testEvictObligaARecargar() {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1024 * 1024, true);
+        cache.getOrLoad(1L, id -> Optional.of(producto(id)));
+
+        cache.evict(1L);
+        Producto actualizado = producto(1L);
+        actualizado.setNombre("Nuevo nombre");
+        ProductoResponseCache.Entry entry = cache.getOrLoad(1L, id -> Optional.of(actualizado)).orElseThrow();
+
+        assertEquals("Nuevo nombre", entry.getProducto().getNombre());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testCargaConcurrenteConEvictNoDejaDatoObsoleto() {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1024 * 1024, true);
+
+        // El producto se invalida mientras se está cargando la versión antigua
+        cache.getOrLoad(1L, id -> {
+            cache.evict(1L);
+            return Optional.of(producto(id));
+        });
+
+        AtomicInteger cargas = new AtomicInteger();
+        cache.getOrLoad(1L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testLimiteDeBytesExpulsaLaMenosUsada() {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 1200, false);
+        AtomicInteger cargas = new AtomicInteger();
+
+        for (long id = 1; id <= 3; id++) {
+            cache.getOrLoad(id, this::cargar);
+        }
+        cache.getOrLoad(1L, this::cargar); // 1 pasa a ser la más reciente
+        for (long id = 4; id <= 6; id++) {
+            cache.getOrLoad(id, this::cargar);
+        }
+
+        assertTrue(cache.getCurrentBytes() <= 1200);
+        cache.getOrLoad(6L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+        assertEquals(0, cargas.get()); // La última insertada sigue en la caché
+        cache.getOrLoad(2L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+        assertEquals(1, cargas.get()); // Una de las primeras fue expulsada
+    }
+
+    @Test
+    void testAciertosYAltasConcurrentesRespetanElLimite() throws Exception {
+        ProductoResponseCache cache = new ProductoResponseCache(objectMapper, true, 4000, false);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                long desde = h * 100L;
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        cache.getOrLoad(i % 2 == 0 ? 1L : desde + i % 50, this::cargar); // El 1 es el más pedido
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertTrue(cache.getCurrentBytes() <= 4000);
+        assertTrue(cache.getHits() >= 8 * 1000 - 8); // Las peticiones del 1 aciertan salvo las primeras de cada hilo
+        AtomicInteger cargas = new AtomicInteger();
+        cache.getOrLoad(1L, id -> { cargas.incrementAndGet(); return Optional.of(producto(id)); });
+        assertEquals(0, cargas.get());
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(ProductoResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductoResponseCache.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(ProductoResponseCache.acceptsGzip("*"));
+        assertFalse(ProductoResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductoResponseCache.acceptsGzip("identity"));
+        assertFalse(ProductoResponseCache.acceptsGzip(null));
+    }
+
+    private Optional<Producto> cargar(Long id) {
+        return Optional.of(producto(id));
+    }
+
+    private Producto producto(Long id) {
+        Producto producto = new Producto("Producto " + id, "Descripción del producto " + id, new BigDecimal("19.99"));
+        producto.setId(id);
+        return producto;
+    }
+}
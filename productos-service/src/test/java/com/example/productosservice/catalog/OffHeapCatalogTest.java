@@ -0,0 +1,115 @@
+package com.example.productosservice.catalog;
+
+import com.example.productos_service.catalog.OffHeapCatalog;
+import com.example.productos_service.model.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapCatalogTest {
+
+    @Test
+    void testPutYGetConservanTodosLosCampos() {
+        OffHeapCatalog catalog = new OffHeapCatalog(4096, 1024 * 1024, 16);
+        catalog.put(producto(1L, "Café ☕ \"especial\"", "Tostado natural", new BigDecimal("12.50")));
+
+        Producto producto = catalog.get(1L).orElseThrow();
+
+        assertEquals(1L, producto.getId());
+        assertEquals("Café ☕ \"especial\"", producto.getNombre());
+        assertEquals("Tostado natural", producto.getDescripcion());
+        assertEquals(new BigDecimal("12.50"), producto.getPrecio()); // Misma escala, no solo mismo valor
+        assertEquals(2, producto.getPrecio().scale());
+    }
+
+    @Test
+    void testCamposNulosYCadenasVacias() {
+        OffHeapCatalog catalog = new OffHeapCatalog(4096, 1024 * 1024, 16);
+        catalog.put(producto(2L, "", null, null));
+
+        Producto producto = catalog.get(2L).orElseThrow();
+
+        assertEquals("", producto.getNombre());
+        assertNull(producto.getDescripcion());
+        assertNull(producto.getPrecio());
+    }
+
+    @Test
+    void testActualizarYEliminar() {
+        OffHeapCatalog catalog = new OffHeapCatalog(4096, 1024 * 1024, 16);
+        catalog.put(producto(3L, "Antes", "x", BigDecimal.ONE));
+        catalog.put(producto(3L, "Después", "y", BigDecimal.TEN));
+
+        assertEquals("Después", catalog.get(3L).orElseThrow().getNombre());
+        assertEquals(1, catalog.size());
+
+        catalog.remove(3L);
+        assertEquals(Optional.empty(), catalog.get(3L));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    void testPrecioQueNoCabeEnUnLongNoSeCachea() {
+        OffHeapCatalog catalog = new OffHeapCatalog(4096, 1024 * 1024, 16);
+        catalog.put(producto(4L, "Caro", null, new BigDecimal("1")));
+        catalog.put(producto(4L, "Caro", null, new BigDecimal("123456789012345678901234567890.00")));
+
+        assertEquals(Optional.empty(), catalog.get(4L)); // Se leerá de la base de datos
+    }
+
+    @Test
+    void testCompactacionRecuperaEspacioMuerto() {
+        // Segmentos de 1 KB y máximo 4 KB: sin compactar no cabrían tantas actualizaciones
+        OffHeapCatalog catalog = new OffHeapCatalog(1024, 4096, 16);
+        for (int i = 0; i < 500; i++) {
+            catalog.put(producto(5L, "Producto " + i, "Descripción " + i, BigDecimal.valueOf(i, 2)));
+            catalog.put(producto(6L, "Otro " + i, null, BigDecimal.valueOf(i)));
+        }
+
+        assertEquals("Producto 499", catalog.get(5L).orElseThrow().getNombre());
+        assertEquals("Otro 499", catalog.get(6L).orElseThrow().getNombre());
+        assertTrue(catalog.getOffHeapBytes() <= 4096);
+    }
+
+    @Test
+    void testCatalogoLlenoDejaDeServirElProducto() {
+        OffHeapCatalog catalog = new OffHeapCatalog(256, 256, 16);
+        for (long id = 1; id <= 20; id++) {
+            catalog.put(producto(id, "Producto " + id, "Descripción " + id, BigDecimal.ONE));
+        }
+
+        assertTrue(catalog.get(1L).isPresent());
+        assertEquals(Optional.empty(), catalog.get(20L)); // No cabía: se leerá de la base de datos
+    }
+
+    @Test
+    void testMuchosProductosConRedimensionadoDelIndice() {
+        OffHeapCatalog catalog = new OffHeapCatalog(1024 * 1024, 64L * 1024 * 1024, 16);
+        for (long id = 0; id < 100_000; id++) {
+            catalog.put(producto(id, "P" + id, null, BigDecimal.valueOf(id, 2)));
+        }
+        for (long id = 0; id < 100_000; id += 2) {
+            catalog.remove(id);
+        }
+
+        assertEquals(50_000, catalog.size());
+        for (long id = 0; id < 100_000; id++) {
+            Optional<Producto> producto = catalog.get(id);
+            if (id % 2 == 0) {
+                assertTrue(producto.isEmpty(), "id " + id);
+            } else {
+                assertEquals("P" + id, producto.orElseThrow().getNombre());
+                assertEquals(BigDecimal.valueOf(id, 2), producto.get().getPrecio());
+            }
+        }
+    }
+
+    private Producto producto(Long id, String nombre, String descripcion, BigDecimal precio) {
+        Producto producto = new Producto(nombre, descripcion, precio);
+        producto.setId(id);
+        return producto;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.productosservice.client;
+
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioHedging;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventarioHedgingTest {
+
+    private InventarioClientProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InventarioClientProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setWindowSize(32);
+        properties.getHedging().setMinSamples(16);
+        properties.getHedging().setMinDelay(Duration.ofMillis(20));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testDesactivadoDevuelveLaMismaLlamada() {
+        properties.getHedging().setEnabled(false);
+        InventarioHedging hedging = new InventarioHedging(properties, meterRegistry);
+        Mono<String> llamada = Mono.just("ok");
+
+        assertSame(llamada, hedging.hedge(llamada));
+    }
+
+    @Test
+    void testSinMuestrasSuficientesNoEnviaRespaldo() {
+        InventarioHedging hedging = new InventarioHedging(properties, meterRegistry);
+        AtomicInteger suscripciones = new AtomicInteger();
+
+        String resultado = hedging.hedge(lenta(suscripciones, Duration.ofMillis(100))).block();
+
+        assertEquals("ok", resultado);
+        assertEquals(1, suscripciones.get());
+        assertNull(hedging.getRetardoActual());
+    }
+
+    @Test
+    void testElRespaldoGanaCuandoLaPrincipalSeRetrasa() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        // Latencias de ~0 ms: el retardo queda en min-delay
+        assertEquals(Duration.ofMillis(20), hedging.getRetardoActual());
+
+        AtomicInteger suscripciones = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> suscripciones.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(2)).thenReturn("principal")
+                : Mono.just("respaldo"));
+
+        long inicio = System.nanoTime();
+        String resultado = hedging.hedge(llamada).block();
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals("respaldo", resultado);
+        assertEquals(2, suscripciones.get());
+        assertTrue(millis < 1_000, "tardó " + millis + " ms");
+        assertEquals(1.0, meterRegistry.counter("inventario.hedge.sent").count());
+        assertEquals(1.0, meterRegistry.counter("inventario.hedge.won").count());
+    }
+
+    @Test
+    void testElErrorDelRespaldoNoSustituyeALaPrincipal() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        AtomicInteger suscripciones = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> suscripciones.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("principal")
+                : Mono.error(new IllegalStateException("respaldo caído")));
+
+        assertEquals("principal", hedging.hedge(llamada).block());
+        assertEquals(2, suscripciones.get());
+    }
+
+    @Test
+    void testElErrorDeLaPrincipalEsperaAlRespaldoEnCurso() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        AtomicInteger suscripciones = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> suscripciones.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException("conexión cerrada")))
+                : Mono.delay(Duration.ofMillis(100)).thenReturn("respaldo"));
+
+        assertEquals("respaldo", hedging.hedge(llamada).block());
+    }
+
+    @Test
+    void testElErrorDeLaPrincipalSePropagaSiNoHayRespaldo() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        AtomicInteger suscripciones = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> {
+            suscripciones.incrementAndGet();
+            return Mono.error(new IllegalStateException("inventario caído"));
+        });
+
+        assertThrows(IllegalStateException.class, () -> hedging.hedge(llamada).block());
+        assertEquals(1, suscripciones.get());
+    }
+
+    @Test
+    void testElPresupuestoLimitaLasPeticionesDeRespaldo() {
+        properties.getHedging().setMaxBurst(1);
+        properties.getHedging().setBudgetPercent(0);
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+
+        AtomicInteger primera = new AtomicInteger();
+        hedging.hedge(lenta(primera, Duration.ofMillis(100))).block();
+        AtomicInteger segunda = new AtomicInteger();
+        hedging.hedge(lenta(segunda, Duration.ofMillis(100))).block();
+
+        // La ráfaga admite un único respaldo y no se recarga
+        assertEquals(2, primera.get());
+        assertEquals(1, segunda.get());
+        assertEquals(1.0, meterRegistry.counter("inventario.hedge.sent").count());
+        assertEquals(1.0, meterRegistry.counter("inventario.hedge.rejected").count());
+    }
+
+    @Test
+    void testCancelarDesdeFueraCancelaLasDosPeticiones() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        AtomicInteger suscripciones = new AtomicInteger();
+        AtomicInteger canceladas = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> {
+            suscripciones.incrementAndGet();
+            return Mono.delay(Duration.ofSeconds(2)).thenReturn("ok").doOnCancel(canceladas::incrementAndGet);
+        });
+
+        // Como el timeout de la llamada o el deadline de la petición, con el respaldo ya enviado
+        assertThrows(RuntimeException.class, () -> hedging.hedge(llamada).timeout(Duration.ofMillis(200)).block());
+
+        assertEquals(2, suscripciones.get());
+        assertEquals(2, esperar(canceladas, 2));
+    }
+
+    @Test
+    void testLaPeticionPerdedoraSeCancela() {
+        InventarioHedging hedging = calentado(new InventarioHedging(properties, meterRegistry));
+        AtomicInteger suscripciones = new AtomicInteger();
+        AtomicInteger canceladas = new AtomicInteger();
+        Mono<String> llamada = Mono.defer(() -> suscripciones.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(2)).thenReturn("principal").doOnCancel(canceladas::incrementAndGet)
+                : Mono.just("respaldo"));
+
+        assertEquals("respaldo", hedging.hedge(llamada).block());
+        assertEquals(1, esperar(canceladas, 1));
+    }
+
+    private InventarioHedging calentado(InventarioHedging hedging) {
+        for (int i = 0; i < 32; i++) {
+            hedging.hedge(Mono.just("ok")).block();
+        }
+        return hedging;
+    }
+
+    // La cancelación llega en el hilo que entregó la respuesta, a veces después de que block() vuelva
+    private static int esperar(AtomicInteger contador, int esperado) {
+        long limite = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (contador.get() < esperado && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        return contador.get();
+    }
+
+    private static Mono<String> lenta(AtomicInteger suscripciones, Duration retardo) {
+        return Mono.defer(() -> {
+            suscripciones.incrementAndGet();
+            return Mono.delay(retardo).thenReturn("ok");
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.productosservice.client;
+
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioHedging;
+import com.example.productos_service.client.InventarioResilience;
+import com.example.productos_service.client.InventarioServiceClient;
+import com.example.productos_service.config.InventarioClientConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara la latencia de obtenerInventarioPorProductoId con y sin hedging contra un sustituto de
+ * inventario-service con cola pesada: el 97 % de las respuestas tarda ~2 ms y el 3 % sigue una
+ * distribución de Pareto desde 50 ms (como una instancia lenta ocasional). Deja en el log p50/p99/p999 y el
+ * porcentaje de peticiones extra que llegan al servidor.
+ */
+public class InventarioServiceClientHedgingIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioServiceClientHedgingIT.class);
+
+    private static final int PETICIONES = 5_000;
+    private static final int CONCURRENCIA = 16;
+
+    @Test
+    void testHedgingReduceLaColaDentroDelPresupuesto() {
+        Resultado sinHedging = ejecutar(false);
+        Resultado conHedging = ejecutar(true);
+
+        assertTrue(conHedging.percentil(99) < sinHedging.percentil(99),
+                "p99 con hedging " + conHedging.percentil(99) + " ms, sin hedging " + sinHedging.percentil(99) + " ms");
+        assertTrue(conHedging.percentil(99.9) < sinHedging.percentil(99.9),
+                "p999 con hedging " + conHedging.percentil(99.9) + " ms, sin hedging " + sinHedging.percentil(99.9) + " ms");
+        // budget-percent = 10 más la ráfaga inicial
+        assertTrue(conHedging.extra() <= 10.5, "peticiones extra " + conHedging.extra() + " %");
+    }
+
+    private Resultado ejecutar(boolean hedgingActivo) {
+        AtomicInteger recibidas = new AtomicInteger();
+        DisposableServer servidor = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/inventario/{productoId}", (request, response) -> {
+                    recibidas.incrementAndGet();
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(latenciaColaPesada())
+                                    .thenReturn("{\"id\":1,\"productoId\":" + request.param("productoId") + ",\"cantidad\":10}"));
+                }))
+                .bindNow();
+
+        InventarioClientProperties properties = new InventarioClientProperties();
+        properties.setUrl("http://localhost:" + servidor.port() + "/api/inventario");
+        properties.getHedging().setEnabled(hedgingActivo);
+        ConnectionProvider provider = new InventarioClientConfig().inventarioConnectionProvider(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InventarioServiceClient client = new InventarioServiceClient(WebClient.builder(), properties, provider,
+                new InventarioResilience(properties, meterRegistry), new InventarioHedging(properties, meterRegistry));
+
+        try {
+            // Calentamiento: abre conexiones y llena la ventana de latencias
+            Flux.range(1, 1_000).flatMap(i -> client.obtenerInventarioPorProductoId((long) i), CONCURRENCIA).blockLast();
+            recibidas.set(0);
+
+            long[] latencias = new long[PETICIONES];
+            AtomicInteger siguiente = new AtomicInteger();
+            Flux.range(1, PETICIONES)
+                    .flatMap(i -> {
+                        long inicio = System.nanoTime();
+                        return client.obtenerInventarioPorProductoId((long) i)
+                                .doOnSuccess(r -> latencias[siguiente.getAndIncrement()] = (System.nanoTime() - inicio) / 1_000);
+                    }, CONCURRENCIA)
+                    .blockLast(Duration.ofMinutes(2));
+
+            Resultado resultado = new Resultado(latencias, recibidas.get());
+            logger.info(String.format("hedging=%s -> p50=%.1f ms p99=%.1f ms p999=%.1f ms máx=%.1f ms peticiones extra=%.2f %%",
+                    hedgingActivo, resultado.percentil(50), resultado.percentil(99), resultado.percentil(99.9),
+                    resultado.percentil(100), resultado.extra()));
+            return resultado;
+        } finally {
+            provider.dispose();
+            servidor.disposeNow();
+        }
+    }
+
+    private static Duration latenciaColaPesada() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() >= 0.03) {
+            return Duration.ofMillis(2);
+        }
+        // Pareto con alfa 1,5 desde 50 ms, acotada a 1 s
+        double millis = 50 / Math.pow(1 - random.nextDouble(), 1 / 1.5);
+        return Duration.ofMillis((long) Math.min(millis, 1_000));
+    }
+
+    private static final class Resultado {
+        private final long[] micros;
+        private final int recibidas;
+
+        Resultado(long[] micros, int recibidas) {
+            this.micros = micros.clone();
+            Arrays.sort(this.micros);
+            this.recibidas = recibidas;
+        }
+
+        double percentil(double p) {
+            int indice = (int) Math.min(micros.length - 1, Math.max(0, Math.ceil(p / 100 * micros.length) - 1));
+            return micros[indice] / 1_000.0;
+        }
+
+        double extra() {
+            return 100.0 * (recibidas - PETICIONES) / PETICIONES;
+        }
+    }
+}
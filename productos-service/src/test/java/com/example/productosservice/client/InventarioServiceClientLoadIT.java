@@ -0,0 +1,135 @@
+package com.example.productosservice.client;
+
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioHedging;
+import com.example.productos_service.client.InventarioResilience;
+import com.example.productos_service.client.InventarioServiceClient;
+import com.example.productos_service.config.InventarioClientConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de InventarioServiceClient contra un sustituto local de inventario-service
+ * que tarda 50 ms por respuesta. Deja en el log la latencia (p50/p99/máx) con el pool holgado y con el pool
+ * saturado, y comprueba que bajo presión las peticiones se rechazan o terminan a tiempo en lugar de colgarse.
+ */
+public class InventarioServiceClientLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioServiceClientLoadIT.class);
+
+    private static final Duration RETARDO_SERVIDOR = Duration.ofMillis(50);
+
+    @Test
+    void testLatenciaConElPoolHolgado() {
+        Resultado resultado = ejecutar(10, 100, 50);
+
+        assertEquals(50, resultado.exitos.get());
+        assertEquals(0, resultado.rechazadas.get());
+        // 50 peticiones / 10 conexiones = 5 tandas de 50 ms
+        assertTrue(resultado.percentil(99) < 1_000, "p99 " + resultado.percentil(99) + " ms");
+    }
+
+    @Test
+    void testBajoPresionRechazaEnLugarDeColgarse() {
+        // 10 conexiones + 20 en espera; llegan 200 peticiones a la vez
+        Resultado resultado = ejecutar(10, 20, 200);
+
+        assertTrue(resultado.rechazadas.get() > 0, "Se esperaban rechazos por cola de espera llena");
+        assertTrue(resultado.exitos.get() >= 30, "Las que caben en el pool y la cola deben completarse");
+        assertEquals(200, resultado.exitos.get() + resultado.rechazadas.get() + resultado.otrosErrores.get());
+        // Ninguna petición espera más que pending-acquire-timeout + respuesta del servidor (con margen)
+        assertTrue(resultado.maximo() < 3_000, "máx " + resultado.maximo() + " ms");
+    }
+
+    private Resultado ejecutar(int maxConnections, int pendingAcquireMaxCount, int peticiones) {
+        DisposableServer servidor = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/inventario/{productoId}", (request, response) ->
+                        response.header("Content-Type", "application/json")
+                                .sendString(Mono.delay(RETARDO_SERVIDOR)
+                                        .thenReturn("{\"id\":1,\"productoId\":" + request.param("productoId") + ",\"cantidad\":10}"))))
+                .bindNow();
+
+        InventarioClientProperties properties = new InventarioClientProperties();
+        properties.setUrl("http://localhost:" + servidor.port() + "/api/inventario");
+        properties.getPool().setMaxConnections(maxConnections);
+        properties.getPool().setPendingAcquireMaxCount(pendingAcquireMaxCount);
+        properties.getPool().setPendingAcquireTimeout(Duration.ofSeconds(1));
+        ConnectionProvider provider = new InventarioClientConfig().inventarioConnectionProvider(properties);
+        // Bulkhead holgado: aquí se mide el pool, no el bulkhead
+        properties.getBulkheads().setObtenerInventario(peticiones);
+        InventarioResilience resilience = new InventarioResilience(properties, new SimpleMeterRegistry());
+        InventarioServiceClient client = new InventarioServiceClient(WebClient.builder(), properties, provider, resilience,
+                new InventarioHedging(properties, new SimpleMeterRegistry()));
+
+        try {
+            // Calentamiento: abre las conexiones antes de medir
+            Flux.range(1, maxConnections).flatMap(i -> client.obtenerInventarioPorProductoId((long) i), maxConnections).blockLast();
+
+            Resultado resultado = new Resultado();
+            Flux.range(1, peticiones)
+                    .flatMap(i -> {
+                        long inicio = System.nanoTime();
+                        return client.obtenerInventarioPorProductoId((long) i)
+                                .doOnNext(r -> resultado.exitos.incrementAndGet())
+                                .onErrorResume(e -> {
+                                    if (e instanceof PoolAcquirePendingLimitException
+                                            || e.getCause() instanceof PoolAcquirePendingLimitException) {
+                                        resultado.rechazadas.incrementAndGet();
+                                    } else {
+                                        resultado.otrosErrores.incrementAndGet();
+                                    }
+                                    return Mono.empty();
+                                })
+                                .doFinally(s -> resultado.registrar((System.nanoTime() - inicio) / 1_000_000));
+                    }, peticiones)
+                    .blockLast(Duration.ofSeconds(30));
+
+            logger.info("pool={} cola={} peticiones={} -> éxitos={} rechazadas={} otros={} p50={} ms p99={} ms máx={} ms",
+                    maxConnections, pendingAcquireMaxCount, peticiones, resultado.exitos.get(), resultado.rechazadas.get(),
+                    resultado.otrosErrores.get(), resultado.percentil(50), resultado.percentil(99), resultado.maximo());
+            return resultado;
+        } finally {
+            provider.dispose();
+            servidor.disposeNow();
+        }
+    }
+
+    private static final class Resultado {
+        private final AtomicInteger exitos = new AtomicInteger();
+        private final AtomicInteger rechazadas = new AtomicInteger();
+        private final AtomicInteger otrosErrores = new AtomicInteger();
+        private final List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+
+        void registrar(long millis) {
+            latencias.add(millis);
+        }
+
+        long percentil(int p) {
+            List<Long> ordenadas = new ArrayList<>(latencias);
+            Collections.sort(ordenadas);
+            return ordenadas.get(Math.min(ordenadas.size() - 1, (int) Math.ceil(p / 100.0 * ordenadas.size()) - 1));
+        }
+
+        long maximo() {
+            return Collections.max(latencias);
+        }
+    }
+}
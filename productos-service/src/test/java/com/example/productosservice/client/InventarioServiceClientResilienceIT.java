@@ -0,0 +1,132 @@
+package com.example.productosservice.client;
+
+import com.example.productos_service.client.InventarioClientProperties;
+import com.example.productos_service.client.InventarioHedging;
+import com.example.productos_service.client.InventarioResilience;
+import com.example.productos_service.client.InventarioServiceClient;
+import com.example.productos_service.config.InventarioClientConfig;
+import com.example.productos_service.exception.InventarioNoDisponibleException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba circuit breaker y bulkheads de InventarioServiceClient contra un sustituto local de
+ * inventario-service al que se le pueden inyectar errores 500 y latencia.
+ */
+public class InventarioServiceClientResilienceIT {
+
+    private final AtomicBoolean fallando = new AtomicBoolean();
+    private final AtomicInteger llamadasRecibidas = new AtomicInteger();
+    private volatile Duration retardo = Duration.ZERO;
+
+    private DisposableServer servidor;
+    private ConnectionProvider provider;
+    private InventarioResilience resilience;
+    private InventarioServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        servidor = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/api/inventario/{productoId}", (request, response) -> {
+                    llamadasRecibidas.incrementAndGet();
+                    if (fallando.get()) {
+                        return response.status(500).sendString(Mono.just("fallo simulado"));
+                    }
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(retardo)
+                                    .thenReturn("{\"id\":1,\"productoId\":" + request.param("productoId") + ",\"cantidad\":10}"));
+                }))
+                .bindNow();
+
+        InventarioClientProperties properties = new InventarioClientProperties();
+        properties.setUrl("http://localhost:" + servidor.port() + "/api/inventario");
+        properties.getCircuitBreaker().setSlidingWindowSize(10);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(5);
+        properties.getCircuitBreaker().setWaitDurationInOpenState(Duration.ofMillis(500));
+        properties.getCircuitBreaker().setPermittedCallsInHalfOpenState(2);
+        properties.getBulkheads().setObtenerInventario(5);
+        provider = new InventarioClientConfig().inventarioConnectionProvider(properties);
+        resilience = new InventarioResilience(properties, new SimpleMeterRegistry());
+        client = new InventarioServiceClient(WebClient.builder(), properties, provider, resilience,
+                new InventarioHedging(properties, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.dispose();
+        servidor.disposeNow();
+    }
+
+    @Test
+    void testElCircuitoSeAbreYFallaEnElActo() {
+        fallando.set(true);
+        for (long i = 1; i <= 5; i++) {
+            long productoId = i;
+            assertThrows(RuntimeException.class, () -> client.obtenerInventarioPorProductoId(productoId).block());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getEstado());
+
+        // Con el circuito abierto no se llega a inventario y el rechazo es inmediato
+        int recibidas = llamadasRecibidas.get();
+        long inicio = System.nanoTime();
+        assertThrows(InventarioNoDisponibleException.class, () -> client.obtenerInventarioPorProductoId(6L).block());
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        assertTrue(millis < 50, "El rechazo tardó " + millis + " ms");
+        assertEquals(recibidas, llamadasRecibidas.get());
+    }
+
+    @Test
+    void testHalfOpenCierraElCircuitoCuandoInventarioSeRecupera() throws InterruptedException {
+        fallando.set(true);
+        for (long i = 1; i <= 5; i++) {
+            long productoId = i;
+            assertThrows(RuntimeException.class, () -> client.obtenerInventarioPorProductoId(productoId).block());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getEstado());
+
+        fallando.set(false);
+        Thread.sleep(600);
+
+        // Las sondas de half-open van a inventario y, si responden bien, cierran el circuito
+        assertNotNull(client.obtenerInventarioPorProductoId(1L).block());
+        assertNotNull(client.obtenerInventarioPorProductoId(2L).block());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getEstado());
+    }
+
+    @Test
+    void testElBulkheadRechazaLasLlamadasQueExcedenElLimite() {
+        retardo = Duration.ofMillis(300);
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        Flux.range(1, 20)
+                .flatMap(i -> client.obtenerInventarioPorProductoId((long) i)
+                        .doOnNext(r -> exitos.incrementAndGet())
+                        .onErrorResume(InventarioNoDisponibleException.class, e -> {
+                            rechazadas.incrementAndGet();
+                            return Mono.empty();
+                        }), 20)
+                .blockLast(Duration.ofSeconds(10));
+
+        assertEquals(5, exitos.get());
+        assertEquals(15, rechazadas.get());
+        // Los rechazos del bulkhead no cuentan como fallos de inventario
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getEstado());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.productosservice.config;
+
+import com.example.productos_service.config.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsConfigTest {
+
+    // Igual que ProductoServiceImpl: @Timed en la clase, con métodos bloqueantes y reactivos
+    @Timed(value = "productos.service", histogram = true)
+    public static class Servicio {
+
+        public String buscar(Long id) {
+            return "producto-" + id;
+        }
+
+        public Mono<String> buscarConStock(Long id) {
+            return Mono.just("producto-" + id);
+        }
+    }
+
+    @Test
+    void testSeMidenLosMetodosBloqueantesYNoLosReactivos() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Servicio());
+        factory.setProxyTargetClass(true); // Como Spring Boot (spring.aop.proxy-target-class=true)
+        factory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        Servicio servicio = factory.getProxy();
+
+        assertEquals("producto-1", servicio.buscar(1L));
+        assertEquals("producto-2", servicio.buscarConStock(2L).block());
+
+        assertEquals(1, meterRegistry.get("productos.service")
+                .tag("class", Servicio.class.getName())
+                .tag("method", "buscar")
+                .timer().count());
+        // El aspecto solo vería el montaje del Mono; su duración real queda en http.client/server.requests
+        assertNull(meterRegistry.find("productos.service").tag("method", "buscarConStock").timer());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.productosservice.config;
+
+import com.example.productos_service.ProductosServiceApplication;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que /actuator/prometheus publica los histogramas de cada capa (endpoint, servicio, repositorio y
+ * llamada a inventario-service) y que registran las peticiones hechas. Inventario es un sustituto local que
+ * responde 404.
+ */
+@SpringBootTest(classes = ProductosServiceApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability // En los tests Spring Boot no exporta métricas salvo que se pida
+@Testcontainers
+public class PrometheusMetricsIT {
+
+    private static final String API_KEY = "SuperSecretaAPIKeyParaMicroservicios2025!";
+
+    @Container
+    public static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:13.21")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    private static final DisposableServer inventario = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/api/inventario/{productoId}", (request, response) -> response.status(404).send()))
+            .bindNow();
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        dynamicPropertyRegistry.add("spring.datasource.username", postgresContainer::getUsername);
+        dynamicPropertyRegistry.add("spring.datasource.password", postgresContainer::getPassword);
+        dynamicPropertyRegistry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        dynamicPropertyRegistry.add("spring.flyway.enabled", () -> "false");
+        dynamicPropertyRegistry.add("inventario-service.url", () -> "http://localhost:" + inventario.port() + "/api/inventario");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        inventario.disposeNow();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void testPrometheusPublicaLosHistogramasDeCadaCapa() throws Exception {
+        Producto producto = new Producto();
+        producto.setNombre("Teclado");
+        producto.setDescripcion("Teclado mecánico");
+        producto.setPrecio(BigDecimal.valueOf(80));
+        Long id = productoRepository.save(producto).getId();
+
+        mockMvc.perform(get("/api/productos/{id}", id).header("X-API-Key", API_KEY))
+                .andExpect(status().isOk());
+        MvcResult conStock = mockMvc.perform(get("/api/productos/{id}/with-stock", id).header("X-API-Key", API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(conStock)).andExpect(status().isOk());
+
+        String prometheus = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertRegistrada(prometheus, "http_server_requests_seconds", "uri=\"/api/productos/{id}\"", "application=\"productos-service\"");
+        assertRegistrada(prometheus, "http_server_requests_seconds", "uri=\"/api/productos/{id}/with-stock\"");
+        assertRegistrada(prometheus, "productos_service_seconds", "method=\"getProductoById\"");
+        assertRegistrada(prometheus, "spring_data_repository_invocations_seconds", "repository=\"ProductoRepository\"", "method=\"findById\"");
+        assertRegistrada(prometheus, "http_client_requests_seconds", "{productoId}\"", "status=\"404\"");
+    }
+
+    // Hay un histograma con esas etiquetas y su bucket +Inf (todas las medidas) tiene al menos una
+    private static void assertRegistrada(String prometheus, String metrica, String... etiquetas) {
+        boolean registrada = prometheus.lines()
+                .filter(linea -> linea.startsWith(metrica + "_bucket{") && linea.contains("le=\"+Inf\""))
+                .filter(linea -> Arrays.stream(etiquetas).allMatch(linea::contains))
+                .anyMatch(linea -> Double.parseDouble(linea.substring(linea.lastIndexOf(' ') + 1)) >= 1);
+        assertTrue(registrada, metrica + " " + Arrays.toString(etiquetas) + " no aparece en /actuator/prometheus");
+    }
+}
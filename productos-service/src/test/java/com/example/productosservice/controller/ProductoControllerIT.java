@@ -111,5 +111,69 @@ public class ProductoControllerIT {
                 .andExpect(jsonPath("$.data.attributes.nombre", is("Producto Existente")));
     }
 
+    @Test
+    void getAllProductos_withSparseFieldset_shouldOnlyReturnRequestedAttributes() throws Exception {
+        Producto existingProducto = new Producto();
+        existingProducto.setNombre("Producto Ligero");
+        existingProducto.setDescripcion("Descripción que no debe viajar");
+        existingProducto.setPrecio(BigDecimal.valueOf(15.50));
+        productoRepository.save(existingProducto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/productos")
+                        .param("fields[productos]", "nombre,precio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].type", is("productos")))
+                .andExpect(jsonPath("$.data[0].attributes.nombre", is("Producto Ligero")))
+                .andExpect(jsonPath("$.data[0].attributes.precio", is(15.50)))
+                .andExpect(jsonPath("$.data[0].attributes.descripcion").doesNotExist());
+    }
+
+    @Test
+    void getProductoById_withUnknownField_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/productos/{id}", 1L)
+                        .param("fields[productos]", "nombre,inexistente"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductosByIds_shouldReturnRequestedProductsInOrder() throws Exception {
+        Producto primero = new Producto();
+        primero.setNombre("Primero");
+        primero.setDescripcion("Lote");
+        primero.setPrecio(BigDecimal.valueOf(10.00));
+        Producto segundo = new Producto();
+        segundo.setNombre("Segundo");
+        segundo.setDescripcion("Lote");
+        segundo.setPrecio(BigDecimal.valueOf(20.00));
+        Long idPrimero = productoRepository.save(primero).getId();
+        Long idSegundo = productoRepository.save(segundo).getId();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/productos")
+                        .param("filter[id]", idSegundo + "," + idPrimero + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].id", is(idSegundo.toString())))
+                .andExpect(jsonPath("$.data[1].id", is(idPrimero.toString())));
+    }
 
+    @Test
+    void getProductosByIds_withInvalidId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/productos")
+                        .param("filter[id]", "1,abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProductos_shouldReturnServerTimingBreakdown() throws Exception {
+        Producto producto = new Producto();
+        producto.setNombre("Producto Medido");
+        producto.setDescripcion("Server-Timing");
+        producto.setPrecio(BigDecimal.valueOf(5.00));
+        productoRepository.save(producto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/productos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(
+                        "db;dur=[0-9.]+;desc=\"[1-9][0-9]* llamadas?\", downstream;dur=0\\.0;desc=\"0 llamadas\", serialize;dur=[0-9.]+, total;dur=[0-9.]+")));
+    }
 }
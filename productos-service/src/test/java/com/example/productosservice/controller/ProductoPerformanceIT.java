@@ -0,0 +1,130 @@
+package com.example.productosservice.controller;
+
+import com.example.common.performance.PerformanceGate;
+import com.example.productos_service.cache.ProductoResponseCache;
+import com.example.productos_service.client.InventarioServiceClient;
+import com.example.productos_service.client.model.InventarioResponse;
+import com.example.productos_service.controller.ProductoController;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.repository.ProductoRepository;
+import com.example.productos_service.service.impl.ProductoServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Puerta de rendimiento de productos-service (perfil performance): GET de un producto (caché de respuestas),
+ * producto con stock y página del listado a través de ProductoController, hasta los bytes JSON de la
+ * respuesta. El repositorio está en memoria y el cliente de inventario responde al momento, así que se mide
+ * el coste propio del servicio sin base de datos ni red. Ver PerformanceGate.
+ */
+public class ProductoPerformanceIT {
+
+    private static final int PRODUCTOS = 1_000;
+
+    private final List<Producto> productos = new ArrayList<>(PRODUCTOS);
+    private final Pageable pagina = PageRequest.of(0, 20, Sort.by("nombre"));
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(16 * 1024);
+    private final HttpOutputMessage salida = new HttpOutputMessage() {
+        private final HttpHeaders cabeceras = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return cuerpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return cabeceras;
+        }
+    };
+    private ProductoController controller;
+    private JsonApiHttpMessageConverter converter;
+    private long siguiente;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= PRODUCTOS; i++) {
+            Producto producto = new Producto("Producto " + i, "Descripción del producto número " + i + " del catálogo",
+                    BigDecimal.valueOf(1_000 + i * 37L, 2));
+            producto.setId((long) i);
+            productos.add(producto);
+        }
+        List<Producto> primeraPagina = productos.stream().sorted(Comparator.comparing(Producto::getNombre)).limit(pagina.getPageSize()).toList();
+        // stubOnly: Mockito no guarda las invocaciones de las rondas de medición
+        ProductoRepository repositorio = mock(ProductoRepository.class, withSettings().stubOnly());
+        when(repositorio.findById(anyLong()))
+                .thenAnswer(invocacion -> Optional.of(productos.get((int) (long) invocacion.<Long>getArgument(0) - 1)));
+        when(repositorio.findAll(any(Pageable.class)))
+                .thenAnswer(invocacion -> new PageImpl<>(primeraPagina, invocacion.getArgument(0), PRODUCTOS));
+        // Inventario que responde sin red: la llamada real se mide en InventarioServiceClientLoadIT y en el módulo benchmarks
+        InventarioServiceClient inventario = mock(InventarioServiceClient.class, withSettings().stubOnly());
+        when(inventario.obtenerInventarioPorProductoId(anyLong())).thenAnswer(invocacion -> {
+            Long productoId = invocacion.getArgument(0);
+            return Mono.just(new InventarioResponse(productoId, productoId, 100));
+        });
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ProductoResponseCache cache = new ProductoResponseCache(json, true, 16 * 1024 * 1024, true);
+        ProductoServiceImpl servicio = new ProductoServiceImpl();
+        ReflectionTestUtils.setField(servicio, "productoRepository", repositorio);
+        ReflectionTestUtils.setField(servicio, "inventarioServiceClient", inventario);
+        ReflectionTestUtils.setField(servicio, "productoResponseCache", cache);
+
+        controller = new ProductoController();
+        ReflectionTestUtils.setField(controller, "productoService", servicio);
+        ReflectionTestUtils.setField(controller, "productoResponseCache", cache);
+        converter = new JsonApiHttpMessageConverter(json, Jackson2ObjectMapperBuilder.smile().build());
+    }
+
+    @Test
+    void testSinRegresionesDeRendimiento() throws Exception {
+        PerformanceGate gate = new PerformanceGate("productos-service");
+
+        gate.medir("producto.get", () -> escribir(controller.getProductoById(siguienteProducto(), null, null)));
+        gate.medir("producto.with-stock", () -> escribir(controller.getProductoByIdWithStock(siguienteProducto()).block()));
+        gate.medir("productos.page", () -> escribir(controller.getAllProductos(pagina, null)));
+
+        gate.verificar();
+    }
+
+    // Recorre los productos en orden para no medir siempre la misma entrada
+    private long siguienteProducto() {
+        return siguiente++ % PRODUCTOS + 1;
+    }
+
+    private int escribir(ResponseEntity<JsonApiDocument> respuesta) throws Exception {
+        assertEquals(200, respuesta.getStatusCode().value());
+        cuerpo.reset();
+        converter.write(respuesta.getBody(), MediaType.APPLICATION_JSON, salida);
+        return cuerpo.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productosservice.jfr;
+
+import com.example.common.jfr.EventoMedido;
+import com.example.common.jfr.MedicionJfr;
+import com.example.productos_service.jfr.InventarioServiceCallEvent;
+import com.example.productos_service.jfr.JfrEventos;
+import com.example.productos_service.jfr.ProductoConStockEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrEventosTest {
+
+    @Test
+    void testCadaResultadoQuedaEnLaGrabacion() throws Exception {
+        Path fichero = Files.createTempFile("jfr-eventos-test-", ".jfr");
+        try (Recording grabacion = new Recording()) {
+            JfrEventos.TIPOS.forEach(grabacion::enable);
+            grabacion.start();
+
+            MedicionJfr.medir(() -> new ProductoConStockEvent(1L), evento -> Mono.just(25)
+                    .doOnNext(stock -> evento.stockDisponible = stock)).block();
+            MedicionJfr.medir(() -> new ProductoConStockEvent(2L), evento -> Mono.empty()).block();
+            MedicionJfr.medir(() -> new InventarioServiceCallEvent("PUT /api/inventario/comprar", 3L, 5),
+                    evento -> Mono.error(new IllegalArgumentException("sin stock")))
+                    .onErrorResume(e -> Mono.empty()).block();
+            Disposable cancelada = MedicionJfr.medir(() -> new InventarioServiceCallEvent("GET /api/inventario/{productoId}", 4L, 0),
+                    evento -> Mono.never()).subscribe();
+            cancelada.dispose();
+
+            grabacion.stop();
+            grabacion.dump(fichero);
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(fichero).stream()
+                .filter(evento -> evento.getEventType().getName().startsWith("com.example.productos."))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+        Files.deleteIfExists(fichero);
+
+        assertEquals(List.of(EventoMedido.OK, EventoMedido.VACIO, "IllegalArgumentException", EventoMedido.CANCELADO),
+                eventos.stream().map(evento -> evento.getString("resultado")).toList());
+        assertEquals(25, eventos.get(0).getInt("stockDisponible"));
+        assertEquals(-1, eventos.get(1).getInt("stockDisponible"));
+        assertEquals("com.example.productos.InventarioServiceCall", eventos.get(2).getEventType().getName());
+        assertEquals(5, eventos.get(2).getInt("cantidad"));
+        assertEquals(4L, eventos.get(3).getLong("productoId"));
+    }
+
+    @Test
+    void testSinGrabacionLaOperacionNoCambia() {
+        AtomicInteger suscripciones = new AtomicInteger();
+
+        Integer valor = MedicionJfr.medir(() -> new ProductoConStockEvent(1L),
+                evento -> Mono.fromCallable(suscripciones::incrementAndGet)).block();
+
+        assertFalse(new ProductoConStockEvent(1L).isEnabled());
+        assertEquals(1, valor);
+        assertEquals(1, suscripciones.get());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.productosservice.jsonapi;
+
+import com.example.productos_service.jsonapi.JsonApiData;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiResponse;
+import com.example.productos_service.jsonapi.ProductoAttributes;
+import com.example.productos_service.jsonapi.ProductoConStockAttributes;
+import com.example.productos_service.jsonapi.ProductoConStockJsonApi;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.common.jsonapi.SparseFieldset;
+import com.example.productos_service.model.Producto;
+import com.example.productos_service.model.ProductoConStockDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El escritor en streaming debe producir exactamente los mismos bytes que Jackson
+ * serializando JsonApiResponse/JsonApiData, que es el formato que ya consumen los clientes.
+ */
+public class JsonApiDocumentTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testProductoIgualQueJsonApiResponse() throws Exception {
+        Producto producto = producto(1L, "Laptop \"Pro\" ñ", "Con\nsalto y \u0001 control", new BigDecimal("1200.50"));
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data(producto))),
+                write(JsonApiDocument.of(ProductoJsonApi.INSTANCE, producto)));
+    }
+
+    @Test
+    void testProductoConAtributosNulosIgualQueJsonApiResponse() throws Exception {
+        Producto producto = producto(null, null, null, null); // El id nulo se omite, los atributos nulos no
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data(producto))),
+                write(JsonApiDocument.of(ProductoJsonApi.INSTANCE, producto)));
+    }
+
+    @Test
+    void testListaDeProductosIgualQueJsonApiResponse() throws Exception {
+        List<Producto> productos = Arrays.asList(
+                producto(1L, "Laptop", "Portátil", new BigDecimal("1200.00")),
+                producto(Long.MAX_VALUE, "Mouse", null, new BigDecimal("25E+2")),
+                producto(0L, "", "", BigDecimal.ZERO));
+        List<JsonApiData<ProductoAttributes>> data = productos.stream().map(this::data).collect(Collectors.toList());
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(data)),
+                write(JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all())));
+    }
+
+    @Test
+    void testListaVaciaIgualQueJsonApiResponse() throws Exception {
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(List.of())),
+                write(JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, List.of(), SparseFieldset.all())));
+    }
+
+    @Test
+    void testProductoConStockIgualQueJsonApiResponse() throws Exception {
+        ProductoConStockDTO dto = new ProductoConStockDTO(producto(5L, "Teclado", "Mecánico", new BigDecimal("75.00")));
+        dto.setStockDisponible(null);
+        ProductoConStockAttributes attributes = new ProductoConStockAttributes(
+                dto.getNombre(), dto.getDescripcion(), dto.getPrecio(), dto.getStockDisponible());
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(response(new JsonApiData<>("5", "productos-con-stock", attributes))),
+                write(JsonApiDocument.of(ProductoConStockJsonApi.INSTANCE, dto)));
+    }
+
+    @Test
+    void testSparseFieldsetSoloEscribeLosAtributosPedidos() throws Exception {
+        Producto producto = producto(7L, "Laptop", "Portátil", new BigDecimal("1200.00"));
+        SparseFieldset fieldset = SparseFieldset.parse("precio,nombre", ProductoJsonApi.FIELDS);
+
+        String json = new String(write(JsonApiDocument.of(ProductoJsonApi.INSTANCE, producto, fieldset)), "UTF-8");
+
+        // El orden de los atributos es el del recurso, no el de la query
+        assertEquals("{\"data\":{\"id\":\"7\",\"type\":\"productos\",\"attributes\":{\"nombre\":\"Laptop\",\"precio\":1200.00}}}", json);
+    }
+
+    @Test
+    void testSmileIgualQueJsonApiResponse() throws Exception {
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        List<Producto> productos = Arrays.asList(
+                producto(1L, "Laptop", "Portátil", new BigDecimal("1200.00")),
+                producto(2L, "Mouse", null, new BigDecimal("25.50")));
+        List<JsonApiData<ProductoAttributes>> data = productos.stream().map(this::data).collect(Collectors.toList());
+
+        assertArrayEquals(
+                smileMapper.writeValueAsBytes(response(data)),
+                write(smileMapper, JsonApiDocument.ofList(ProductoJsonApi.INSTANCE, productos, SparseFieldset.all())));
+    }
+
+    private byte[] write(JsonApiDocument document) throws Exception {
+        return write(objectMapper, document);
+    }
+
+    private byte[] write(ObjectMapper mapper, JsonApiDocument document) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.createGenerator(out, JsonEncoding.UTF8)) {
+            document.writeTo(generator);
+        }
+        return out.toByteArray();
+    }
+
+    private Producto producto(Long id, String nombre, String descripcion, BigDecimal precio) {
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        producto.setDescripcion(descripcion);
+        producto.setPrecio(precio);
+        return producto;
+    }
+
+    private JsonApiData<ProductoAttributes> data(Producto producto) {
+        return new JsonApiData<>(
+                producto.getId() == null ? null : producto.getId().toString(),
+                "productos",
+                new ProductoAttributes(producto.getNombre(), producto.getDescripcion(), producto.getPrecio()));
+    }
+
+    private JsonApiResponse<Object> response(Object data) {
+        JsonApiResponse<Object> response = new JsonApiResponse<>();
+        response.setData(data);
+        return response;
+    }
+}
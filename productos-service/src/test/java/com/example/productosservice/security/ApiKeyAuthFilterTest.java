@@ -0,0 +1,112 @@
+package com.example.productosservice.security;
+
+import com.example.productos_service.security.ApiKeyAuthFilter;
+import com.example.productos_service.security.ApiKeyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiKeyAuthFilterTest {
+
+    private ApiKeyProperties properties;
+    private MeterRegistry meterRegistry;
+    private int atendidas;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApiKeyProperties();
+        properties.setApiKey("clave-inventario");
+        ApiKeyProperties.Key informes = new ApiKeyProperties.Key();
+        informes.setName("informes");
+        informes.setValue("clave-informes");
+        informes.setRatePerSecond(0.01); // Una petición cada 100 s
+        informes.setBurst(2);
+        properties.getKeys().add(informes);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testSinClaveOConClaveIncorrectaResponde401() throws Exception {
+        ApiKeyAuthFilter filter = new ApiKeyAuthFilter(properties, meterRegistry);
+
+        assertEquals(401, filtrar(filter, null).getStatus());
+        assertEquals(401, filtrar(filter, "").getStatus());
+        assertEquals(401, filtrar(filter, "clave-inventari").getStatus());
+        assertEquals(401, filtrar(filter, "clave-inventarioX").getStatus());
+        assertEquals(0, atendidas);
+    }
+
+    @Test
+    void testCadaClaveConfiguradaEsValida() throws Exception {
+        ApiKeyAuthFilter filter = new ApiKeyAuthFilter(properties, meterRegistry);
+
+        assertEquals(200, filtrar(filter, "clave-inventario").getStatus());
+        assertEquals(200, filtrar(filter, "clave-informes").getStatus());
+        assertEquals(2, atendidas);
+    }
+
+    @Test
+    void testAlAgotarLaCuotaResponde429ConRetryAfter() throws Exception {
+        ApiKeyAuthFilter filter = new ApiKeyAuthFilter(properties, meterRegistry);
+        filtrar(filter, "clave-informes");
+        filtrar(filter, "clave-informes");
+
+        MockHttpServletResponse response = filtrar(filter, "clave-informes");
+
+        assertEquals(429, response.getStatus());
+        long retryAfter = Long.parseLong(response.getHeader("Retry-After"));
+        assertTrue(retryAfter > 0 && retryAfter <= 100, "Retry-After: " + retryAfter);
+        assertEquals(2, atendidas);
+        // La cuota es por clave: la de inventario sigue pasando
+        assertEquals(200, filtrar(filter, "clave-inventario").getStatus());
+    }
+
+    @Test
+    void testMetricasPorClave() throws Exception {
+        ApiKeyAuthFilter filter = new ApiKeyAuthFilter(properties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            filtrar(filter, "clave-informes");
+        }
+        filtrar(filter, "clave-inventario");
+
+        assertEquals(2, contador("informes", "accepted"));
+        assertEquals(1, contador("informes", "rejected"));
+        assertEquals(1, contador("default", "accepted"));
+        assertEquals(0, contador("default", "rejected"));
+    }
+
+    @Test
+    void testActuatorNoNecesitaClave() throws Exception {
+        ApiKeyAuthFilter filter = new ApiKeyAuthFilter(properties, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> atendidas++);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, atendidas);
+    }
+
+    private MockHttpServletResponse filtrar(ApiKeyAuthFilter filter, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos/1");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> atendidas++);
+        return response;
+    }
+
+    private double contador(String cliente, String resultado) {
+        return meterRegistry.get("productos.apikey.requests")
+                .tag("client", cliente)
+                .tag("outcome", resultado)
+                .functionCounter()
+                .count();
+    }
+}
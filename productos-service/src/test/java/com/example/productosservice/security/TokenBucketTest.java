@@ -0,0 +1,81 @@
+package com.example.productosservice.security;
+
+import com.example.productos_service.security.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testAdmiteLaRafagaYDespuesRechaza() {
+        TokenBucket cubeta = new TokenBucket(10, 5);
+        long ahora = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, cubeta.intentar(ahora));
+        }
+        long espera = cubeta.intentar(ahora);
+        // Con 10 por segundo el siguiente token llega en 100 ms
+        assertTrue(espera > 0 && espera <= SEGUNDO / 10, "espera " + espera);
+    }
+
+    @Test
+    void testSeReponeALaTasaConfigurada() {
+        TokenBucket cubeta = new TokenBucket(10, 1);
+        long ahora = System.nanoTime();
+        assertEquals(0, cubeta.intentar(ahora));
+        assertTrue(cubeta.intentar(ahora) > 0);
+
+        assertTrue(cubeta.intentar(ahora + SEGUNDO / 20) > 0);
+        assertEquals(0, cubeta.intentar(ahora + SEGUNDO / 10));
+    }
+
+    @Test
+    void testLosRechazosNoConsumen() {
+        TokenBucket cubeta = new TokenBucket(10, 1);
+        long ahora = System.nanoTime();
+        cubeta.intentar(ahora);
+        for (int i = 0; i < 1_000; i++) {
+            cubeta.intentar(ahora);
+        }
+
+        assertEquals(0, cubeta.intentar(ahora + SEGUNDO / 10));
+    }
+
+    @Test
+    void testConMuchosHilosNoSeSuperaLaRafaga() throws InterruptedException {
+        // Tasa casi nula: en la duración del test solo pueden pasar los 1.000 tokens de la ráfaga
+        TokenBucket cubeta = new TokenBucket(0.001, 1_000);
+        AtomicInteger aceptadas = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] hilos = new Thread[16];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    if (cubeta.intentar() == 0) {
+                        aceptadas.incrementAndGet();
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+        salida.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(1_000, aceptadas.get());
+    }
+}
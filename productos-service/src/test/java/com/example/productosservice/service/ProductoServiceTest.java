@@ -1,7 +1,10 @@
 package com.example.productosservice.service;
 
+import com.example.common.exception.DeadlineExceededException;
+import com.example.productos_service.cache.ProductoResponseCache;
 import com.example.productos_service.client.InventarioServiceClient;
 import com.example.productos_service.client.model.InventarioResponse;
+import com.example.productos_service.exception.InventarioNoDisponibleException;
 import com.example.productos_service.exception.ResourceNotFoundException;
 import com.example.productos_service.model.Producto;
 import com.example.productos_service.model.ProductoConStockDTO;
@@ -39,6 +42,9 @@ public class ProductoServiceTest {
     @Mock
     private InventarioServiceClient inventarioServiceClient;
 
+    @Mock
+    private ProductoResponseCache productoResponseCache;
+
     @InjectMocks
     private ProductoServiceImpl productoService;
 
@@ -82,6 +88,7 @@ public class ProductoServiceTest {
 
         assertEquals(producto.getId(), productoIdCaptor.getValue());
         assertEquals(0, cantidadCaptor.getValue());
+        verify(productoResponseCache, times(1)).evict(producto.getId());
     }
 
     @Test
@@ -163,6 +170,37 @@ public class ProductoServiceTest {
         verify(inventarioServiceClient, times(1)).obtenerInventarioPorProductoId(1L);
     }
 
+    @Test
+    void testGetProductoByIdWithStockInventarioNoDisponible() {
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        when(inventarioServiceClient.obtenerInventarioPorProductoId(1L))
+                .thenReturn(Mono.error(new InventarioNoDisponibleException("Circuito abierto hacia inventario-service")));
+
+        Mono<ProductoConStockDTO> resultMono = productoService.getProductoByIdWithStock(1L);
+
+        // Con el circuito abierto el stock es desconocido (null), no 0
+        StepVerifier.create(resultMono)
+                .expectNextMatches(dto ->
+                        dto.getId().equals(1L) &&
+                                dto.getStockDisponible() == null
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetProductoByIdWithStockDeadlineVencido() {
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        when(inventarioServiceClient.obtenerInventarioPorProductoId(1L))
+                .thenReturn(Mono.error(new DeadlineExceededException("Deadline vencido esperando a inventario-service")));
+
+        // Sin tiempo para esperar a inventario: stock desconocido (null), no 0
+        StepVerifier.create(productoService.getProductoByIdWithStock(1L))
+                .expectNextMatches(dto -> dto.getId().equals(1L) && dto.getStockDisponible() == null)
+                .verifyComplete();
+    }
+
     @Test
     void testReducirStockProductoSuccess() {
         // 1. Mockear la llamada a inventarioServiceClient.reducirStock
@@ -221,6 +259,21 @@ public class ProductoServiceTest {
         verify(inventarioServiceClient, never()).obtenerInventarioPorProductoId(anyLong());
     }
 
+    @Test
+    void testReducirStockProductoInventarioNoDisponible() {
+        when(inventarioServiceClient.reducirStock(1L, 5))
+                .thenReturn(Mono.error(new InventarioNoDisponibleException("Circuito abierto hacia inventario-service")));
+
+        Mono<ProductoConStockDTO> resultMono = productoService.reducirStockProducto(1L, 5);
+
+        // No se convierte en IllegalArgumentException (400): el controlador responde 503
+        StepVerifier.create(resultMono)
+                .expectError(InventarioNoDisponibleException.class)
+                .verify();
+
+        verify(productoRepository, never()).findById(anyLong());
+    }
+
     @Test
     void testReducirStockProductoNotFoundOrInventarioProblem() {
         when(inventarioServiceClient.reducirStock(99L, 5))
@@ -273,6 +326,7 @@ public class ProductoServiceTest {
         assertDoesNotThrow(() -> productoService.deleteProducto(1L));
         verify(productoRepository, times(1)).findById(1L);
         verify(productoRepository, times(1)).deleteById(1L);
+        verify(productoResponseCache, times(1)).evict(1L);
     }
 
     @Test
@@ -282,6 +336,7 @@ public class ProductoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> productoService.deleteProducto(1L));
         verify(productoRepository, times(1)).findById(1L);
         verify(productoRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(productoResponseCache);
     }
 
     @Test
@@ -313,4 +368,17 @@ public class ProductoServiceTest {
         assertTrue(result.isEmpty());
         verify(productoRepository, times(1)).findAll(pageable);
     }
+
+    @Test
+    void testGetProductosByIdsConservaElOrdenYOmiteLosInexistentes() {
+        // La base de datos no garantiza el orden del IN
+        when(productoRepository.findAllById(List.of(2L, 99L, 1L))).thenReturn(Arrays.asList(producto, otroProducto));
+
+        List<Producto> result = productoService.getProductosByIds(List.of(2L, 99L, 1L));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        verify(productoRepository, times(1)).findAllById(List.of(2L, 99L, 1L));
+    }
 }
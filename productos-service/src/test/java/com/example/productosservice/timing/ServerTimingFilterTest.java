@@ -0,0 +1,110 @@
+package com.example.productosservice.timing;
+
+import com.example.common.timing.RequestTiming;
+import com.example.common.timing.ServerTimingFilter;
+import com.example.common.timing.SlowRequestLog;
+import com.example.productos_service.jsonapi.JsonApiDocument;
+import com.example.productos_service.jsonapi.JsonApiHttpMessageConverter;
+import com.example.productos_service.jsonapi.ProductoJsonApi;
+import com.example.productos_service.model.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerTimingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testLaCabeceraLlevaElDesgloseDeLaPeticion() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(new SlowRequestLog(Duration.ofHours(1), 5, meterRegistry), 20);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/productos/1/with-stock"), response, (req, res) -> {
+            RequestTiming timing = RequestTiming.actual();
+            timing.registrarRepositorio(TimeUnit.MILLISECONDS.toNanos(12));
+            timing.registrarRepositorio(TimeUnit.MILLISECONDS.toNanos(3));
+            timing.registrarLlamada(TimeUnit.MILLISECONDS.toNanos(40));
+            res.getOutputStream().write("{}".getBytes());
+        });
+
+        String cabecera = response.getHeader(RequestTiming.HEADER);
+        assertNotNull(cabecera);
+        assertTrue(cabecera.startsWith("db;dur=15.0;desc=\"2 llamadas\", downstream;dur=40.0;desc=\"1 llamada\", serialize;dur=0.0, total;dur="),
+                cabecera);
+        // Fuera de la petición no queda desglose en el hilo
+        assertNull(RequestTiming.actual());
+    }
+
+    @Test
+    void testLaSerializacionSeMideAntesDeEscribirLaCabecera() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(new SlowRequestLog(Duration.ofHours(1), 5, meterRegistry), 20);
+        JsonApiHttpMessageConverter converter = new JsonApiHttpMessageConverter(new ObjectMapper(), Jackson2ObjectMapperBuilder.smile().build());
+        Producto producto = new Producto();
+        producto.setId(1L);
+        producto.setNombre("Teclado");
+        producto.setPrecio(BigDecimal.valueOf(25));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/productos"), response, (req, res) ->
+                converter.write(JsonApiDocument.of(ProductoJsonApi.INSTANCE, producto), MediaType.APPLICATION_JSON,
+                        new ServletServerHttpResponse((HttpServletResponse) res)));
+
+        assertTrue(response.getContentAsString().contains("\"Teclado\""));
+        assertTrue(response.getHeader(RequestTiming.HEADER).matches(".*serialize;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"),
+                response.getHeader(RequestTiming.HEADER));
+    }
+
+    @Test
+    void testLasRespuestasSinCuerpoTambienLlevanLaCabecera() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(new SlowRequestLog(Duration.ofHours(1), 5, meterRegistry), 20);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/productos/1"), response,
+                (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertEquals(204, response.getStatus());
+        assertTrue(response.getHeader(RequestTiming.HEADER).startsWith("db;dur=0.0"));
+    }
+
+    @Test
+    void testLasPeticionesLentasSeRegistranConUnCupoPorSegundo() {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ZERO, 2, meterRegistry);
+        RequestTiming timing = new RequestTiming(2);
+        for (int i = 0; i < 3; i++) {
+            timing.registrarSentencia("select p1_0.id from productos p1_0 where p1_0.id=?");
+        }
+
+        int registradas = 0;
+        for (int i = 0; i < 10; i++) {
+            registradas += slowRequestLog.registrar("GET /api/productos", 200, timing) ? 1 : 0;
+        }
+
+        assertEquals(2, registradas);
+        assertEquals(2.0, meterRegistry.get("http.server.slow.requests").tag("logged", "true").functionCounter().count());
+        assertEquals(8.0, meterRegistry.get("http.server.slow.requests").tag("logged", "false").functionCounter().count());
+        // Las sentencias se guardan hasta max-statements; el resto solo se cuenta
+        assertEquals(2, timing.getSentencias().size());
+        assertEquals(3, timing.getNumSentencias());
+    }
+
+    @Test
+    void testLasPeticionesRapidasNoSeRegistran() {
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ofSeconds(1), 2, meterRegistry);
+
+        assertFalse(slowRequestLog.registrar("GET /api/productos/1", 200, new RequestTiming(20)));
+        assertEquals(0.0, meterRegistry.get("http.server.slow.requests").tag("logged", "false").functionCounter().count());
+    }
+}